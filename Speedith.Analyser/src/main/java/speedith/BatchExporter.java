@@ -0,0 +1,304 @@
+package speedith;
+
+import org.apache.commons.cli.*;
+import speedith.cli.ExportOptions;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.export.Isabelle2011ExportProvider;
+import speedith.core.lang.export.SDExporter;
+import speedith.core.lang.export.SDExporting;
+import speedith.core.lang.reader.SpiderDiagramsBulkReader;
+import speedith.core.reasoning.binary.CorpusStore;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Command line tool that exports many spider diagrams at once. The diagrams
+ * are taken from a directory of spider diagram files (*.sd, *.sdt) or from a
+ * corpus file (see {@link CorpusBuilder}) and are exported in parallel. The
+ * formulae are written either to one file per diagram or into a single
+ * combined file (an Isabelle theory for the Isabelle format). The throughput
+ * and all failures are reported at the end.
+ */
+public class BatchExporter {
+
+    /**
+     * Every task exports at most this many diagrams without forking.
+     */
+    private static final int DIAGRAMS_PER_TASK = 8;
+    /**
+     * In combined mode, the diagrams are exported in windows of this many
+     * diagrams. Only the formulae of one window are kept in memory.
+     */
+    private static final int DIAGRAMS_PER_WINDOW = 1024;
+    private static final PathMatcher SPIDER_DIAGRAM_FILES = FileSystems.getDefault().getPathMatcher("glob:**.{sd,sdt}");
+
+    public static void main(String[] args) {
+        ExportOptions options = new ExportOptions();
+        CommandLineParser parser = new BasicParser();
+        HelpFormatter help = new HelpFormatter();
+        String usage = "batch-export [-R] [-t threads] <-i input dir, file or corpus> <-f format> [-a format arguments] <-o output dir | -c combined file>";
+
+        try {
+            CommandLine line = parser.parse(options, args);
+            if (!line.hasOption(ExportOptions.INPUT_SHORT) || !line.hasOption(ExportOptions.FORMAT_SHORT)
+                    || line.hasOption(ExportOptions.OUTPUT_SHORT) == line.hasOption(ExportOptions.COMBINED_SHORT)) {
+                help.printHelp(usage, options);
+                return;
+            }
+            String format = line.getOptionValue(ExportOptions.FORMAT_SHORT);
+            Map<String, String> formatArguments = parseKeyValues(line.getOptionValue(ExportOptions.FORMAT_ARGUMENTS_SHORT));
+            if (SDExporting.getExporter(format, formatArguments) == null) {
+                System.out.println("Unknown export format: " + format + ". Known formats: " + SDExporting.getSupportedFormats());
+                return;
+            }
+            int threads = line.hasOption(ExportOptions.THREADS_SHORT) ? Integer.parseInt(line.getOptionValue(ExportOptions.THREADS_SHORT)) : Runtime.getRuntime().availableProcessors();
+            if (threads < 1) {
+                help.printHelp(usage, options);
+                return;
+            }
+            File outputDirectory = line.hasOption(ExportOptions.OUTPUT_SHORT) ? new File(line.getOptionValue(ExportOptions.OUTPUT_SHORT)) : null;
+            ForkJoinPool pool = new ForkJoinPool(threads);
+
+            long start = System.nanoTime();
+            File input = new File(line.getOptionValue(ExportOptions.INPUT_SHORT));
+            Entry[] entries;
+            CorpusStore corpus = null;
+            try {
+                if (input.isDirectory()) {
+                    entries = readDirectory(input, line.hasOption(ExportOptions.RECURSIVE_SHORT), pool);
+                } else if (SPIDER_DIAGRAM_FILES.matches(input.toPath())) {
+                    entries = readFiles(input.getParentFile(), Collections.singletonList(input), pool);
+                } else {
+                    corpus = new CorpusStore(input);
+                    entries = listCorpus(corpus);
+                }
+                if (outputDirectory == null) {
+                    exportCombined(new File(line.getOptionValue(ExportOptions.COMBINED_SHORT)), format, formatArguments, entries, pool);
+                } else {
+                    pool.invoke(new ExportTask(entries, format, formatArguments, outputDirectory, 0, entries.length));
+                }
+            } finally {
+                if (corpus != null) {
+                    corpus.close();
+                }
+            }
+            report(entries, System.nanoTime() - start);
+        } catch (ParseException | NumberFormatException e) {
+            help.printHelp(usage, options);
+        } catch (NoSuchFileException | FileNotFoundException e) {
+            System.out.println("No file with this name exists: " + e.getLocalizedMessage());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // <editor-fold defaultstate="collapsed" desc="Reading">
+    private static Entry[] readDirectory(File directory, boolean recursive, ForkJoinPool pool) throws IOException {
+        return readFiles(directory, SpiderDiagramsBulkReader.listFiles(directory, recursive), pool);
+    }
+
+    /**
+     * Reads the given files in parallel. The entries are named by the paths of
+     * the files relative to the given directory.
+     */
+    private static Entry[] readFiles(File directory, List<File> files, ForkJoinPool pool) {
+        List<SpiderDiagramsBulkReader.Result> results = SpiderDiagramsBulkReader.readFiles(files, pool);
+        Path base = (directory == null ? new File(".") : directory).toPath();
+        Entry[] entries = new Entry[results.size()];
+        for (int i = 0; i < entries.length; i++) {
+            SpiderDiagramsBulkReader.Result result = results.get(i);
+            entries[i] = new Entry(base.relativize(result.getFile().toPath()).toString());
+            entries[i].spiderDiagram = result.getSpiderDiagram();
+            entries[i].error = result.getError();
+        }
+        return entries;
+    }
+
+    /**
+     * Lists the diagrams of the corpus. The diagrams are read by the export
+     * tasks (proofs in the corpus are skipped).
+     */
+    private static Entry[] listCorpus(CorpusStore corpus) throws IOException {
+        ArrayList<Entry> entries = new ArrayList<>();
+        for (int id = 0; id < corpus.size(); id++) {
+            if (!corpus.isProof(id)) {
+                Entry entry = new Entry(corpus.getName(id));
+                entry.corpus = corpus;
+                entry.corpusId = id;
+                entries.add(entry);
+            }
+        }
+        return entries.toArray(new Entry[entries.size()]);
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Writing">
+    /**
+     * Exports all diagrams into a single file. The Isabelle formats get a
+     * theory with one (unproven) lemma per diagram, other formats get one
+     * formula per line. <p>The diagrams are exported in parallel, one window
+     * at a time. The formulae of a window are written (and released) before
+     * the next window is exported.</p>
+     */
+    private static void exportCombined(File output, String format, Map<String, String> formatArguments, Entry[] entries, ForkJoinPool pool) throws IOException {
+        boolean isabelle = Isabelle2011ExportProvider.FormatName.equals(format);
+        try (Writer writer = Files.newBufferedWriter(output.toPath(), StandardCharsets.UTF_8)) {
+            if (isabelle) {
+                writer.write("theory " + theoryName(output) + "\nimports Main\nbegin\n");
+            }
+            for (int from = 0; from < entries.length; from += DIAGRAMS_PER_WINDOW) {
+                int to = Math.min(entries.length, from + DIAGRAMS_PER_WINDOW);
+                pool.invoke(new ExportTask(entries, format, formatArguments, null, from, to));
+                for (int i = from; i < to; i++) {
+                    Entry entry = entries[i];
+                    if (entry.formula == null) {
+                        continue;
+                    }
+                    if (isabelle) {
+                        writer.write("\n(* " + entry.name.replace("*)", "* )") + " *)\nlemma \"" + entry.formula + "\"\n  oops\n");
+                    } else {
+                        writer.write(entry.formula);
+                        writer.write('\n');
+                    }
+                    entry.formula = null;
+                }
+            }
+            if (isabelle) {
+                writer.write("\nend\n");
+            }
+        }
+    }
+
+    /**
+     * Isabelle requires the name of a theory to be the name of its file.
+     */
+    private static String theoryName(File output) {
+        String name = output.getName();
+        int extension = name.lastIndexOf('.');
+        return extension > 0 ? name.substring(0, extension) : name;
+    }
+
+    private static void writeFormula(File outputDirectory, String format, Entry entry) throws IOException {
+        File output = new File(outputDirectory, entry.name + "." + format.toLowerCase(Locale.ENGLISH));
+        File parent = output.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs() && !parent.isDirectory()) {
+            throw new IOException("Could not create the directory " + parent);
+        }
+        try (Writer writer = Files.newBufferedWriter(output.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(entry.formula);
+            writer.write('\n');
+        }
+    }
+
+    private static void report(Entry[] entries, long nanos) {
+        int exported = 0;
+        for (Entry entry : entries) {
+            if (entry.error == null) {
+                exported++;
+            } else {
+                System.out.println("Could not export " + entry.name + ": " + entry.error.getLocalizedMessage());
+            }
+        }
+        double seconds = nanos / 1e9;
+        System.out.println(String.format(Locale.ENGLISH, "Exported %d of %d diagrams (%d failed) in %.2f s: %.1f diagrams/s.",
+                exported, entries.length, entries.length - exported, seconds, seconds > 0 ? exported / seconds : 0.0));
+    }
+
+    private static Map<String, String> parseKeyValues(String value) {
+        if (value == null) {
+            return null;
+        }
+        HashMap<String, String> keyValues = new HashMap<>();
+        for (String pair : value.split(",")) {
+            String[] splitPair = pair.split("=", 2);
+            if (!splitPair[0].isEmpty()) {
+                keyValues.put(splitPair[0], splitPair.length > 1 ? splitPair[1] : null);
+            }
+        }
+        return keyValues;
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Private Helper Classes">
+    /**
+     * A single diagram to export: its name, the diagram (or where to read it
+     * from) and the outcome of the export.
+     */
+    private static class Entry {
+
+        final String name;
+        CorpusStore corpus;
+        int corpusId;
+        SpiderDiagram spiderDiagram;
+        String formula;
+        Exception error;
+
+        Entry(String name) {
+            this.name = name;
+        }
+    }
+
+    private static class ExportTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 4629573260781163512L;
+        private final Entry[] entries;
+        private final String format;
+        private final Map<String, String> formatArguments;
+        private final File outputDirectory;
+        private final int from;
+        private final int to;
+
+        ExportTask(Entry[] entries, String format, Map<String, String> formatArguments, File outputDirectory, int from, int to) {
+            this.entries = entries;
+            this.format = format;
+            this.formatArguments = formatArguments;
+            this.outputDirectory = outputDirectory;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= DIAGRAMS_PER_TASK) {
+                // Exporters are not required to be thread-safe.
+                SDExporter exporter = SDExporting.getExporter(format, formatArguments);
+                for (int i = from; i < to; i++) {
+                    export(exporter, entries[i]);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ExportTask(entries, format, formatArguments, outputDirectory, from, middle),
+                        new ExportTask(entries, format, formatArguments, outputDirectory, middle, to));
+            }
+        }
+
+        private void export(SDExporter exporter, Entry entry) {
+            if (entry.error != null) {
+                return;
+            }
+            try {
+                if (entry.corpus != null) {
+                    entry.spiderDiagram = entry.corpus.readDiagram(entry.corpusId);
+                }
+                entry.formula = exporter.export(entry.spiderDiagram);
+                if (outputDirectory != null) {
+                    writeFormula(outputDirectory, format, entry);
+                    entry.formula = null;
+                }
+            } catch (Exception e) {
+                // Exporters report unsupported diagrams with runtime
+                // exceptions too.
+                entry.error = e;
+            } finally {
+                // Only the outcome is needed for the report.
+                entry.spiderDiagram = null;
+            }
+        }
+    }
+    // </editor-fold>
+}
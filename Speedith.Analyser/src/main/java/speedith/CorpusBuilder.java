@@ -0,0 +1,92 @@
+package speedith;
+
+import org.apache.commons.cli.*;
+import speedith.cli.CorpusOptions;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.reader.ReadingException;
+import speedith.core.lang.reader.SpiderDiagramStream;
+import speedith.core.lang.reader.SpiderDiagramsReader;
+import speedith.core.reasoning.binary.CorpusWriter;
+import speedith.core.reasoning.binary.ProofFiles;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.EnumSet;
+
+/**
+ * Command line tool that collects spider diagram files (*.sdt) and proof files
+ * (*.prf) into a single corpus file. The entries are named by the paths of
+ * the files relative to the input directory. Spider diagram files may contain
+ * more than one diagram; they are read one diagram at a time. If the corpus file already
+ * exists, the new entries are appended to it.
+ */
+public class CorpusBuilder {
+
+    public static void main(String[] args) {
+        CorpusOptions options = new CorpusOptions();
+        CommandLineParser parser = new BasicParser();
+        HelpFormatter help = new HelpFormatter();
+
+        try {
+            CommandLine line = parser.parse(options, args);
+            if (!line.hasOption(CorpusOptions.INPUT_SHORT) || !line.hasOption(CorpusOptions.OUTPUT_SHORT)) {
+                help.printHelp("corpus-builder", options);
+                return;
+            }
+            final Path input = FileSystems.getDefault().getPath(line.getOptionValue(CorpusOptions.INPUT_SHORT));
+            File output = new File(line.getOptionValue(CorpusOptions.OUTPUT_SHORT));
+            final PathMatcher diagramMatcher = FileSystems.getDefault().getPathMatcher("glob:**.sdt");
+            final PathMatcher proofMatcher = FileSystems.getDefault().getPathMatcher("glob:**.prf");
+            int depth = line.hasOption(CorpusOptions.RECURSIVE_SHORT) ? Integer.MAX_VALUE : 1;
+            try (final CorpusWriter writer = new CorpusWriter(output)) {
+                Files.walkFileTree(input, EnumSet.of(FileVisitOption.FOLLOW_LINKS), depth, new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                        if (attrs.isRegularFile()) {
+                            String name = Files.isDirectory(input) ? input.relativize(file).toString() : file.getFileName().toString();
+                            try {
+                                if (diagramMatcher.matches(file)) {
+                                    appendDiagrams(writer, name, file);
+                                } else if (proofMatcher.matches(file)) {
+                                    System.out.println(writer.appendProof(name, ProofFiles.readProof(file.toFile())) + ": " + name);
+                                }
+                            } catch (IOException | ReadingException e) {
+                                System.out.println("Could not add " + file + ": " + e.getLocalizedMessage());
+                            }
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            }
+        } catch (ParseException e) {
+            help.printHelp("corpus-builder [-R] <-i input dir or file> <-o corpus file>", options);
+        } catch (NoSuchFileException e) {
+            System.out.println("No file with this name exists: " + e.getFile());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Appends all diagrams in the given file. A file with more than one diagram
+     * gives entries named {@code name#0}, {@code name#1} and so on.
+     */
+    private static void appendDiagrams(CorpusWriter writer, String name, Path file) throws IOException, ReadingException {
+        try (SpiderDiagramStream diagrams = SpiderDiagramsReader.stream(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            SpiderDiagram first = diagrams.read();
+            SpiderDiagram sd = diagrams.read();
+            if (sd == null) {
+                if (first != null) {
+                    System.out.println(writer.appendDiagram(name, first) + ": " + name);
+                }
+                return;
+            }
+            System.out.println(writer.appendDiagram(name + "#0", first) + ": " + name + "#0");
+            for (int i = 1; sd != null; i++, sd = diagrams.read()) {
+                System.out.println(writer.appendDiagram(name + "#" + i, sd) + ": " + name + "#" + i);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package speedith;
+
+import org.apache.commons.cli.*;
+import speedith.cli.ConverterOptions;
+import speedith.core.reasoning.binary.ProofFiles;
+
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.EnumSet;
+
+/**
+ * Command line tool that converts proof files (*.prf) which contain
+ * Java-serialised proofs to the binary proof format. The converted files keep
+ * their names and relative paths within the output directory.
+ */
+public class ProofConverter {
+
+    public static void main(String[] args) {
+        ConverterOptions options = new ConverterOptions();
+        CommandLineParser parser = new BasicParser();
+        HelpFormatter help = new HelpFormatter();
+
+        try {
+            CommandLine line = parser.parse(options, args);
+            if (!line.hasOption(ConverterOptions.INPUT_SHORT) || !line.hasOption(ConverterOptions.OUTPUT_SHORT)) {
+                help.printHelp("prf-converter", options);
+                return;
+            }
+            final Path input = FileSystems.getDefault().getPath(line.getOptionValue(ConverterOptions.INPUT_SHORT));
+            final Path output = FileSystems.getDefault().getPath(line.getOptionValue(ConverterOptions.OUTPUT_SHORT));
+            final PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:**.prf");
+            int depth = line.hasOption(ConverterOptions.RECURSIVE_SHORT) ? Integer.MAX_VALUE : 1;
+            Files.walkFileTree(input, EnumSet.of(FileVisitOption.FOLLOW_LINKS), depth, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    if (attrs.isRegularFile() && matcher.matches(file)) {
+                        Path target = Files.isDirectory(input) ? output.resolve(input.relativize(file)) : output.resolve(file.getFileName());
+                        Files.createDirectories(target.getParent());
+                        try (InputStream in = new FileInputStream(file.toFile());
+                             OutputStream out = new FileOutputStream(target.toFile())) {
+                            ProofFiles.convert(in, out);
+                            System.out.println(file + " -> " + target);
+                        } catch (IOException e) {
+                            System.out.println("Could not convert " + file + ": " + e.getLocalizedMessage());
+                        }
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (ParseException e) {
+            help.printHelp("prf-converter [-R] <-i input dir or file> <-o output dir>", options);
+        } catch (NoSuchFileException e) {
+            System.out.println("No file with this name exists: " + e.getFile());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
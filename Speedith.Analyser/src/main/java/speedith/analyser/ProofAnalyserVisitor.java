@@ -2,11 +2,10 @@ package speedith.analyser;
 
 import speedith.core.reasoning.Proof;
 import speedith.core.reasoning.ProofAnalyser;
+import speedith.core.reasoning.binary.ProofFiles;
 import speedith.core.reasoning.tactical.TacticApplicationException;
 
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
 
@@ -41,10 +40,8 @@ public class ProofAnalyserVisitor extends SimpleFileVisitor<Path> {
             // load and analyse proof
 
             Proof inputProof;
-            try (
-                    FileInputStream inputStream = new FileInputStream(file.toFile());
-                    ObjectInputStream objectInputStream = new ObjectInputStream(inputStream)) {
-                inputProof = (Proof) objectInputStream.readObject();
+            try {
+                inputProof = ProofFiles.readProof(file.toFile());
                 if (inputProof != null) {
                     Proof flattened = inputProof.createFlattenedProof();
                     int length = ProofAnalyser.length(flattened);
@@ -68,7 +65,7 @@ public class ProofAnalyserVisitor extends SimpleFileVisitor<Path> {
 
                 }
 
-            }  catch (ClassNotFoundException|TacticApplicationException e) {
+            }  catch (TacticApplicationException e) {
                 e.printStackTrace();
             }
         }
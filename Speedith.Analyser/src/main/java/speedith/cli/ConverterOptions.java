@@ -0,0 +1,33 @@
+package speedith.cli;
+
+
+import org.apache.commons.cli.Options;
+
+/**
+ * The command line options of the proof file converter.
+ */
+public class ConverterOptions extends Options {
+
+    public static final String OUTPUT_SHORT = "o";
+    public static final String OUTPUT_LONG = "output";
+    public static final String RECURSIVE_SHORT = "R";
+    public static final String RECURSIVE_LONG = "recursive";
+    public static final String INPUT_LONG = "input";
+    public static final String INPUT_SHORT = "i";
+
+    private static final long serialVersionUID = -2407731386510968421L;
+
+
+    public ConverterOptions() {
+        initialise();
+    }
+
+    private void initialise() {
+
+        addOption(RECURSIVE_SHORT, RECURSIVE_LONG, false, "traverse the given directory recursively (optional)");
+        addOption(OUTPUT_SHORT, OUTPUT_LONG, true, "the output directory");
+        addOption(INPUT_SHORT, INPUT_LONG, true, "the input directory or proof file");
+    }
+
+
+}
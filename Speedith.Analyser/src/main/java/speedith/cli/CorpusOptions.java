@@ -0,0 +1,33 @@
+package speedith.cli;
+
+
+import org.apache.commons.cli.Options;
+
+/**
+ * The command line options of the corpus builder.
+ */
+public class CorpusOptions extends Options {
+
+    public static final String OUTPUT_SHORT = "o";
+    public static final String OUTPUT_LONG = "output";
+    public static final String RECURSIVE_SHORT = "R";
+    public static final String RECURSIVE_LONG = "recursive";
+    public static final String INPUT_LONG = "input";
+    public static final String INPUT_SHORT = "i";
+
+    private static final long serialVersionUID = 6120534918371542240L;
+
+
+    public CorpusOptions() {
+        initialise();
+    }
+
+    private void initialise() {
+
+        addOption(RECURSIVE_SHORT, RECURSIVE_LONG, false, "traverse the given directory recursively (optional)");
+        addOption(OUTPUT_SHORT, OUTPUT_LONG, true, "the corpus file (new entries are appended if it exists)");
+        addOption(INPUT_SHORT, INPUT_LONG, true, "the input directory, spider diagram file (*.sdt) or proof file (*.prf)");
+    }
+
+
+}
@@ -0,0 +1,45 @@
+package speedith.cli;
+
+
+import org.apache.commons.cli.Options;
+
+/**
+ * The command line options of the batch exporter.
+ */
+public class ExportOptions extends Options {
+
+    public static final String INPUT_SHORT = "i";
+    public static final String INPUT_LONG = "input";
+    public static final String RECURSIVE_SHORT = "R";
+    public static final String RECURSIVE_LONG = "recursive";
+    public static final String FORMAT_SHORT = "f";
+    public static final String FORMAT_LONG = "format";
+    public static final String FORMAT_ARGUMENTS_SHORT = "a";
+    public static final String FORMAT_ARGUMENTS_LONG = "format-arguments";
+    public static final String OUTPUT_SHORT = "o";
+    public static final String OUTPUT_LONG = "output";
+    public static final String COMBINED_SHORT = "c";
+    public static final String COMBINED_LONG = "combined";
+    public static final String THREADS_SHORT = "t";
+    public static final String THREADS_LONG = "threads";
+
+    private static final long serialVersionUID = -3052218861527467361L;
+
+
+    public ExportOptions() {
+        initialise();
+    }
+
+    private void initialise() {
+
+        addOption(INPUT_SHORT, INPUT_LONG, true, "the input directory, spider diagram file (*.sd, *.sdt) or corpus file");
+        addOption(RECURSIVE_SHORT, RECURSIVE_LONG, false, "traverse the given directory recursively (optional)");
+        addOption(FORMAT_SHORT, FORMAT_LONG, true, "the export format (e.g.: Isabelle2011 or Openproof)");
+        addOption(FORMAT_ARGUMENTS_SHORT, FORMAT_ARGUMENTS_LONG, true, "comma-separated key=value arguments of the export format (optional)");
+        addOption(OUTPUT_SHORT, OUTPUT_LONG, true, "the directory into which to write one output file per diagram");
+        addOption(COMBINED_SHORT, COMBINED_LONG, true, "the file into which to write all formulae (a theory for Isabelle formats)");
+        addOption(THREADS_SHORT, THREADS_LONG, true, "the number of export threads (optional, defaults to the number of processors)");
+    }
+
+
+}
@@ -0,0 +1,229 @@
+package speedith.core.lang;
+
+import speedith.core.util.BitMasks;
+import speedith.core.util.SortedArraySet;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.SortedSet;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * A region stored as a bit mask over a {@link ZoneUniverse zone universe}.
+ * <p>Set operations on regions of the same universe ({@link
+ * BitRegion#union(speedith.core.lang.BitRegion) union}, {@link
+ * BitRegion#subtract(speedith.core.lang.BitRegion) subtraction}, {@link
+ * BitRegion#isSubregionOf(speedith.core.lang.BitRegion) inclusion}, {@link
+ * BitRegion#compareTo(speedith.core.lang.BitRegion) comparison}) work on
+ * whole words and never look at the zones themselves. The {@link
+ * BitRegion#sortedZones() sorted view} of the zones is built only when it is
+ * needed.</p> <p>Bit regions are ordered and compared for equality in the
+ * same way as {@link Region regions} with the same zones. Use {@link
+ * BitRegion#toRegion()} to convert a bit region into a plain region.</p>
+ * <p>Instances of this class are immutable.</p>
+ */
+public final class BitRegion implements Comparable<BitRegion>, Iterable<Zone> {
+
+    private final ZoneUniverse universe;
+    private final long[] mask;
+    private SortedArraySet<Zone> sortedZones;
+    private int hash;
+
+    BitRegion(ZoneUniverse universe, long[] mask) {
+        this.universe = universe;
+        this.mask = mask;
+    }
+
+    /**
+     * Returns the universe over which this region is defined.
+     *
+     * @return the universe over which this region is defined.
+     */
+    public ZoneUniverse getUniverse() {
+        return universe;
+    }
+
+    /**
+     * Returns the number of zones in this region.
+     *
+     * @return the number of zones in this region.
+     */
+    public int getZonesCount() {
+        return BitMasks.cardinality(mask);
+    }
+
+    /**
+     * Indicates whether this region contains no zones.
+     *
+     * @return {@code true} iff this region contains no zones.
+     */
+    public boolean isEmpty() {
+        return mask.length == 0;
+    }
+
+    /**
+     * Indicates whether this region contains the given zone.
+     *
+     * @param zone the zone to look for.
+     * @return {@code true} iff this region contains the given zone.
+     */
+    public boolean contains(Zone zone) {
+        int index = universe.indexOf(zone);
+        return index >= 0 && BitMasks.get(mask, index);
+    }
+
+    /**
+     * Indicates whether all zones of this region are also in the other region.
+     *
+     * @param other a region of the same universe.
+     * @return {@code true} iff this region is a subregion of the other one.
+     */
+    public boolean isSubregionOf(BitRegion other) {
+        return BitMasks.isSubset(mask, checkUniverse(other).mask);
+    }
+
+    /**
+     * Returns the region of zones that are in this or the other region.
+     *
+     * @param other a region of the same universe.
+     * @return the union of the two regions.
+     */
+    public BitRegion union(BitRegion other) {
+        return withMask(BitMasks.or(mask, checkUniverse(other).mask));
+    }
+
+    /**
+     * Returns the region of zones that are in this and in the other region.
+     *
+     * @param other a region of the same universe.
+     * @return the intersection of the two regions.
+     */
+    public BitRegion intersect(BitRegion other) {
+        return withMask(BitMasks.and(mask, checkUniverse(other).mask));
+    }
+
+    /**
+     * Returns the region of zones that are in this region but not in the
+     * other one.
+     *
+     * @param other a region of the same universe.
+     * @return this region without the zones of the other region.
+     */
+    public BitRegion subtract(BitRegion other) {
+        return withMask(BitMasks.andNot(mask, checkUniverse(other).mask));
+    }
+
+    /**
+     * Returns the zones of this region in their natural order. <p>The view is
+     * built on the first call and cached afterwards.</p>
+     *
+     * @return the zones of this region in their natural order.
+     */
+    public SortedSet<Zone> sortedZones() {
+        if (sortedZones == null) {
+            Zone[] zones = new Zone[getZonesCount()];
+            int i = 0;
+            for (int bit = BitMasks.nextSetBit(mask, 0); bit >= 0; bit = BitMasks.nextSetBit(mask, bit + 1)) {
+                zones[i++] = universe.zoneAt(bit);
+            }
+            sortedZones = SortedArraySet.fromSortedArray(zones);
+        }
+        return sortedZones;
+    }
+
+    @Override
+    public Iterator<Zone> iterator() {
+        return sortedZones().iterator();
+    }
+
+    /**
+     * Returns a plain {@link Region region} with the zones of this region.
+     *
+     * @return a plain region with the zones of this region.
+     */
+    public Region toRegion() {
+        return new Region(sortedZones());
+    }
+
+    /**
+     * Compares the sorted sequences of zones of the two regions in the same
+     * way as {@link Region#compareTo(speedith.core.lang.Region)} does.
+     */
+    @Override
+    public int compareTo(BitRegion other) {
+        if (other.universe != universe) {
+            return propity.util.Sets.compareNaturally(sortedZones(), other.sortedZones());
+        }
+        // The zones are indexed in their natural order. The sequences share
+        // all zones below the lowest bit in which the masks differ. The
+        // region that has this bit is smaller, unless the other region has
+        // no more zones at all.
+        int length = Math.min(mask.length, other.mask.length);
+        for (int word = 0; word < length; word++) {
+            long diff = mask[word] ^ other.mask[word];
+            if (diff != 0) {
+                long lowest = Long.lowestOneBit(diff);
+                int bit = (word << 6) + Long.numberOfTrailingZeros(diff);
+                boolean thisHasBit = (mask[word] & lowest) != 0;
+                long[] lacking = thisHasBit ? other.mask : mask;
+                boolean lackingHasMore = BitMasks.nextSetBit(lacking, bit + 1) >= 0;
+                return thisHasBit == lackingHasMore ? -1 : 1;
+            }
+        }
+        return Integer.compare(mask.length, other.mask.length);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof BitRegion)) {
+            return false;
+        }
+        BitRegion other = (BitRegion) obj;
+        if (other.universe == universe) {
+            return Arrays.equals(mask, other.mask);
+        }
+        return hashCode() == other.hashCode() && sortedZones().equals(other.sortedZones());
+    }
+
+    /**
+     * Returns the same hash code as the {@link BitRegion#sortedZones() set of
+     * zones} in this region.
+     */
+    @Override
+    public int hashCode() {
+        if (hash == 0 && !isEmpty()) {
+            int h = 0;
+            for (int bit = BitMasks.nextSetBit(mask, 0); bit >= 0; bit = BitMasks.nextSetBit(mask, bit + 1)) {
+                h += universe.zoneAt(bit).hashCode();
+            }
+            hash = h;
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return toRegion().toString();
+    }
+
+    private BitRegion checkUniverse(BitRegion other) {
+        if (other == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "other"));
+        }
+        if (other.universe != universe) {
+            throw new IllegalArgumentException(i18n("ERR_ZONE_NOT_IN_UNIVERSE"));
+        }
+        return other;
+    }
+
+    private BitRegion withMask(long[] newMask) {
+        if (Arrays.equals(newMask, mask)) {
+            return this;
+        }
+        return newMask.length == 0 ? universe.empty() : new BitRegion(universe, newMask);
+    }
+}
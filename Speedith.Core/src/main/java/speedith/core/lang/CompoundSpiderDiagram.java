@@ -93,6 +93,14 @@ public class CompoundSpiderDiagram extends SpiderDiagram implements Serializable
     private boolean hashInvalid = true;
     private int hash;
     private int subDiagramCount = -1;
+    /**
+     * The sub-diagram index (relative to this diagram) of the first
+     * sub-diagram of each operand. The last element is the sub-diagram count
+     * of this diagram. Computed lazily by {@link CompoundSpiderDiagram#getOperandOffsets()}.
+     */
+    private transient int[] operandOffsets;
+    private transient long fingerprint;
+    private transient boolean fingerprintValid;
     private static final long serialVersionUID = 6756171788260505819L;
 
     /**
@@ -196,28 +204,14 @@ public class CompoundSpiderDiagram extends SpiderDiagram implements Serializable
      */
     @Override
     public SpiderDiagram getSubDiagramAt(int index) {
-        if (index == 0) {
-            return this;
-        } else if (index > 0) {
-            --index;
-            for (SpiderDiagram sub : operands) {
-                int subCount = sub.getSubDiagramCount();
-                if (subCount > index) {
-                    return sub.getSubDiagramAt(index);
-                }
-                index -= subCount;
-            }
-        }
-        return null;
+        return getSubDiagramTable().nodeAt(index);
     }
 
     @Override
     public int getSubDiagramCount() {
         if (subDiagramCount < 0) {
-            subDiagramCount = 1;
-            for (SpiderDiagram operand : operands) {
-                subDiagramCount += operand.getSubDiagramCount();
-            }
+            int[] offsets = getOperandOffsets();
+            subDiagramCount = offsets[offsets.length - 1];
         }
         return subDiagramCount;
     }
@@ -237,7 +231,10 @@ public class CompoundSpiderDiagram extends SpiderDiagram implements Serializable
         if (t == null) {
             throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "t"));
         }
-        return transform(t, this, 0, trackParents ? new ArrayList<CompoundSpiderDiagram>() : null, trackParents ? new ArrayList<Integer>() : null);
+        // The stacks are sized to the depth of this diagram, so they never
+        // grow during the traversal.
+        int depth = getSummary().getDepth();
+        return transform(t, this, 0, trackParents ? new ArrayList<CompoundSpiderDiagram>(depth) : null, trackParents ? new ArrayList<Integer>(depth) : null);
     }
 
     @Override
@@ -247,13 +244,14 @@ public class CompoundSpiderDiagram extends SpiderDiagram implements Serializable
         }
         visitor.init(this);
         if (!visitor.isDone()) {
+            int depth = getSummary().getDepth();
             __visitCompoundSD(
                     visitor,
                     this,
                     0,
-                    trackParents ? new ArrayList<CompoundSpiderDiagram>() : null,
-                    trackParents ? new ArrayList<Integer>() : null,
-                    trackParents ? new ArrayList<Integer>() : null
+                    trackParents ? new ArrayList<CompoundSpiderDiagram>(depth) : null,
+                    trackParents ? new ArrayList<Integer>(depth) : null,
+                    trackParents ? new ArrayList<Integer>(depth) : null
             );
         }
         visitor.end();
@@ -374,6 +372,9 @@ public class CompoundSpiderDiagram extends SpiderDiagram implements Serializable
         // operands:
         if (other instanceof CompoundSpiderDiagram) {
             CompoundSpiderDiagram csd = (CompoundSpiderDiagram) other;
+            if (getCanonicalFingerprint() != csd.getCanonicalFingerprint()) {
+                return false;
+            }
             boolean operandsSame = operandsSemanticallyEquivalent(csd);
             if (operandsSame && operator.equals(csd.operator)) {
                 return true;
@@ -396,6 +397,21 @@ public class CompoundSpiderDiagram extends SpiderDiagram implements Serializable
         return hash;
     }
 
+    @Override
+    public long getCanonicalFingerprint() {
+        if (!fingerprintValid) {
+            long h = Fingerprints.mix(Fingerprints.COMPOUND_SEED ^ Fingerprints.ofString(operator.getName()));
+            if (operands != null) {
+                for (SpiderDiagram operand : operands) {
+                    h = Fingerprints.mix(31 * h + operand.getCanonicalFingerprint());
+                }
+            }
+            fingerprint = h;
+            fingerprintValid = true;
+        }
+        return fingerprint;
+    }
+
     @Override
     public void toString(Appendable sb) throws IOException {
         if (sb == null) {
@@ -525,6 +541,73 @@ public class CompoundSpiderDiagram extends SpiderDiagram implements Serializable
         }
     }
 
+    /**
+     * Applies the transformer to the sub-diagram of the given root at the given
+     * (valid) index and rebuilds only the compound diagrams on the path from
+     * the root to the transformed sub-diagram. See {@link
+     * SpiderDiagram#transformAt(int, speedith.core.lang.Transformer)}.
+     */
+    @SuppressWarnings("AccessingNonPublicFieldOfAnotherObject")
+    static SpiderDiagram transformAt(SpiderDiagram root, int subDiagramIndex, Transformer t) {
+        ArrayList<CompoundSpiderDiagram> parents = new ArrayList<>();
+        ArrayList<Integer> childIndices = new ArrayList<>();
+        SpiderDiagram target = root;
+        int relativeIndex = subDiagramIndex;
+        while (relativeIndex > 0) {
+            CompoundSpiderDiagram parent = (CompoundSpiderDiagram) target;
+            int operandIndex = parent.getOperandIndexOf(relativeIndex);
+            relativeIndex -= parent.getOperandOffsets()[operandIndex];
+            parents.add(parent);
+            childIndices.add(operandIndex);
+            target = parent.operands.get(operandIndex);
+        }
+        // The transformer might keep or change the stacks, so we rebuild the
+        // spine from copies.
+        CompoundSpiderDiagram[] spine = parents.toArray(new CompoundSpiderDiagram[parents.size()]);
+        Integer[] spineIndices = childIndices.toArray(new Integer[childIndices.size()]);
+
+        SpiderDiagram transformedSD;
+        if (target instanceof CompoundSpiderDiagram) {
+            transformedSD = t.transform((CompoundSpiderDiagram) target, subDiagramIndex, parents, childIndices);
+        } else if (target instanceof PrimarySpiderDiagram) {
+            transformedSD = t.transform((PrimarySpiderDiagram) target, subDiagramIndex, parents, childIndices);
+        } else {
+            transformedSD = t.transform((NullSpiderDiagram) target, subDiagramIndex, parents, childIndices);
+        }
+        if (transformedSD == null || transformedSD.equals(target)) {
+            return root;
+        }
+        for (int i = spine.length - 1; i >= 0; i--) {
+            ArrayList<SpiderDiagram> transformedChildren = new ArrayList<>(spine[i].operands);
+            transformedChildren.set(spineIndices[i], transformedSD);
+            transformedSD = SpiderDiagrams.createCompoundSD(spine[i].getOperator(), transformedChildren, false);
+        }
+        return transformedSD;
+    }
+
+    /**
+     * Returns the index of the operand that contains the sub-diagram with the
+     * given index (relative to this diagram). The index must be positive and
+     * smaller than the sub-diagram count of this diagram.
+     */
+    private int getOperandIndexOf(int subDiagramIndex) {
+        int[] offsets = getOperandOffsets();
+        int found = Arrays.binarySearch(offsets, 0, operands.size(), subDiagramIndex);
+        return found >= 0 ? found : -found - 2;
+    }
+
+    private int[] getOperandOffsets() {
+        if (operandOffsets == null) {
+            int[] offsets = new int[operands.size() + 1];
+            offsets[0] = 1;
+            for (int i = 0; i < operands.size(); i++) {
+                offsets[i + 1] = offsets[i] + operands.get(i).getSubDiagramCount();
+            }
+            operandOffsets = offsets;
+        }
+        return operandOffsets;
+    }
+
     /**
      * Applies the transformer on the given spider diagram based on the type of
      * the spider diagram.
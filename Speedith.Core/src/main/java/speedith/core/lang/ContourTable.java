@@ -0,0 +1,156 @@
+package speedith.core.lang;
+
+import speedith.core.util.BitMasks;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A global dictionary of contour names. <p>Every contour name gets a small,
+ * stable, non-negative index the first time it is seen. {@link Zone Zones}
+ * use these indices to store their in- and out-contours as bit masks, which
+ * turns zone comparisons, hashing and containment tests into word
+ * operations.</p> <p>Indices are never reused or released. The number of
+ * distinct contour names is tiny compared to the number of zones that refer
+ * to them.</p> <p>This class is thread-safe. Lookups of known contours are
+ * lock-free.</p>
+ */
+public final class ContourTable {
+
+    private static final ConcurrentHashMap<String, Integer> indices = new ConcurrentHashMap<>();
+    private static final Object registrationLock = new Object();
+    private static volatile String[] names = new String[64];
+    private static int size;
+
+    private ContourTable() {
+    }
+
+    /**
+     * Returns the index of the given contour. The contour is added to the
+     * table if it is not in it yet.
+     *
+     * @param contour the name of the contour.
+     * @return the index of the given contour.
+     */
+    public static int indexOf(String contour) {
+        Integer index = indices.get(contour);
+        return index == null ? register(contour) : index;
+    }
+
+    /**
+     * Returns the index of the given contour, or {@code -1} if the contour has
+     * never been registered in this table. <p>This method never adds new
+     * contours to the table.</p>
+     *
+     * @param contour the name of the contour.
+     * @return the index of the given contour, or {@code -1} if the contour is
+     *         unknown.
+     */
+    public static int lookup(String contour) {
+        Integer index = contour == null ? null : indices.get(contour);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns the name of the contour with the given index.
+     *
+     * @param index the index of a contour (as returned by {@link
+     *              ContourTable#indexOf(java.lang.String)}).
+     * @return the name of the contour with the given index.
+     */
+    public static String nameAt(int index) {
+        return names[index];
+    }
+
+    /**
+     * Returns the number of contours in this table.
+     *
+     * @return the number of contours in this table.
+     */
+    public static int size() {
+        return indices.size();
+    }
+
+    /**
+     * Returns the bit mask of the given contours. All contours are added to
+     * the table if they are not in it yet.
+     *
+     * @param contours the names of contours (may be {@code null}).
+     * @return the trimmed bit mask of the given contours.
+     */
+    public static long[] maskOf(Collection<String> contours) {
+        if (contours == null || contours.isEmpty()) {
+            return BitMasks.EMPTY;
+        }
+        long[] mask = new long[1];
+        for (String contour : contours) {
+            mask = BitMasks.set(mask, indexOf(contour));
+        }
+        return BitMasks.trim(mask);
+    }
+
+    /**
+     * Returns the bit mask of the given contours, or {@code null} if any of
+     * the contours has never been registered in this table. <p>This method
+     * never adds new contours to the table.</p>
+     *
+     * @param contours the names of contours (may be {@code null}).
+     * @return the trimmed bit mask of the given contours, or {@code null} if
+     *         any of them is unknown.
+     */
+    public static long[] lookupMask(Collection<String> contours) {
+        if (contours == null || contours.isEmpty()) {
+            return BitMasks.EMPTY;
+        }
+        long[] mask = new long[1];
+        for (String contour : contours) {
+            int index = lookup(contour);
+            if (index < 0) {
+                return null;
+            }
+            mask = BitMasks.set(mask, index);
+        }
+        return BitMasks.trim(mask);
+    }
+
+    /**
+     * Returns the names of contours in the given mask sorted alphabetically.
+     *
+     * @param mask a bit mask of contour indices.
+     * @return the names of contours in the given mask sorted alphabetically.
+     */
+    static String[] sortedNames(long[] mask) {
+        String[] currentNames = names;
+        String[] result = new String[BitMasks.cardinality(mask)];
+        int i = 0;
+        for (int bit = BitMasks.nextSetBit(mask, 0); bit >= 0; bit = BitMasks.nextSetBit(mask, bit + 1)) {
+            result[i++] = currentNames[bit];
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    private static int register(String contour) {
+        if (contour == null) {
+            throw new NullPointerException();
+        }
+        synchronized (registrationLock) {
+            Integer index = indices.get(contour);
+            if (index != null) {
+                return index;
+            }
+            // Zones return these instances as their contour names.
+            contour = Names.intern(contour);
+            String[] currentNames = names;
+            if (size == currentNames.length) {
+                currentNames = Arrays.copyOf(currentNames, size * 2);
+            }
+            currentNames[size] = contour;
+            // Publish the name before its index becomes visible to lookups.
+            names = currentNames;
+            indices.put(contour, size);
+            return size++;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package speedith.core.lang;
+
+import java.util.HashMap;
+
+/**
+ * A short-lived interning scope for spider diagrams. <p>While an arena is
+ * open on a thread, the factory methods in {@link SpiderDiagrams} intern the
+ * diagrams created on that thread into the arena instead of into the global
+ * pool. The arena is a plain hash table with strong references, so interning
+ * is cheap and the garbage collector does not have to process a weak
+ * reference for every intermediate diagram. All diagrams of an arena become
+ * unreachable at once when it is {@link DiagramArena#close() closed}.</p>
+ * <p>Diagrams that are already in the global pool are reused, so a diagram
+ * created within an arena is still the same instance as an equal diagram that
+ * existed before the arena was opened. Diagrams that should outlive the arena
+ * must be passed to {@link SpiderDiagrams#promote(SpiderDiagram)}.</p>
+ * <p>Arenas are confined to the thread that opened them and may be nested.
+ * Use them like this:</p>
+ * <pre>
+ * DiagramArena arena = SpiderDiagrams.openArena();
+ * try {
+ *     ...
+ * } finally {
+ *     arena.close();
+ * }
+ * </pre>
+ */
+public final class DiagramArena {
+
+    private final HashMap<SpiderDiagram, SpiderDiagram> diagrams = new HashMap<>();
+    private final DiagramArena enclosing;
+    private final Thread owner;
+    private boolean closed;
+
+    DiagramArena(DiagramArena enclosing) {
+        this.enclosing = enclosing;
+        this.owner = Thread.currentThread();
+    }
+
+    /**
+     * Returns the number of diagrams interned in this arena.
+     *
+     * @return the number of diagrams interned in this arena.
+     */
+    public int size() {
+        return diagrams.size();
+    }
+
+    /**
+     * Indicates whether this arena has been {@link DiagramArena#close()
+     * closed}.
+     *
+     * @return {@code true} iff this arena has been closed.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes this arena. The diagrams created on this thread afterwards are
+     * interned into the enclosing arena (if any) or into the global pool.
+     * <p>Closing an arena that has already been closed has no effect.</p>
+     *
+     * @throws IllegalStateException if this method is not called on the
+     *                               thread that opened the arena, or if a
+     *                               nested arena is still open.
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        if (owner != Thread.currentThread()) {
+            throw new IllegalStateException("A diagram arena must be closed on the thread that opened it.");
+        }
+        SpiderDiagrams.closeArena(this, enclosing);
+        closed = true;
+        diagrams.clear();
+    }
+
+    /**
+     * Returns the instance in this arena or in any of its enclosing arenas
+     * that equals the given diagram, or {@code null} if there is no such
+     * instance.
+     */
+    SpiderDiagram get(SpiderDiagram diagram) {
+        for (DiagramArena arena = this; arena != null; arena = arena.enclosing) {
+            SpiderDiagram existing = arena.diagrams.get(diagram);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Puts the given canonical instance into this arena.
+     */
+    void put(SpiderDiagram diagram) {
+        diagrams.put(diagram, diagram);
+    }
+}
@@ -0,0 +1,137 @@
+package speedith.core.lang;
+
+import java.util.Arrays;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * The path from the root of a spider diagram to the sub-diagram that is
+ * currently being visited by a {@link PathVisitor path visitor}. <p>The path
+ * consists of the compound parents of the visited sub-diagram (starting with
+ * the root), the operand index at which each next element of the path appears
+ * within its parent, and the sub-diagram indices of the parents.</p> <p><span
+ * style="font-weight:bold">Important</span>: a single path instance is reused
+ * (and changed) throughout a traversal. The stacks are plain arrays, so
+ * descending into a sub-diagram neither allocates nor boxes. Visitors must
+ * read what they need from the path during the {@link PathVisitor#visit(speedith.core.lang.SpiderDiagram,
+ * int, speedith.core.lang.DiagramPath) visit call} and must not keep a
+ * reference to it.</p>
+ */
+public final class DiagramPath {
+
+    private CompoundSpiderDiagram[] parents;
+    private int[] childIndices;
+    private int[] parentIndices;
+    private int length;
+
+    /**
+     * Creates an empty path whose stacks can hold the given number of parents
+     * without growing.
+     */
+    DiagramPath(int capacity) {
+        capacity = Math.max(capacity, 1);
+        parents = new CompoundSpiderDiagram[capacity];
+        childIndices = new int[capacity];
+        parentIndices = new int[capacity];
+    }
+
+    // <editor-fold defaultstate="collapsed" desc="Public Properties">
+    /**
+     * Returns the number of parents of the currently visited sub-diagram. This
+     * is {@code 0} for the root diagram.
+     *
+     * @return the number of parents of the currently visited sub-diagram.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the parent at the given level. The root diagram is at level
+     * {@code 0}, the direct parent of the currently visited sub-diagram is at
+     * level {@code getLength() - 1}.
+     *
+     * @param level the level of the parent.
+     * @return the parent at the given level.
+     */
+    public CompoundSpiderDiagram getParent(int level) {
+        checkLevel(level);
+        return parents[level];
+    }
+
+    /**
+     * Returns the direct parent of the currently visited sub-diagram, or
+     * {@code null} if the visited sub-diagram is the root.
+     *
+     * @return the direct parent of the currently visited sub-diagram.
+     */
+    public CompoundSpiderDiagram getLastParent() {
+        return length == 0 ? null : parents[length - 1];
+    }
+
+    /**
+     * Returns the operand index at which the next element of the path (the
+     * parent at level {@code level + 1} or, for the last level, the visited
+     * sub-diagram) appears within the parent at the given level.
+     *
+     * @param level the level of the parent.
+     * @return the operand index of the next element of the path within the
+     *         parent at the given level.
+     */
+    public int getChildIndex(int level) {
+        checkLevel(level);
+        return childIndices[level];
+    }
+
+    /**
+     * Returns the sub-diagram index (relative to the root) of the parent at
+     * the given level.
+     *
+     * @param level the level of the parent.
+     * @return the sub-diagram index of the parent at the given level.
+     */
+    public int getParentIndex(int level) {
+        checkLevel(level);
+        return parentIndices[level];
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Traversal">
+    /**
+     * Makes the given compound diagram the last parent of the path.
+     */
+    void push(CompoundSpiderDiagram parent, int parentIndex) {
+        if (length == parents.length) {
+            int capacity = length * 2;
+            parents = Arrays.copyOf(parents, capacity);
+            childIndices = Arrays.copyOf(childIndices, capacity);
+            parentIndices = Arrays.copyOf(parentIndices, capacity);
+        }
+        parents[length] = parent;
+        parentIndices[length] = parentIndex;
+        childIndices[length] = 0;
+        ++length;
+    }
+
+    /**
+     * Sets the operand index of the visited sub-diagram within the last
+     * parent.
+     */
+    void setLastChildIndex(int childIndex) {
+        childIndices[length - 1] = childIndex;
+    }
+
+    /**
+     * Removes the last parent from the path.
+     */
+    void pop() {
+        parents[--length] = null;
+    }
+    // </editor-fold>
+
+    private void checkLevel(int level) {
+        if (level < 0 || level >= length) {
+            throw new IndexOutOfBoundsException(i18n("GERR_INDEX_OUT_OF_RANGE", level, 0, length - 1));
+        }
+    }
+}
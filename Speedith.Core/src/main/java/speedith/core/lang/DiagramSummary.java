@@ -0,0 +1,217 @@
+package speedith.core.lang;
+
+import speedith.core.util.SortedArraySet;
+
+import java.util.List;
+import java.util.SortedSet;
+
+/**
+ * Aggregate metadata of a {@link SpiderDiagram spider diagram} that proof
+ * strategies and the proof analyser query repeatedly. <p>The summary of a
+ * diagram is computed once (see {@link SpiderDiagram#getSummary()}) and then
+ * shared. The summary of a {@link CompoundSpiderDiagram compound diagram} is
+ * composed from the (cached) summaries of its operands, so computing it does
+ * not walk the whole sub-tree again.</p> <p>Instances of this class are
+ * immutable.</p>
+ */
+public final class DiagramSummary {
+
+    private static final DiagramSummary NULL_SUMMARY = new DiagramSummary(SortedArraySet.<String>empty(), 0, 0, 1, 0, 0, 0, false, false, false);
+
+    private final SortedArraySet<String> contours;
+    private final int clutterScore;
+    private final int depth;
+    private final int nodeCount;
+    private final int spiderCount;
+    private final int visibleZoneCount;
+    private final int shadedZoneCount;
+    private final boolean conjunctive;
+    private final boolean implicationOfConjunctions;
+    private final boolean containsEmptyZone;
+
+    private DiagramSummary(SortedArraySet<String> contours, int clutterScore, int depth, int nodeCount, int spiderCount, int visibleZoneCount, int shadedZoneCount, boolean conjunctive, boolean implicationOfConjunctions, boolean containsEmptyZone) {
+        this.contours = contours;
+        this.clutterScore = clutterScore;
+        this.depth = depth;
+        this.nodeCount = nodeCount;
+        this.spiderCount = spiderCount;
+        this.visibleZoneCount = visibleZoneCount;
+        this.shadedZoneCount = shadedZoneCount;
+        this.conjunctive = conjunctive;
+        this.implicationOfConjunctions = implicationOfConjunctions;
+        this.containsEmptyZone = containsEmptyZone;
+    }
+
+    // <editor-fold defaultstate="collapsed" desc="Public Properties">
+    /**
+     * Returns the names of all contours that are mentioned anywhere in the
+     * diagram.
+     *
+     * @return the names of all contours that are mentioned in the diagram.
+     */
+    public SortedSet<String> getContours() {
+        return contours;
+    }
+
+    /**
+     * Returns the clutter score of the diagram. <p>The clutter score of a
+     * primary diagram is the sum of the in-contour counts of its present zones
+     * plus the number of its shaded present zones. The clutter score of a
+     * compound diagram is the sum of the clutter scores of its operands.</p>
+     *
+     * @return the clutter score of the diagram.
+     */
+    public int getClutterScore() {
+        return clutterScore;
+    }
+
+    /**
+     * Returns the height of the diagram's tree. Primary and null diagrams have
+     * depth {@code 0}.
+     *
+     * @return the height of the diagram's tree.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns the number of nodes in the diagram's tree (this equals
+     * {@link SpiderDiagram#getSubDiagramCount()}).
+     *
+     * @return the number of nodes in the diagram's tree.
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns the total number of spiders in all primary sub-diagrams.
+     *
+     * @return the total number of spiders in all primary sub-diagrams.
+     */
+    public int getSpiderCount() {
+        return spiderCount;
+    }
+
+    /**
+     * Returns the total number of {@link PrimarySpiderDiagram#getPresentZones()
+     * present zones} in all primary sub-diagrams.
+     *
+     * @return the total number of present zones in all primary sub-diagrams.
+     */
+    public int getVisibleZoneCount() {
+        return visibleZoneCount;
+    }
+
+    /**
+     * Returns the total number of {@link PrimarySpiderDiagram#getShadedZones()
+     * shaded zones} in all primary sub-diagrams.
+     *
+     * @return the total number of shaded zones in all primary sub-diagrams.
+     */
+    public int getShadedZoneCount() {
+        return shadedZoneCount;
+    }
+
+    /**
+     * Indicates whether the diagram is a primary diagram or a conjunction of
+     * conjunctive diagrams.
+     *
+     * @return {@code true} iff the diagram is conjunctive.
+     */
+    public boolean isConjunctive() {
+        return conjunctive;
+    }
+
+    /**
+     * Indicates whether the diagram is an implication whose premise and
+     * conclusion are both {@link DiagramSummary#isConjunctive() conjunctive}.
+     *
+     * @return {@code true} iff the diagram is an implication of conjunctions.
+     */
+    public boolean isImplicationOfConjunctions() {
+        return implicationOfConjunctions;
+    }
+
+    /**
+     * Indicates whether some primary sub-diagram mentions a contour that is
+     * not an in-contour of any of its present zones.
+     *
+     * @return {@code true} iff some primary sub-diagram contains an empty
+     *         zone.
+     */
+    public boolean containsEmptyZone() {
+        return containsEmptyZone;
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Construction">
+    /**
+     * Computes the summary of the given diagram. The summaries of operands are
+     * taken from their caches.
+     */
+    static DiagramSummary of(SpiderDiagram sd) {
+        if (sd instanceof PrimarySpiderDiagram) {
+            return ofPrimary((PrimarySpiderDiagram) sd);
+        } else if (sd instanceof CompoundSpiderDiagram) {
+            return ofCompound((CompoundSpiderDiagram) sd);
+        } else {
+            return NULL_SUMMARY;
+        }
+    }
+
+    private static DiagramSummary ofPrimary(PrimarySpiderDiagram psd) {
+        SortedArraySet<String> contours = SortedArraySet.copyOf(psd.getContours());
+        SortedSet<Zone> presentZones = psd.getPresentZones();
+        SortedSet<Zone> shadedZones = psd.getShadedZones();
+        int clutter = 0;
+        for (Zone zone : presentZones) {
+            clutter += zone.getInContoursCount();
+            if (shadedZones.contains(zone)) {
+                ++clutter;
+            }
+        }
+        boolean emptyZone = false;
+        for (String contour : contours) {
+            if (!isInContourOfAny(contour, presentZones)) {
+                emptyZone = true;
+                break;
+            }
+        }
+        return new DiagramSummary(contours, clutter, 0, 1, psd.getSpidersCount(), presentZones.size(), shadedZones.size(), true, false, emptyZone);
+    }
+
+    private static DiagramSummary ofCompound(CompoundSpiderDiagram csd) {
+        List<SpiderDiagram> operands = csd.getOperands();
+        SortedArraySet<String> contours = SortedArraySet.empty();
+        int clutter = 0, depth = 0, nodes = 1, spiders = 0, visible = 0, shaded = 0;
+        boolean allConjunctive = true, emptyZone = false;
+        for (SpiderDiagram operand : operands) {
+            DiagramSummary summary = operand.getSummary();
+            contours = contours.union(summary.contours);
+            clutter += summary.clutterScore;
+            depth = Math.max(depth, summary.depth + 1);
+            nodes += summary.nodeCount;
+            spiders += summary.spiderCount;
+            visible += summary.visibleZoneCount;
+            shaded += summary.shadedZoneCount;
+            allConjunctive &= summary.conjunctive;
+            emptyZone |= summary.containsEmptyZone;
+        }
+        Operator operator = csd.getOperator();
+        boolean conjunctive = operator == Operator.Conjunction && allConjunctive;
+        boolean implicationOfConjunctions = operator == Operator.Implication && allConjunctive;
+        return new DiagramSummary(contours, clutter, depth, nodes, spiders, visible, shaded, conjunctive, implicationOfConjunctions, emptyZone);
+    }
+
+    private static boolean isInContourOfAny(String contour, SortedSet<Zone> zones) {
+        for (Zone zone : zones) {
+            if (zone.getInContours().contains(contour)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    // </editor-fold>
+}
@@ -0,0 +1,70 @@
+package speedith.core.lang;
+
+import java.util.Collection;
+
+/**
+ * Helpers for computing the 64-bit {@link SpiderDiagram#getCanonicalFingerprint()
+ * canonical fingerprints} of spider diagrams. <p>Fingerprints of unordered
+ * collections (zones in a region, shaded zones, habitats) are sums of mixed
+ * element fingerprints. This makes them independent of the iteration order
+ * and, in the case of habitats, of the names of spiders.</p> <p>All
+ * fingerprints depend only on contour names and the structure of diagrams,
+ * so they are the same in every run of the program.</p>
+ */
+final class Fingerprints {
+
+    static final long IN_CONTOUR_SEED = 0x243F6A8885A308D3L;
+    static final long OUT_CONTOUR_SEED = 0x13198A2E03707344L;
+    static final long REGION_SEED = 0xA4093822299F31D0L;
+    static final long PRIMARY_SEED = 0x082EFA98EC4E6C89L;
+    static final long COMPOUND_SEED = 0x452821E638D01377L;
+    static final long NULL_FINGERPRINT = 0xBE5466CF34E90C6CL;
+
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private Fingerprints() {
+    }
+
+    /**
+     * Scrambles the bits of the given value (the finaliser of MurmurHash3).
+     */
+    static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Returns a 64-bit hash of the given string (FNV-1a over its characters).
+     */
+    static long ofString(String str) {
+        long h = FNV_OFFSET_BASIS;
+        for (int i = 0; i < str.length(); i++) {
+            h ^= str.charAt(i);
+            h *= FNV_PRIME;
+        }
+        return h;
+    }
+
+    /**
+     * Returns the order-independent fingerprint of the given zones.
+     */
+    static long ofZones(Collection<Zone> zones) {
+        long sum = zones.size();
+        for (Zone zone : zones) {
+            sum += mix(zone.fingerprint());
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the fingerprint of the given region.
+     */
+    static long ofRegion(Region region) {
+        return mix(REGION_SEED ^ ofZones(region.sortedZones()));
+    }
+}
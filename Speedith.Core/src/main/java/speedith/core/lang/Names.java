@@ -0,0 +1,89 @@
+package speedith.core.lang;
+
+import speedith.core.util.WeakInterner;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A global table of canonical contour and spider names. <p>The readers, the
+ * {@link SpiderDiagrams spider diagram factories} and the {@link ContourTable
+ * contour table} replace every name with its canonical instance from this
+ * table. Equal names in different diagrams are therefore the same string
+ * instance, which lets {@link String#equals(java.lang.Object)} return on
+ * the identity check and stops duplicated names from taking up the
+ * heap.</p> <p>The table does not keep names alive that are no longer used
+ * by any diagram. This class is thread-safe.</p>
+ */
+public final class Names {
+
+    private static final WeakInterner<String> names = new WeakInterner<>();
+
+    // <editor-fold defaultstate="collapsed" desc="Disabled Constructor">
+    private Names() {
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Returns the canonical instance of the given name.
+     *
+     * @param name the name of a contour or spider (may be {@code null}).
+     * @return the canonical instance of the given name, or {@code null} if
+     *         the name is {@code null}.
+     */
+    public static String intern(String name) {
+        return name == null ? null : names.intern(name);
+    }
+
+    /**
+     * Returns a list of the canonical instances of the given names (in the
+     * same order).
+     *
+     * @param names the names of contours or spiders (may be {@code null}).
+     * @return the canonical instances of the given names, or {@code null} if
+     *         the collection is {@code null}.
+     */
+    public static ArrayList<String> internAll(Collection<String> names) {
+        if (names == null) {
+            return null;
+        }
+        ArrayList<String> result = new ArrayList<>(names.size());
+        for (String name : names) {
+            result.add(intern(name));
+        }
+        return result;
+    }
+
+    /**
+     * Returns a map with the same entries as the given one, but with the
+     * canonical instances of its keys (e.g.: spider names of habitats).
+     *
+     * @param <V> the type of the values in the map.
+     * @param map the map with names as keys (may be {@code null}).
+     * @return a map with canonical keys, or {@code null} if the map is
+     *         {@code null}.
+     */
+    public static <V> Map<String, V> internKeys(Map<String, V> map) {
+        if (map == null) {
+            return null;
+        }
+        LinkedHashMap<String, V> result = new LinkedHashMap<>(map.size() * 4 / 3 + 1);
+        for (Map.Entry<String, V> entry : map.entrySet()) {
+            result.put(intern(entry.getKey()), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of names in this table.
+     *
+     * @return the number of names in this table.
+     */
+    public static int size() {
+        return names.size();
+    }
+    // </editor-fold>
+}
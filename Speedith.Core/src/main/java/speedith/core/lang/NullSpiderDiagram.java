@@ -110,6 +110,11 @@ public class NullSpiderDiagram extends SpiderDiagram {
     public int hashCode() {
         return 0xb8e9561a;
     }
+
+    @Override
+    public long getCanonicalFingerprint() {
+        return Fingerprints.NULL_FINGERPRINT;
+    }
     // </editor-fold>
 
     // <editor-fold defaultstate="collapsed" desc="The Singleton Holder Class">
@@ -0,0 +1,61 @@
+package speedith.core.lang;
+
+/**
+ * A {@link SpiderDiagram spider diagram} visitor that receives the position of
+ * each visited sub-diagram as a {@link DiagramPath diagram path}. <p>Unlike
+ * the {@link DiagramVisitor diagram visitor}, whose parent and index stacks are
+ * lists of boxed values, this visitor is given a single reusable path with
+ * primitive stacks, so the traversal does not allocate anything per visited
+ * sub-diagram.</p>
+ *
+ * @param <T> The type of the result that this visitor produces in the end.
+ * @see SpiderDiagram#visit(speedith.core.lang.PathVisitor)
+ */
+public interface PathVisitor<T> {
+
+    /**
+     * This method is called by the visiting procedure before the first call to
+     * the {@link PathVisitor#visit(speedith.core.lang.SpiderDiagram, int,
+     * speedith.core.lang.DiagramPath) visit function} is made.
+     *
+     * @param root the diagram on which the visiting should happen.
+     */
+    void init(SpiderDiagram root);
+
+    /**
+     * This method is called by the visiting procedure just after the last call
+     * to the {@link PathVisitor#visit(speedith.core.lang.SpiderDiagram, int,
+     * speedith.core.lang.DiagramPath) visit function} and just before the
+     * {@link PathVisitor#getResult()} will be called.
+     */
+    void end();
+
+    /**
+     * This function is called for every traversed sub-diagram of a root
+     * diagram (in preorder).
+     *
+     * @param subDiagram      the currently visited sub-diagram.
+     * @param subDiagramIndex the index of the sub-diagram (relative to the
+     *                        root).
+     * @param path            the parents of the sub-diagram and its position
+     *                        within them. <span style="font-weight:bold">Note</span>:
+     *                        the path is reused for the whole traversal and must
+     *                        not be kept after this call returns.
+     */
+    void visit(SpiderDiagram subDiagram, int subDiagramIndex, DiagramPath path);
+
+    /**
+     * Indicates that this visitor has done all the visiting it intends to do.
+     * <p>Once this method returns {@code true}, the visiting will stop.</p>
+     *
+     * @return {@code true} if this visitor has no more visiting to do.
+     */
+    boolean isDone();
+
+    /**
+     * Returns the final result of the visit.
+     *
+     * @return the final result of the visit.
+     */
+    T getResult();
+}
@@ -27,9 +27,10 @@
 package speedith.core.lang;
 
 import propity.util.Sets;
+import speedith.core.util.SortedArrayMap;
+import speedith.core.util.SortedArraySet;
 
-import java.io.IOException;
-import java.io.Serializable;
+import java.io.*;
 import java.util.*;
 import java.util.Map.Entry;
 
@@ -43,8 +44,12 @@ import static speedith.core.i18n.Translations.i18n;
  * title="10.1112/S1461157000000942"> Spider Diagrams (2005)</a>. <p>It contains
  * all necessary information about the habitats of spiders, shaded zones,
  * contour names, zones etc.</p> <p>You can construct new primary spider
- * diagrams via the static methods in {@link SpiderDiagrams}.</p> <p>Instances
- * of this class (and its derived classes) are immutable.</p>
+ * diagrams via the static methods in {@link SpiderDiagrams}.</p> <p>Spiders,
+ * habitats, shaded and present zones are stored in sorted arrays (see {@link
+ * SortedArraySet} and {@link SortedArrayMap}), which are shared between
+ * diagrams wherever a rule leaves them unchanged. Use a {@link
+ * PrimarySpiderDiagram.Builder builder} to make several changes at once.</p>
+ * <p>Instances of this class (and its derived classes) are immutable.</p>
  *
  * @author Matej Urbas [matej.urbas@gmail.com]
  */
@@ -84,14 +89,33 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
      */
     public static final String SDTextSpidersAttribute = "spiders";
     private static final long serialVersionUID = -2824062283982956082L;
-    private final TreeSet<String> spiders;
-    private final TreeMap<String, Region> spiderHabitatsMap;
-    private final TreeSet<Zone> shadedZones;
-    private final TreeSet<Zone> presentZones;
-    private TreeSet<String> contours;
-    private boolean hashInvalid = true;
-    private int hash;
-    private Boolean valid;
+    private transient SortedArraySet<String> spiders;
+    private transient SortedArrayMap<String, Region> spiderHabitatsMap;
+    private transient SortedArraySet<Zone> shadedZones;
+    private transient SortedArraySet<Zone> presentZones;
+    private transient SortedArraySet<String> contours;
+    private transient boolean hashInvalid = true;
+    private transient int hash;
+    private transient Boolean valid;
+    private transient long fingerprint;
+    private transient boolean fingerprintValid;
+    private transient ZoneUniverse zoneUniverse;
+    private transient BitRegion[] habitatRegions;
+    /**
+     * Primary diagrams are serialised with tree sets and maps (the same way as
+     * they were before they were stored in sorted arrays), so that existing
+     * proof files can still be read.
+     */
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("spiders", TreeSet.class),
+        new ObjectStreamField("spiderHabitatsMap", TreeMap.class),
+        new ObjectStreamField("shadedZones", TreeSet.class),
+        new ObjectStreamField("presentZones", TreeSet.class),
+        new ObjectStreamField("contours", TreeSet.class),
+        new ObjectStreamField("hashInvalid", Boolean.TYPE),
+        new ObjectStreamField("hash", Integer.TYPE),
+        new ObjectStreamField("valid", Boolean.class)
+    };
 
     /**
      * Creates an instance of a primary spider diagram with the given spiders,
@@ -107,17 +131,17 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
      * if possible (see {@link PrimarySpiderDiagram#getPresentZones()}).
      */
     PrimarySpiderDiagram(Collection<String> spiders, Map<String, Region> habitats, Collection<Zone> shadedZones, Collection<Zone> presentZones) {
-        this(spiders == null ? null : new TreeSet<>(spiders),
-                habitats == null ? null : new TreeMap<>(habitats),
-                shadedZones == null ? null : new TreeSet<>(shadedZones),
-                presentZones == null ? null : new TreeSet<>(presentZones));
+        this(SortedArraySet.copyOf(spiders),
+                SortedArrayMap.copyOf(habitats),
+                SortedArraySet.copyOf(shadedZones),
+                SortedArraySet.copyOf(presentZones));
     }
 
     /**
      * Initialises a new primary spider diagram with the given set of spiders,
      * habitats and shaded zones. <p>Note that this method does <span
      * style="font-weight:bold">not</span> make copies of the input
-     * parameters.</p>
+     * parameters (they are immutable).</p>
      *
      * @param spiders a set of spiders (their names) that appear in this spider
      * diagram.
@@ -127,7 +151,7 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
      * @param presentZones the set of zones that should be drawn in the diagram
      * if possible (see {@link PrimarySpiderDiagram#getPresentZones()}).
      */
-    PrimarySpiderDiagram(TreeSet<String> spiders, TreeMap<String, Region> habitats, TreeSet<Zone> shadedZones, TreeSet<Zone> presentZones) {
+    PrimarySpiderDiagram(SortedArraySet<String> spiders, SortedArrayMap<String, Region> habitats, SortedArraySet<Zone> shadedZones, SortedArraySet<Zone> presentZones) {
         // TODO: This should be checked in 'isValid'. The construction of a
         // primary spider diagram should be as quick as possible (just reference
         // assignments). Also check that no habitat is an empty or null region
@@ -144,15 +168,15 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
         } else if (habitats != null) {
             // But if there are some spiders, then we have to check that the
             // habitats don't talk about non-existent spiders.
-            if (!Sets.isNaturalSubset(habitats.navigableKeySet(), spiders)) {
+            if (!Sets.isNaturalSubset(habitats.keySet(), spiders)) {
                 throw new IllegalArgumentException(i18n("ERR_SD_HABITATS_WITHOUT_SPIDERS"));
             }
         }
 
-        this.spiders = spiders == null ? new TreeSet<String>() : spiders;
-        this.spiderHabitatsMap = habitats == null ? new TreeMap<String, Region>() : habitats;
-        this.shadedZones = shadedZones == null ? new TreeSet<Zone>() : shadedZones;
-        this.presentZones = presentZones == null ? new TreeSet<Zone>() : presentZones;
+        this.spiders = spiders == null ? SortedArraySet.<String>empty() : spiders;
+        this.spiderHabitatsMap = habitats == null ? SortedArrayMap.<String, Region>empty() : habitats;
+        this.shadedZones = shadedZones == null ? SortedArraySet.<Zone>empty() : shadedZones;
+        this.presentZones = presentZones == null ? SortedArraySet.<Zone>empty() : presentZones;
     }
 
     /**
@@ -164,7 +188,7 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
      * {@link Region habitats}.
      */
     public SortedMap<String, Region> getHabitats() {
-        return Collections.unmodifiableSortedMap(spiderHabitatsMap);
+        return spiderHabitatsMap;
     }
 
     /**
@@ -185,7 +209,7 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
      * @return a set of shaded {@link Zone zones} in this spider diagram..
      */
     public SortedSet<Zone> getShadedZones() {
-        return Collections.unmodifiableSortedSet(shadedZones);
+        return shadedZones;
     }
 
     /**
@@ -212,7 +236,7 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
      * {@code null}.</p>
      */
     public SortedSet<Zone> getPresentZones() {
-        return Collections.unmodifiableSortedSet(presentZones);
+        return presentZones;
     }
 
     /**
@@ -235,7 +259,7 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
      * diagram.
      */
     public SortedSet<String> getSpiders() {
-        return Collections.unmodifiableSortedSet(spiders);
+        return spiders;
     }
 
     /**
@@ -294,6 +318,53 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
         }
     }
 
+    /**
+     * Returns the universe of all zones that are mentioned in this diagram
+     * (present zones, shaded zones and the zones of all habitats). <p>The
+     * universe is built on the first call and shared by all {@link BitRegion
+     * bit regions} that are computed for this diagram.</p>
+     *
+     * @return the universe of all zones mentioned in this diagram.
+     */
+    public ZoneUniverse getZoneUniverse() {
+        if (zoneUniverse == null) {
+            TreeSet<Zone> zones = new TreeSet<>(presentZones);
+            zones.addAll(shadedZones);
+            for (Region habitat : spiderHabitatsMap.values()) {
+                zones.addAll(habitat.sortedZones());
+            }
+            zoneUniverse = ZoneUniverse.of(zones);
+        }
+        return zoneUniverse;
+    }
+
+    /**
+     * Returns the habitat of the given spider as a {@link BitRegion bit
+     * region} over the {@link PrimarySpiderDiagram#getZoneUniverse() zone
+     * universe} of this diagram. <p>The bit regions of all habitats are
+     * computed on the first call and reused afterwards.</p>
+     *
+     * @param spider the spider whose habitat to return.
+     * @return the habitat of the given spider, or {@code null} if the spider
+     *         has no habitat in this diagram.
+     */
+    public BitRegion getSpiderHabitatRegion(String spider) {
+        int index = spiderHabitatsMap.keySet().indexOf(spider);
+        if (index < 0) {
+            return null;
+        }
+        BitRegion[] regions = habitatRegions;
+        if (regions == null) {
+            ZoneUniverse universe = getZoneUniverse();
+            regions = new BitRegion[spiderHabitatsMap.size()];
+            for (int i = 0; i < regions.length; i++) {
+                regions[i] = universe.regionOf(spiderHabitatsMap.valueAt(i).sortedZones());
+            }
+            habitatRegions = regions;
+        }
+        return regions[index];
+    }
+
     /**
      * Returns the number of spider that have a foot in the given zone.
      *
@@ -369,17 +440,15 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
     }
 
     public PrimarySpiderDiagram addShading(Collection<Zone> zones) {
-        TreeSet<Zone> newShadedZones = new TreeSet<>(shadedZones);
         for (Zone newShadedZone : zones) {
             if (!newShadedZone.isValid(getAllContours())) {
                 throw new IllegalArgumentException("The zone '" + newShadedZone + "' is not valid in this diagram.");
             }
         }
-        newShadedZones.addAll(zones);
         return new PrimarySpiderDiagram(
                 spiders,
                 spiderHabitatsMap,
-                newShadedZones,
+                shadedZones.union(zones),
                 presentZones
         );
     }
@@ -399,6 +468,10 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
         // Well, firstly, the diagrams have to be of the same type:
         if (other instanceof PrimarySpiderDiagram) {
             PrimarySpiderDiagram psd = (PrimarySpiderDiagram) other;
+            // Diagrams with different fingerprints cannot be equivalent:
+            if (getCanonicalFingerprint() != psd.getCanonicalFingerprint()) {
+                return false;
+            }
             // The primary spider diagrams must have the same number of spiders:
             if (getSpidersCount() != psd.getSpidersCount()) {
                 return false;
@@ -420,15 +493,64 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
     @Override
     public int hashCode() {
         if (hashInvalid) {
-            hash = (spiders == null ? 0 : spiders.hashCode())
-                    + (spiderHabitatsMap == null ? 0 : spiderHabitatsMap.hashCode())
-                    + (shadedZones == null ? 0 : shadedZones.hashCode())
-                    + (presentZones == null ? 0 : presentZones.hashCode());
+            hash = spiders.hashCode()
+                    + spiderHabitatsMap.hashCode()
+                    + shadedZones.hashCode()
+                    + presentZones.hashCode();
             hashInvalid = false;
         }
         return hash;
     }
 
+    /**
+     * {@inheritDoc} <p>The fingerprint of a primary spider diagram ignores
+     * the names of its spiders and its present zones.</p>
+     */
+    @Override
+    public long getCanonicalFingerprint() {
+        if (!fingerprintValid) {
+            // Habitats are summed up without their spiders' names, which
+            // makes the fingerprint invariant under spider renaming. Present
+            // zones are left out as they do not influence the semantics.
+            long habitatsFingerprint = spiders.size();
+            for (Region habitat : spiderHabitatsMap.values()) {
+                habitatsFingerprint += Fingerprints.mix(Fingerprints.ofRegion(habitat));
+            }
+            long h = Fingerprints.mix(Fingerprints.PRIMARY_SEED ^ habitatsFingerprint);
+            fingerprint = Fingerprints.mix(h + Fingerprints.ofZones(shadedZones));
+            fingerprintValid = true;
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Returns the canonical form of this diagram, in which the spiders are
+     * renamed to {@code s1}, {@code s2}, ..., in the order of their sorted
+     * habitats. <p>Two primary diagrams that differ only in the names of
+     * their spiders have the same canonical form.</p>
+     *
+     * @return the canonical form of this diagram (this diagram itself if it
+     *         is already canonical).
+     */
+    public PrimarySpiderDiagram canonicalForm() {
+        Region[] habitats = spiderHabitatsMap.values().toArray(new Region[spiderHabitatsMap.size()]);
+        Arrays.sort(habitats);
+        TreeSet<String> canonicalSpiders = new TreeSet<>();
+        TreeMap<String, Region> canonicalHabitats = new TreeMap<>();
+        for (int i = 0; i < spiders.size(); i++) {
+            String spider = "s" + (i + 1);
+            canonicalSpiders.add(spider);
+            // Spiders without habitats (if any) come last.
+            if (i < habitats.length) {
+                canonicalHabitats.put(spider, habitats[i]);
+            }
+        }
+        if (equal(canonicalSpiders, spiders) && equal(canonicalHabitats.entrySet(), spiderHabitatsMap.entrySet())) {
+            return this;
+        }
+        return SpiderDiagrams.createPrimarySD(SortedArraySet.copyOf(canonicalSpiders), SortedArrayMap.copyOf(canonicalHabitats), shadedZones, presentZones);
+    }
+
     /**
      * Creates a copy of this primary spider diagram that contains the given
      * spider and its habitat. <p>If the original primary spider diagram already
@@ -441,26 +563,19 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
      * spider and its habitat.
      */
     public PrimarySpiderDiagram addSpider(String spider, Region habitat) {
-        // Add the habitat to the map of spiders and their habitats.
-        TreeMap<String, Region> newHabitats = (spiderHabitatsMap == null) ? new TreeMap<String, Region>() : new TreeMap<>(spiderHabitatsMap);
-        newHabitats.put(spider, habitat);
-        // Now add the spider to the set of all spiders. Maybe we can reuse the
-        // set if it already contains the spider.
-        TreeSet<String> newSpiders;
-        if (spiders != null) {
-            if (spiders.contains(spider)) {
-                newSpiders = spiders;
-            } else {
-                newSpiders = new TreeSet<>(spiders);
-                newSpiders.add(spider);
-            }
-        } else {
-            newSpiders = new TreeSet<>();
-            newSpiders.add(spider);
-        }
-        // Finally construct the spider diagram (without making any copies of
-        // the spiders, habitats, and shaded zones collections).
-        return SpiderDiagrams.createPrimarySD(newSpiders, newHabitats, shadedZones, presentZones, false);
+        // Only the arrays of spiders and habitats are copied. The shaded and
+        // present zones are shared with this diagram.
+        return SpiderDiagrams.createPrimarySD(spiders.with(spider), spiderHabitatsMap.with(spider, habitat), shadedZones, presentZones);
+    }
+
+    /**
+     * Returns a builder that starts with the spiders, habitats and zones of
+     * this diagram.
+     *
+     * @return a builder initialised with this diagram.
+     */
+    public Builder toBuilder() {
+        return new Builder(this);
     }
 
     @Override
@@ -475,9 +590,7 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
         printHabitats(sb);
         sb.append(", ");
         printShadedZones(sb);
-        if (presentZones != null) {
-            printPresentZones(sb.append(", "));
-        }
+        printPresentZones(sb.append(", "));
         sb.append('}');
     }
 
@@ -528,16 +641,8 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
     private void printHabitats(Appendable sb) throws IOException {
         sb.append(SDTextHabitatsAttribute).append(" = ");
         sb.append('[');
-        if (spiderHabitatsMap != null && !spiderHabitatsMap.isEmpty()) {
-            Iterator<Entry<String, Region>> spIterator = spiderHabitatsMap.entrySet().iterator();
-            if (spIterator.hasNext()) {
-                Entry<String, Region> habitat = spIterator.next();
-                printHabitat(sb, habitat.getKey(), habitat.getValue());
-                while (spIterator.hasNext()) {
-                    habitat = spIterator.next();
-                    printHabitat(sb.append(", "), habitat.getKey(), habitat.getValue());
-                }
-            }
+        for (int i = 0; i < spiderHabitatsMap.size(); i++) {
+            printHabitat(i == 0 ? sb : sb.append(", "), spiderHabitatsMap.keyAt(i), spiderHabitatsMap.valueAt(i));
         }
         sb.append(']');
     }
@@ -548,10 +653,10 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
     @SuppressWarnings("AccessingNonPublicFieldOfAnotherObject")
     private boolean __isPsdEqual(PrimarySpiderDiagram psd) {
         return hashCode() == psd.hashCode()
-                && equal(spiders, psd.spiders)
-                && equal(spiderHabitatsMap == null ? null : spiderHabitatsMap.entrySet(), psd.spiderHabitatsMap == null ? null : psd.spiderHabitatsMap.entrySet())
-                && equal(shadedZones, psd.shadedZones)
-                && equal(presentZones, psd.presentZones);
+                && spiders.equals(psd.spiders)
+                && spiderHabitatsMap.equals(psd.spiderHabitatsMap)
+                && shadedZones.equals(psd.shadedZones)
+                && presentZones.equals(psd.presentZones);
     }
 
     /**
@@ -580,61 +685,35 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
     }
 
     /**
-     * Traverses all zones mentioned in this primary spider diagram and collects
-     * all names of contours mentioned in these zones.
+     * Takes the names of contours mentioned in a zone of this primary spider
+     * diagram (see {@link PrimarySpiderDiagram#getContours()}).
      */
     private void extractContours() {
         if (contours == null) {
-            contours = new TreeSet<>();
-            if (extractContoursFromHabitats()
-                    || extractContoursFromShadedZones()
-                    || extractContoursFromPresentZones());
+            Zone zone = findAnyZone();
+            contours = zone == null ? SortedArraySet.<String>empty() : SortedArraySet.copyOf(zone.getAllContours());
         }
     }
 
-    private boolean extractContoursFromHabitats() {
+    /**
+     * Returns the first zone of the first habitat, the first shaded zone, or
+     * the first present zone (whichever is found first). Returns {@code null}
+     * if there is no such zone.
+     */
+    private Zone findAnyZone() {
         if (getHabitatsCount() > 0) {
-            Region region = spiderHabitatsMap.firstEntry().getValue();
+            Region region = spiderHabitatsMap.valueAt(0);
             if (region.getZonesCount() > 0) {
-                Zone zone = region.sortedZones().first();
-                if (zone.getInContoursCount() > 0) {
-                    contours.addAll(zone.getInContours());
-                }
-                if (zone.getOutContoursCount() > 0) {
-                    contours.addAll(zone.getOutContours());
-                }
-                return true;
+                return region.sortedZones().first();
             }
         }
-        return false;
-    }
-
-    private boolean extractContoursFromShadedZones() {
         if (getShadedZonesCount() > 0) {
-            Zone zone = shadedZones.first();
-            if (zone.getInContoursCount() > 0) {
-                contours.addAll(zone.getInContours());
-            }
-            if (zone.getOutContoursCount() > 0) {
-                contours.addAll(zone.getOutContours());
-            }
-            return true;
+            return shadedZones.first();
         }
-        return false;
-    }
-
-    private boolean extractContoursFromPresentZones() {
         if (getPresentZonesCount() > 0) {
-            Zone zone = presentZones.first();
-            if (zone.getInContoursCount() > 0) {
-                contours.addAll(zone.getInContours());
-            }
-            if (zone.getOutContoursCount() > 0) {
-                contours.addAll(zone.getOutContours());
-            }
-            return true;
+            return presentZones.first();
         }
-        return false;
+        return null;
     }
 
     /**
@@ -718,7 +797,7 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
      */
     SortedSet<String> getContours() {
         extractContours();
-        return Collections.unmodifiableSortedSet(contours);
+        return contours;
     }
 
     /**
@@ -733,6 +812,173 @@ public class PrimarySpiderDiagram extends SpiderDiagram implements Serializable
         region.toString(sb).append(')');
     }
 
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("spiders", new TreeSet<>(spiders));
+        fields.put("spiderHabitatsMap", new TreeMap<>(spiderHabitatsMap));
+        fields.put("shadedZones", new TreeSet<>(shadedZones));
+        fields.put("presentZones", new TreeSet<>(presentZones));
+        fields.put("contours", null);
+        fields.put("hashInvalid", true);
+        fields.put("hash", 0);
+        fields.put("valid", null);
+        out.writeFields();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        spiders = SortedArraySet.copyOf((Collection<String>) fields.get("spiders", null));
+        spiderHabitatsMap = SortedArrayMap.copyOf((Map<String, Region>) fields.get("spiderHabitatsMap", null));
+        shadedZones = SortedArraySet.copyOf((Collection<Zone>) fields.get("shadedZones", null));
+        presentZones = SortedArraySet.copyOf((Collection<Zone>) fields.get("presentZones", null));
+        hashInvalid = true;
+    }
+
+    /**
+     * Collects several changes of a primary spider diagram and creates the
+     * changed diagram at once. <p>Each part of the diagram (spiders, habitats,
+     * shaded zones and present zones) is copied into a tree at most once, on
+     * its first change, and converted back into a sorted array when the
+     * diagram is {@link Builder#build() built}. Parts that were not changed
+     * are shared with the original diagram.</p> <p>Builders are not
+     * thread-safe.</p>
+     */
+    public static final class Builder {
+
+        private final PrimarySpiderDiagram original;
+        private TreeSet<String> spiders;
+        private TreeMap<String, Region> habitats;
+        private TreeSet<Zone> shadedZones;
+        private TreeSet<Zone> presentZones;
+
+        /**
+         * Creates a builder that starts with the empty primary spider diagram.
+         */
+        public Builder() {
+            this(SpiderDiagrams.createPrimarySD());
+        }
+
+        private Builder(PrimarySpiderDiagram original) {
+            this.original = original;
+        }
+
+        /**
+         * Adds the given spider with the given habitat. If the spider is
+         * already present, its habitat is replaced.
+         *
+         * @param spider  the name of the spider.
+         * @param habitat the habitat of the spider.
+         * @return this builder.
+         */
+        public Builder addSpider(String spider, Region habitat) {
+            if (spider == null) {
+                throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "spider"));
+            }
+            spiders().add(spider);
+            habitats().put(spider, habitat);
+            return this;
+        }
+
+        /**
+         * Removes the given spider and its habitat.
+         *
+         * @param spider the name of the spider.
+         * @return this builder.
+         */
+        public Builder removeSpider(String spider) {
+            spiders().remove(spider);
+            habitats().remove(spider);
+            return this;
+        }
+
+        /**
+         * Shades the given zones.
+         *
+         * @param zones the zones to shade.
+         * @return this builder.
+         */
+        public Builder addShadedZones(Collection<Zone> zones) {
+            shadedZones().addAll(zones);
+            return this;
+        }
+
+        /**
+         * Removes the shading from the given zones.
+         *
+         * @param zones the zones from which to remove the shading.
+         * @return this builder.
+         */
+        public Builder removeShadedZones(Collection<Zone> zones) {
+            shadedZones().removeAll(zones);
+            return this;
+        }
+
+        /**
+         * Adds the given zones to the present zones.
+         *
+         * @param zones the zones to add.
+         * @return this builder.
+         */
+        public Builder addPresentZones(Collection<Zone> zones) {
+            presentZones().addAll(zones);
+            return this;
+        }
+
+        /**
+         * Removes the given zones from the present zones.
+         *
+         * @param zones the zones to remove.
+         * @return this builder.
+         */
+        public Builder removePresentZones(Collection<Zone> zones) {
+            presentZones().removeAll(zones);
+            return this;
+        }
+
+        /**
+         * Creates the primary spider diagram with all the changes made so far.
+         * The builder can be used further afterwards.
+         *
+         * @return the primary spider diagram with all the changes made so far.
+         */
+        public PrimarySpiderDiagram build() {
+            return SpiderDiagrams.createPrimarySD(
+                    spiders == null ? original.spiders : SortedArraySet.copyOf(spiders),
+                    habitats == null ? original.spiderHabitatsMap : SortedArrayMap.copyOf(habitats),
+                    shadedZones == null ? original.shadedZones : SortedArraySet.copyOf(shadedZones),
+                    presentZones == null ? original.presentZones : SortedArraySet.copyOf(presentZones));
+        }
+
+        private TreeSet<String> spiders() {
+            if (spiders == null) {
+                spiders = new TreeSet<>(original.spiders);
+            }
+            return spiders;
+        }
+
+        private TreeMap<String, Region> habitats() {
+            if (habitats == null) {
+                habitats = new TreeMap<>(original.spiderHabitatsMap);
+            }
+            return habitats;
+        }
+
+        private TreeSet<Zone> shadedZones() {
+            if (shadedZones == null) {
+                shadedZones = new TreeSet<>(original.shadedZones);
+            }
+            return shadedZones;
+        }
+
+        private TreeSet<Zone> presentZones() {
+            if (presentZones == null) {
+                presentZones = new TreeSet<>(original.presentZones);
+            }
+            return presentZones;
+        }
+    }
+
     static class AtomicSpiderDiagramIterator implements Iterator<SpiderDiagram> {
 
         private SpiderDiagram sd;
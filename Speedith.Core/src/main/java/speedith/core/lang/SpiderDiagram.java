@@ -48,6 +48,9 @@ import static speedith.core.i18n.Translations.i18n;
  */
 public abstract class SpiderDiagram implements Iterable<SpiderDiagram>, SpiderDiagramElement {
 
+    private transient SubDiagramTable subDiagramTable;
+    private transient DiagramSummary summary;
+
     // <editor-fold defaultstate="collapsed" desc="Public Methods">
 
     /**
@@ -70,6 +73,21 @@ public abstract class SpiderDiagram implements Iterable<SpiderDiagram>, SpiderDi
         return equals(other);
     }
 
+    /**
+     * Returns a 64-bit fingerprint of this spider diagram that does not change
+     * when spiders are renamed. <p>The fingerprint is consistent with {@link
+     * SpiderDiagram#isSEquivalentTo(speedith.core.lang.SpiderDiagram) semantic
+     * equivalence}: if two diagrams have different fingerprints, then {@code
+     * isSEquivalentTo} returns {@code false} for them. Hash tables and caches
+     * of semantically equivalent diagrams may therefore key on the fingerprint
+     * and run the full equivalence check only on collisions.</p> <p>The
+     * fingerprint is computed once per diagram and does not depend on the JVM
+     * run in which it is computed.</p>
+     *
+     * @return the canonical fingerprint of this spider diagram.
+     */
+    public abstract long getCanonicalFingerprint();
+
     /**
      * Compares this spider diagram with another and returns {@code true} iff
      * they are syntactically the same. <p>If this method returns {@code true}
@@ -148,6 +166,37 @@ public abstract class SpiderDiagram implements Iterable<SpiderDiagram>, SpiderDi
      */
     public abstract SpiderDiagram transform(Transformer t, boolean trackParents);
 
+    /**
+     * Applies the transformer only to the sub-diagram at the given index.
+     * <p>Unlike {@link SpiderDiagram#transform(speedith.core.lang.Transformer)},
+     * this method does not visit the sub-diagrams in preorder. It descends
+     * straight to the target through the cached sub-diagram counts of the
+     * compound diagrams on the way. The transformer is called exactly once,
+     * with the target's index and its full stack of parents and child
+     * indices.</p> <p>If the transformer returns {@code null} or a diagram
+     * equal to the target, this diagram is returned unchanged. Otherwise only
+     * the compound diagrams on the path to the target are rebuilt, and all the
+     * other sub-diagrams are shared with this diagram. The cost is therefore
+     * proportional to the depth of the target rather than to the size of this
+     * diagram.</p>
+     *
+     * @param subDiagramIndex the index of the sub-diagram to transform (see
+     *                        {@link SubDiagramIndexArg}).
+     * @param t               the object that transforms the target sub-diagram.
+     * @return the transformed spider diagram.
+     * @throws IndexOutOfBoundsException if this diagram has no sub-diagram
+     *                                   with the given index.
+     */
+    public SpiderDiagram transformAt(int subDiagramIndex, Transformer t) {
+        if (t == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "t"));
+        }
+        if (subDiagramIndex < 0 || subDiagramIndex >= getSubDiagramCount()) {
+            throw new IndexOutOfBoundsException(i18n("GERR_INDEX_OUT_OF_RANGE", subDiagramIndex, 0, getSubDiagramCount() - 1));
+        }
+        return CompoundSpiderDiagram.transformAt(this, subDiagramIndex, t);
+    }
+
     /**
      * Visits every sub-diagram in this diagram and calls the appropriate
      * methods of the given {@link DiagramVisitor visitor}. <p>This method
@@ -195,6 +244,30 @@ public abstract class SpiderDiagram implements Iterable<SpiderDiagram>, SpiderDi
         return visitor.getResult();
     }
 
+    /**
+     * Visits every sub-diagram in this diagram (in preorder) and calls the
+     * appropriate methods of the given {@link PathVisitor path visitor}.
+     * <p>The position of each visited sub-diagram is passed to the visitor as
+     * a single, reused {@link DiagramPath path}, whose stacks are sized to the
+     * {@link DiagramSummary#getDepth() depth} of this diagram up front.</p>
+     *
+     * @param <T>     the type of the result produced by the visitor.
+     * @param visitor the object that will receive calls upon visiting
+     *                particular elements.
+     * @return the result produced by the visitor.
+     */
+    public <T> T visit(PathVisitor<T> visitor) {
+        if (visitor == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "visitor"));
+        }
+        visitor.init(this);
+        if (!visitor.isDone()) {
+            visitPath(this, 0, visitor, new DiagramPath(getSummary().getDepth()));
+        }
+        visitor.end();
+        return visitor.getResult();
+    }
+
     /**
      * Returns the spider sub-diagram at the given index within this spider
      * diagram. <p>This index indicates the number of appearance (from left to
@@ -227,36 +300,35 @@ public abstract class SpiderDiagram implements Iterable<SpiderDiagram>, SpiderDi
      * @return the first index of the given spider diagram.
      */
     public int getSubDiagramIndex(final SpiderDiagram sd) {
-        Integer index = this.visit(new DiagramVisitor<Integer>() {
-
-            private int foundIndex = -1;
-
-            @Override
-            public void init(SpiderDiagram root) {
-            }
-
-            @Override
-            public void end() {
-            }
-
-            @Override
-            public void visit(SpiderDiagram subDiagram, int subDiagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices, ArrayList<Integer> parentIndices) {
-                if (subDiagram.equals(sd)) {
-                    foundIndex = subDiagramIndex;
-                }
-            }
+        return getSubDiagramTable().firstIndexOf(sd);
+    }
 
-            @Override
-            public boolean isDone() {
-                return foundIndex != -1;
-            }
+    /**
+     * Returns the number of parents of the sub-diagram at the given index. The
+     * depth of this diagram (at index {@code 0}) is {@code 0}.
+     *
+     * @param subDiagramIndex the index of the sub-diagram (see {@link
+     *                        SubDiagramIndexArg}).
+     * @return the depth of the sub-diagram at the given index, or {@code -1}
+     *         if there is no sub-diagram with the given index.
+     */
+    public int getDepthOf(int subDiagramIndex) {
+        return getSubDiagramTable().depthOf(subDiagramIndex);
+    }
 
-            @Override
-            public Integer getResult() {
-                return foundIndex;
-            }
-        }, false);
-        return index;
+    /**
+     * Returns the {@link DiagramSummary summary} of this diagram (its
+     * contours, clutter score, size and shape). <p>The summary is computed on
+     * the first call and cached afterwards. Since the summary is immutable,
+     * concurrent first calls at worst compute it twice.</p>
+     *
+     * @return the summary of this diagram.
+     */
+    public DiagramSummary getSummary() {
+        if (summary == null) {
+            summary = DiagramSummary.of(this);
+        }
+        return summary;
     }
 
     /**
@@ -339,41 +411,55 @@ public abstract class SpiderDiagram implements Iterable<SpiderDiagram>, SpiderDi
         return r;
     }
 
+    /**
+     * Returns the index of the parent of the sub-diagram at the given index.
+     *
+     * @param childIndex the index of the sub-diagram (see {@link
+     *                   SubDiagramIndexArg}).
+     * @return the index of the parent, {@code -1} if the given index is
+     *         {@code 0}, or {@code -2} if there is no sub-diagram with the
+     *         given index.
+     */
     public int getParentIndexOf(final int childIndex) {
-        return visit(new DiagramVisitor<Integer>() {
-            private static final int PARENT_NOT_YET_NDETERMINED = -2;
-            private static final int HAS_NO_PARENT = -1;
-            public int parentIndex = PARENT_NOT_YET_NDETERMINED;
-
-            @Override
-            public void init(SpiderDiagram root) {
-            }
+        return getSubDiagramTable().parentIndexOf(childIndex);
+    }
 
-            @Override
-            public void end() {
-            }
+    /**
+     * Returns the preorder table of the sub-diagrams of this diagram. <p>The
+     * table is built on the first call and cached afterwards. Since the table
+     * is immutable, concurrent first calls at worst build it twice.</p>
+     */
+    SubDiagramTable getSubDiagramTable() {
+        if (subDiagramTable == null) {
+            subDiagramTable = new SubDiagramTable(this);
+        }
+        return subDiagramTable;
+    }
 
-            @Override
-            public void visit(SpiderDiagram subDiagram, int subDiagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices, ArrayList<Integer> parentIndices) {
-                if (subDiagramIndex == childIndex) {
-                    if (parents == null || parents.size() < 1) {
-                        parentIndex = HAS_NO_PARENT;
-                    } else {
-                        parentIndex = parentIndices.get(parentIndices.size() - 1);
-                    }
+    /**
+     * Visits the given sub-diagram and its descendants. Returns {@code true}
+     * iff the visitor is done and no further calls to visit must be made.
+     */
+    private static <T> boolean visitPath(SpiderDiagram sd, int subDiagramIndex, PathVisitor<T> visitor, DiagramPath path) {
+        visitor.visit(sd, subDiagramIndex, path);
+        if (visitor.isDone()) {
+            return true;
+        }
+        if (sd instanceof CompoundSpiderDiagram) {
+            CompoundSpiderDiagram csd = (CompoundSpiderDiagram) sd;
+            path.push(csd, subDiagramIndex);
+            int childSubDiagramIndex = subDiagramIndex + 1;
+            for (int childIndex = 0; childIndex < csd.getOperandCount(); childIndex++) {
+                SpiderDiagram child = csd.getOperand(childIndex);
+                path.setLastChildIndex(childIndex);
+                if (visitPath(child, childSubDiagramIndex, visitor, path)) {
+                    return true;
                 }
+                childSubDiagramIndex += child.getSubDiagramCount();
             }
-
-            @Override
-            public boolean isDone() {
-                return parentIndex != PARENT_NOT_YET_NDETERMINED;
-            }
-
-            @Override
-            public Integer getResult() {
-                return parentIndex;
-            }
-        });
+            path.pop();
+        }
+        return false;
     }
     // </editor-fold>
 }
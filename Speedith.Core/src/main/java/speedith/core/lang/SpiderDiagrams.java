@@ -26,7 +26,10 @@
  */
 package speedith.core.lang;
 
-import java.lang.ref.WeakReference;
+import speedith.core.util.SortedArrayMap;
+import speedith.core.util.SortedArraySet;
+import speedith.core.util.WeakInterner;
+
 import java.util.*;
 
 import static speedith.core.i18n.Translations.i18n;
@@ -37,13 +40,21 @@ import static speedith.core.i18n.Translations.i18n;
  * <p><span style="font-weight:bold">Note</span>: This class must be used when
  * constructing spider diagrams.</p>
  * <p>It maintains a pool of living spider diagrams and reuses same spider
- * diagrams instead of creating new ones (for faster equality comparison).</p>
+ * diagrams instead of creating new ones (for faster equality comparison).
+ * The pool is a striped {@link WeakInterner weak interning table}, so threads
+ * that create different diagrams at the same time do not wait for each
+ * other.</p>
+ * <p>Code that creates many short-lived diagrams (e.g., a proof search) may
+ * {@link SpiderDiagrams#openArena() open} a {@link DiagramArena diagram
+ * arena}. Diagrams created while the arena is open are interned into the
+ * arena instead of into the pool and are dropped together with it.</p>
  *
  * @author Matej Urbas [matej.urbas@gmail.com]
  */
 public class SpiderDiagrams {
 
-  private static final WeakHashMap<SpiderDiagram, WeakReference<SpiderDiagram>> pool = new WeakHashMap<>();
+  private static final WeakInterner<SpiderDiagram> pool = new WeakInterner<>();
+  private static final ThreadLocal<DiagramArena> currentArena = new ThreadLocal<>();
 
   private SpiderDiagrams() {
   }
@@ -77,11 +88,11 @@ public class SpiderDiagrams {
    * @return the primary spider diagram.
    */
   public static PrimarySpiderDiagram createPrimarySD(Collection<String> spiders, Map<String, Region> habitats, Collection<Zone> shadedZones, Collection<Zone> presentZones) {
-    return createPrimarySD(spiders, habitats, shadedZones, presentZones, true);
+    return __createPrimarySD(spiders, habitats, shadedZones, presentZones);
   }
 
   public static PrimarySpiderDiagram createPrimarySD(Map<String, Region> habitats, Collection<Zone> shadedZones, Collection<Zone> presentZones) {
-    return createPrimarySD(habitats.keySet(), habitats, shadedZones, presentZones, true);
+    return __createPrimarySD(habitats.keySet(), habitats, shadedZones, presentZones);
   }
 
   /**
@@ -116,40 +127,36 @@ public class SpiderDiagrams {
    * @return the primary spider diagram.
    */
   public static PrimarySpiderDiagram createPrimarySDNoCopy(Collection<String> spiders, Map<String, Region> habitats, Collection<Zone> shadedZones, Collection<Zone> presentZones) {
-    return createPrimarySD(spiders, habitats, shadedZones, presentZones, false);
+    return __createPrimarySD(spiders, habitats, shadedZones, presentZones);
   }
 
   /**
-   * <p>Creates a new primary spider diagram with the given parameters.</p>
-   * <p><span style="font-weight:bold">Note</span>: setting the {@code
-   * copyCollections} flag to {@code false} makes this operation a bit faster,
-   * as this method will not create a copy of the given collections. However,
-   * you <span style="font-weight:bold">must not</span> change these
-   * collections afterwards, or it will lead to unexpected behaviour.</p>
-   * <p>Creates a primary spider diagram from the given collections of
-   * spiders, habitats and shaded zones without making a copy of these
-   * collections. Afterwards it checks whether the created spider diagram is
-   * in the pool already. If it is, it returns the one which is in the pool
-   * and finishes. If it is not, however, then it puts the newly created
-   * spider diagram into the pool. <span style="font-weight:bold">Note</span>:
-   * If the {@code copyCollections} flag is set then before putting the newly
-   * created spider diagram into the pool it first creates a new primary
-   * spider diagram that actually copies the collections and puts this one
-   * into the pool instead.</p>
+   * <p>Creates a new primary spider diagram from the given sorted arrays of
+   * spiders, habitats and zones. These are immutable, so they are never
+   * copied. Afterwards it checks whether the created spider diagram is in the
+   * pool already. If it is, it returns the one which is in the pool and
+   * finishes. If it is not, however, then it puts the newly created spider
+   * diagram into the pool.</p>
    *
-   * @param spiders         a set of spiders (their names) that appear in this
-   *                        spider diagram.
-   * @param habitats        a key-value map of spiders and their corresponding
-   *                        {@link Region habitats}.
-   * @param shadedZones     a set of shaded {@link Zone zones}.
-   * @param presentZones    the set of zones that should be drawn in the diagram
-   *                        if possible (see {@link PrimarySpiderDiagram#getPresentZones()}).
-   * @param copyCollections indicates whether a copy of the above collections
-   *                        should be made to construct the new primary spider diagram.
+   * @param spiders      a set of spiders (their names) that appear in this
+   *                     spider diagram.
+   * @param habitats     a key-value map of spiders and their corresponding
+   *                     {@link Region habitats}.
+   * @param shadedZones  a set of shaded {@link Zone zones}.
+   * @param presentZones the set of zones that should be drawn in the diagram
+   *                     if possible (see {@link PrimarySpiderDiagram#getPresentZones()}).
    * @return the primary spider diagram.
    */
-  static PrimarySpiderDiagram createPrimarySD(TreeSet<String> spiders, TreeMap<String, Region> habitats, TreeSet<Zone> shadedZones, TreeSet<Zone> presentZones, boolean copyCollections) {
-    return __createPrimarySD(spiders, habitats, shadedZones, presentZones, copyCollections);
+  static PrimarySpiderDiagram createPrimarySD(SortedArraySet<String> spiders, SortedArrayMap<String, Region> habitats, SortedArraySet<Zone> shadedZones, SortedArraySet<Zone> presentZones) {
+    PrimarySpiderDiagram psd = new PrimarySpiderDiagram(spiders, habitats, shadedZones, presentZones);
+
+    // Return the equal diagram from the pool, or put the newly created one
+    // into the pool if there is no such diagram yet.
+    SpiderDiagram exPsd = intern(psd);
+    assert (exPsd instanceof PrimarySpiderDiagram) : i18n("GERR_ILLEGAL_STATE_EXPLANATION", i18n("ERR_PRIMARY_SD_EQUALS_NON_PRIMARY_SD"));
+    assert (exPsd.equals(psd)) : i18n("GERR_ILLEGAL_STATE");
+    assert (psd.equals(exPsd)) : i18n("GERR_ILLEGAL_STATE");
+    return (PrimarySpiderDiagram) exPsd;
   }
 
   /**
@@ -253,67 +260,163 @@ public class SpiderDiagrams {
     return __createCompoundSD(new CompoundSpiderDiagram(operator, operands), copyCollection, copyCollection ? operator.getName() : null, operands);
   }
 
-  private static PrimarySpiderDiagram createPrimarySD(Collection<String> spiders, Map<String, Region> habitats, Collection<Zone> shadedZones, Collection<Zone> presentZones, boolean copyCollections) {
-    if ((spiders == null || spiders instanceof TreeSet)
-        && (habitats == null || habitats instanceof TreeMap)
-        && (shadedZones == null || shadedZones instanceof TreeSet)
-        && (presentZones == null || presentZones instanceof TreeSet)) {
-      return createPrimarySD(spiders == null ? null : (TreeSet<String>) spiders,
-                             habitats == null ? null : (TreeMap<String, Region>) habitats,
-                             shadedZones == null ? null : (TreeSet<Zone>) shadedZones,
-                             presentZones == null ? null : (TreeSet<Zone>) presentZones,
-                             copyCollections);
-    } else {
-      TreeSet<String> spidersCopy = spiders == null ? null : new TreeSet<>(spiders);
-      TreeMap<String, Region> habitatsCopy = habitats == null ? null : new TreeMap<>(habitats);
-      TreeSet<Zone> shadedZonesCopy = shadedZones == null ? null : new TreeSet<>(shadedZones);
-      TreeSet<Zone> presentZonesCopy = presentZones == null ? null : new TreeSet<>(presentZones);
-      return __createPrimarySD(spidersCopy, habitatsCopy, shadedZonesCopy, presentZonesCopy, false);
+  /**
+   * Returns the canonical form of the given diagram. <p>In the canonical
+   * form, the spiders of every primary sub-diagram are renamed as described
+   * in {@link PrimarySpiderDiagram#canonicalForm()}. Two diagrams that
+   * differ only in the names of their spiders have the same canonical
+   * form, which also has the same {@link SpiderDiagram#getCanonicalFingerprint()
+   * canonical fingerprint}.</p>
+   *
+   * @param diagram the diagram to bring into the canonical form (may be
+   *                {@code null}).
+   * @return the canonical form of the given diagram (the diagram itself if
+   *         it is already canonical).
+   */
+  @SuppressWarnings("unchecked")
+  public static <T extends SpiderDiagram> T canonicalForm(T diagram) {
+    if (diagram instanceof PrimarySpiderDiagram) {
+      return (T) ((PrimarySpiderDiagram) diagram).canonicalForm();
+    } else if (diagram instanceof CompoundSpiderDiagram) {
+      CompoundSpiderDiagram csd = (CompoundSpiderDiagram) diagram;
+      ArrayList<SpiderDiagram> operands = null;
+      for (int i = 0; i < csd.getOperandCount(); i++) {
+        SpiderDiagram operand = csd.getOperand(i);
+        SpiderDiagram canonical = canonicalForm(operand);
+        if (canonical != operand && operands == null) {
+          operands = new ArrayList<>(csd.getOperands());
+        }
+        if (operands != null) {
+          operands.set(i, canonical);
+        }
+      }
+      return operands == null ? diagram : (T) createCompoundSD(csd.getOperator(), operands, false);
     }
+    return diagram;
   }
 
-  @SuppressWarnings("unchecked")
-  private static PrimarySpiderDiagram __createPrimarySD(TreeSet<String> spiders, TreeMap<String, Region> habitats, TreeSet<Zone> shadedZones, TreeSet<Zone> presentZones, boolean copyCollections) {
-    synchronized (pool) {
-      // TODO: Create separate classes for Habitats and Spiders, and use
-      // Region for 'shadedZones' and 'presentZones. This way, we will
-      // never have to worry about copying these sets, recalculating
-      // hashes and extracting mentioned contours.
+  // <editor-fold defaultstate="collapsed" desc="Diagram Arenas">
+  /**
+   * Opens a new {@link DiagramArena diagram arena} on the current thread.
+   * <p>Until the returned arena is closed, all diagrams created on this
+   * thread are interned into the arena rather than into the global pool.</p>
+   *
+   * @return the newly opened arena.
+   */
+  public static DiagramArena openArena() {
+    DiagramArena arena = new DiagramArena(currentArena.get());
+    currentArena.set(arena);
+    return arena;
+  }
+
+  /**
+   * Returns the innermost open {@link DiagramArena diagram arena} of the
+   * current thread, or {@code null} if there is none.
+   *
+   * @return the innermost open arena of the current thread, or {@code null}.
+   */
+  public static DiagramArena getCurrentArena() {
+    return currentArena.get();
+  }
 
-      // Create the "temporary" primary spider diagram.
-      PrimarySpiderDiagram psd = null;
-      if (copyCollections) {
-        psd = new PrimarySpiderDiagram(spiders == null ? null : (TreeSet<String>) spiders.clone(),
-                                       habitats == null ? null : (TreeMap<String, Region>) habitats.clone(),
-                                       shadedZones == null ? null : (TreeSet<Zone>) shadedZones.clone(),
-                                       presentZones == null ? null : (TreeSet<Zone>) presentZones.clone());
-      } else {
-        psd = new PrimarySpiderDiagram(spiders, habitats, shadedZones, presentZones);
+  /**
+   * Moves the given diagram (with all its sub-diagrams) into the global pool
+   * and returns the pooled instance. <p>Use this method for diagrams that
+   * were created within a {@link DiagramArena diagram arena} and have to
+   * outlive it. The returned diagram equals the given one, but it might be a
+   * different instance.</p>
+   *
+   * @param diagram the diagram to promote (may be {@code null}).
+   * @return the equal diagram from the global pool.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T extends SpiderDiagram> T promote(T diagram) {
+    if (diagram instanceof CompoundSpiderDiagram) {
+      CompoundSpiderDiagram csd = (CompoundSpiderDiagram) diagram;
+      ArrayList<SpiderDiagram> operands = null;
+      for (int i = 0; i < csd.getOperandCount(); i++) {
+        SpiderDiagram operand = csd.getOperand(i);
+        SpiderDiagram promoted = promote(operand);
+        if (promoted != operand && operands == null) {
+          operands = new ArrayList<>(csd.getOperands());
+        }
+        if (operands != null) {
+          operands.set(i, promoted);
+        }
       }
+      if (operands != null) {
+        // Some operands were replaced by instances that were already in the
+        // pool. Make sure the promoted diagram refers to the pooled ones.
+        diagram = (T) new CompoundSpiderDiagram(csd.getOperator(), operands);
+      }
+      return (T) pool.intern(diagram);
+    } else if (diagram instanceof PrimarySpiderDiagram) {
+      return (T) pool.intern(diagram);
+    }
+    return diagram;
+  }
 
-      // Check if an exact copy of it exists in the pool already.
-      SpiderDiagram exPsd = __getSDFromPool(psd);
+  static void closeArena(DiagramArena arena, DiagramArena enclosing) {
+    if (currentArena.get() != arena) {
+      throw new IllegalStateException("Nested diagram arenas must be closed before the arenas that enclose them.");
+    }
+    if (enclosing == null) {
+      currentArena.remove();
+    } else {
+      currentArena.set(enclosing);
+    }
+  }
 
-      // Is the spider diagram already in the pool?
-      if (exPsd == null) {
-        // It is not. Then add the newly created one into the pool and
-        // return it.
-        pool.put(psd, new WeakReference<SpiderDiagram>(psd));
-        return psd;
-      } else {
-        // Otherwise discard the newly created one and return the old one.
-        assert (exPsd instanceof PrimarySpiderDiagram) : i18n("GERR_ILLEGAL_STATE_EXPLANATION", i18n("ERR_PRIMARY_SD_EQUALS_NON_PRIMARY_SD"));
-        // The diagram is already in the pool. Just return it.
-        assert (((PrimarySpiderDiagram) exPsd).equals(psd)) : i18n("GERR_ILLEGAL_STATE");
-        assert (psd.equals(exPsd)) : i18n("GERR_ILLEGAL_STATE");
-        // The spider diagram might have been removed already (just
-        // after we fetched it from the pool and before the reference
-        // was assigned to the local variable). So, add it again to the
-        // pool.
-        pool.put(exPsd, new WeakReference<>(exPsd));
-        return (PrimarySpiderDiagram) exPsd;
+  /**
+   * Returns the canonical instance that equals the given diagram from the
+   * current arena or the global pool, or {@code null} if there is none.
+   */
+  private static SpiderDiagram lookup(SpiderDiagram diagram) {
+    DiagramArena arena = currentArena.get();
+    if (arena != null) {
+      SpiderDiagram existing = arena.get(diagram);
+      if (existing != null) {
+        return existing;
       }
     }
+    return pool.get(diagram);
+  }
+
+  /**
+   * Returns the canonical instance that equals the given diagram. If there
+   * is none yet, the given diagram becomes canonical in the current arena
+   * (or in the global pool if no arena is open).
+   */
+  private static SpiderDiagram intern(SpiderDiagram diagram) {
+    DiagramArena arena = currentArena.get();
+    if (arena == null) {
+      return pool.intern(diagram);
+    }
+    SpiderDiagram existing = arena.get(diagram);
+    if (existing == null) {
+      existing = pool.get(diagram);
+      if (existing == null) {
+        existing = diagram;
+      }
+      arena.put(existing);
+    }
+    return existing;
+  }
+  // </editor-fold>
+
+  /**
+   * Converts the given collections into sorted arrays and creates the primary
+   * diagram. Collections that are {@link SortedArraySet sorted array sets} or
+   * {@link SortedArrayMap sorted array maps} already are immutable and are
+   * used as they are. Spider names in other collections are replaced with
+   * their {@link Names canonical instances} (sorted array sets and maps come
+   * from existing diagrams, so their names are canonical already).
+   */
+  private static PrimarySpiderDiagram __createPrimarySD(Collection<String> spiders, Map<String, Region> habitats, Collection<Zone> shadedZones, Collection<Zone> presentZones) {
+    return createPrimarySD(spiders instanceof SortedArraySet ? (SortedArraySet<String>) spiders : SortedArraySet.copyOf(Names.internAll(spiders)),
+                           habitats instanceof SortedArrayMap ? (SortedArrayMap<String, Region>) habitats : SortedArrayMap.copyOf(Names.internKeys(habitats)),
+                           SortedArraySet.copyOf(shadedZones),
+                           SortedArraySet.copyOf(presentZones));
   }
 
   /**
@@ -327,33 +430,20 @@ public class SpiderDiagrams {
    * @return
    */
   private static CompoundSpiderDiagram __createCompoundSD(CompoundSpiderDiagram csd, boolean copyCollection, String operator, Collection<SpiderDiagram> operands) {
-    synchronized (pool) {
-      SpiderDiagram exCsd = __getSDFromPool(csd);
-      // Is the spider diagram already in the pool?
-      if (exCsd == null) {
-        // It is not. Then add this newly created one into the pool and
-        // return it.
-        if (copyCollection) {
-          csd = new CompoundSpiderDiagram(operator, operands);
-        }
-        pool.put(csd, new WeakReference<SpiderDiagram>(csd));
-        return csd;
+    SpiderDiagram exCsd = lookup(csd);
+    // Is the spider diagram already in the pool?
+    if (exCsd == null) {
+      // It is not. Then add this newly created one into the pool and
+      // return it (unless another thread has just put an equal one in).
+      if (copyCollection) {
+        csd = new CompoundSpiderDiagram(operator, operands);
       }
-      // The diagram is already in the pool. Just return it.
-      assert (exCsd instanceof CompoundSpiderDiagram) : i18n("GERR_ILLEGAL_STATE_EXPLANATION", i18n("ERR_COMPOUND_SD_EQUALS_NON_COMPOUND_SD"));
-      assert (((CompoundSpiderDiagram) exCsd).equals(csd)) : i18n("GERR_ILLEGAL_STATE");
-      assert (csd.equals(exCsd)) : i18n("GERR_ILLEGAL_STATE");
-      // The spider diagram might have been removed already (just
-      // after we fetched it from the pool and before the reference
-      // was assigned to the local variable). So, add it again to the
-      // pool.
-      pool.put(exCsd, new WeakReference<>(exCsd));
-      return (CompoundSpiderDiagram) exCsd;
+      exCsd = intern(csd);
     }
-  }
-
-  private static SpiderDiagram __getSDFromPool(SpiderDiagram psd) {
-    WeakReference<SpiderDiagram> poolSD = pool.get(psd);
-    return poolSD == null ? null : poolSD.get();
+    // The diagram is already in the pool. Just return it.
+    assert (exCsd instanceof CompoundSpiderDiagram) : i18n("GERR_ILLEGAL_STATE_EXPLANATION", i18n("ERR_COMPOUND_SD_EQUALS_NON_COMPOUND_SD"));
+    assert (exCsd.equals(csd)) : i18n("GERR_ILLEGAL_STATE");
+    assert (csd.equals(exCsd)) : i18n("GERR_ILLEGAL_STATE");
+    return (CompoundSpiderDiagram) exCsd;
   }
 }
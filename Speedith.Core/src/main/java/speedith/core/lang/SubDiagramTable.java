@@ -0,0 +1,117 @@
+package speedith.core.lang;
+
+/**
+ * The sub-diagrams of a spider diagram laid out in preorder. <p>The table
+ * stores, for every {@link speedith.core.reasoning.args.SubDiagramIndexArg
+ * sub-diagram index}, the sub-diagram itself, the index of its parent and its
+ * depth. It is built by a single {@link PathVisitor path visitor} traversal
+ * of the diagram (see {@link SpiderDiagram#getSubDiagramTable()}), after which
+ * all the index queries of the diagram are answered by array reads.</p>
+ * <p>Instances of this class are immutable.</p>
+ */
+final class SubDiagramTable {
+
+    /**
+     * The parent index of the root diagram.
+     */
+    static final int HAS_NO_PARENT = -1;
+    /**
+     * The parent index of sub-diagram indices that are out of range.
+     */
+    static final int NO_SUCH_SUB_DIAGRAM = -2;
+
+    private final SpiderDiagram[] nodes;
+    private final int[] parentIndices;
+    private final int[] depths;
+
+    SubDiagramTable(SpiderDiagram root) {
+        int count = root.getSubDiagramCount();
+        nodes = new SpiderDiagram[count];
+        parentIndices = new int[count];
+        depths = new int[count];
+        root.visit(new TableFiller());
+    }
+
+    /**
+     * Returns the number of sub-diagrams in the table.
+     */
+    int size() {
+        return nodes.length;
+    }
+
+    /**
+     * Returns the sub-diagram at the given index, or {@code null} if the index
+     * is out of range.
+     */
+    SpiderDiagram nodeAt(int index) {
+        return isInRange(index) ? nodes[index] : null;
+    }
+
+    /**
+     * Returns the index of the parent of the sub-diagram at the given index,
+     * {@link SubDiagramTable#HAS_NO_PARENT} for the root, or {@link
+     * SubDiagramTable#NO_SUCH_SUB_DIAGRAM} if the index is out of range.
+     */
+    int parentIndexOf(int index) {
+        return isInRange(index) ? parentIndices[index] : NO_SUCH_SUB_DIAGRAM;
+    }
+
+    /**
+     * Returns the number of parents of the sub-diagram at the given index, or
+     * {@code -1} if the index is out of range.
+     */
+    int depthOf(int index) {
+        return isInRange(index) ? depths[index] : -1;
+    }
+
+    /**
+     * Returns the first index at which a sub-diagram equal to the given one
+     * appears, or {@code -1} if there is no such sub-diagram.
+     */
+    int firstIndexOf(SpiderDiagram sd) {
+        // A linear scan keeps the table down to its flat arrays. Sub-diagrams
+        // are interned, so equal ones are usually found by identity.
+        for (int i = 0; i < nodes.length; i++) {
+            if (nodes[i] == sd || nodes[i].equals(sd)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isInRange(int index) {
+        return index >= 0 && index < nodes.length;
+    }
+
+    /**
+     * Puts every visited sub-diagram into the table.
+     */
+    private final class TableFiller implements PathVisitor<Void> {
+
+        @Override
+        public void init(SpiderDiagram root) {
+        }
+
+        @Override
+        public void end() {
+        }
+
+        @Override
+        public void visit(SpiderDiagram subDiagram, int subDiagramIndex, DiagramPath path) {
+            int depth = path.getLength();
+            nodes[subDiagramIndex] = subDiagram;
+            parentIndices[subDiagramIndex] = depth == 0 ? HAS_NO_PARENT : path.getParentIndex(depth - 1);
+            depths[subDiagramIndex] = depth;
+        }
+
+        @Override
+        public boolean isDone() {
+            return false;
+        }
+
+        @Override
+        public Void getResult() {
+            return null;
+        }
+    }
+}
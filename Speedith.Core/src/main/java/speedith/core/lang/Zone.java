@@ -27,12 +27,12 @@
 package speedith.core.lang;
 
 import propity.util.Sets;
+import speedith.core.util.BitMasks;
+import speedith.core.util.SortedArraySet;
 
-import java.io.IOException;
-import java.io.Serializable;
+import java.io.*;
 import java.util.*;
 
-import static propity.util.Sets.equal;
 import static speedith.core.i18n.Translations.i18n;
 
 /**
@@ -41,6 +41,11 @@ import static speedith.core.i18n.Translations.i18n;
  * <a href="http://journals.cambridge.org/action/displayAbstract?fromPage=online&aid=6564924" title="10.1112/S1461157000000942">
  * Spider Diagrams (2005)</a>.</p>
  * <p>Instances of this class (and its derived classes) are immutable.</p>
+ * <p>The in- and out-contours are stored as bit masks over the global
+ * {@link ContourTable contour table}. Equality, hashing and containment tests
+ * are therefore word operations. The sorted sets of contour names returned by
+ * {@link Zone#getInContours()} and {@link Zone#getOutContours()} are views
+ * that are created on first use.</p>
  *
  * @author Matej Urbas [matej.urbas@gmail.com]
  */
@@ -48,12 +53,26 @@ public class Zone implements Comparable<Zone>, SpiderDiagramElement, Serializabl
 
 
     // <editor-fold defaultstate="collapsed" desc="Private Fields">
-    private TreeSet<String> inContours;
-    private TreeSet<String> outContours;
-    private boolean hashInvalid = true;
-    private int hash;
-    private SortedSet<String> allContours;
+    private transient long[] inContours;
+    private transient long[] outContours;
+    private transient int hash;
+    private transient long fingerprint;
+    private transient SortedArraySet<String> inContoursView;
+    private transient SortedArraySet<String> outContoursView;
+    private transient SortedArraySet<String> allContours;
     private static final long serialVersionUID = 4268941198100631182L;
+    /**
+     * Zones are serialised as sets of contour names (the same way as they
+     * were before they were stored as bit masks). Contour indices are only
+     * valid within a single run of the program.
+     */
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("inContours", TreeSet.class),
+        new ObjectStreamField("outContours", TreeSet.class),
+        new ObjectStreamField("hashInvalid", Boolean.TYPE),
+        new ObjectStreamField("hash", Integer.TYPE),
+        new ObjectStreamField("allContours", SortedSet.class)
+    };
     // </editor-fold>
 
     // <editor-fold defaultstate="collapsed" desc="Constructors">
@@ -79,30 +98,22 @@ public class Zone implements Comparable<Zone>, SpiderDiagramElement, Serializabl
      *                    <p>Note that duplicated contour names will be ignored.</p>
      */
     public Zone(Collection<String> inContours, Collection<String> outContours) {
-        this(inContours == null ? null : new TreeSet<>(inContours),
-             outContours == null ? null : new TreeSet<>(outContours));
+        this(ContourTable.maskOf(inContours), ContourTable.maskOf(outContours));
     }
 
     /**
-     * Creates a new zone and initialises it with the two given collections of
-     * contour names.
-     * <p><span style="font-weight:bold">Important</span>: this method does
-     * not make a copy of the given in- and out- contour sets. With this, one
-     * can violate the immutability property of this class (which means that the
-     * contract for the {@link Zone#hashCode()} method might be broken). So,
-     * make sure that you do not change the given sets after creating this zone
-     * with them.</p>
+     * Creates a new zone from the given (trimmed) contour masks. <p>This
+     * constructor does not copy the masks, so they must not be changed
+     * afterwards.</p>
      *
-     * @param inContours  the collection of names of contours which contain this
+     * @param inContours  the mask of contours which contain this new zone.
+     * @param outContours the mask of contours which lie entirely outside this
      *                    new zone.
-     *                    <p>Note that duplicated contour names will be ignored.</p>
-     * @param outContours the collection of names of contours which lie entirely
-     *                    outside this new zone.
-     *                    <p>Note that duplicated contour names will be ignored.</p>
      */
-    Zone(TreeSet<String> inContours, TreeSet<String> outContours) {
-        this.inContours = inContours == null ? new TreeSet<String>() : inContours;
-        this.outContours = outContours == null ? new TreeSet<String>() : outContours;
+    private Zone(long[] inContours, long[] outContours) {
+        this.inContours = inContours;
+        this.outContours = outContours;
+        this.hash = hashOf(inContours, outContours);
     }
     // </editor-fold>
 
@@ -138,7 +149,10 @@ public class Zone implements Comparable<Zone>, SpiderDiagramElement, Serializabl
      *         <p>These are the contours that contain this zone.</p>
      */
     public SortedSet<String> getInContours() {
-        return Collections.unmodifiableSortedSet(inContours);
+        if (inContoursView == null) {
+            inContoursView = namesView(inContours);
+        }
+        return inContoursView;
     }
 
     /**
@@ -147,7 +161,7 @@ public class Zone implements Comparable<Zone>, SpiderDiagramElement, Serializabl
      * @return the number of {@link Zone#getInContours() in-contours}.
      */
     public int getInContoursCount() {
-        return inContours.size();
+        return BitMasks.cardinality(inContours);
     }
     // </editor-fold>
 
@@ -163,7 +177,10 @@ public class Zone implements Comparable<Zone>, SpiderDiagramElement, Serializabl
      *         <p>These are the contours that lie outside this zone.</p>
      */
     public SortedSet<String> getOutContours() {
-        return Collections.unmodifiableSortedSet(outContours);
+        if (outContoursView == null) {
+            outContoursView = namesView(outContours);
+        }
+        return outContoursView;
     }
 
     /**
@@ -172,7 +189,7 @@ public class Zone implements Comparable<Zone>, SpiderDiagramElement, Serializabl
      * @return the number of {@link Zone#getOutContours() out-contours}.
      */
     public int getOutContoursCount() {
-        return outContours.size();
+        return BitMasks.cardinality(outContours);
     }
 
     /**
@@ -194,12 +211,12 @@ public class Zone implements Comparable<Zone>, SpiderDiagramElement, Serializabl
         if (other == null) {
             throw new NullPointerException();
         }
-        if (this == other) {
+        if (this == other || equals(other)) {
             return 0;
         } else {
-            int retVal = Sets.compareNaturally(inContours, other.inContours);
+            int retVal = Sets.compareNaturally(getInContours(), other.getInContours());
             if (retVal == 0) {
-                retVal = Sets.compareNaturally(outContours, other.outContours);
+                retVal = Sets.compareNaturally(getOutContours(), other.getOutContours());
             }
             return retVal;
         }
@@ -221,18 +238,15 @@ public class Zone implements Comparable<Zone>, SpiderDiagramElement, Serializabl
             return true;
         } else if (obj instanceof Zone) {
             Zone other = (Zone) obj;
-            return equal(inContours, other.inContours) && equal(outContours, other.outContours);
+            return hash == other.hash
+                   && Arrays.equals(inContours, other.inContours)
+                   && Arrays.equals(outContours, other.outContours);
         }
         return false;
     }
 
     @Override
     public int hashCode() {
-        if (hashInvalid) {
-            hash = (inContours == null || inContours.isEmpty() ? 0 : inContours.hashCode())
-                   + (outContours == null || outContours.isEmpty() ? 0 : outContours.hashCode());
-            hashInvalid = false;
-        }
         return hash;
     }
 
@@ -245,7 +259,7 @@ public class Zone implements Comparable<Zone>, SpiderDiagramElement, Serializabl
      *         ones.
      */
     public Zone withInContours(String... inContours) {
-        return new Zone(inContours == null ? null : new TreeSet<>(Arrays.asList(inContours)), this.outContours);
+        return new Zone(inContours == null ? BitMasks.EMPTY : ContourTable.maskOf(Arrays.asList(inContours)), this.outContours);
     }
 
     /**
@@ -257,7 +271,7 @@ public class Zone implements Comparable<Zone>, SpiderDiagramElement, Serializabl
      *         ones.
      */
     public Zone withOutContours(String... outContours) {
-        return new Zone(this.inContours, outContours == null ? null : new TreeSet<>(Arrays.asList(outContours)));
+        return new Zone(this.inContours, outContours == null ? BitMasks.EMPTY : ContourTable.maskOf(Arrays.asList(outContours)));
     }
 
     /**
@@ -274,13 +288,58 @@ public class Zone implements Comparable<Zone>, SpiderDiagramElement, Serializabl
      *         </ul>
      */
     public boolean isValid(SortedSet<String> contours) {
-        // NOTE: Maybe we can check whether the disjoint sum of 'inCountours'
-        // and 'outContours' equals to 'contours' in a different, more efficient
-        // way.
-        return Sets.naturallyDisjoint(this.inContours, this.outContours)
-               && Sets.isNaturalSubset(this.inContours, contours)
-               && Sets.isNaturalSubset(this.outContours, contours)
-               && contours.size() == this.getInContoursCount() + this.getOutContoursCount();
+        // Contours that have never been registered cannot be mentioned by
+        // this zone.
+        long[] contoursMask = ContourTable.lookupMask(contours);
+        return contoursMask != null
+               && !BitMasks.intersects(this.inContours, this.outContours)
+               && Arrays.equals(BitMasks.or(this.inContours, this.outContours), contoursMask);
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Contour Masks">
+
+    /**
+     * Returns the bit mask of in-contours. <p>The returned array must not be
+     * changed.</p>
+     */
+    long[] getInContoursMask() {
+        return inContours;
+    }
+
+    /**
+     * Returns the bit mask of out-contours. <p>The returned array must not be
+     * changed.</p>
+     */
+    long[] getOutContoursMask() {
+        return outContours;
+    }
+
+    /**
+     * Creates a zone from the given trimmed contour masks. <p>The masks are
+     * not copied, so they must not be changed afterwards.</p>
+     */
+    static Zone fromMasks(long[] inContours, long[] outContours) {
+        return new Zone(inContours, outContours);
+    }
+
+    /**
+     * Returns a 64-bit hash of this zone that depends only on the names of
+     * its contours (and not on their {@link ContourTable indices}).
+     */
+    long fingerprint() {
+        if (fingerprint == 0) {
+            long h = Fingerprints.IN_CONTOUR_SEED;
+            for (int bit = BitMasks.nextSetBit(inContours, 0); bit >= 0; bit = BitMasks.nextSetBit(inContours, bit + 1)) {
+                h += Fingerprints.mix(Fingerprints.IN_CONTOUR_SEED ^ Fingerprints.ofString(ContourTable.nameAt(bit)));
+            }
+            for (int bit = BitMasks.nextSetBit(outContours, 0); bit >= 0; bit = BitMasks.nextSetBit(outContours, bit + 1)) {
+                h += Fingerprints.mix(Fingerprints.OUT_CONTOUR_SEED ^ Fingerprints.ofString(ContourTable.nameAt(bit)));
+            }
+            // Zero marks a fingerprint that has not been computed yet.
+            fingerprint = h == 0 ? 1 : h;
+        }
+        return fingerprint;
     }
     // </editor-fold>
 
@@ -299,9 +358,9 @@ public class Zone implements Comparable<Zone>, SpiderDiagramElement, Serializabl
                 throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "sb"));
             }
             sb.append('(');
-            SpiderDiagram.printStringList(sb, inContours);
+            SpiderDiagram.printStringList(sb, getInContours());
             sb.append(", ");
-            SpiderDiagram.printStringList(sb, outContours);
+            SpiderDiagram.printStringList(sb, getOutContours());
             sb.append(')');
         } catch (IOException ex) {
             throw new RuntimeException(ex);
@@ -317,9 +376,10 @@ public class Zone implements Comparable<Zone>, SpiderDiagramElement, Serializabl
     
     //Andreas Theocharous
     public String toString2() {
+    	SortedSet<String> inContours = getInContours();
+    	SortedSet<String> outContours = getOutContours();
     	String in = "";
     	String out = "";
-    	
     	if (inContours.size() > 0){
 	    	String[] inArr = new String[inContours.size()];
 	    	Iterator<String> itIn = inContours.iterator();
@@ -360,16 +420,37 @@ public class Zone implements Comparable<Zone>, SpiderDiagramElement, Serializabl
 
     public SortedSet<String> getAllContours() {
         if (allContours == null) {
-            TreeSet<String> contours = new TreeSet<>();
-            if (getInContoursCount() > 0) {
-                contours.addAll(getInContours());
-            }
-            if (getOutContoursCount() > 0) {
-                contours.addAll(getOutContours());
-            }
-            allContours = Collections.unmodifiableSortedSet(contours);
+            allContours = namesView(BitMasks.or(inContours, outContours));
         }
         return allContours;
     }
     // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Private Helper Methods">
+    private static SortedArraySet<String> namesView(long[] mask) {
+        return SortedArraySet.fromSortedArray(ContourTable.sortedNames(mask));
+    }
+
+    private static int hashOf(long[] inContours, long[] outContours) {
+        return 31 * BitMasks.hash(inContours) + BitMasks.hash(outContours);
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("inContours", new TreeSet<>(getInContours()));
+        fields.put("outContours", new TreeSet<>(getOutContours()));
+        fields.put("hashInvalid", true);
+        fields.put("hash", 0);
+        fields.put("allContours", null);
+        out.writeFields();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        inContours = ContourTable.maskOf((Collection<String>) fields.get("inContours", null));
+        outContours = ContourTable.maskOf((Collection<String>) fields.get("outContours", null));
+        hash = hashOf(inContours, outContours);
+    }
+    // </editor-fold>
 }
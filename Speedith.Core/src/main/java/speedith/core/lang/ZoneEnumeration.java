@@ -0,0 +1,376 @@
+package speedith.core.lang;
+
+import speedith.core.util.BitMasks;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * A lazy enumeration of all zones that a region takes when it is expressed
+ * with additional contours. <p>For every base zone, the enumeration lists
+ * every assignment of the new contours to the in- or out-contours of the
+ * zone. With the empty zone as the only base zone (see {@link
+ * ZoneEnumeration#ofContours(java.lang.String...)}) this is the set of all
+ * zones of the Venn diagram of the new contours.</p> <p>The assignments of
+ * every base zone are listed in the Gray-code order: two consecutive zones
+ * differ in a single contour. This way the next zone is computed by flipping
+ * one bit and no intermediate zones are created. The enumeration is never
+ * materialised unless {@link ZoneEnumeration#toList()} is called, so it can
+ * be {@link ZoneEnumeration#filter(speedith.core.lang.ZoneEnumeration.Filter)
+ * filtered} and {@link ZoneEnumeration#count(speedith.core.lang.ZoneEnumeration.Filter)
+ * counted} in constant memory.</p> <p>Large enumerations can be {@link
+ * ZoneEnumeration#split(int) split} into contiguous parts that are iterated
+ * independently, e.g., by the {@link ZoneEnumeration#parallelCount(speedith.core.lang.ZoneEnumeration.Filter,
+ * java.util.concurrent.ForkJoinPool) parallel count}.</p> <p>Instances of
+ * this class are immutable and thread-safe.</p>
+ */
+public final class ZoneEnumeration implements Iterable<Zone> {
+
+    /**
+     * The largest number of new contours an enumeration may have.
+     */
+    public static final int MAX_CONTOURS = 62;
+
+    /**
+     * Enumerations with fewer zones than this are not split any further by
+     * {@link ZoneEnumeration#parallelCount(speedith.core.lang.ZoneEnumeration.Filter,
+     * java.util.concurrent.ForkJoinPool)}.
+     */
+    private static final long PARALLEL_THRESHOLD = 1 << 12;
+
+    private final Zone[] baseZones;
+    private final int[] contourIndices;
+    private final int maskLength;
+    private final long from;
+    private final long to;
+
+    private ZoneEnumeration(Zone[] baseZones, int[] contourIndices, int maskLength, long from, long to) {
+        this.baseZones = baseZones;
+        this.contourIndices = contourIndices;
+        this.maskLength = maskLength;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Returns the enumeration of all zones over the given contours.
+     *
+     * @param contours the contours (duplicates are ignored).
+     * @return the enumeration of all zones over the given contours.
+     */
+    public static ZoneEnumeration ofContours(String... contours) {
+        return ofContours(contours == null ? null : Arrays.asList(contours));
+    }
+
+    /**
+     * Returns the enumeration of all zones over the given contours.
+     *
+     * @param contours the contours (duplicates are ignored, may be {@code
+     *                 null}).
+     * @return the enumeration of all zones over the given contours.
+     */
+    public static ZoneEnumeration ofContours(Collection<String> contours) {
+        return extending(Collections.singletonList(new Zone()), contours);
+    }
+
+    /**
+     * Returns the enumeration of zones of the given region expressed with the
+     * given additional contours.
+     *
+     * @param region      the zones of the region (may be {@code null}).
+     * @param newContours the new contours (duplicates are ignored, may be
+     *                    {@code null}).
+     * @return the enumeration of zones of the given region expressed with the
+     *         given additional contours.
+     */
+    public static ZoneEnumeration extending(Collection<Zone> region, Collection<String> newContours) {
+        Zone[] baseZones = region == null ? new Zone[0] : region.toArray(new Zone[region.size()]);
+        LinkedHashSet<String> distinctContours = newContours == null ? new LinkedHashSet<String>() : new LinkedHashSet<>(newContours);
+        if (distinctContours.size() > MAX_CONTOURS) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "newContours"));
+        }
+        int[] contourIndices = new int[distinctContours.size()];
+        int maxIndex = 0;
+        int i = 0;
+        for (String contour : distinctContours) {
+            contourIndices[i] = ContourTable.indexOf(contour);
+            maxIndex = Math.max(maxIndex, contourIndices[i++]);
+        }
+        long span = 1L << contourIndices.length;
+        if (baseZones.length > Long.MAX_VALUE / span) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "region"));
+        }
+        return new ZoneEnumeration(baseZones, contourIndices, (maxIndex >>> 6) + 1, 0, baseZones.length * span);
+    }
+
+    /**
+     * Returns the number of zones in this enumeration.
+     *
+     * @return the number of zones in this enumeration.
+     */
+    public long size() {
+        return to - from;
+    }
+
+    /**
+     * Returns the zone at the given position of this enumeration.
+     *
+     * @param index the position of the zone.
+     * @return the zone at the given position of this enumeration.
+     */
+    public Zone get(long index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(i18n("GERR_INDEX_OUT_OF_BOUNDS"));
+        }
+        long position = from + index;
+        long[] in = new long[maskLength];
+        long[] out = new long[maskLength];
+        assign(grayCode(position & (span() - 1)), in, out);
+        return createZone(baseZones[baseIndex(position)], in, out);
+    }
+
+    @Override
+    public Iterator<Zone> iterator() {
+        return new GrayCodeIterator(from, to, null);
+    }
+
+    /**
+     * Returns the zones of this enumeration that are accepted by the given
+     * filter. <p>The returned iterable is lazy: it filters the zones while it
+     * is being iterated.</p>
+     *
+     * @param filter the filter to apply.
+     * @return the zones of this enumeration that are accepted by the filter.
+     */
+    public Iterable<Zone> filter(final Filter filter) {
+        return new Iterable<Zone>() {
+            @Override
+            public Iterator<Zone> iterator() {
+                return new GrayCodeIterator(from, to, filter);
+            }
+        };
+    }
+
+    /**
+     * Counts the zones of this enumeration that are accepted by the given
+     * filter.
+     *
+     * @param filter the filter to apply (may be {@code null}, in which case
+     *               all zones are counted).
+     * @return the number of zones accepted by the filter.
+     */
+    public long count(Filter filter) {
+        if (filter == null) {
+            return size();
+        }
+        long count = 0;
+        for (Zone zone : this) {
+            if (filter.accept(zone)) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the zones of this enumeration that are accepted by the given
+     * filter. Large enumerations are split into parts that are counted in
+     * parallel.
+     *
+     * @param filter the filter to apply (must be thread-safe).
+     * @param pool   the pool in which to count the parts.
+     * @return the number of zones accepted by the filter.
+     */
+    public long parallelCount(Filter filter, ForkJoinPool pool) {
+        if (filter == null) {
+            return size();
+        }
+        return pool.invoke(new CountTask(this, filter));
+    }
+
+    /**
+     * Splits this enumeration into at most the given number of contiguous,
+     * roughly equally large parts. Iterating the parts one after another
+     * yields the same zones as iterating this enumeration.
+     *
+     * @param parts the maximum number of parts.
+     * @return the parts of this enumeration.
+     */
+    public List<ZoneEnumeration> split(int parts) {
+        if (parts < 1) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "parts"));
+        }
+        long partsCount = Math.max(1, Math.min(parts, size()));
+        ArrayList<ZoneEnumeration> result = new ArrayList<>((int) partsCount);
+        long start = from;
+        for (long i = 0; i < partsCount; i++) {
+            long end = from + size() * (i + 1) / partsCount;
+            result.add(new ZoneEnumeration(baseZones, contourIndices, maskLength, start, end));
+            start = end;
+        }
+        return result;
+    }
+
+    /**
+     * Creates a list with all the zones of this enumeration.
+     *
+     * @return a list with all the zones of this enumeration.
+     */
+    public ArrayList<Zone> toList() {
+        if (size() > Integer.MAX_VALUE) {
+            throw new IllegalStateException(i18n("GERR_ILLEGAL_STATE"));
+        }
+        ArrayList<Zone> zones = new ArrayList<>((int) size());
+        for (Zone zone : this) {
+            zones.add(zone);
+        }
+        return zones;
+    }
+
+    /**
+     * Decides which zones of an enumeration to keep.
+     */
+    public interface Filter {
+
+        /**
+         * Indicates whether the given zone should be kept.
+         *
+         * @param zone the zone to check.
+         * @return {@code true} iff the zone should be kept.
+         */
+        boolean accept(Zone zone);
+    }
+
+    // <editor-fold defaultstate="collapsed" desc="Private Helper Methods and Classes">
+    private long span() {
+        return 1L << contourIndices.length;
+    }
+
+    private int baseIndex(long position) {
+        return (int) (position >>> contourIndices.length);
+    }
+
+    private static long grayCode(long index) {
+        return index ^ (index >>> 1);
+    }
+
+    /**
+     * Puts the new contours into the in- or out-contours masks according to
+     * the bits of the given Gray code (a set bit means an out-contour).
+     */
+    private void assign(long grayCode, long[] in, long[] out) {
+        Arrays.fill(in, 0);
+        Arrays.fill(out, 0);
+        for (int i = 0; i < contourIndices.length; i++) {
+            int contour = contourIndices[i];
+            if ((grayCode & (1L << i)) == 0) {
+                in[contour >>> 6] |= 1L << contour;
+            } else {
+                out[contour >>> 6] |= 1L << contour;
+            }
+        }
+    }
+
+    private static Zone createZone(Zone baseZone, long[] in, long[] out) {
+        return Zone.fromMasks(union(baseZone.getInContoursMask(), in), union(baseZone.getOutContoursMask(), out));
+    }
+
+    /**
+     * Returns a new trimmed mask with the bits of both masks. Unlike {@link
+     * BitMasks#or(long[], long[])} it never returns the (mutable) second mask.
+     */
+    private static long[] union(long[] baseMask, long[] assigned) {
+        long[] result = Arrays.copyOf(assigned, Math.max(baseMask.length, assigned.length));
+        for (int i = 0; i < baseMask.length; i++) {
+            result[i] |= baseMask[i];
+        }
+        return BitMasks.trim(result);
+    }
+
+    private final class GrayCodeIterator implements Iterator<Zone> {
+
+        private final long end;
+        private final Filter filter;
+        private final long[] in = new long[maskLength];
+        private final long[] out = new long[maskLength];
+        private long position;
+        private boolean assigned;
+        private Zone next;
+
+        GrayCodeIterator(long start, long end, Filter filter) {
+            this.position = start;
+            this.end = end;
+            this.filter = filter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && position < end) {
+                Zone zone = advance();
+                if (filter == null || filter.accept(zone)) {
+                    next = zone;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Zone next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Zone zone = next;
+            next = null;
+            return zone;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private Zone advance() {
+            long local = position & (span() - 1);
+            if (!assigned || local == 0) {
+                // The first zone of a base zone (or of this part).
+                assign(grayCode(local), in, out);
+                assigned = true;
+            } else {
+                // The Gray codes of consecutive indices differ in the bit
+                // of the lowest set bit of the index.
+                int contour = contourIndices[Long.numberOfTrailingZeros(local)];
+                in[contour >>> 6] ^= 1L << contour;
+                out[contour >>> 6] ^= 1L << contour;
+            }
+            return createZone(baseZones[baseIndex(position++)], in, out);
+        }
+    }
+
+    private static final class CountTask extends RecursiveTask<Long> {
+
+        private static final long serialVersionUID = -3473126009717937426L;
+        private final ZoneEnumeration zones;
+        private final Filter filter;
+
+        CountTask(ZoneEnumeration zones, Filter filter) {
+            this.zones = zones;
+            this.filter = filter;
+        }
+
+        @Override
+        protected Long compute() {
+            if (zones.size() <= PARALLEL_THRESHOLD) {
+                return zones.count(filter);
+            }
+            List<ZoneEnumeration> halves = zones.split(2);
+            CountTask second = new CountTask(halves.get(1), filter);
+            second.fork();
+            long firstCount = new CountTask(halves.get(0), filter).compute();
+            return firstCount + second.join();
+        }
+    }
+    // </editor-fold>
+}
@@ -0,0 +1,160 @@
+package speedith.core.lang;
+
+import speedith.core.util.BitMasks;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.TreeSet;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * A fixed, indexed set of zones over which {@link BitRegion bit regions} are
+ * defined. <p>Zones are indexed in their natural order, so the set bits of a
+ * region enumerate its zones sorted. A universe is typically created once per
+ * diagram (see {@link PrimarySpiderDiagram#getZoneUniverse()}) and shared by
+ * all regions that are computed for that diagram.</p> <p>Instances of this
+ * class are immutable.</p>
+ */
+public final class ZoneUniverse {
+
+    private final Zone[] zones;
+    private final HashMap<Zone, Integer> indices;
+    private final BitRegion empty;
+    private final BitRegion all;
+
+    private ZoneUniverse(Zone[] zones) {
+        this.zones = zones;
+        this.indices = new HashMap<>(zones.length * 2);
+        long[] allMask = new long[1];
+        for (int i = 0; i < zones.length; i++) {
+            indices.put(zones[i], i);
+            allMask = BitMasks.set(allMask, i);
+        }
+        this.empty = new BitRegion(this, BitMasks.EMPTY);
+        this.all = new BitRegion(this, BitMasks.trim(allMask));
+    }
+
+    /**
+     * Creates a universe of the given zones.
+     *
+     * @param zones the zones of the universe (duplicates are ignored).
+     * @return a universe of the given zones.
+     */
+    public static ZoneUniverse of(Collection<Zone> zones) {
+        if (zones == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "zones"));
+        }
+        TreeSet<Zone> sortedZones = new TreeSet<>(zones);
+        return new ZoneUniverse(sortedZones.toArray(new Zone[sortedZones.size()]));
+    }
+
+    /**
+     * Returns the number of zones in this universe.
+     *
+     * @return the number of zones in this universe.
+     */
+    public int size() {
+        return zones.length;
+    }
+
+    /**
+     * Returns the zone with the given index.
+     *
+     * @param index the index of the zone.
+     * @return the zone with the given index.
+     */
+    public Zone zoneAt(int index) {
+        return zones[index];
+    }
+
+    /**
+     * Returns the index of the given zone, or {@code -1} if the zone is not in
+     * this universe.
+     *
+     * @param zone the zone to look up.
+     * @return the index of the given zone, or {@code -1}.
+     */
+    public int indexOf(Zone zone) {
+        Integer index = indices.get(zone);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns the empty region of this universe.
+     *
+     * @return the empty region of this universe.
+     */
+    public BitRegion empty() {
+        return empty;
+    }
+
+    /**
+     * Returns the region that contains all zones of this universe.
+     *
+     * @return the region that contains all zones of this universe.
+     */
+    public BitRegion all() {
+        return all;
+    }
+
+    /**
+     * Returns the region of the given zones.
+     *
+     * @param zones the zones of the region.
+     * @return the region of the given zones.
+     * @throws IllegalArgumentException if any of the zones is not in this
+     *                                  universe.
+     */
+    public BitRegion regionOf(Collection<Zone> zones) {
+        BitRegion region = lookupRegion(zones);
+        if (region == null) {
+            throw new IllegalArgumentException(i18n("ERR_ZONE_NOT_IN_UNIVERSE"));
+        }
+        return region;
+    }
+
+    /**
+     * Returns the region of the given zones, or {@code null} if any of the
+     * zones is not in this universe.
+     *
+     * @param zones the zones of the region (may be {@code null}).
+     * @return the region of the given zones, or {@code null}.
+     */
+    public BitRegion lookupRegion(Collection<Zone> zones) {
+        if (zones == null || zones.isEmpty()) {
+            return empty;
+        }
+        long[] mask = new long[1];
+        for (Zone zone : zones) {
+            int index = indexOf(zone);
+            if (index < 0) {
+                return null;
+            }
+            mask = BitMasks.set(mask, index);
+        }
+        return new BitRegion(this, BitMasks.trim(mask));
+    }
+
+    /**
+     * Returns the region of those given zones that are in this universe. The
+     * other zones are ignored.
+     *
+     * @param zones the zones to project onto this universe (may be {@code
+     *              null}).
+     * @return the region of the given zones that are in this universe.
+     */
+    public BitRegion project(Collection<Zone> zones) {
+        if (zones == null || zones.isEmpty()) {
+            return empty;
+        }
+        long[] mask = new long[1];
+        for (Zone zone : zones) {
+            int index = indexOf(zone);
+            if (index >= 0) {
+                mask = BitMasks.set(mask, index);
+            }
+        }
+        return new BitRegion(this, BitMasks.trim(mask));
+    }
+}
@@ -1,16 +1,26 @@
 package speedith.core.lang;
 
+import speedith.core.util.BitMasks;
+
 import java.util.*;
 
 public final class Zones {
 
     public static ArrayList<Zone> allZonesForContours(String... contours) {
-        ArrayList<Zone> powerRegion = new ArrayList<>();
-        powerRegion.add(new Zone());
-        for (String contour : contours) {
-            addContourToPowerRegion(powerRegion, contour);
-        }
-        return powerRegion;
+        return ZoneEnumeration.ofContours(contours).toList();
+    }
+
+    /**
+     * Returns a lazy enumeration of all zones over the given contours (in the
+     * Gray-code order). Use this method instead of {@link
+     * Zones#allZonesForContours(java.lang.String...)} if the zones are only
+     * filtered or counted.
+     *
+     * @param contours the contours of the zones.
+     * @return a lazy enumeration of all zones over the given contours.
+     */
+    public static ZoneEnumeration enumerateZonesForContours(String... contours) {
+        return ZoneEnumeration.ofContours(contours);
     }
 
     public static ArrayList<Zone> getZonesOutsideContours(Collection<Zone> region, String... contours) {
@@ -70,76 +80,40 @@ public final class Zones {
         } else if (newContours == null || newContours.isEmpty()) {
             return new ArrayList<>(region);
         }
-        ArrayList<Zone> regionToAddContour = new ArrayList<>(region);
-        addContoursToRegion(newContours, regionToAddContour);
-        return regionToAddContour;
+        return ZoneEnumeration.extending(region, newContours).toList();
     }
 
-    private static void addContoursToRegion(Collection<String> newContours, ArrayList<Zone> regionToAddContour) {
-        for (String newContour : newContours) {
-            int currentRegionSize = regionToAddContour.size();
-            for (int i = 0; i < currentRegionSize; i++) {
-                Zone zoneToAddContour = regionToAddContour.get(i);
-
-                regionToAddContour.set(i, createZoneWithAddedInContour(newContour, zoneToAddContour));
-                regionToAddContour.add(createZoneWithAddedOutContour(newContour, zoneToAddContour));
+    public static boolean isZonePartOfAllContours(Zone zone, String... contours) {
+        long[] inContours = zone.getInContoursMask();
+        if (inContours.length == 0) {
+            return false;
+        }
+        for (String contour : contours) {
+            if (!isInMask(inContours, contour)) {
+                return false;
             }
         }
-    }
-
-    public static boolean isZonePartOfAllContours(Zone zone, String... contours) {
-        return zone.getInContoursCount() > 0 &&
-               zone.getInContours().containsAll(Arrays.asList(contours));
+        return true;
     }
 
     public static boolean isZoneOutsideContours(Zone zone, String... contours) {
-        if (zone.getInContoursCount() > 0) {
-            for (String contour : contours) {
-                if (zone.getInContours().contains(contour)) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return !isZonePartOfAnyContour(zone, contours);
     }
 
     private static boolean isZonePartOfAnyContour(Zone zone, String[] contours) {
-        for (String contour : contours) {
-            if (zone.getInContoursCount() > 0 && zone.getInContours().contains(contour)) {
-                return true;
+        long[] inContours = zone.getInContoursMask();
+        if (inContours.length > 0) {
+            for (String contour : contours) {
+                if (isInMask(inContours, contour)) {
+                    return true;
+                }
             }
         }
         return false;
     }
 
-    private static void addContourToPowerRegion(ArrayList<Zone> powerRegion, String contour) {
-        if (powerRegion.isEmpty()) {
-            powerRegion.add(Zone.fromInContours(contour));
-            powerRegion.add(Zone.fromOutContours(contour));
-        } else {
-            int oldZonesCount = powerRegion.size();
-            for (int i = 0; i < oldZonesCount; i++) {
-                Zone zone = powerRegion.get(i);
-                powerRegion.set(i, createZoneWithAddedInContour(contour, zone));
-                powerRegion.add(createZoneWithAddedOutContour(contour, zone));
-            }
-        }
-    }
-
-    private static Zone createZoneWithAddedInContour(String newContour, Zone zone) {
-        return new Zone(extendContours(newContour, zone.getInContours()), zone.getOutContours());
-    }
-
-    private static Zone createZoneWithAddedOutContour(String contour, Zone zone) {
-        return new Zone(zone.getInContours(), extendContours(contour, zone.getOutContours()));
-    }
-
-    private static TreeSet<String> extendContours(String contour, SortedSet<String> oldInContours) {
-        TreeSet<String> newContours = new TreeSet<>();
-        if (oldInContours != null) {
-            newContours.addAll(oldInContours);
-        }
-        newContours.add(contour);
-        return newContours;
+    private static boolean isInMask(long[] contoursMask, String contour) {
+        int contourIndex = ContourTable.lookup(contour);
+        return contourIndex >= 0 && BitMasks.get(contoursMask, contourIndex);
     }
 }
@@ -31,6 +31,7 @@ import propity.util.Sets;
 import speedith.core.lang.*;
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.util.*;
 
@@ -49,6 +50,7 @@ public class Isabelle2011ExportProvider extends SDExportProvider {
     public static final String FormatName = "Isabelle2011";
     public static final String Parameter_ML = "ml";
     public static final String Parameter_UseXSymbols = "useXSymbols";
+    public static final String Parameter_ShareSubdiagrams = "shareSubdiagrams";
 
     @Override
     public String getFormatName() {
@@ -59,7 +61,8 @@ public class Isabelle2011ExportProvider extends SDExportProvider {
     public SDExporter getExporter(Map<String, String> parameters) {
         boolean useXSymbols = "true".equalsIgnoreCase(parameters == null ? null : parameters.get(Parameter_UseXSymbols));
         boolean useML = "true".equalsIgnoreCase(parameters == null ? null : parameters.get(Parameter_ML));
-        return new Exporter(useXSymbols, useML);
+        boolean shareSubdiagrams = "true".equalsIgnoreCase(parameters == null ? null : parameters.get(Parameter_ShareSubdiagrams));
+        return new Exporter(useXSymbols, useML, shareSubdiagrams);
     }
 
     @Override
@@ -77,11 +80,6 @@ public class Isabelle2011ExportProvider extends SDExportProvider {
         return i18n(locale, ParameterDescriptions.Parameters.get(parameter));
     }
 
-    private static interface PrintCallback {
-
-        void print(Writer output) throws IOException;
-    }
-
     /**
      * The actual exporter class. This class does the actual translation from
      * spider diagrams to Isabelle's formulas.
@@ -93,16 +91,23 @@ public class Isabelle2011ExportProvider extends SDExportProvider {
         // Isabelle automatically?
         public static final String ISA_SYM_EX = "EX";
         public static final String ISA_XSYM_EXISTS = "∃";
+        /**
+         * The prefix of the names of shared sub-diagrams in {@code let}
+         * expressions.
+         */
+        public static final String SHARED_DIAGRAM_PREFIX = "sd";
         private boolean useXSymbols;
         private boolean useML;
+        private boolean shareSubdiagrams;
 
         public Exporter() {
-            this(false, false);
+            this(false, false, false);
         }
 
-        public Exporter(boolean useXSymbols, boolean useML) {
+        public Exporter(boolean useXSymbols, boolean useML, boolean shareSubdiagrams) {
             this.useXSymbols = useXSymbols;
             this.useML = useML;
+            this.shareSubdiagrams = shareSubdiagrams;
         }
 
         @Override
@@ -110,12 +115,37 @@ public class Isabelle2011ExportProvider extends SDExportProvider {
             if (output == null) {
                 throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "output"));
             }
+            exportFormula(sd, output, new ExportState(null));
+            output.flush();
+        }
+
+        /**
+         * Exports all diagrams into the output without flushing it in
+         * between. Primary diagrams that occur in more than one formula are
+         * translated only once.
+         */
+        @Override
+        public void exportAllTo(Collection<? extends SpiderDiagram> spiderDiagrams, Writer output) throws ExportException, IOException {
+            if (spiderDiagrams == null) {
+                throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "spiderDiagrams"));
+            }
+            if (output == null) {
+                throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "output"));
+            }
+            HashMap<SpiderDiagram, String> exportedPrimaries = new HashMap<>();
+            for (SpiderDiagram sd : spiderDiagrams) {
+                exportFormula(sd, output, new ExportState(exportedPrimaries));
+                output.write('\n');
+            }
+            output.flush();
+        }
+
+        private void exportFormula(SpiderDiagram sd, Writer output, ExportState state) throws IOException, ExportException {
             if (useML) {
-                exportDiagramML(sd, output);
+                exportDiagramML(sd, output, state);
             } else {
-                exportDiagram(sd, output);
+                exportSharedDiagram(sd, output, state);
             }
-            output.flush();
         }
 
         private Writer printAnd(Writer output) throws IOException {
@@ -254,34 +284,63 @@ public class Isabelle2011ExportProvider extends SDExportProvider {
             printTrue(output);
         }
 
-        private void exportInfixOperator(CompoundSpiderDiagram nsd, Writer output, PrintCallback operatorSymbolPrinter) throws IOException, RuntimeException {
+        private void exportInfixOperator(CompoundSpiderDiagram nsd, Writer output, ExportState state) throws IOException, RuntimeException {
             // We have to print an infix operator application.
             if (nsd.getOperandCount() < 2) {
                 throw new RuntimeException(i18n("ERR_EXPORT_ARG_COUNT_INVALID", nsd.getOperandCount()));
             } else {
-                exportDiagram(nsd.getOperand(0), output);
+                final Operator op = nsd.getOperator();
+                exportDiagram(nsd.getOperand(0), output, state);
                 for (int i = 1; i < nsd.getOperandCount(); i++) {
-                    operatorSymbolPrinter.print(output);
-                    exportDiagram(nsd.getOperand(i), output);
+                    printInfixOperator(op, output);
+                    exportDiagram(nsd.getOperand(i), output, state);
                 }
             }
         }
 
-        private void exportCompoundDiagram(CompoundSpiderDiagram nsd, Writer output) throws IOException {
+        private void printInfixOperator(Operator op, Writer output) throws IOException {
+            if (op.equals(Operator.Implication)) {
+                printImp(output);
+            } else if (op.equals(Operator.Conjunction)) {
+                printAnd(output);
+            } else if (op.equals(Operator.Disjunction)) {
+                printOr(output);
+            } else {
+                printEquiv(output);
+            }
+        }
+
+        private void exportCompoundDiagram(CompoundSpiderDiagram nsd, Writer output, ExportState state) throws IOException {
             final Operator op = nsd.getOperator();
-            if (op.equals(Operator.Implication.getName())) {
-                exportInfixOperator(nsd, output, new ImpOperatorPrinter());
-            } else if (op.equals(Operator.Conjunction.getName())) {
-                exportInfixOperator(nsd, output, new AndOperatorPrinter());
-            } else if (op.equals(Operator.Disjunction.getName())) {
-                exportInfixOperator(nsd, output, new OrOperatorPrinter());
-            } else if (op.equals(Operator.Equivalence.getName())) {
-                exportInfixOperator(nsd, output, new EqOperatorPrinter());
+            if (op.equals(Operator.Implication.getName())
+                    || op.equals(Operator.Conjunction.getName())
+                    || op.equals(Operator.Disjunction.getName())
+                    || op.equals(Operator.Equivalence.getName())) {
+                exportInfixOperator(nsd, output, state);
             } else {
                 throw new RuntimeException(i18n("GERR_ILLEGAL_STATE"));
             }
         }
 
+        /**
+         * Exports the primary diagram or copies its translation if it has
+         * already been exported in the same batch.
+         */
+        private void exportPrimaryDiagram(PrimarySpiderDiagram psd, Writer output, ExportState state) throws IOException {
+            if (state.exportedPrimaries == null) {
+                exportPrimaryDiagram(psd, output);
+                return;
+            }
+            String formula = state.exportedPrimaries.get(psd);
+            if (formula == null) {
+                StringWriter primaryOutput = new StringWriter();
+                exportPrimaryDiagram(psd, primaryOutput);
+                formula = primaryOutput.toString();
+                state.exportedPrimaries.put(psd, formula);
+            }
+            output.write(formula);
+        }
+
         private void exportPrimaryDiagram(PrimarySpiderDiagram psd, Writer output) throws IOException {
             output.append('(');
             SortedSet<String> spiders = psd.getSpiders();
@@ -350,32 +409,112 @@ public class Isabelle2011ExportProvider extends SDExportProvider {
             }
         }
 
-        private void exportDiagram(SpiderDiagram sd, Writer output) throws IOException {
+        /**
+         * Exports the diagram and binds its sub-diagrams that occur more than
+         * once to names in a {@code let} expression (if sharing is enabled).
+         * Every shared sub-diagram is thus translated only once.
+         */
+        private void exportSharedDiagram(SpiderDiagram sd, Writer output, ExportState state) throws IOException {
+            // The names must not capture any contours (the only free
+            // variables of the formula).
+            HashSet<String> takenNames = new HashSet<>();
+            List<SpiderDiagram> sharedDiagrams = shareSubdiagrams ? findSharedSubdiagrams(sd, takenNames) : Collections.<SpiderDiagram>emptyList();
+            if (sharedDiagrams.isEmpty()) {
+                exportDiagram(sd, output, state);
+                return;
+            }
+            output.append("(let ");
+            for (int i = 0; i < sharedDiagrams.size(); i++) {
+                SpiderDiagram sharedDiagram = sharedDiagrams.get(i);
+                String name = SHARED_DIAGRAM_PREFIX + (i + 1);
+                while (takenNames.contains(name)) {
+                    name += "'";
+                }
+                if (i > 0) {
+                    output.append("; ");
+                }
+                output.append(name).append(" = ");
+                // Shared diagrams are in post-order, so all shared
+                // sub-diagrams of this one have been bound already.
+                exportDiagramBody(sharedDiagram, output, state);
+                state.sharedNames.put(sharedDiagram, name);
+            }
+            output.append(" in ");
+            exportDiagram(sd, output, state);
+            output.append(')');
+        }
+
+        /**
+         * Returns the sub-diagrams (other than null diagrams and the diagram
+         * itself) that occur more than once in the given diagram in
+         * post-order. The contours of the diagram are added to the given set.
+         */
+        private static List<SpiderDiagram> findSharedSubdiagrams(SpiderDiagram sd, Set<String> contours) {
+            IdentityHashMap<SpiderDiagram, Integer> occurrences = new IdentityHashMap<>();
+            ArrayList<SpiderDiagram> postOrder = new ArrayList<>();
+            countOccurrences(sd, occurrences, postOrder);
+            ArrayList<SpiderDiagram> sharedDiagrams = new ArrayList<>();
+            for (SpiderDiagram subdiagram : postOrder) {
+                if (subdiagram instanceof PrimarySpiderDiagram) {
+                    contours.addAll(((PrimarySpiderDiagram) subdiagram).getAllContours());
+                }
+                if (occurrences.get(subdiagram) > 1 && !(subdiagram instanceof NullSpiderDiagram)) {
+                    sharedDiagrams.add(subdiagram);
+                }
+            }
+            return sharedDiagrams;
+        }
+
+        private static void countOccurrences(SpiderDiagram sd, IdentityHashMap<SpiderDiagram, Integer> occurrences, ArrayList<SpiderDiagram> postOrder) {
+            Integer count = occurrences.get(sd);
+            if (count != null) {
+                occurrences.put(sd, count + 1);
+                return;
+            }
+            occurrences.put(sd, 1);
+            if (sd instanceof CompoundSpiderDiagram) {
+                for (SpiderDiagram operand : ((CompoundSpiderDiagram) sd).getOperands()) {
+                    countOccurrences(operand, occurrences, postOrder);
+                }
+            }
+            postOrder.add(sd);
+        }
+
+        private void exportDiagram(SpiderDiagram sd, Writer output, ExportState state) throws IOException {
+            String sharedName = state.sharedNames.get(sd);
+            if (sharedName != null) {
+                output.append(sharedName);
+            } else {
+                exportDiagramBody(sd, output, state);
+            }
+        }
+
+        private void exportDiagramBody(SpiderDiagram sd, Writer output, ExportState state) throws IOException {
             if (sd instanceof NullSpiderDiagram) {
                 exportNullDiagram(output);
             } else if (sd instanceof CompoundSpiderDiagram) {
-                exportCompoundDiagram((CompoundSpiderDiagram) sd, output);
+                exportCompoundDiagram((CompoundSpiderDiagram) sd, output, state);
             } else if (sd instanceof PrimarySpiderDiagram) {
-                exportPrimaryDiagram((PrimarySpiderDiagram) sd, output);
+                exportPrimaryDiagram((PrimarySpiderDiagram) sd, output, state);
             } else {
                 throw new IllegalArgumentException(i18n("ERR_EXPORT_INVALID_SD"));
             }
         }
 
-        private void exportDiagramML(SpiderDiagram sd, Writer output) throws ExportException, IOException {
+        private void exportDiagramML(SpiderDiagram sd, Writer output, ExportState state) throws ExportException, IOException {
             if (sd instanceof CompoundSpiderDiagram) {
                 CompoundSpiderDiagram csd = (CompoundSpiderDiagram) sd;
                 if (csd.getOperator().equals(Operator.Implication)) {
                     final SpiderDiagram op1 = csd.getOperand(0);
                     if (op1 instanceof PrimarySpiderDiagram) {
                         printMLAntecedent((PrimarySpiderDiagram) csd.getOperand(0), output);
-                        exportDiagram(csd.getOperand(1), output);
+                        exportSharedDiagram(csd.getOperand(1), output, state);
                         return;
                     } else if (op1 instanceof NullSpiderDiagram) {
                         exportNullDiagram(printMLLeftBracket(output));
                         printMLRightBracket(output);
                         printMLImplication(output);
-                        exportDiagram(csd.getOperand(1), output);
+                        exportSharedDiagram(csd.getOperand(1), output, state);
                         return;
                     }
                 }
@@ -488,36 +627,23 @@ public class Isabelle2011ExportProvider extends SDExportProvider {
             }
         }
 
-        private class EqOperatorPrinter implements PrintCallback {
-
-            @Override
-            public void print(Writer output) throws IOException {
-                printEquiv(output);
-            }
-        }
-
-        private class OrOperatorPrinter implements PrintCallback {
-
-            @Override
-            public void print(Writer output) throws IOException {
-                printOr(output);
-            }
-        }
-
-        private class AndOperatorPrinter implements PrintCallback {
+    }
 
-            @Override
-            public void print(Writer output) throws IOException {
-                printAnd(output);
-            }
-        }
+    /**
+     * The state of a single export: the names of shared sub-diagrams and the
+     * translations of primary diagrams exported earlier in the same batch.
+     */
+    private static final class ExportState {
 
-        private class ImpOperatorPrinter implements PrintCallback {
+        final IdentityHashMap<SpiderDiagram, String> sharedNames = new IdentityHashMap<>();
+        /**
+         * The translations of primary diagrams (may be {@code null} if the
+         * translations are not reused).
+         */
+        final Map<SpiderDiagram, String> exportedPrimaries;
 
-            @Override
-            public void print(Writer output) throws IOException {
-                printImp(output);
-            }
+        ExportState(Map<SpiderDiagram, String> exportedPrimaries) {
+            this.exportedPrimaries = exportedPrimaries;
         }
     }
 
@@ -529,6 +655,7 @@ public class Isabelle2011ExportProvider extends SDExportProvider {
             Parameters = new TreeMap<>();
             Parameters.put(Parameter_UseXSymbols, "ISABELE_EXPORT_PAR_USE_X_SYMBOLS_DESCRIPTION");
             Parameters.put(Parameter_ML, "ISABELE_EXPORT_PAR_ML_DESCRIPTION");
+            Parameters.put(Parameter_ShareSubdiagrams, "ISABELE_EXPORT_PAR_SHARE_SUBDIAGRAMS_DESCRIPTION");
         }
     }
 }
@@ -29,6 +29,7 @@ package speedith.core.lang.export;
 import speedith.core.lang.*;
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.util.*;
 
@@ -155,7 +156,29 @@ public class OpenproofExportProvider extends SDExportProvider {
             if (output == null) {
                 throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "output"));
             }
-            exportDiagram(sd, output);
+            exportDiagram(sd, output, null);
+            output.flush();
+        }
+
+        /**
+         * Exports all diagrams into the output without flushing it in
+         * between. Primary diagrams that occur more than once are translated
+         * only once (Openproof formulae have no definitions, so their
+         * translations are copied).
+         */
+        @Override
+        public void exportAllTo(Collection<? extends SpiderDiagram> spiderDiagrams, Writer output) throws ExportException, IOException {
+            if (spiderDiagrams == null) {
+                throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "spiderDiagrams"));
+            }
+            if (output == null) {
+                throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "output"));
+            }
+            HashMap<SpiderDiagram, String> exportedPrimaries = new HashMap<>();
+            for (SpiderDiagram sd : spiderDiagrams) {
+                exportDiagram(sd, output, exportedPrimaries);
+                output.write('\n');
+            }
             output.flush();
         }
 
@@ -163,7 +186,7 @@ public class OpenproofExportProvider extends SDExportProvider {
             printTrue(output);
         }
 
-        private void exportInfixOperator(CompoundSpiderDiagram nsd, Writer output, PrintCallback operatorSymbolPrinter) throws IOException, RuntimeException {
+        private void exportInfixOperator(CompoundSpiderDiagram nsd, Writer output, Map<SpiderDiagram, String> exportedPrimaries) throws IOException, RuntimeException {
             // We have to print an infix operator application.
             if (nsd.getOperandCount() < 2) {
                 throw new RuntimeException(i18n("ERR_EXPORT_ARG_COUNT_INVALID", nsd.getOperandCount()));
@@ -171,44 +194,69 @@ public class OpenproofExportProvider extends SDExportProvider {
                 // Print out the first operand and enclose it in parentheses.
                 // All the operands must be enclosed in parentheses because
                 // Openproof requires it.
+                final Operator op = nsd.getOperator();
                 printOpeningParenthesis(output);
-                exportDiagram(nsd.getOperand(0), output);
+                exportDiagram(nsd.getOperand(0), output, exportedPrimaries);
                 printClosingParenthesis(output);
                 for (int i = 1; i < nsd.getOperandCount(); i++) {
                     // Print the operator simbol (with spaces around it).
-                    operatorSymbolPrinter.print(output);
+                    printInfixOperator(op, output);
 
                     // Print the other operands and enclose them in parentheses.
                     printOpeningParenthesis(output);
-                    exportDiagram(nsd.getOperand(i), output);
+                    exportDiagram(nsd.getOperand(i), output, exportedPrimaries);
                     printClosingParenthesis(output);
                 }
             }
         }
 
-        private void exportDiagram(SpiderDiagram sd, Writer output) throws IOException {
+        private static void printInfixOperator(Operator op, Writer output) throws IOException {
+            if (op.equals(Operator.Implication)) {
+                printImp(output);
+            } else if (op.equals(Operator.Conjunction)) {
+                printAnd(output);
+            } else if (op.equals(Operator.Disjunction)) {
+                printOr(output);
+            } else {
+                printEquiv(output);
+            }
+        }
+
+        /**
+         * Exports the diagram. The translations of primary diagrams are
+         * reused if the given map is not {@code null}.
+         */
+        private void exportDiagram(SpiderDiagram sd, Writer output, Map<SpiderDiagram, String> exportedPrimaries) throws IOException {
             if (sd instanceof NullSpiderDiagram) {
                 exportNullDiagram(output);
             } else if (sd instanceof CompoundSpiderDiagram) {
-                exportCompoundDiagram((CompoundSpiderDiagram) sd, output);
+                exportCompoundDiagram((CompoundSpiderDiagram) sd, output, exportedPrimaries);
             } else if (sd instanceof PrimarySpiderDiagram) {
-                exportPrimaryDiagram((PrimarySpiderDiagram) sd, output);
+                if (exportedPrimaries == null) {
+                    exportPrimaryDiagram((PrimarySpiderDiagram) sd, output);
+                } else {
+                    String formula = exportedPrimaries.get(sd);
+                    if (formula == null) {
+                        StringWriter primaryOutput = new StringWriter();
+                        exportPrimaryDiagram((PrimarySpiderDiagram) sd, primaryOutput);
+                        formula = primaryOutput.toString();
+                        exportedPrimaries.put(sd, formula);
+                    }
+                    output.write(formula);
+                }
             } else {
                 throw new IllegalArgumentException(i18n("ERR_EXPORT_INVALID_SD"));
             }
         }
 
-        private void exportCompoundDiagram(CompoundSpiderDiagram csd, Writer output) throws IOException {
+        private void exportCompoundDiagram(CompoundSpiderDiagram csd, Writer output, Map<SpiderDiagram, String> exportedPrimaries) throws IOException {
             // TODO: Implement the negation too.
             final Operator op = csd.getOperator();
-            if (op.equals(Operator.Implication.getName())) {
-                exportInfixOperator(csd, output, ImpOperatorPrinter.Instance);
-            } else if (op.equals(Operator.Conjunction.getName())) {
-                exportInfixOperator(csd, output, AndOperatorPrinter.Instance);
-            } else if (op.equals(Operator.Disjunction.getName())) {
-                exportInfixOperator(csd, output, OrOperatorPrinter.Instance);
-            } else if (op.equals(Operator.Equivalence.getName())) {
-                exportInfixOperator(csd, output, EqOperatorPrinter.Instance);
+            if (op.equals(Operator.Implication.getName())
+                    || op.equals(Operator.Conjunction.getName())
+                    || op.equals(Operator.Disjunction.getName())
+                    || op.equals(Operator.Equivalence.getName())) {
+                exportInfixOperator(csd, output, exportedPrimaries);
             } else {
                 throw new RuntimeException(i18n("GERR_ILLEGAL_STATE"));
             }
@@ -380,48 +428,6 @@ public class OpenproofExportProvider extends SDExportProvider {
             }
         }
         // </editor-fold>
-
-        // <editor-fold defaultstate="collapsed" desc="Helper Classes">
-        private static class EqOperatorPrinter implements PrintCallback {
-
-            static final EqOperatorPrinter Instance = new EqOperatorPrinter();
-
-            @Override
-            public void print(Writer output) throws IOException {
-                printEquiv(output);
-            }
-        }
-
-        private static class OrOperatorPrinter implements PrintCallback {
-
-            static final OrOperatorPrinter Instance = new OrOperatorPrinter();
-
-            @Override
-            public void print(Writer output) throws IOException {
-                printOr(output);
-            }
-        }
-
-        private static class AndOperatorPrinter implements PrintCallback {
-
-            static final AndOperatorPrinter Instance = new AndOperatorPrinter();
-
-            @Override
-            public void print(Writer output) throws IOException {
-                printAnd(output);
-            }
-        }
-
-        private static class ImpOperatorPrinter implements PrintCallback {
-
-            static final ImpOperatorPrinter Instance = new ImpOperatorPrinter();
-
-            @Override
-            public void print(Writer output) throws IOException {
-                printImp(output);
-            }
-        }
-        // </editor-fold>
     }
 
     // <editor-fold defaultstate="collapsed" desc="Parameter Descriptions">
@@ -434,11 +440,4 @@ public class OpenproofExportProvider extends SDExportProvider {
         }
     }
     // </editor-fold>
-
-    // <editor-fold defaultstate="collapsed" desc="Callback Interfaces">
-    private static interface PrintCallback {
-
-        void print(Writer output) throws IOException;
-    }
-    // </editor-fold>
 }
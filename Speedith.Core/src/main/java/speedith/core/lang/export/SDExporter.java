@@ -32,6 +32,7 @@ import speedith.core.lang.SpiderDiagram;
 import java.io.*;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
+import java.util.Collection;
 
 import static speedith.core.i18n.Translations.i18n;
 
@@ -143,5 +144,36 @@ public abstract class SDExporter {
      * writing to the output.
      */
     public abstract void exportTo(SpiderDiagram spiderDiagram, Writer output) throws ExportException, IOException;
+
+    /**
+     * Converts all given {@link SpiderDiagram spider diagrams} to a textual
+     * form and writes them to the given {@link Writer output}, one diagram
+     * per line. <p>This is the streaming mode for large sets of diagrams
+     * (e.g.: all goals of a proof): the output is written directly to the
+     * writer and flushed only at the end. Exporters may translate diagrams
+     * that occur more than once in the set only once.</p> <p>The default
+     * implementation calls {@link SDExporter#exportTo(speedith.core.lang.SpiderDiagram, java.io.Writer)}
+     * for every diagram.</p>
+     * @param spiderDiagrams the spider diagrams to export to a textual form.
+     * @param output the object to which to write the textual forms of the
+     * spider diagrams to.
+     * @throws ExportException thrown by the exporter if the exporting of a
+     * spider diagram failed for some reason.
+     * @throws IOException this exception is thrown if an error occurred during
+     * writing to the output.
+     */
+    public void exportAllTo(Collection<? extends SpiderDiagram> spiderDiagrams, Writer output) throws ExportException, IOException {
+        if (spiderDiagrams == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "spiderDiagrams"));
+        }
+        if (output == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "output"));
+        }
+        for (SpiderDiagram spiderDiagram : spiderDiagrams) {
+            exportTo(spiderDiagram, output);
+            output.write('\n');
+        }
+        output.flush();
+    }
     // </editor-fold>
 }
@@ -31,6 +31,8 @@
  * <p>The class {@link speedith.core.lang.export.SDExporting} is the main entry point to getting the
  * desired {@link speedith.core.lang.export.SDExporter} object, which then performs the translation
  * through the methods {@link speedith.core.lang.export.SDExporter#export(SpiderDiagram)}, {@link
- * speedith.core.lang.export.SDExporter#exportTo(SpiderDiagram, java.io.Writer)}.</p>
+ * speedith.core.lang.export.SDExporter#exportTo(SpiderDiagram, java.io.Writer)} and {@link
+ * speedith.core.lang.export.SDExporter#exportAllTo(java.util.Collection, java.io.Writer)} (which
+ * streams large sets of diagrams into a single writer).</p>
  */
 package speedith.core.lang.export;
\ No newline at end of file
@@ -0,0 +1,157 @@
+package speedith.core.lang.reader;
+
+import speedith.core.lang.SpiderDiagram;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Reads successive versions of the same spider diagram text (e.g.: while the
+ * user is typing it) and parses only the sub-diagrams that changed since the
+ * previous version. <p>The sub-diagrams of the last successfully read
+ * version are kept and looked up by their text. A sub-diagram whose text did
+ * not change is reused without being parsed again. Sub-diagrams that were
+ * read while the text was invalid are kept until the text is valid again.</p>
+ * <p>The {@link Result result} of every read reports the spans of the
+ * innermost sub-diagrams that had to be parsed (i.e.: the operands that
+ * changed).</p> <p>This class is thread-safe.</p>
+ */
+public final class IncrementalSpiderDiagramReader {
+
+    private HashMap<String, SpiderDiagram> diagrams = new HashMap<>();
+
+    /**
+     * Reads the given version of the text.
+     *
+     * @param text the textual representation of a spider diagram.
+     * @return the diagram (or the reading error) together with the spans of
+     *         the sub-diagrams that changed.
+     */
+    public synchronized Result read(String text) {
+        if (text == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "text"));
+        }
+        HashMap<String, SpiderDiagram> parsedDiagrams = new HashMap<>();
+        ArrayList<int[]> changedSpans = new ArrayList<>();
+        try {
+            SpiderDiagram sd = SDTextParser.parseSpiderDiagram(text, diagrams, parsedDiagrams, changedSpans);
+            diagrams = parsedDiagrams;
+            return new Result(sd, null, toSpans(changedSpans));
+        } catch (ReadingException ex) {
+            diagrams.putAll(parsedDiagrams);
+            return new Result(null, ex, toSpans(changedSpans));
+        }
+    }
+
+    /**
+     * Forgets all sub-diagrams read so far.
+     */
+    public synchronized void clear() {
+        diagrams = new HashMap<>();
+    }
+
+    private static List<Span> toSpans(ArrayList<int[]> changedSpans) {
+        ArrayList<Span> spans = new ArrayList<>(changedSpans.size());
+        for (int[] span : changedSpans) {
+            spans.add(new Span(span[0], span[1]));
+        }
+        return Collections.unmodifiableList(spans);
+    }
+
+    // <editor-fold defaultstate="collapsed" desc="Result">
+    /**
+     * The outcome of reading a single version of the text.
+     */
+    public static final class Result {
+
+        private final SpiderDiagram spiderDiagram;
+        private final ReadingException error;
+        private final List<Span> changedSpans;
+
+        private Result(SpiderDiagram spiderDiagram, ReadingException error, List<Span> changedSpans) {
+            this.spiderDiagram = spiderDiagram;
+            this.error = error;
+            this.changedSpans = changedSpans;
+        }
+
+        /**
+         * Returns the spider diagram read from the text.
+         *
+         * @return the spider diagram, or {@code null} if the text is invalid.
+         */
+        public SpiderDiagram getSpiderDiagram() {
+            return spiderDiagram;
+        }
+
+        /**
+         * Returns the error that prevented the text from being read.
+         *
+         * @return the error, or {@code null} if the text is valid.
+         */
+        public ReadingException getError() {
+            return error;
+        }
+
+        /**
+         * Indicates whether the text was read successfully.
+         *
+         * @return {@code true} iff the text was read successfully.
+         */
+        public boolean isSuccessful() {
+            return error == null;
+        }
+
+        /**
+         * Returns the spans of the innermost sub-diagrams that had to be
+         * parsed (in the order in which they appear in the text). The list is
+         * empty if the text did not change.
+         *
+         * @return the spans of the changed sub-diagrams.
+         */
+        public List<Span> getChangedSpans() {
+            return changedSpans;
+        }
+    }
+
+    /**
+     * The start and end offsets of a sub-diagram in the text.
+     */
+    public static final class Span {
+
+        private final int start;
+        private final int end;
+
+        private Span(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Returns the offset of the first character of the sub-diagram.
+         *
+         * @return the offset of the first character of the sub-diagram.
+         */
+        public int getStart() {
+            return start;
+        }
+
+        /**
+         * Returns the offset after the closing brace of the sub-diagram.
+         *
+         * @return the offset after the closing brace of the sub-diagram.
+         */
+        public int getEnd() {
+            return end;
+        }
+
+        @Override
+        public String toString() {
+            return "[" + start + ", " + end + ")";
+        }
+    }
+    // </editor-fold>
+}
@@ -0,0 +1,745 @@
+package speedith.core.lang.reader;
+
+import speedith.core.lang.*;
+
+import java.util.*;
+
+import static speedith.core.i18n.Translations.i18n;
+import static speedith.core.lang.CompoundSpiderDiagram.SDTextArgAttribute;
+import static speedith.core.lang.CompoundSpiderDiagram.SDTextOperatorAttribute;
+import static speedith.core.lang.PrimarySpiderDiagram.*;
+
+/**
+ * A recursive-descent parser for the textual spider diagram notation. <p>It
+ * accepts the language of the ANTLR grammar {@code SpiderDiagrams.g} and
+ * builds zones, regions and spider diagrams directly while it reads the input
+ * (without building an intermediate syntax tree). It reports the same errors
+ * as the translation of the ANTLR syntax tree: the messages of translation
+ * errors are the same and all errors carry the line number and the character
+ * position at which they occurred.</p> <p>Instances of this class are not
+ * thread-safe.</p>
+ */
+final class SDTextParser {
+
+    // <editor-fold defaultstate="collapsed" desc="Token Types">
+    private static final int EOF = -1;
+    private static final int ID = 0;
+    private static final int STRING = 1;
+    private static final int LBRACE = '{';
+    private static final int RBRACE = '}';
+    private static final int LBRACKET = '[';
+    private static final int RBRACKET = ']';
+    private static final int LPAREN = '(';
+    private static final int RPAREN = ')';
+    private static final int COMMA = ',';
+    private static final int EQUALS = '=';
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Attribute Names">
+    /**
+     * The attributes of primary diagrams (in the same order as in the error
+     * messages of the ANTLR translator).
+     */
+    private static final Set<String> PRIMARY_ATTRIBUTES = new HashSet<>(Arrays.asList(SDTextSpidersAttribute, SDTextHabitatsAttribute, SDTextShadedZonesAttribute, SDTextPresentZonesAttribute));
+    private static final Set<String> COMPOUND_ATTRIBUTES = Collections.singleton(SDTextOperatorAttribute);
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Fields">
+    private final String input;
+    /**
+     * The sub-diagrams parsed by a previous run, keyed by their text (may be
+     * {@code null}).
+     */
+    private final Map<String, SpiderDiagram> previousDiagrams;
+    /**
+     * The sub-diagrams parsed (or reused) by this run, keyed by their text
+     * (may be {@code null}, in which case nothing is reused).
+     */
+    private final Map<String, SpiderDiagram> parsedDiagrams;
+    /**
+     * The spans of the innermost sub-diagrams that had to be parsed (may be
+     * {@code null}).
+     */
+    private final List<int[]> changedSpans;
+    private int position;
+    private int line = 1;
+    private int lineStart;
+    /**
+     * The current token.
+     */
+    private int type;
+    private int start;
+    private int end;
+    private int tokenLine;
+    private int tokenColumn;
+    /**
+     * The position of the previous token (0 if there is none).
+     */
+    private int previousLine;
+    private int previousColumn;
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Constructors">
+    private SDTextParser(String input) throws ReadingException {
+        this(input, null, null, null);
+    }
+
+    private SDTextParser(String input, Map<String, SpiderDiagram> previousDiagrams, Map<String, SpiderDiagram> parsedDiagrams, List<int[]> changedSpans) throws ReadingException {
+        this.input = input;
+        this.previousDiagrams = previousDiagrams;
+        this.parsedDiagrams = parsedDiagrams;
+        this.changedSpans = changedSpans;
+        next();
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Entry Points">
+    /**
+     * Parses the spider diagram at the start of the given text. All strings
+     * (spider, contour and operator names) are replaced with their
+     * {@link Names canonical instances}.
+     *
+     * @param input the textual representation of a spider diagram.
+     * @return the spider diagram.
+     * @throws ReadingException thrown if the text is malformed.
+     */
+    static SpiderDiagram parseSpiderDiagram(String input) throws ReadingException {
+        SDTextParser parser = new SDTextParser(input);
+        SpiderDiagram sd = parser.spiderDiagram();
+        parser.skipRest();
+        return sd;
+    }
+
+    /**
+     * Parses the spider diagram at the start of the given text and reuses the
+     * sub-diagrams of a previous run whose text did not change. <p>Every
+     * sub-diagram in braces is looked up by its text (from its type name to
+     * its closing brace) in {@code parsedDiagrams} and then in {@code
+     * previousDiagrams}. Sub-diagrams that are found are not parsed again,
+     * the others are parsed and put into {@code parsedDiagrams}.</p>
+     *
+     * @param input            the textual representation of a spider diagram.
+     * @param previousDiagrams the sub-diagrams of a previous run (may be
+     *                         {@code null}).
+     * @param parsedDiagrams   receives all sub-diagrams of this run.
+     * @param changedSpans     receives the start and end offsets of the
+     *                         innermost sub-diagrams that had to be parsed.
+     * @return the spider diagram.
+     * @throws ReadingException thrown if the text is malformed.
+     */
+    static SpiderDiagram parseSpiderDiagram(String input, Map<String, SpiderDiagram> previousDiagrams, Map<String, SpiderDiagram> parsedDiagrams, List<int[]> changedSpans) throws ReadingException {
+        SDTextParser parser = new SDTextParser(input, previousDiagrams, parsedDiagrams, changedSpans);
+        SpiderDiagram sd = parser.spiderDiagram();
+        parser.skipRest();
+        return sd;
+    }
+
+    /**
+     * Parses the region (a list of zones) at the start of the given text.
+     *
+     * @param input the textual representation of a region.
+     * @return the region.
+     * @throws ReadingException thrown if the text is malformed.
+     */
+    static Region parseRegion(String input) throws ReadingException {
+        SDTextParser parser = new SDTextParser(input);
+        if (parser.type != LBRACKET) {
+            throw parser.syntaxError("'['");
+        }
+        Region region = new Region(parser.zoneList());
+        parser.skipRest();
+        return region;
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Spider Diagrams">
+    private SpiderDiagram spiderDiagram() throws ReadingException {
+        if (type != ID) {
+            throw syntaxError("a spider diagram");
+        }
+        String name = text();
+        if (parsedDiagrams == null || "NullSD".equals(name)) {
+            return spiderDiagram(name);
+        }
+        int spanStart = start;
+        int spanEnd = findDiagramEnd(end);
+        if (spanEnd < 0) {
+            return spiderDiagram(name);
+        }
+        String span = input.substring(spanStart, spanEnd);
+        SpiderDiagram sd = parsedDiagrams.get(span);
+        if (sd == null && previousDiagrams != null) {
+            sd = previousDiagrams.get(span);
+        }
+        if (sd != null) {
+            parsedDiagrams.put(span, sd);
+            skipDiagram(spanEnd);
+            return sd;
+        }
+        int changedCount = changedSpans.size();
+        sd = spiderDiagram(name);
+        parsedDiagrams.put(span, sd);
+        // Report only the sub-diagrams whose own operands did not change.
+        if (changedSpans.size() == changedCount) {
+            changedSpans.add(new int[]{spanStart, spanEnd});
+        }
+        return sd;
+    }
+
+    private SpiderDiagram spiderDiagram(String name) throws ReadingException {
+        int diagramLine = tokenLine;
+        int diagramColumn = tokenColumn;
+        switch (name) {
+            case "PrimarySD":
+                next();
+                return primary(diagramLine, diagramColumn);
+            case "BinarySD":
+            case "UnarySD":
+            case "CompoundSD":
+                next();
+                return compound(diagramLine, diagramColumn);
+            case "NullSD":
+                next();
+                if (type == LBRACE) {
+                    next();
+                    if (type != RBRACE) {
+                        expect(ID, "an attribute name");
+                        throw translationError(i18n("ERR_TRANSLATE_UNEXPECTED_KEY_VALUE", text(), Collections.emptySet()));
+                    }
+                    next();
+                }
+                return NullSpiderDiagram.getInstance();
+            default:
+                throw syntaxError("a spider diagram");
+        }
+    }
+
+    private PrimarySpiderDiagram primary(int diagramLine, int diagramColumn) throws ReadingException {
+        expect(LBRACE, "'{'");
+        next();
+        ArrayList<String> spiders = null;
+        Map<String, Region> habitats = null;
+        ArrayList<Zone> shadedZones = null;
+        ArrayList<Zone> presentZones = null;
+        boolean hasSpiders = false, hasHabitats = false, hasShadedZones = false;
+        if (type != RBRACE) {
+            do {
+                int keyLine = tokenLine, keyColumn = tokenColumn;
+                String key = attributeName();
+                switch (key) {
+                    case SDTextSpidersAttribute:
+                        spiders = stringList();
+                        hasSpiders = true;
+                        break;
+                    case SDTextHabitatsAttribute:
+                        habitats = habitats();
+                        hasHabitats = true;
+                        break;
+                    case SDTextShadedZonesAttribute:
+                        shadedZones = zoneList();
+                        hasShadedZones = true;
+                        break;
+                    case SDTextPresentZonesAttribute:
+                        presentZones = zoneList();
+                        break;
+                    default:
+                        throw new ReadingException(i18n("ERR_TRANSLATE_UNEXPECTED_KEY_VALUE", key, PRIMARY_ATTRIBUTES), keyLine, keyColumn);
+                }
+            } while (nextAttribute());
+        }
+        next();
+        if (!hasSpiders || !hasHabitats || !hasShadedZones) {
+            throw new ReadingException(i18n("ERR_TRANSLATE_MISSING_ELEMENTS", PRIMARY_ATTRIBUTES), diagramLine, diagramColumn);
+        }
+        try {
+            return SpiderDiagrams.createPrimarySDNoCopy(spiders, habitats, shadedZones, presentZones);
+        } catch (Exception e) {
+            throw new ReadingException(e.getLocalizedMessage(), diagramLine, diagramColumn);
+        }
+    }
+
+    private CompoundSpiderDiagram compound(int diagramLine, int diagramColumn) throws ReadingException {
+        expect(LBRACE, "'{'");
+        next();
+        String operator = null;
+        boolean hasOperator = false;
+        HashMap<String, SpiderDiagram> arguments = new HashMap<>();
+        HashMap<String, int[]> keyPositions = new HashMap<>();
+        int lastLine = diagramLine, lastColumn = diagramColumn;
+        if (type != RBRACE) {
+            do {
+                int[] keyPosition = {tokenLine, tokenColumn};
+                String key = attributeName();
+                if (SDTextOperatorAttribute.equals(key)) {
+                    operator = string();
+                    hasOperator = true;
+                } else {
+                    if (type != ID && startsElement()) {
+                        throw translationError(i18n("ERR_UNKNOWN_SD_TYPE"));
+                    }
+                    lastLine = keyPosition[0];
+                    lastColumn = keyPosition[1];
+                    arguments.put(key, spiderDiagram());
+                    keyPositions.put(key, keyPosition);
+                }
+            } while (nextAttribute());
+        }
+        next();
+        if (!hasOperator) {
+            throw new ReadingException(i18n("ERR_TRANSLATE_MISSING_ELEMENTS", COMPOUND_ATTRIBUTES), diagramLine, diagramColumn);
+        }
+        ArrayList<SpiderDiagram> operands = new ArrayList<>(arguments.size());
+        SpiderDiagram operand;
+        while ((operand = arguments.remove(SDTextArgAttribute + (operands.size() + 1))) != null) {
+            operands.add(operand);
+        }
+        if (!arguments.isEmpty()) {
+            int[] keyPosition = keyPositions.get(arguments.keySet().iterator().next());
+            throw new ReadingException(i18n("ERR_TRANSLATE_UNKNOWN_ATTRIBUTES", arguments.keySet()), keyPosition[0], keyPosition[1]);
+        }
+        try {
+            return SpiderDiagrams.createCompoundSD(operator, operands, false);
+        } catch (Exception e) {
+            throw new ReadingException(e.getLocalizedMessage(), lastLine, lastColumn);
+        }
+    }
+
+    /**
+     * Reads the attribute name and the '=' after it.
+     */
+    private String attributeName() throws ReadingException {
+        expect(ID, "an attribute name");
+        String key = text();
+        next();
+        expect(EQUALS, "'='");
+        next();
+        return key;
+    }
+
+    /**
+     * Skips the ',' between attributes. Returns {@code false} at the closing
+     * '}'.
+     */
+    private boolean nextAttribute() throws ReadingException {
+        if (type == COMMA) {
+            next();
+            return true;
+        }
+        expect(RBRACE, "'}'");
+        return false;
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Lists">
+    /**
+     * Reads a list of strings. An empty list is returned as {@code null}.
+     */
+    private ArrayList<String> stringList() throws ReadingException {
+        expectList(LBRACKET);
+        next();
+        if (type == RBRACKET) {
+            next();
+            return null;
+        }
+        ArrayList<String> strings = new ArrayList<>();
+        do {
+            strings.add(string());
+        } while (nextElement(RBRACKET));
+        return strings;
+    }
+
+    /**
+     * Reads a list of zones. An empty list is returned as {@code null}.
+     */
+    private ArrayList<Zone> zoneList() throws ReadingException {
+        expectList(LBRACKET);
+        next();
+        if (type == RBRACKET) {
+            next();
+            return null;
+        }
+        ArrayList<Zone> zones = new ArrayList<>();
+        do {
+            zones.add(zone());
+        } while (nextElement(RBRACKET));
+        return zones;
+    }
+
+    private Zone zone() throws ReadingException {
+        expectList(LPAREN);
+        int zoneLine = tokenLine, zoneColumn = tokenColumn;
+        next();
+        ArrayList<ArrayList<String>> inOutContours = new ArrayList<>(2);
+        if (type != RPAREN) {
+            do {
+                inOutContours.add(stringList());
+            } while (nextElement(RPAREN));
+        } else {
+            next();
+        }
+        if (inOutContours.size() != 2) {
+            throw new ReadingException(i18n("ERR_TRANSLATE_ZONE"), zoneLine, zoneColumn);
+        }
+        return new Zone(inOutContours.get(0), inOutContours.get(1));
+    }
+
+    /**
+     * Reads a list of (spider, region) pairs. An empty list is returned as
+     * {@code null}.
+     */
+    private Map<String, Region> habitats() throws ReadingException {
+        expectList(LBRACKET);
+        next();
+        if (type == RBRACKET) {
+            next();
+            return null;
+        }
+        HashMap<String, Region> habitats = new HashMap<>();
+        do {
+            expectList(LPAREN);
+            int pairLine = tokenLine, pairColumn = tokenColumn;
+            next();
+            if (type == RPAREN) {
+                throw new ReadingException(i18n("ERR_TRANSLATE_ELEMENTS_COUNT", 2, 0), pairLine, pairColumn);
+            }
+            String spider = string();
+            int count = 1;
+            ArrayList<Zone> zones = null;
+            while (nextElement(RPAREN)) {
+                if (++count == 2) {
+                    zones = zoneList();
+                } else {
+                    skipElement();
+                }
+            }
+            if (count != 2) {
+                throw new ReadingException(i18n("ERR_TRANSLATE_ELEMENTS_COUNT", 2, count), pairLine, pairColumn);
+            }
+            habitats.put(spider, new Region(zones));
+        } while (nextElement(RBRACKET));
+        return habitats;
+    }
+
+    /**
+     * Skips the ',' between list elements. Returns {@code false} after the
+     * closing bracket.
+     */
+    private boolean nextElement(int closingBracket) throws ReadingException {
+        if (type == COMMA) {
+            next();
+            return true;
+        }
+        expect(closingBracket, "'" + (char) closingBracket + "'");
+        next();
+        return false;
+    }
+
+    private String string() throws ReadingException {
+        if (type != STRING) {
+            throw startsElement() ? translationError(i18n("ERR_TRANSLATE_INVALID_STRING")) : syntaxError("a string");
+        }
+        String str = Names.intern(input.substring(start + 1, end - 1));
+        next();
+        return str;
+    }
+
+    /**
+     * Skips any language element (used to recover the element count of
+     * tuples with too many elements).
+     */
+    private void skipElement() throws ReadingException {
+        switch (type) {
+            case STRING:
+                next();
+                break;
+            case ID:
+                spiderDiagram();
+                break;
+            case LBRACE:
+            case LBRACKET:
+            case LPAREN:
+                int closing = type == LBRACE ? RBRACE : type == LBRACKET ? RBRACKET : RPAREN;
+                next();
+                if (type == closing) {
+                    next();
+                } else if (closing == RBRACE) {
+                    do {
+                        attributeName();
+                        skipElement();
+                    } while (nextElement(closing));
+                } else {
+                    do {
+                        skipElement();
+                    } while (nextElement(closing));
+                }
+                break;
+            default:
+                throw syntaxError("an element");
+        }
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Errors">
+    private void expect(int expectedType, String description) throws ReadingException {
+        if (type != expectedType) {
+            throw syntaxError(description);
+        }
+    }
+
+    /**
+     * Checks that the current token opens the expected kind of list. Other
+     * language elements are translation errors (as in the ANTLR translator),
+     * anything else is a syntax error.
+     */
+    private void expectList(int openingBracket) throws ReadingException {
+        if (type != openingBracket) {
+            throw startsElement() ? translationError(i18n("ERR_TRANSLATE_UNEXPECTED_ELEMENT", i18n("ERR_TRANSLATE_LIST_OR_SLIST"))) : syntaxError("'" + (char) openingBracket + "'");
+        }
+    }
+
+    private boolean startsElement() {
+        return type == STRING || type == ID || type == LBRACE || type == LBRACKET || type == LPAREN;
+    }
+
+    private ReadingException translationError(String message) {
+        return new ReadingException(message, tokenLine, tokenColumn);
+    }
+
+    /**
+     * Creates a syntax error at the current token. Errors at the end of the
+     * input are reported at the last token (as ANTLR does).
+     */
+    private ReadingException syntaxError(String expected) {
+        if (type == EOF) {
+            String message = i18n("ERR_PARSE_INVALID_SYNTAX") + " (" + i18n("ERR_PARSE_UNEXPECTED_INPUT", "<EOF>", expected) + ")";
+            return previousLine > 0 ? new ReadingException(message, previousLine, previousColumn) : new ReadingException(message, tokenLine, tokenColumn);
+        }
+        return new ReadingException(i18n("ERR_PARSE_INVALID_SYNTAX") + " (" + i18n("ERR_PARSE_UNEXPECTED_INPUT", "'" + text() + "'", expected) + ")", tokenLine, tokenColumn);
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Lexer">
+    /**
+     * Finds the brace that closes the diagram whose body starts at the given
+     * offset. Strings and comments are skipped.
+     *
+     * @return the offset after the closing brace, or {@code -1} if the body
+     *         does not start with a brace or is not closed.
+     */
+    private int findDiagramEnd(int offset) {
+        int depth = 0;
+        for (int i = offset; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (c == '"') {
+                for (i++; i < input.length() && input.charAt(i) != '"'; i++) {
+                    if (input.charAt(i) == '\\') {
+                        i++;
+                    }
+                }
+            } else if (c == '/' && input.startsWith("//", i)) {
+                int lineEnd = input.indexOf('\n', i);
+                i = lineEnd < 0 ? input.length() : lineEnd;
+            } else if (c == '/' && input.startsWith("/*", i)) {
+                int commentEnd = input.indexOf("*/", i + 2);
+                if (commentEnd < 0) {
+                    return -1;
+                }
+                i = commentEnd + 1;
+            } else if (c == '{') {
+                depth++;
+            } else if (c == '}') {
+                if (--depth == 0) {
+                    return i + 1;
+                }
+            } else if (depth == 0 && c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Moves the lexer to the token after the closing brace of a reused
+     * sub-diagram (as if the sub-diagram had been parsed).
+     */
+    private void skipDiagram(int spanEnd) throws ReadingException {
+        for (int i = position; i < spanEnd; i++) {
+            if (input.charAt(i) == '\n') {
+                line++;
+                lineStart = i + 1;
+            }
+        }
+        position = spanEnd;
+        type = RBRACE;
+        start = spanEnd - 1;
+        end = spanEnd;
+        tokenLine = line;
+        tokenColumn = start - lineStart;
+        next();
+    }
+
+    private String text() {
+        return input.substring(start, end);
+    }
+
+    /**
+     * Lexes the rest of the input. The diagram ends at its closing brace, but
+     * the rest of the input must still consist of valid tokens.
+     */
+    private void skipRest() throws ReadingException {
+        while (type != EOF) {
+            next();
+        }
+    }
+
+    private void next() throws ReadingException {
+        if (type != EOF && end > 0) {
+            previousLine = tokenLine;
+            previousColumn = tokenColumn;
+        }
+        skipWhitespaceAndComments();
+        start = position;
+        tokenLine = line;
+        tokenColumn = position - lineStart;
+        if (position >= input.length()) {
+            type = EOF;
+            end = position;
+            return;
+        }
+        char c = input.charAt(position);
+        switch (c) {
+            case '{':
+            case '}':
+            case '[':
+            case ']':
+            case '(':
+            case ')':
+            case ',':
+            case '=':
+                type = c;
+                position++;
+                break;
+            case '"':
+                type = STRING;
+                lexString();
+                break;
+            default:
+                if (!isIdentifierStart(c)) {
+                    throw lexerError(c);
+                }
+                type = ID;
+                position++;
+                while (position < input.length() && isIdentifierPart(input.charAt(position))) {
+                    position++;
+                }
+        }
+        end = position;
+    }
+
+    private void lexString() throws ReadingException {
+        position++;
+        while (true) {
+            if (position >= input.length()) {
+                throw lexerError(EOF);
+            }
+            char c = input.charAt(position++);
+            if (c == '"') {
+                return;
+            } else if (c == '\\') {
+                lexEscapeSequence();
+            } else if (c == '\n') {
+                newLine();
+            }
+        }
+    }
+
+    private void lexEscapeSequence() throws ReadingException {
+        if (position >= input.length()) {
+            throw lexerError(EOF);
+        }
+        char c = input.charAt(position++);
+        switch (c) {
+            case 'b':
+            case 't':
+            case 'n':
+            case 'f':
+            case 'r':
+            case '"':
+            case '\'':
+            case '\\':
+                return;
+            case 'u':
+                for (int i = 0; i < 4; i++) {
+                    if (position >= input.length() || Character.digit(input.charAt(position), 16) < 0) {
+                        throw lexerError(position < input.length() ? input.charAt(position) : EOF);
+                    }
+                    position++;
+                }
+                return;
+            default:
+                if (c < '0' || c > '7') {
+                    position--;
+                    throw lexerError(c);
+                }
+                // Up to three octal digits (the first one at most '3').
+                int maxDigits = c <= '3' ? 2 : 1;
+                for (int i = 0; i < maxDigits && position < input.length() && input.charAt(position) >= '0' && input.charAt(position) <= '7'; i++) {
+                    position++;
+                }
+        }
+    }
+
+    private void skipWhitespaceAndComments() throws ReadingException {
+        while (position < input.length()) {
+            char c = input.charAt(position);
+            if (c == ' ' || c == '\t' || c == '\r') {
+                position++;
+            } else if (c == '\n') {
+                position++;
+                newLine();
+            } else if (c == '/' && input.startsWith("//", position)) {
+                int lineEnd = input.indexOf('\n', position);
+                position = lineEnd < 0 ? input.length() : lineEnd;
+            } else if (c == '/' && input.startsWith("/*", position)) {
+                int commentEnd = input.indexOf("*/", position + 2);
+                int textEnd = commentEnd < 0 ? input.length() : commentEnd;
+                for (int i = position; i < textEnd; i++) {
+                    if (input.charAt(i) == '\n') {
+                        line++;
+                        lineStart = i + 1;
+                    }
+                }
+                if (commentEnd < 0) {
+                    position = textEnd;
+                    throw lexerError(EOF);
+                }
+                position = commentEnd + 2;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void newLine() {
+        line++;
+        lineStart = position;
+    }
+
+    private ReadingException lexerError(int c) {
+        String found = c == EOF ? "<EOF>" : "'" + (char) c + "'";
+        return new ReadingException(i18n("ERR_PARSE_INVALID_SYNTAX") + " (" + i18n("ERR_PARSE_UNEXPECTED_CHARACTER", found) + ")", line, position - lineStart);
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return c == '$' || (c >= 'A' && c <= 'Z') || c == '_' || (c >= 'a' && c <= 'z')
+                || (c >= '\u00a2' && c <= '\u00a5') || c == '\u00aa' || c == '\u00b5' || c == '\u00ba'
+                || (c >= '\u00c0' && c <= '\u00d6') || (c >= '\u00d8' && c <= '\udfff');
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return isIdentifierStart(c) || (c >= '0' && c <= '9')
+                || c <= '\u0008' || (c >= '\u000e' && c <= '\u001b')
+                || (c >= '\u007f' && c <= '\u009f') || c == '\u00ad';
+    }
+    // </editor-fold>
+}
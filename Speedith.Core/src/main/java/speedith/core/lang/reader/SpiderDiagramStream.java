@@ -0,0 +1,240 @@
+package speedith.core.lang.reader;
+
+import speedith.core.lang.SpiderDiagram;
+
+import java.io.*;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Reads a sequence of spider diagrams from a character stream. <p>The stream
+ * contains spider diagrams in the textual notation (see {@link
+ * SpiderDiagramsReader}), one after another, separated by white space or
+ * comments. The diagrams are read one at a time: the stream only ever buffers
+ * the text of the diagram that is currently being read.</p> <p>Use {@link
+ * SpiderDiagramStream#read()} to get reading errors as checked exceptions.
+ * The {@link Iterator} methods wrap them in an {@link
+ * IllegalStateException}.</p> <p>Instances of this class are not
+ * thread-safe.</p>
+ */
+public final class SpiderDiagramStream implements Iterator<SpiderDiagram>, Closeable {
+
+    // <editor-fold defaultstate="collapsed" desc="Fields">
+    private final PushbackReader reader;
+    /**
+     * The text of the diagram that is currently being read. It is reused for
+     * all diagrams.
+     */
+    private final StringBuilder document = new StringBuilder();
+    private int documentIndex;
+    private SpiderDiagram lookahead;
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Constructors">
+    /**
+     * Creates a stream of spider diagrams that are read from the given reader.
+     *
+     * @param reader the reader that contains the spider diagrams.
+     */
+    public SpiderDiagramStream(Reader reader) {
+        if (reader == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "reader"));
+        }
+        this.reader = new PushbackReader(reader instanceof BufferedReader ? reader : new BufferedReader(reader), 2);
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Reads the next spider diagram.
+     *
+     * @return the next spider diagram, or {@code null} if there are no more
+     *         diagrams in the stream.
+     * @throws ReadingException thrown if the next diagram is malformed.
+     * @throws IOException      thrown if the underlying reader failed.
+     */
+    public SpiderDiagram read() throws ReadingException, IOException {
+        if (lookahead != null) {
+            SpiderDiagram sd = lookahead;
+            lookahead = null;
+            return sd;
+        }
+        if (!readDocument()) {
+            return null;
+        }
+        try {
+            return SpiderDiagramsReader.readSpiderDiagram(document.toString());
+        } catch (ReadingException ex) {
+            throw new ReadingException(i18n("ERR_STREAM_INVALID_DIAGRAM", documentIndex, ex.getMessage()), ex);
+        } finally {
+            documentIndex++;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (lookahead == null) {
+            lookahead = readUnchecked();
+        }
+        return lookahead != null;
+    }
+
+    @Override
+    public SpiderDiagram next() {
+        SpiderDiagram sd = lookahead == null ? readUnchecked() : lookahead;
+        lookahead = null;
+        if (sd == null) {
+            throw new NoSuchElementException();
+        }
+        return sd;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Splitting">
+    private SpiderDiagram readUnchecked() {
+        try {
+            return read();
+        } catch (ReadingException | IOException ex) {
+            throw new IllegalStateException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Reads the text of the next diagram into {@link
+     * SpiderDiagramStream#document}: the name of the diagram followed by the
+     * (optional) balanced braces with its attributes.
+     *
+     * @return {@code false} if the stream ended before another diagram.
+     */
+    private boolean readDocument() throws ReadingException, IOException {
+        document.setLength(0);
+        int c = skipSeparators();
+        if (c < 0) {
+            return false;
+        }
+        if (!Character.isJavaIdentifierStart(c)) {
+            throw new ReadingException(i18n("ERR_STREAM_UNEXPECTED_CHARACTER", (char) c, documentIndex));
+        }
+        while (c >= 0 && Character.isJavaIdentifierPart(c)) {
+            document.append((char) c);
+            c = reader.read();
+        }
+        if (c >= 0) {
+            reader.unread(c);
+        }
+        c = skipSeparators();
+        if (c != '{') {
+            // A diagram without attributes (e.g.: 'NullSD').
+            if (c >= 0) {
+                reader.unread(c);
+            }
+            return true;
+        }
+        int depth = 0;
+        do {
+            switch (c) {
+                case '{':
+                case '[':
+                case '(':
+                    depth++;
+                    document.append((char) c);
+                    break;
+                case '}':
+                case ']':
+                case ')':
+                    depth--;
+                    document.append((char) c);
+                    break;
+                case '"':
+                    readString();
+                    break;
+                case '/':
+                    document.append(skipComment() ? ' ' : '/');
+                    break;
+                default:
+                    document.append((char) c);
+            }
+            if (depth > 0) {
+                c = reader.read();
+                if (c < 0) {
+                    throw new ReadingException(i18n("ERR_STREAM_UNEXPECTED_END", documentIndex));
+                }
+            }
+        } while (depth > 0);
+        return true;
+    }
+
+    private void readString() throws ReadingException, IOException {
+        document.append('"');
+        int c;
+        while ((c = reader.read()) != '"') {
+            if (c < 0) {
+                throw new ReadingException(i18n("ERR_STREAM_UNEXPECTED_END", documentIndex));
+            }
+            document.append((char) c);
+            if (c == '\\') {
+                c = reader.read();
+                if (c < 0) {
+                    throw new ReadingException(i18n("ERR_STREAM_UNEXPECTED_END", documentIndex));
+                }
+                document.append((char) c);
+            }
+        }
+        document.append('"');
+    }
+
+    /**
+     * Skips white space and comments and returns the first character after
+     * them (or -1 at the end of the stream).
+     */
+    private int skipSeparators() throws IOException {
+        int c;
+        while ((c = reader.read()) >= 0) {
+            if (c == '/') {
+                if (!skipComment()) {
+                    return c;
+                }
+            } else if (!Character.isWhitespace(c)) {
+                return c;
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Skips the rest of a comment after its first '/'.
+     *
+     * @return {@code false} if the '/' does not start a comment.
+     */
+    private boolean skipComment() throws IOException {
+        int c = reader.read();
+        if (c == '/') {
+            while ((c = reader.read()) >= 0 && c != '\n') {
+            }
+            return true;
+        } else if (c == '*') {
+            int previous = 0;
+            while ((c = reader.read()) >= 0 && !(previous == '*' && c == '/')) {
+                previous = c;
+            }
+            return true;
+        }
+        if (c >= 0) {
+            reader.unread(c);
+        }
+        return false;
+    }
+    // </editor-fold>
+}
@@ -0,0 +1,209 @@
+package speedith.core.lang.reader;
+
+import speedith.core.lang.SpiderDiagram;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Reads many spider diagram files (e.g.: directories of goals) in parallel.
+ * <p>The files are parsed on a {@link ForkJoinPool}. The results are returned
+ * in the order of the input files, and a file that could not be read does
+ * not stop the others from being read: its {@link Result result} holds the
+ * error instead of a diagram.</p> <p>All spider, contour and operator names are
+ * {@link speedith.core.lang.Names canonical}: equal names in different files
+ * are the same string instance.</p>
+ */
+public final class SpiderDiagramsBulkReader {
+
+    /**
+     * The patterns of the names of files that contain spider diagrams.
+     */
+    private static final String SPIDER_DIAGRAM_FILES = "glob:**.{sd,sdt}";
+    /**
+     * Every task parses at most this many files without forking.
+     */
+    private static final int FILES_PER_TASK = 4;
+
+    // <editor-fold defaultstate="collapsed" desc="Disabled Constructor">
+    private SpiderDiagramsBulkReader() {
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Public Reading Methods">
+    /**
+     * Reads all spider diagram files (*.sd and *.sdt) in the given directory.
+     *
+     * @param directory the directory that contains the spider diagram files.
+     * @param recursive indicates whether to read the files in the
+     *                  sub-directories too.
+     * @param pool      the pool in which to parse the files.
+     * @return the results for all files, sorted by their paths.
+     * @throws IOException thrown if the directory could not be listed.
+     */
+    public static List<Result> readDirectory(File directory, boolean recursive, ForkJoinPool pool) throws IOException {
+        return readFiles(listFiles(directory, recursive), pool);
+    }
+
+    /**
+     * Reads the given spider diagram files.
+     *
+     * @param files the files to read.
+     * @param pool  the pool in which to parse the files.
+     * @return the results for the given files (in the same order).
+     */
+    public static List<Result> readFiles(List<File> files, ForkJoinPool pool) {
+        if (files == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "files"));
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "pool"));
+        }
+        Result[] results = new Result[files.size()];
+        pool.invoke(new ReadTask(files.toArray(new File[files.size()]), results, 0, results.length));
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    /**
+     * Returns all spider diagram files (*.sd and *.sdt) in the given directory
+     * sorted by their paths.
+     *
+     * @param directory the directory that contains the spider diagram files.
+     * @param recursive indicates whether to list the files in the
+     *                  sub-directories too.
+     * @return the spider diagram files sorted by their paths.
+     * @throws IOException thrown if the directory could not be listed.
+     */
+    public static List<File> listFiles(File directory, boolean recursive) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "directory"));
+        }
+        final PathMatcher matcher = FileSystems.getDefault().getPathMatcher(SPIDER_DIAGRAM_FILES);
+        final ArrayList<File> files = new ArrayList<>();
+        Files.walkFileTree(directory.toPath(), EnumSet.of(FileVisitOption.FOLLOW_LINKS), recursive ? Integer.MAX_VALUE : 1, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile() && matcher.matches(file)) {
+                    files.add(file.toFile());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        Collections.sort(files);
+        return files;
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Result">
+    /**
+     * The outcome of reading a single file: either a spider diagram or the
+     * error that prevented the file from being read.
+     */
+    public static final class Result {
+
+        private final File file;
+        private final SpiderDiagram spiderDiagram;
+        private final Exception error;
+
+        private Result(File file, SpiderDiagram spiderDiagram, Exception error) {
+            this.file = file;
+            this.spiderDiagram = spiderDiagram;
+            this.error = error;
+        }
+
+        /**
+         * Returns the file that was read.
+         *
+         * @return the file that was read.
+         */
+        public File getFile() {
+            return file;
+        }
+
+        /**
+         * Returns the spider diagram read from the file.
+         *
+         * @return the spider diagram, or {@code null} if the file could not be
+         *         read.
+         */
+        public SpiderDiagram getSpiderDiagram() {
+            return spiderDiagram;
+        }
+
+        /**
+         * Returns the error that prevented the file from being read. This is
+         * usually an {@link IOException} or a {@link ReadingException}, but
+         * unexpected runtime exceptions are reported here too.
+         *
+         * @return the error, or {@code null} if the file was read.
+         */
+        public Exception getError() {
+            return error;
+        }
+
+        /**
+         * Indicates whether the file was read successfully.
+         *
+         * @return {@code true} iff the file was read successfully.
+         */
+        public boolean isSuccessful() {
+            return error == null;
+        }
+
+        @Override
+        public String toString() {
+            return file + ": " + (error == null ? spiderDiagram : error.getLocalizedMessage());
+        }
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Private Helper Classes">
+    private static class ReadTask extends RecursiveAction {
+
+        private static final long serialVersionUID = -5017263281617420379L;
+        private final File[] files;
+        private final Result[] results;
+        private final int from;
+        private final int to;
+
+        ReadTask(File[] files, Result[] results, int from, int to) {
+            this.files = files;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= FILES_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    results[i] = read(files[i]);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ReadTask(files, results, from, middle), new ReadTask(files, results, middle, to));
+            }
+        }
+
+        private Result read(File file) {
+            try {
+                // Files are decoded with the platform's encoding (as in
+                // SpiderDiagramsReader.readSpiderDiagram(File)).
+                String text = new String(Files.readAllBytes(file.toPath()));
+                return new Result(file, SDTextParser.parseSpiderDiagram(text), null);
+            } catch (IOException | ReadingException | RuntimeException ex) {
+                // Runtime exceptions must not escape the pool either: they
+                // would abort the reading of all other files.
+                return new Result(file, null, ex);
+            }
+        }
+    }
+    // </editor-fold>
+}
@@ -32,10 +32,7 @@ import speedith.core.lang.*;
 import speedith.core.lang.reader.SpiderDiagramsParser.list_return;
 import speedith.core.lang.reader.SpiderDiagramsParser.spiderDiagram_return;
 
-import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.Reader;
+import java.io.*;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.*;
 import java.util.Map.Entry;
@@ -74,7 +71,10 @@ public final class SpiderDiagramsReader {
      * representation could not be translated or is malformed.
      */
     public static SpiderDiagram readSpiderDiagram(String input) throws ReadingException {
-        return readSpiderDiagram(new ANTLRStringStream(input));
+        if (input == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "input"));
+        }
+        return SDTextParser.parseSpiderDiagram(input);
     }
 
     /**
@@ -90,7 +90,7 @@ public final class SpiderDiagramsReader {
      * @throws IOException thrown if the input could not be read.
      */
     public static SpiderDiagram readSpiderDiagram(Reader reader) throws ReadingException, IOException {
-        return readSpiderDiagram(new ANTLRReaderStream(reader));
+        return readSpiderDiagram(readAll(reader));
     }
 
     /**
@@ -108,7 +108,7 @@ public final class SpiderDiagramsReader {
      * @throws IOException thrown if the input could not be read.
      */
     public static SpiderDiagram readSpiderDiagram(InputStream input) throws ReadingException, IOException {
-        return readSpiderDiagram(new ANTLRInputStream(input));
+        return readSpiderDiagram(new InputStreamReader(input));
     }
 
     /**
@@ -127,7 +127,7 @@ public final class SpiderDiagramsReader {
      * @throws IOException thrown if the input could not be read.
      */
     public static SpiderDiagram readSpiderDiagram(InputStream input, String encoding) throws ReadingException, IOException {
-        return readSpiderDiagram(new ANTLRInputStream(input, encoding));
+        return readSpiderDiagram(encoding == null ? new InputStreamReader(input) : new InputStreamReader(input, encoding));
     }
 
     /**
@@ -145,7 +145,9 @@ public final class SpiderDiagramsReader {
      * @throws IOException thrown if the input could not be read.
      */
     public static SpiderDiagram readSpiderDiagram(File inputFile) throws ReadingException, IOException {
-        return readSpiderDiagram(new ANTLRFileStream(inputFile.getPath()));
+        try (InputStream input = new FileInputStream(inputFile)) {
+            return readSpiderDiagram(input);
+        }
     }
 
     /**
@@ -164,7 +166,24 @@ public final class SpiderDiagramsReader {
      * @throws IOException thrown if the input could not be read.
      */
     public static SpiderDiagram readSpiderDiagram(File inputFile, String encoding) throws ReadingException, IOException {
-        return readSpiderDiagram(new ANTLRFileStream(inputFile.getPath(), encoding));
+        try (InputStream input = new FileInputStream(inputFile)) {
+            return readSpiderDiagram(input, encoding);
+        }
+    }
+
+    /**
+     * Returns a stream over all spider diagrams in the given reader. <p>Unlike
+     * the {@code readSpiderDiagram} methods, which read exactly one diagram
+     * from the whole input, the returned stream reads any number of diagrams
+     * (separated by white space or comments) and buffers only one of them at a
+     * time.</p>
+     * @param reader the reader that contains the textual representations of
+     * the spider diagrams.
+     * @return a stream that reads the spider diagrams one by one. Closing the
+     * stream closes the given reader.
+     */
+    public static SpiderDiagramStream stream(Reader reader) {
+        return new SpiderDiagramStream(reader);
     }
 
     /**
@@ -177,6 +196,37 @@ public final class SpiderDiagramsReader {
      * @throws ReadingException thrown if the input could not have been read.
      */
     public static Region readRegion(String input) throws ReadingException {
+        if (input == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "input"));
+        }
+        return SDTextParser.parseRegion(input);
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="ANTLR Reading Methods">
+    /**
+     * Reads a spider diagram with the ANTLR parser generated from the grammar
+     * and translates its syntax tree into a spider diagram.
+     * <p>The public reading methods use a faster hand-written parser of the
+     * same language. This method is kept as the reference implementation
+     * against which the hand-written parser is tested.</p>
+     * @param input the textual representation of a spider diagram.
+     * @return the internal representation of the spider diagram.
+     * @throws ReadingException this exception is thrown if the textual
+     * representation could not be translated or is malformed.
+     */
+    static SpiderDiagram readSpiderDiagramWithAntlr(String input) throws ReadingException {
+        return readSpiderDiagram(new ANTLRStringStream(input));
+    }
+
+    /**
+     * Reads a region with the ANTLR parser generated from the grammar (see
+     * {@link SpiderDiagramsReader#readSpiderDiagramWithAntlr(java.lang.String)}).
+     * @param input a region string.
+     * @return the parsed and translated {@link Region region object}.
+     * @throws ReadingException thrown if the input could not have been read.
+     */
+    static Region readRegionWithAntlr(String input) throws ReadingException {
         return readElement(new ANTLRStringStream(input), new ElementReader<Region>() {
 
             @Override
@@ -189,6 +239,16 @@ public final class SpiderDiagramsReader {
             }
         });
     }
+
+    private static String readAll(Reader reader) throws IOException {
+        StringBuilder text = new StringBuilder();
+        char[] buffer = new char[8192];
+        int count;
+        while ((count = reader.read(buffer)) >= 0) {
+            text.append(buffer, 0, count);
+        }
+        return text.toString();
+    }
     // </editor-fold>
 
     // <editor-fold defaultstate="collapsed" desc="Translation Methods (from the AST to SpiderDiagrams)">
@@ -289,7 +349,7 @@ public final class SpiderDiagramsReader {
             if (treeNode.token != null && treeNode.token.getType() == SpiderDiagramsParser.STRING) {
                 String str = treeNode.token.getText();
                 if (str != null && str.length() >= 2) {
-                    return str.substring(1, str.length() - 1);
+                    return Names.intern(str.substring(1, str.length() - 1));
                 }
             }
             throw new ReadingException(i18n("ERR_TRANSLATE_INVALID_STRING"), treeNode);
@@ -303,7 +363,7 @@ public final class SpiderDiagramsReader {
         @Override
         public String fromASTNode(CommonTree treeNode) throws ReadingException {
             if (treeNode.token != null && treeNode.token.getType() == SpiderDiagramsParser.ID) {
-                return treeNode.token.getText();
+                return Names.intern(treeNode.token.getText());
             }
             throw new ReadingException(i18n("ERR_TRANSLATE_INVALID_ID"), treeNode);
         }
@@ -483,7 +543,7 @@ public final class SpiderDiagramsReader {
                 }
                 return objs;
             }
-            throw new ReadingException(i18n("ERR_TRANSLATE_UNEXPECTED_ELEMENT", i18n(i18n("ERR_TRANSLATE_LIST_OR_SLIST"))), treeNode);
+            throw new ReadingException(i18n("ERR_TRANSLATE_UNEXPECTED_ELEMENT", i18n("ERR_TRANSLATE_LIST_OR_SLIST")), treeNode);
         }
 
         protected abstract V fromASTChildAt(int i, CommonTree treeNode) throws ReadingException;
@@ -620,7 +680,7 @@ public final class SpiderDiagramsReader {
                 }
                 return kVals;
             }
-            throw new ReadingException(i18n("ERR_TRANSLATE_UNEXPECTED_ELEMENT", i18n(i18n("ERR_TRANSLATE_LIST_OR_SLIST"))), treeNode);
+            throw new ReadingException(i18n("ERR_TRANSLATE_UNEXPECTED_ELEMENT", i18n("ERR_TRANSLATE_LIST_OR_SLIST")), treeNode);
         }
     }
     // </editor-fold>
@@ -27,8 +27,13 @@
 package speedith.core.reasoning;
 
 import speedith.core.reasoning.args.RuleArg;
+import speedith.core.reasoning.tactical.InferenceTactic;
+import speedith.core.reasoning.tactical.TacticApplicationResult;
 
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import static speedith.core.i18n.Translations.i18n;
 
@@ -42,11 +47,23 @@ import static speedith.core.i18n.Translations.i18n;
  * @author Matej Urbas [matej.urbas@gmail.com]
  */
 public class InferenceApplication implements Serializable {
+
+    /**
+     * The serial version of the class before the sub-applications were
+     * added. New fields are optional, so older proofs can still be read.
+     */
+    private static final long serialVersionUID = 7422624437864663459L;
+
     // <editor-fold defaultstate="collapsed" desc="Fields">
     private Inference<?, ?> inferenceRule;
     private RuleArg ruleArguments;
     private RuleApplicationType type;
     private String typeSpecifier;
+    /**
+     * The primitive rule applications performed by a tactic, or {@code null}
+     * if they were not recorded.
+     */
+    private InferenceApplication[] subApplications;
 
 
     // </editor-fold>
@@ -68,6 +85,24 @@ public class InferenceApplication implements Serializable {
         this.type = type;
         this.typeSpecifier = typeSpecifier;
     }
+
+    /**
+     * Initialises an instance of this class with the given inference and
+     * arguments, together with the rule applications that the inference
+     * performed (e.g.: the applications of a {@link
+     * speedith.core.reasoning.tactical.InferenceTactic tactic}).
+     * @param inference the inference rule (that can be or was applied to
+     * some set of spider diagrams with the given additional arguments).
+     * @param ruleArguments the additional arguments to the inference rule.
+     * @param subApplications the rule applications performed by the
+     * inference (may be {@code null} if they are unknown).
+     */
+    public InferenceApplication(Inference<?, ?> inference, RuleArg ruleArguments, RuleApplicationType type, String typeSpecifier, List<InferenceApplication> subApplications) {
+        this(inference, ruleArguments, type, typeSpecifier);
+        if (subApplications != null) {
+            this.subApplications = subApplications.toArray(new InferenceApplication[subApplications.size()]);
+        }
+    }
     //</editor-fold>
 
     //<editor-fold defaultstate="collapsed" desc="Public Properties">
@@ -98,6 +133,16 @@ public class InferenceApplication implements Serializable {
     public RuleApplicationType getType() { return type; }
 
     public String getTypeSpecifier() { return typeSpecifier; }
+
+    /**
+     * Returns the rule applications that were recorded when the inference
+     * was applied (e.g.: the applications a tactic performed).
+     * @return the recorded rule applications, or {@code null} if none were
+     * recorded.
+     */
+    public List<InferenceApplication> getSubApplications() {
+        return subApplications == null ? null : Collections.unmodifiableList(Arrays.asList(subApplications));
+    }
     //</editor-fold>
     
     // <editor-fold defaultstate="collapsed" desc="Rule Application">
@@ -113,5 +158,26 @@ public class InferenceApplication implements Serializable {
     public InferenceApplicationResult applyTo(Goals goals) throws RuleApplicationException {
         return inferenceRule.apply(ruleArguments, goals);
     }
+
+    /**
+     * Returns the rule applications that this application consists of. These
+     * are the {@link InferenceApplication#getSubApplications() recorded
+     * sub-applications} if there are any. Otherwise tactics are applied to
+     * the given goals again to find them, and a rule application consists
+     * of itself only.
+     * @param goals the goals to which this application was applied.
+     * @return the rule applications that this application consists of.
+     * @throws RuleApplicationException thrown if the tactic could not be
+     * applied again.
+     */
+    public List<InferenceApplication> getPrimitiveApplications(Goals goals) throws RuleApplicationException {
+        if (subApplications != null) {
+            return getSubApplications();
+        }
+        if (inferenceRule instanceof InferenceTactic) {
+            return ((TacticApplicationResult) applyTo(goals)).getApplicationList();
+        }
+        return Collections.singletonList(this);
+    }
     // </editor-fold>
 }
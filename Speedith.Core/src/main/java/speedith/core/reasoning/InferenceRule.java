@@ -101,6 +101,28 @@ public interface InferenceRule<TArgs extends RuleArg>  extends Inference<TArgs,
     @Override
     RuleApplicationResult apply(RuleArg args, Goals goals) throws RuleApplicationException;
 
+    /**
+     * Applies this rule like {@link InferenceRule#apply(RuleArg, Goals)}, but
+     * returns the reason of a failure instead of throwing an exception.
+     *
+     * @param args the arguments to this inference rule.
+     * @param goals the goals on which to apply the inference rule.
+     * @return the result of the application or the reason why this rule
+     * could not be applied.
+     */
+    RuleApplicationAttempt tryApply(RuleArg args, Goals goals);
+
+    /**
+     * Indicates whether {@link InferenceRule#apply(RuleArg, Goals)} would
+     * succeed with the given arguments and goals. <p>Rules that can decide
+     * this cheaply do so without applying themselves.</p>
+     *
+     * @param args the arguments to this inference rule.
+     * @param goals the goals on which to apply the inference rule.
+     * @return {@code true} iff this rule can be applied.
+     */
+    boolean isApplicable(RuleArg args, Goals goals);
+
     /**
      * Returns the provider of this rule. This provider gives all the
      * meta-information about this rule (human-readable description, formal
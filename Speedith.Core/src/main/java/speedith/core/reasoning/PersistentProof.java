@@ -0,0 +1,276 @@
+package speedith.core.reasoning;
+
+import speedith.core.reasoning.args.RuleArg;
+import speedith.core.reasoning.tactical.TacticApplicationException;
+
+import java.io.ObjectStreamException;
+import java.util.AbstractList;
+import java.util.List;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * A {@link Proof} whose steps are shared with the proofs it was copied from.
+ * <p>The steps form an immutable chain in which every step points to the step
+ * before it. A proof is merely a pointer to its last step. Copying a proof
+ * (see {@link PersistentProof#PersistentProof(Proof)}) therefore takes
+ * constant time and memory, and a proof step only adds a single link to the
+ * chain. This makes the class suitable for proof searches, which extend the
+ * same proof with many alternative steps.</p> <p>Indexed access walks the
+ * chain once and is then served from a snapshot until the proof changes
+ * again.</p> <p>Instances are serialised as {@link ProofTrace proof
+ * traces}.</p>
+ */
+public class PersistentProof implements Proof {
+
+    private static final long serialVersionUID = -3326488165924917045L;
+
+    // <editor-fold defaultstate="collapsed" desc="Fields">
+    /**
+     * The last step of this proof, or {@code null} if the proof has no
+     * goals.
+     */
+    private transient Step head;
+    /**
+     * All steps of this proof (from the initial goals to {@link
+     * PersistentProof#head}), or {@code null} if they were not needed since
+     * the last change.
+     */
+    private transient Step[] path;
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Constructors">
+    /**
+     * Creates a new proof with the given initial goals.
+     *
+     * @param initialGoals the initial goals (the theorem we want to prove).
+     * <p><span style="font-weight:bold">Note</span>: this parameter may be
+     * {@code null} in which case no goals will be there to prove and no proof
+     * steps will be applicable.</p>
+     */
+    public PersistentProof(Goals initialGoals) {
+        if (initialGoals != null) {
+            head = new Step(null, null, initialGoals);
+        }
+    }
+
+    /**
+     * Creates a copy of the given proof. Further steps applied to the copy
+     * do not change the given proof (and vice versa). <p>The copy shares all
+     * steps with the given proof if it is a persistent proof, otherwise the
+     * steps are copied.</p>
+     *
+     * @param proof the proof to copy.
+     */
+    public PersistentProof(Proof proof) {
+        if (proof == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "proof"));
+        }
+        if (proof instanceof PersistentProof) {
+            head = ((PersistentProof) proof).head;
+        } else if (proof.getGoalsCount() > 0) {
+            List<Goals> goals = proof.getGoals();
+            List<InferenceApplication> applications = proof.getInferenceApplications();
+            head = new Step(null, null, goals.get(0));
+            for (int i = 0; i < applications.size(); i++) {
+                head = new Step(head, applications.get(i), goals.get(i + 1));
+            }
+        }
+    }
+    // </editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Proof Interface Implementation">
+    @Override
+    public <TRuleArg extends RuleArg> InferenceApplicationResult applyRule(Inference<TRuleArg, ? extends InferenceApplicationResult> rule, RuleApplicationType type, String typeSpecifier) throws RuleApplicationException {
+        return applyRule(rule, null, type, typeSpecifier);
+    }
+
+    @Override
+    public <TRuleArg extends RuleArg> InferenceApplicationResult applyRule(Inference<? super TRuleArg, ? extends InferenceApplicationResult> rule, TRuleArg args, RuleApplicationType type, String typeSpecifier) throws RuleApplicationException {
+        if (isFinished()) {
+            throw new RuleApplicationException(i18n("PROOF_TRACE_FINISHED"));
+        }
+        InferenceApplicationResult appResult = RuleApplicationCache.applyInference(rule, args, getLastGoals());
+        if (appResult == null) {
+            throw new IllegalStateException(i18n("SRK_RULE_MUST_RETURN_NONNULL_RESULT", rule.getProvider().getInferenceName()));
+        }
+        Goals newGoals = ProofTrace.dischargeNullGoals(appResult.getGoals());
+        head = new Step(head, ProofTrace.createApplication(rule, args, type, typeSpecifier, appResult), newGoals);
+        path = null;
+        return appResult;
+    }
+
+    @Override
+    public Goals getGoalsAt(int index) {
+        if (head != null && index == head.index) {
+            return head.goals;
+        }
+        return getPath()[index].goals;
+    }
+
+    @Override
+    public int getGoalsCount() {
+        return head == null ? 0 : head.index + 1;
+    }
+
+    @Override
+    public Goals getInitialGoals() {
+        return head == null ? null : getPath()[0].goals;
+    }
+
+    @Override
+    public Goals getLastGoals() {
+        return head == null ? null : head.goals;
+    }
+
+    @Override
+    public List<Goals> getGoals() {
+        final Step[] steps = getPath();
+        return new AbstractList<Goals>() {
+            @Override
+            public Goals get(int index) {
+                return steps[index].goals;
+            }
+
+            @Override
+            public int size() {
+                return steps.length;
+            }
+        };
+    }
+
+    @Override
+    public List<InferenceApplication> getInferenceApplications() {
+        final Step[] steps = getPath();
+        return new AbstractList<InferenceApplication>() {
+            @Override
+            public InferenceApplication get(int index) {
+                return steps[index + 1].application;
+            }
+
+            @Override
+            public int size() {
+                return Math.max(0, steps.length - 1);
+            }
+        };
+    }
+
+    @Override
+    public InferenceApplication getInferenceApplicationAt(int index) {
+        if (head != null && index == head.index - 1) {
+            return head.application;
+        }
+        return getPath()[index + 1].application;
+    }
+
+    @Override
+    public int getInferenceApplicationCount() {
+        return head == null ? 0 : head.index;
+    }
+
+    @Override
+    public boolean isFinished() {
+        final Goals lastGoals = getLastGoals();
+        return lastGoals == null || lastGoals.isEmpty();
+    }
+
+    @Override
+    public boolean undoStep() {
+        if (getInferenceApplicationCount() > 0) {
+            head = head.parent;
+            path = null;
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public Proof createFlattenedProof() throws TacticApplicationException {
+        return new ProofTrace(this).createFlattenedProof();
+    }
+    //</editor-fold>
+
+    @Override
+    public boolean equals(Object obj) {
+        // two proofs are equal, iff the list of goals and the list of applied rules are equal
+        if (obj == this) return true;
+        if (obj instanceof PersistentProof) {
+            Step step = head;
+            Step other = ((PersistentProof) obj).head;
+            if (step == null || other == null) {
+                return step == other;
+            }
+            if (step.index != other.index || step.hashCode() != other.hashCode()) {
+                return false;
+            }
+            // Walk back until the chains merge.
+            for (; step != other; step = step.parent, other = other.parent) {
+                if (!step.goals.equals(other.goals) || (step.application == null ? other.application != null : !step.application.equals(other.application))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the same hash code as {@link ProofTrace#hashCode()} for the
+     * same goals and inference applications. It does not depend on the
+     * length of the proof.
+     */
+    @Override
+    public int hashCode() {
+        return head == null ? 31 + 1 : head.hashCode();
+    }
+
+    private Object writeReplace() throws ObjectStreamException {
+        return new ProofTrace(this);
+    }
+
+    private Step[] getPath() {
+        if (path == null) {
+            path = new Step[getGoalsCount()];
+            for (Step step = head; step != null; step = step.parent) {
+                path[step.index] = step;
+            }
+        }
+        return path;
+    }
+
+    // <editor-fold defaultstate="collapsed" desc="Step">
+    /**
+     * A single link in the chain of steps. The initial goals are the first
+     * step (they have no inference application).
+     */
+    private static final class Step {
+
+        final Step parent;
+        final InferenceApplication application;
+        final Goals goals;
+        final int index;
+        /**
+         * The hash codes of the lists of goals and inference applications
+         * from the first step up to this one (as computed by
+         * {@link List#hashCode()}).
+         */
+        final int goalsHash;
+        final int applicationsHash;
+
+        Step(Step parent, InferenceApplication application, Goals goals) {
+            this.parent = parent;
+            this.application = application;
+            this.goals = goals;
+            this.index = parent == null ? 0 : parent.index + 1;
+            this.goalsHash = 31 * (parent == null ? 1 : parent.goalsHash) + (goals == null ? 0 : goals.hashCode());
+            this.applicationsHash = parent == null ? 1 : 31 * parent.applicationsHash + (application == null ? 0 : application.hashCode());
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * goalsHash + applicationsHash;
+        }
+    }
+    // </editor-fold>
+}
@@ -29,7 +29,6 @@ package speedith.core.reasoning;
 import speedith.core.lang.NullSpiderDiagram;
 import speedith.core.lang.SpiderDiagram;
 import speedith.core.reasoning.args.RuleArg;
-import speedith.core.reasoning.tactical.InferenceTactic;
 import speedith.core.reasoning.tactical.TacticApplicationException;
 import speedith.core.reasoning.tactical.TacticApplicationResult;
 
@@ -139,23 +138,12 @@ public class ProofTrace implements Proof {
         if (isFinished()) {
             throw new RuleApplicationException(i18n("PROOF_TRACE_FINISHED"));
         }
-        InferenceApplicationResult appResult = rule.apply(args, getLastGoals());
+        InferenceApplicationResult appResult = RuleApplicationCache.applyInference(rule, args, getLastGoals());
         if (appResult == null) {
             throw new IllegalStateException(i18n("SRK_RULE_MUST_RETURN_NONNULL_RESULT", rule.getProvider().getInferenceName()));
         }
-        // Discharge any null-spider diagrams automatically.
-        Goals newGoals = appResult.getGoals();
-        if (!newGoals.isEmpty()) {
-            ArrayList<SpiderDiagram> remainingGoals = new ArrayList<>();
-            NullSpiderDiagram nsd = NullSpiderDiagram.getInstance();
-            for (SpiderDiagram goal : newGoals.getGoals()) {
-                if (!nsd.isSEquivalentTo(goal)) {
-                    remainingGoals.add(goal);
-                }
-            }
-            newGoals = Goals.createGoalsFrom(remainingGoals);
-        }
-        InferenceApplication application = new InferenceApplication( rule, args, type, typeSpecifier);
+        Goals newGoals = dischargeNullGoals(appResult.getGoals());
+        InferenceApplication application = createApplication(rule, args, type, typeSpecifier, appResult);
        
         inferenceApplications.add(application);
 //        goals.add(appResult.getGoals());
@@ -221,6 +209,41 @@ public class ProofTrace implements Proof {
     }
     //</editor-fold>
 
+    /**
+     * Removes all goals that are equivalent to the null spider diagram (these
+     * are discharged automatically after every proof step).
+     *
+     * @param goals the goals produced by a proof step.
+     * @return the goals without the trivially true ones.
+     */
+    static Goals dischargeNullGoals(Goals goals) {
+        if (goals.isEmpty()) {
+            return goals;
+        }
+        ArrayList<SpiderDiagram> remainingGoals = new ArrayList<>();
+        NullSpiderDiagram nsd = NullSpiderDiagram.getInstance();
+        for (SpiderDiagram goal : goals.getGoals()) {
+            if (!nsd.isSEquivalentTo(goal)) {
+                remainingGoals.add(goal);
+            }
+        }
+        return Goals.createGoalsFrom(remainingGoals);
+    }
+
+    /**
+     * Creates the record of an applied inference. The rule applications of
+     * tactics are recorded with it, so that they do not have to be found
+     * again by re-applying the tactic.
+     *
+     * @param appResult the result of the inference.
+     * @return the record of the applied inference.
+     */
+    static InferenceApplication createApplication(Inference<?, ?> rule, RuleArg args, RuleApplicationType type, String typeSpecifier, InferenceApplicationResult appResult) {
+        if (appResult instanceof TacticApplicationResult) {
+            return new InferenceApplication(rule, args, type, typeSpecifier, ((TacticApplicationResult) appResult).getApplicationList());
+        }
+        return new InferenceApplication(rule, args, type, typeSpecifier);
+    }
 
     @Override
     public boolean equals(Object obj) {
@@ -242,21 +265,13 @@ public class ProofTrace implements Proof {
 
     @Override
     public Proof createFlattenedProof() throws TacticApplicationException {
-        Proof newProof = null;
-        newProof = new ProofTrace(getInitialGoals());
+        Proof newProof = new ProofTrace(getInitialGoals());
         for (InferenceApplication appl : getInferenceApplications()) {
             try {
-                if (appl.getInference() instanceof InferenceTactic) {
-                    Goals currentGoals = newProof.getLastGoals();
-                    TacticApplicationResult result = (TacticApplicationResult) appl.applyTo(currentGoals);
-                    for (InferenceApplication app : result.getApplicationList()) {
-                        newProof.applyRule((InferenceRule<? super RuleArg>) app.getInference(), app.getRuleArguments(), app.getType(), app.getTypeSpecifier());
-                    }
-                        /*if (!getLastGoals().equals(result.getGoals())) {
-                            throw new TacticApplicationException("Unexpected result of tactic application");
-                        }*/
-                } else {
-                    newProof.applyRule((InferenceRule<? super RuleArg>) appl.getInference(), appl.getRuleArguments(), appl.getType(), appl.getTypeSpecifier());
+                // Tactics are replaced by the rule applications recorded
+                // when they were applied.
+                for (InferenceApplication app : appl.getPrimitiveApplications(newProof.getLastGoals())) {
+                    newProof.applyRule((InferenceRule<? super RuleArg>) app.getInference(), app.getRuleArguments(), app.getType(), app.getTypeSpecifier());
                 }
             } catch (RuleApplicationException e) {
                 e.printStackTrace();
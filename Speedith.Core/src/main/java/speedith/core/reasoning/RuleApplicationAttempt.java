@@ -0,0 +1,83 @@
+package speedith.core.reasoning;
+
+import speedith.core.reasoning.args.RuleArg;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * The outcome of {@link InferenceRule#tryApply(RuleArg, Goals) trying to
+ * apply} an inference rule. It holds either the result of the application or
+ * the reason why the rule could not be applied. <p>Unlike a {@link
+ * RuleApplicationException}, a failed attempt does not capture a stack trace.
+ * Proof searches, which try many rules that do not apply, should therefore
+ * prefer attempts to exceptions.</p>
+ */
+public final class RuleApplicationAttempt {
+
+    // <editor-fold defaultstate="collapsed" desc="Fields">
+    private final RuleApplicationResult result;
+    private final String failureMessage;
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Constructors">
+    private RuleApplicationAttempt(RuleApplicationResult result, String failureMessage) {
+        this.result = result;
+        this.failureMessage = failureMessage;
+    }
+
+    /**
+     * Creates the outcome of a successful rule application.
+     *
+     * @param result the result of the rule application (may be {@code null}
+     *               if the rule discharged all goals).
+     * @return the outcome of a successful rule application.
+     */
+    public static RuleApplicationAttempt succeeded(RuleApplicationResult result) {
+        return new RuleApplicationAttempt(result, null);
+    }
+
+    /**
+     * Creates the outcome of a rule that could not be applied.
+     *
+     * @param failureMessage the reason why the rule could not be applied.
+     * @return the outcome of a rule that could not be applied.
+     */
+    public static RuleApplicationAttempt failed(String failureMessage) {
+        if (failureMessage == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "failureMessage"));
+        }
+        return new RuleApplicationAttempt(null, failureMessage);
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Public Properties">
+    /**
+     * Indicates whether the rule was applied.
+     *
+     * @return {@code true} iff the rule was applied.
+     */
+    public boolean isSuccessful() {
+        return failureMessage == null;
+    }
+
+    /**
+     * Returns the result of the rule application.
+     *
+     * @return the result of the rule application, or {@code null} if the
+     *         rule could not be applied.
+     */
+    public RuleApplicationResult getResult() {
+        return result;
+    }
+
+    /**
+     * Returns the reason why the rule could not be applied.
+     *
+     * @return the reason why the rule could not be applied, or {@code null}
+     *         if the rule was applied.
+     */
+    public String getFailureMessage() {
+        return failureMessage;
+    }
+    // </editor-fold>
+}
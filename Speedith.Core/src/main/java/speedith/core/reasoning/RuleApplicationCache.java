@@ -0,0 +1,256 @@
+package speedith.core.reasoning;
+
+import speedith.core.reasoning.args.RuleArg;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * A bounded cache of the results of {@link InferenceRule#apply(RuleArg,
+ * Goals) inference rule applications}. <p>Proof searches and tactics apply
+ * the same rule with equal arguments to equal goals over and over (e.g.: in
+ * sibling branches of a search). This cache returns the result of the first
+ * such application to all later ones. The results are looked up by the class
+ * of the rule, the arguments and the goals. The spider diagrams in the goals
+ * are interned, so the goals are compared quickly. Failed applications are
+ * not cached.</p> <p>When the cache is full, the least recently used result
+ * is evicted. The cache counts its hits and misses.</p> <p>The cache is
+ * used by {@link Proof proofs} and tactics only while it is {@link
+ * RuleApplicationCache#install(RuleApplicationCache) installed} on the
+ * current thread (see {@link
+ * speedith.core.reasoning.automatic.AutomaticProver#setRuleApplicationCache(RuleApplicationCache)}).
+ * The cache itself is thread-safe and may be installed on several threads at
+ * once.</p>
+ */
+public final class RuleApplicationCache {
+
+    /**
+     * The default maximum number of results in the cache.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 4096;
+    private static final ThreadLocal<RuleApplicationCache> installedCache = new ThreadLocal<>();
+
+    // <editor-fold defaultstate="collapsed" desc="Fields">
+    private final int maximumSize;
+    private final LinkedHashMap<Key, RuleApplicationResult> results;
+    private long hits;
+    private long misses;
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Constructors">
+    /**
+     * Creates a cache that holds at most {@link
+     * RuleApplicationCache#DEFAULT_MAXIMUM_SIZE} results.
+     */
+    public RuleApplicationCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Creates a cache that holds at most the given number of results.
+     *
+     * @param maximumSize the maximum number of results in the cache (must be
+     *                    positive).
+     */
+    public RuleApplicationCache(final int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "maximumSize"));
+        }
+        this.maximumSize = maximumSize;
+        this.results = new LinkedHashMap<Key, RuleApplicationResult>(16, 0.75f, true) {
+            private static final long serialVersionUID = -2755419946395436720L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, RuleApplicationResult> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Applies the given rule to the given goals, or returns the cached result
+     * of an equal application.
+     *
+     * @param rule  the rule to apply.
+     * @param args  the arguments to the rule.
+     * @param goals the goals to which the rule is applied.
+     * @return the result of the rule application.
+     * @throws RuleApplicationException thrown if the rule could not be
+     *                                  applied.
+     */
+    public RuleApplicationResult apply(InferenceRule<?> rule, RuleArg args, Goals goals) throws RuleApplicationException {
+        Key key = createKey(rule, args, goals);
+        RuleApplicationResult result = lookUp(key);
+        if (result == null) {
+            // Rules are not applied while holding the lock. Concurrent equal
+            // applications may therefore both miss.
+            result = rule.apply(args, goals);
+            store(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Removes all results from the cache and resets the counters.
+     */
+    public synchronized void clear() {
+        results.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    /**
+     * Returns the number of results in the cache.
+     *
+     * @return the number of results in the cache.
+     */
+    public synchronized int size() {
+        return results.size();
+    }
+
+    /**
+     * Returns the maximum number of results in the cache.
+     *
+     * @return the maximum number of results in the cache.
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Returns the number of applications that were answered from the cache.
+     *
+     * @return the number of applications that were answered from the cache.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of applications that had to apply the rule.
+     *
+     * @return the number of applications that had to apply the rule.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "RuleApplicationCache{size=" + results.size() + ", hits=" + hits + ", misses=" + misses + '}';
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Private Helper Methods">
+    private static Key createKey(InferenceRule<?> rule, RuleArg args, Goals goals) {
+        if (rule == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "rule"));
+        }
+        return new Key(rule.getClass(), args, goals);
+    }
+
+    private synchronized RuleApplicationResult lookUp(Key key) {
+        RuleApplicationResult result = results.get(key);
+        if (result == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return result;
+    }
+
+    private synchronized void store(Key key, RuleApplicationResult result) {
+        if (result != null) {
+            results.put(key, result);
+        }
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Installation">
+    /**
+     * Makes the given cache the cache of the current thread.
+     *
+     * @param cache the cache to install, or {@code null} to stop using a
+     *              cache on the current thread.
+     * @return the previously installed cache (may be {@code null}). Install
+     *         it again to restore the previous state.
+     */
+    public static RuleApplicationCache install(RuleApplicationCache cache) {
+        RuleApplicationCache previous = installedCache.get();
+        if (cache == null) {
+            installedCache.remove();
+        } else {
+            installedCache.set(cache);
+        }
+        return previous;
+    }
+
+    /**
+     * Returns the cache installed on the current thread.
+     *
+     * @return the cache installed on the current thread, or {@code null} if
+     *         there is none.
+     */
+    public static RuleApplicationCache getInstalled() {
+        return installedCache.get();
+    }
+
+    /**
+     * Applies the given inference to the given goals. Rules are applied
+     * through the {@link RuleApplicationCache#getInstalled() installed
+     * cache} (if there is one). Tactics are always applied directly.
+     *
+     * @param inference the inference to apply.
+     * @param args      the arguments to the inference.
+     * @param goals     the goals to which the inference is applied.
+     * @return the result of the inference.
+     * @throws RuleApplicationException thrown if the inference could not be
+     *                                  applied.
+     */
+    public static InferenceApplicationResult applyInference(Inference<?, ? extends InferenceApplicationResult> inference, RuleArg args, Goals goals) throws RuleApplicationException {
+        RuleApplicationCache cache = installedCache.get();
+        if (cache != null && inference instanceof InferenceRule) {
+            return cache.apply((InferenceRule<?>) inference, args, goals);
+        }
+        return inference.apply(args, goals);
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Key">
+    private static final class Key {
+
+        private final Class<?> ruleClass;
+        private final RuleArg args;
+        private final Goals goals;
+        private final int hash;
+
+        Key(Class<?> ruleClass, RuleArg args, Goals goals) {
+            this.ruleClass = ruleClass;
+            this.args = args;
+            this.goals = goals;
+            this.hash = Objects.hash(ruleClass, args, goals);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            Key other = (Key) obj;
+            return hash == other.hash
+                    && ruleClass == other.ruleClass
+                    && Objects.equals(args, other.args)
+                    && Objects.equals(goals, other.goals);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+    // </editor-fold>
+}
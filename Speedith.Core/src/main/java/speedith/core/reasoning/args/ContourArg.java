@@ -97,4 +97,14 @@ public class ContourArg extends SubDiagramIndexArg implements Serializable {
         }
         return contourArgs;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        return super.equals(o) && contour.equals(((ContourArg) o).contour);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + contour.hashCode();
+    }
 }
@@ -77,4 +77,17 @@ public class MultipleRuleArgs implements RuleArg, Iterable<RuleArg>, Serializabl
             throw new RuleApplicationException("No inference rule arguments were specified.");
         }
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        return ruleArgs.equals(((MultipleRuleArgs) o).ruleArgs);
+    }
+
+    @Override
+    public int hashCode() {
+        return ruleArgs.hashCode();
+    }
 }
@@ -68,4 +68,14 @@ public class SpiderArg extends SubDiagramIndexArg implements Serializable {
         return spider;
     }
     // </editor-fold>
+
+    @Override
+    public boolean equals(Object o) {
+        return super.equals(o) && spider.equals(((SpiderArg) o).spider);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + spider.hashCode();
+    }
 }
@@ -76,4 +76,14 @@ public class SpiderRegionArg extends SpiderArg implements Serializable {
     public Region getRegion() {
         return region;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        return super.equals(o) && region.equals(((SpiderRegionArg) o).region);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + region.hashCode();
+    }
 }
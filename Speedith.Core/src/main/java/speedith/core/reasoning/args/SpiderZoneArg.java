@@ -77,4 +77,14 @@ public class SpiderZoneArg extends SpiderArg implements Serializable {
     public Zone getZone() {
         return zone;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        return super.equals(o) && zone.equals(((SpiderZoneArg) o).zone);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + zone.hashCode();
+    }
 }
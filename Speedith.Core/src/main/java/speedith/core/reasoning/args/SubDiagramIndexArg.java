@@ -71,4 +71,14 @@ public class SubDiagramIndexArg extends SubgoalIndexArg implements RuleArg, Seri
         return subDiagramIndex;
     }
     // </editor-fold>
+
+    @Override
+    public boolean equals(Object o) {
+        return super.equals(o) && subDiagramIndex == ((SubDiagramIndexArg) o).subDiagramIndex;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + subDiagramIndex;
+    }
 }
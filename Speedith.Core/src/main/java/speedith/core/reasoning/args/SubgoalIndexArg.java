@@ -103,4 +103,17 @@ public class SubgoalIndexArg implements Cloneable, RuleArg, Serializable {
         return goalIndex;
     }
     //</editor-fold>
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        return subgoalIndex == ((SubgoalIndexArg) o).subgoalIndex;
+    }
+
+    @Override
+    public int hashCode() {
+        return subgoalIndex;
+    }
 }
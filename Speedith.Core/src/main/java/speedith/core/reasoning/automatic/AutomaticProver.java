@@ -1,22 +1,25 @@
 package speedith.core.reasoning.automatic;
 
-import speedith.core.lang.TransformationException;
+import speedith.core.lang.DiagramArena;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.SpiderDiagrams;
 import speedith.core.reasoning.*;
-import speedith.core.reasoning.args.SubDiagramIndexArg;
 import speedith.core.reasoning.automatic.strategies.Strategy;
 import speedith.core.reasoning.automatic.wrappers.CompoundSpiderDiagramOccurrence;
 import speedith.core.reasoning.automatic.wrappers.PrimarySpiderDiagramOccurrence;
 import speedith.core.reasoning.automatic.wrappers.SpiderDiagramOccurrence;
-import speedith.core.reasoning.rules.TrivialImplicationTautology;
 import speedith.core.reasoning.rules.util.ReasoningUtils;
 import speedith.core.reasoning.tactical.TacticApplicationException;
 
+import java.util.ArrayList;
+
 /**
  * @author Sven Linker [s.linker@brighton.ac.uk]
  */
 public abstract class AutomaticProver  implements  AutomaticProof, AutomaticProverProvider {
 
     private Strategy strategy;
+    private RuleApplicationCache ruleApplicationCache;
 
     public AutomaticProver(Strategy strategy) {
         this.strategy = strategy;
@@ -30,6 +33,21 @@ public abstract class AutomaticProver  implements  AutomaticProof, AutomaticProv
         this.strategy = strategy;
     }
 
+    public RuleApplicationCache getRuleApplicationCache() {
+        return ruleApplicationCache;
+    }
+
+    /**
+     * Sets the cache through which the rules (also within tactics) are
+     * applied during the proof search. The cache may be shared by several
+     * searches.
+     * @param ruleApplicationCache the cache, or {@code null} to apply all
+     * rules directly.
+     */
+    public void setRuleApplicationCache(RuleApplicationCache ruleApplicationCache) {
+        this.ruleApplicationCache = ruleApplicationCache;
+    }
+
     /**
      * Creates a {@link Proof} object for the given set of initial goals using the {@link Strategy}.
      *
@@ -41,7 +59,7 @@ public abstract class AutomaticProver  implements  AutomaticProof, AutomaticProv
         // currently only Spider Diagrams which have an implication as their major operator
         // and where the assumption and conclusion are conjunctive diagrams
         // can be proved
-        if (!ReasoningUtils.isImplicationOfConjunctions(initialGoals.getGoalAt(0))) {
+        if (!initialGoals.getGoalAt(0).getSummary().isImplicationOfConjunctions()) {
             throw new AutomaticProofException("The current goal is not an implication of conjunctions.");
         }
 
@@ -51,12 +69,12 @@ public abstract class AutomaticProver  implements  AutomaticProof, AutomaticProv
         // introduce all zones that are only implicit in the
         // data structure. I.e. present_zones returns the zone set in
         // the usual sense of spider diagrams
-        Proof init = new ProofTrace(ReasoningUtils.normalize(initialGoals));
+        Proof init = new PersistentProof(ReasoningUtils.normalize(initialGoals));
         //AppliedRules appliedRules = new AppliedRules();
 
         Proof result;
         try {
-            result = prove(init, subGoalToProve);
+            result = proveInArena(init, subGoalToProve);
         } catch (RuleApplicationException|TacticApplicationException e) {
             throw new AutomaticProofException("Unable to prove current goal because of an illegal rule application",e);
         }
@@ -75,7 +93,7 @@ public abstract class AutomaticProver  implements  AutomaticProof, AutomaticProv
             return proof;
 //            throw new AutomaticProofException("The proof is already finished");
         }
-        if (!ReasoningUtils.isImplicationOfConjunctions(proof.getLastGoals().getGoalAt(subGoalToProve))) {
+        if (!proof.getLastGoals().getGoalAt(subGoalToProve).getSummary().isImplicationOfConjunctions()) {
             throw new AutomaticProofException("The current goal is not an implication of conjunctions");
         }
         // proof generators can only be applied to normalised spider diagrams
@@ -84,11 +102,11 @@ public abstract class AutomaticProver  implements  AutomaticProof, AutomaticProv
             throw  new AutomaticProofException("The current goal is not normalised!");
         }
         // create a new proof object, so that we do not mess with the supplied proof
-        Proof initial = new ProofTrace(proof.getGoals(), proof.getInferenceApplications());
+        Proof initial = new PersistentProof(proof);
 
         Proof result;
         try {
-            result = prove(initial, subGoalToProve);
+            result = proveInArena(initial, subGoalToProve);
         } catch (RuleApplicationException|TacticApplicationException e) {
             throw new AutomaticProofException("Unable to prove current goal because of an illegal rule application",e);
         }
@@ -101,28 +119,66 @@ public abstract class AutomaticProver  implements  AutomaticProof, AutomaticProv
 
     protected abstract Proof prove (Proof p, int subgoalindex) throws RuleApplicationException, TacticApplicationException, AutomaticProofException;
 
+    /**
+     * Runs {@link AutomaticProver#prove(Proof, int)} within a {@link DiagramArena}.
+     * The intermediate diagrams of the search are interned into the arena and dropped
+     * together with it. Only the diagrams of the returned proof are promoted to the
+     * global pool. The {@link AutomaticProver#getRuleApplicationCache() rule application
+     * cache} (if any) is installed during the search.
+     * @param p The proof that will be extended
+     * @param subGoalIndex The subgoal that will be proved
+     * @return the result of {@link AutomaticProver#prove(Proof, int)} with pooled diagrams
+     */
+    private Proof proveInArena(Proof p, int subGoalIndex) throws RuleApplicationException, TacticApplicationException, AutomaticProofException {
+        Proof result;
+        DiagramArena arena = SpiderDiagrams.openArena();
+        RuleApplicationCache previousCache = ruleApplicationCache == null ? null : RuleApplicationCache.install(ruleApplicationCache);
+        try {
+            result = prove(p, subGoalIndex);
+        } finally {
+            if (ruleApplicationCache != null) {
+                RuleApplicationCache.install(previousCache);
+            }
+            arena.close();
+        }
+        return promoteDiagrams(result);
+    }
+
+    /*
+     * Creates a copy of the given proof in which all diagrams are taken from the
+     * global pool.
+     */
+    private static Proof promoteDiagrams(Proof proof) {
+        if (proof == null) return null;
+        ArrayList<Goals> goals = new ArrayList<>(proof.getGoalsCount());
+        for (Goals g : proof.getGoals()) {
+            if (g == null || g.isEmpty()) {
+                goals.add(g);
+            } else {
+                ArrayList<SpiderDiagram> diagrams = new ArrayList<>(g.getGoalsCount());
+                for (SpiderDiagram sd : g.getGoals()) {
+                    diagrams.add(SpiderDiagrams.promote(sd));
+                }
+                goals.add(Goals.createGoalsFrom(diagrams));
+            }
+        }
+        return new ProofTrace(goals, proof.getInferenceApplications());
+    }
+
 
     /**
-     * Tries to finish up the given Proof p by applying ImplicationTautology to
-     * the given subgoal in the last goals in the proof.
+     * Tries to finish up the given Proof p by closing the given subgoal in
+     * the last goals in the proof (see {@link GoalClosure}).
      * @param p The proof that will be finished
      * @param subGoalIndex The subgoal that will be finished
-     * @return If ImplicationTautology was applied: the finished proof, otherwise the proof p
+     * @return The proof p, with the closing inference applied if there is one
      * @throws RuleApplicationException
      */
     protected Proof tryToFinish(Proof p, int subGoalIndex) throws  RuleApplicationException, TacticApplicationException{
         if (p.isFinished()) return p;
-        TrivialImplicationTautology tautology = new TrivialImplicationTautology();
-        SubDiagramIndexArg index = new SubDiagramIndexArg(subGoalIndex,0);
-        try {
-            p.applyRule(tautology, index, RuleApplicationType.AUTOMATIC, getPrettyName());
-        } catch (TransformationException e) {
-            // TrivialImplicationTautology throws a TransformationException, if the rule
-            // could not be applied (i.e., if the syntactic equivalence could not
-            // be established). I abuse this behaviour by silently swallowing
-            // the exception, Hence, if such an exception is thrown, the old proof
-            // will be returned.
-        }
+        // Only the subgoal is inspected. No inference is applied (and recorded)
+        // unless it closes the subgoal.
+        GoalClosure.close(p, subGoalIndex, getPrettyName());
         return p;
     }
 
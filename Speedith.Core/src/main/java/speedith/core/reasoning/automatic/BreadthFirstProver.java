@@ -2,8 +2,8 @@ package speedith.core.reasoning.automatic;
 
 import speedith.core.lang.SpiderDiagram;
 import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.PersistentProof;
 import speedith.core.reasoning.Proof;
-import speedith.core.reasoning.ProofTrace;
 import speedith.core.reasoning.RuleApplicationException;
 import speedith.core.reasoning.args.RuleArg;
 import speedith.core.reasoning.automatic.rules.PossibleRuleApplication;
@@ -49,7 +49,7 @@ public class BreadthFirstProver extends  AutomaticProver {
         // never have to be copied or introduced.
         Collection<String> contours = new HashSet<>();
         for (SpiderDiagram sd : currentGoals.getGoals()) {
-            contours.addAll( AutomaticUtils.collectContours(sd));
+            contours.addAll(sd.getSummary().getContours());
         }
         Proof finishedProof = null;
         long numOfSuperFl = 0;
@@ -66,7 +66,7 @@ public class BreadthFirstProver extends  AutomaticProver {
                 Set<? extends PossibleRuleApplication<? extends RuleArg>> applications = AutomaticUtils.createAllPossibleRuleApplications(subgoalindex,target, contours);
                 // apply all possible rules to the current proof, creating a new proof for each application
                 for (PossibleRuleApplication nextRule : applications) {
-                    ProofTrace newCurrent = new ProofTrace(current.getGoals(), current.getInferenceApplications());
+                    PersistentProof newCurrent = new PersistentProof(current);
                     boolean superfl = nextRule.isSuperfluous(newCurrent);
                     if (superfl) numOfSuperFl++;
                     boolean hasbeenApplied = !superfl && nextRule.apply(newCurrent, getPrettyName());
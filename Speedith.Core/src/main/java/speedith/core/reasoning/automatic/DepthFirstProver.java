@@ -52,7 +52,7 @@ public class DepthFirstProver extends AutomaticProver {
         // never have to be copied or introduced.
         Collection<String> contours = new HashSet<>();
         for (SpiderDiagram sd : currentGoals.getGoals()) {
-            contours.addAll( AutomaticUtils.collectContours(sd));
+            contours.addAll(sd.getSummary().getContours());
         }
         SpiderDiagramOccurrence target = SpiderDiagramOccurrence.wrapDiagram(currentGoals.getGoalAt(subgoalindex), 0);
 //        AppliedRules applied = new AppliedRules(appliedRules);
@@ -0,0 +1,100 @@
+package speedith.core.reasoning.automatic;
+
+import speedith.core.lang.CompoundSpiderDiagram;
+import speedith.core.lang.NullSpiderDiagram;
+import speedith.core.lang.Operator;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.Proof;
+import speedith.core.reasoning.RuleApplicationException;
+import speedith.core.reasoning.RuleApplicationType;
+import speedith.core.reasoning.args.SubDiagramIndexArg;
+import speedith.core.reasoning.args.SubgoalIndexArg;
+import speedith.core.reasoning.rules.DischargeNullGoal;
+import speedith.core.reasoning.rules.TrivialImplicationTautology;
+import speedith.core.reasoning.tactical.TacticApplicationException;
+
+/**
+ * Detects subgoals that a single inference closes. <p>A subgoal is closed by
+ * {@link DischargeNullGoal} if it is the null spider diagram, and by
+ * {@link TrivialImplicationTautology} if it is an implication whose premise
+ * and conclusion are equal. The detector only inspects the subgoal. Since
+ * spider diagrams are interned, equal operands are usually the same object,
+ * and otherwise differ in their {@link SpiderDiagram#getCanonicalFingerprint()
+ * fingerprints}. The full comparison is needed only if the fingerprints
+ * collide.</p>
+ */
+public final class GoalClosure {
+
+    private GoalClosure() {
+    }
+
+    /**
+     * Indicates whether the given subgoal is closed by a single inference.
+     *
+     * @param goals        the goals that contain the subgoal.
+     * @param subgoalIndex the index of the subgoal.
+     * @return {@code true} iff the subgoal exists and is closed by a single
+     *         inference.
+     */
+    public static boolean isClosable(Goals goals, int subgoalIndex) {
+        return findClosingInference(goals, subgoalIndex) != ClosingInference.None;
+    }
+
+    /**
+     * Applies the inference that closes the given subgoal of the last goals
+     * in the proof, but only if there is one.
+     *
+     * @param proof         the proof to extend.
+     * @param subgoalIndex  the index of the subgoal in the last goals of the
+     *                      proof.
+     * @param typeSpecifier the name of the prover that closes the subgoal.
+     * @return {@code true} iff an inference was applied.
+     * @throws RuleApplicationException   thrown if the closing inference could
+     *                                    not be applied.
+     * @throws TacticApplicationException thrown by the proof when it applies
+     *                                    the inference.
+     */
+    public static boolean close(Proof proof, int subgoalIndex, String typeSpecifier) throws RuleApplicationException, TacticApplicationException {
+        switch (findClosingInference(proof.getLastGoals(), subgoalIndex)) {
+            case NullGoal:
+                proof.applyRule(new DischargeNullGoal(), new SubgoalIndexArg(subgoalIndex), RuleApplicationType.AUTOMATIC, typeSpecifier);
+                return true;
+            case ImplicationTautology:
+                proof.applyRule(new TrivialImplicationTautology(), new SubDiagramIndexArg(subgoalIndex, 0), RuleApplicationType.AUTOMATIC, typeSpecifier);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // <editor-fold defaultstate="collapsed" desc="Private Helper Methods">
+    private static ClosingInference findClosingInference(Goals goals, int subgoalIndex) {
+        if (goals == null || subgoalIndex < 0 || subgoalIndex >= goals.getGoalsCount()) {
+            return ClosingInference.None;
+        }
+        SpiderDiagram goal = goals.getGoalAt(subgoalIndex);
+        if (goal instanceof NullSpiderDiagram) {
+            return ClosingInference.NullGoal;
+        }
+        if (goal instanceof CompoundSpiderDiagram) {
+            CompoundSpiderDiagram csd = (CompoundSpiderDiagram) goal;
+            if (Operator.Implication.equals(csd.getOperator()) && areSame(csd.getOperand(0), csd.getOperand(1))) {
+                return ClosingInference.ImplicationTautology;
+            }
+        }
+        return ClosingInference.None;
+    }
+
+    private static boolean areSame(SpiderDiagram premise, SpiderDiagram conclusion) {
+        return premise == conclusion
+                || (premise.getCanonicalFingerprint() == conclusion.getCanonicalFingerprint() && premise.equals(conclusion));
+    }
+
+    private enum ClosingInference {
+        None,
+        NullGoal,
+        ImplicationTautology
+    }
+    // </editor-fold>
+}
@@ -1,8 +1,8 @@
 package speedith.core.reasoning.automatic;
 
 import speedith.core.lang.SpiderDiagram;
+import speedith.core.reasoning.PersistentProof;
 import speedith.core.reasoning.Proof;
-import speedith.core.reasoning.ProofTrace;
 import speedith.core.reasoning.RuleApplicationException;
 import speedith.core.reasoning.args.RuleArg;
 import speedith.core.reasoning.automatic.rules.PossibleRuleApplication;
@@ -66,7 +66,7 @@ public class HeuristicSearch extends AutomaticProver {
         // never have to be copied or introduced.
         Collection<String> contours = new HashSet<>();
         for (SpiderDiagram sd : p.getLastGoals().getGoals()) {
-            contours.addAll( AutomaticUtils.collectContours(sd));
+            contours.addAll(sd.getSummary().getContours());
         }
         long numOfSuperFl = 0;
         long startTime= System.nanoTime();
@@ -82,7 +82,7 @@ public class HeuristicSearch extends AutomaticProver {
             Set<? extends PossibleRuleApplication<? extends RuleArg>> applications = AutomaticUtils.createAllPossibleRuleApplications(subgoalindex, target, contours);
             // apply all possible rules to the current proof, creating a new proof for each application
             for(PossibleRuleApplication nextRule : applications) {
-                ProofTrace newCurrent = new ProofTrace(currentProof.getGoals(), currentProof.getInferenceApplications());
+                PersistentProof newCurrent = new PersistentProof(currentProof);
                 boolean superfl = nextRule.isSuperfluous(newCurrent);
                 if (superfl) numOfSuperFl++;
                 boolean hasBeenApplied =  /*!superfl  && */nextRule.apply(newCurrent, getPrettyName());
@@ -7,7 +7,6 @@ import speedith.core.reasoning.Goals;
 import speedith.core.reasoning.Proof;
 import speedith.core.reasoning.automatic.AutomaticProofException;
 import speedith.core.reasoning.rules.util.HeuristicUtils;
-import speedith.core.reasoning.rules.util.ReasoningUtils;
 
 /**
  * The heuristic strategy as defined in [Flower, Jean, Masthoff, Judith and Stapleton, Gem (2004)
@@ -32,7 +31,7 @@ public class BasicHeuristicStrategy implements Strategy, StrategyProvider {
         Goals target = p.getLastGoals();
         if (!target.isEmpty()) {
             for (SpiderDiagram goal : target.getGoals()) {
-                if (!(goal == null) && !goal.equals(NullSpiderDiagram.getInstance()) && ReasoningUtils.isImplicationOfConjunctions(goal)) {
+                if (!(goal == null) && !goal.equals(NullSpiderDiagram.getInstance()) && goal.getSummary().isImplicationOfConjunctions()) {
                     CompoundSpiderDiagram impl = (CompoundSpiderDiagram) goal;
                     heuristic += HeuristicUtils.metric(impl.getOperand(0), impl.getOperand(1));
                 } else {
@@ -4,11 +4,9 @@ import speedith.core.lang.CompoundSpiderDiagram;
 import speedith.core.lang.SpiderDiagram;
 import speedith.core.reasoning.Proof;
 import speedith.core.reasoning.InferenceApplication;
-import speedith.core.reasoning.ProofAnalyser;
 import speedith.core.reasoning.automatic.AutomaticProofException;
 import speedith.core.reasoning.rules.*;
 import speedith.core.reasoning.rules.util.HeuristicUtils;
-import speedith.core.reasoning.rules.util.ReasoningUtils;
 
 import java.util.Collections;
 import java.util.HashMap;
@@ -61,9 +59,9 @@ public class LowClutterStrategy implements Strategy, StrategyProvider {
     public int getHeuristic(Proof p) throws AutomaticProofException {
         int heuristic = 0;
         for (SpiderDiagram goal : p.getLastGoals().getGoals()) {
-            if (ReasoningUtils.isImplicationOfConjunctions(goal)) {
+            if (goal.getSummary().isImplicationOfConjunctions()) {
                 CompoundSpiderDiagram impl = (CompoundSpiderDiagram) goal;
-                heuristic += ProofAnalyser.clutterScore(impl.getOperand(0));
+                heuristic += impl.getOperand(0).getSummary().getClutterScore();
             } else {
                 throw new AutomaticProofException("The current goal is not an implication of conjunctions.");
             }
@@ -0,0 +1,114 @@
+package speedith.core.reasoning.binary;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Constants and primitive encodings of the binary proof format. <p>A binary
+ * proof stream starts with the {@link BinaryFormat#MAGIC magic bytes} and the
+ * {@link BinaryFormat#VERSION format version}, followed by a sequence of
+ * records. Every record consists of:</p> <ol> <li>the record type,</li>
+ * <li>the dictionary header: the strings (contour, spider, operator and
+ * inference names) and the zones that the record mentions for the first time
+ * in the stream,</li> <li>the length of the record body in bytes, and</li>
+ * <li>the body, which refers to strings, zones and previously written
+ * diagrams through their dictionary indices.</li> </ol> <p>All counts,
+ * lengths and references are unsigned variable-length integers (seven bits
+ * per byte, least significant group first). Every spider diagram is written
+ * once; later occurrences of an equal diagram are written as references.</p>
+ */
+final class BinaryFormat {
+
+    /**
+     * The first four bytes of every binary proof stream.
+     */
+    static final byte[] MAGIC = {'S', 'D', 'P', 'F'};
+    /**
+     * The version of the format written by {@link BinaryProofWriter}.
+     * Version 2 appends the {@link
+     * speedith.core.reasoning.InferenceApplication#getSubApplications()
+     * recorded sub-applications} to every inference application.
+     */
+    static final int VERSION = 2;
+
+    // <editor-fold defaultstate="collapsed" desc="Record Types">
+    static final int RECORD_DIAGRAM = 1;
+    static final int RECORD_GOALS = 2;
+    /**
+     * The header of a proof. Its body holds the number of goals and the number
+     * of inference applications, which follow as alternating {@link
+     * BinaryFormat#RECORD_GOALS goals} and {@link
+     * BinaryFormat#RECORD_APPLICATION application} records.
+     */
+    static final int RECORD_PROOF = 3;
+    static final int RECORD_APPLICATION = 4;
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Diagram Tags">
+    static final int DIAGRAM_NULL = 0;
+    static final int DIAGRAM_PRIMARY = 1;
+    static final int DIAGRAM_COMPOUND = 2;
+    /**
+     * Tags greater or equal to this value refer to the diagram with the index
+     * {@code tag - DIAGRAM_REFERENCE}.
+     */
+    static final int DIAGRAM_REFERENCE = 3;
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Rule Argument Tags">
+    static final int ARG_NULL = 0;
+    static final int ARG_SUBGOAL = 1;
+    static final int ARG_SUB_DIAGRAM = 2;
+    static final int ARG_CONTOUR = 3;
+    static final int ARG_SPIDER = 4;
+    static final int ARG_SPIDER_ZONE = 5;
+    static final int ARG_SPIDER_REGION = 6;
+    static final int ARG_ZONE = 7;
+    static final int ARG_MULTIPLE = 8;
+    /**
+     * A rule argument of a type unknown to this format, stored with Java
+     * serialisation.
+     */
+    static final int ARG_SERIALISED = 9;
+    // </editor-fold>
+
+    private BinaryFormat() {
+    }
+
+    // <editor-fold defaultstate="collapsed" desc="Variable-Length Integers">
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new BinaryFormatException(i18n("BIN_CORRUPT_DATA", "varint"));
+    }
+
+    /**
+     * Writes a signed integer so that small negative values stay short.
+     */
+    static void writeSignedVarInt(DataOutput out, int value) throws IOException {
+        writeVarInt(out, (value << 1) ^ (value >> 31));
+    }
+
+    static int readSignedVarInt(DataInput in) throws IOException {
+        int value = readVarInt(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+    // </editor-fold>
+}
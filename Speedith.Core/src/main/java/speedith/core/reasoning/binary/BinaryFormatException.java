@@ -0,0 +1,33 @@
+package speedith.core.reasoning.binary;
+
+import java.io.IOException;
+
+/**
+ * Indicates that a stream does not contain a well-formed binary proof (or a
+ * proof of a version that this reader does not understand).
+ */
+public class BinaryFormatException extends IOException {
+
+    private static final long serialVersionUID = -3081960185473208462L;
+
+    /**
+     * Constructs an instance of <code>BinaryFormatException</code> with the
+     * specified detail message.
+     *
+     * @param msg the detail message.
+     */
+    public BinaryFormatException(String msg) {
+        super(msg);
+    }
+
+    /**
+     * Constructs an instance of <code>BinaryFormatException</code> with the
+     * specified detail message.
+     *
+     * @param msg   the detail message.
+     * @param cause the cause for this exception.
+     */
+    public BinaryFormatException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
+}
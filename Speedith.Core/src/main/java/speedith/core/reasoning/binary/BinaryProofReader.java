@@ -0,0 +1,327 @@
+package speedith.core.reasoning.binary;
+
+import speedith.core.lang.*;
+import speedith.core.reasoning.*;
+import speedith.core.reasoning.args.*;
+import speedith.core.reasoning.tactical.TacticProvider;
+import speedith.core.reasoning.tactical.Tactics;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import static speedith.core.i18n.Translations.i18n;
+import static speedith.core.reasoning.binary.BinaryFormat.*;
+
+/**
+ * Reads spider diagrams, goals and proofs that were written by a {@link
+ * BinaryProofWriter}. <p>Records are read one at a time, in the order in which
+ * they were written, so a reader never holds more than the current record (and
+ * the dictionaries) in memory.</p> <p>Instances of this class are not
+ * thread-safe.</p>
+ */
+public final class BinaryProofReader implements Closeable {
+
+    // <editor-fold defaultstate="collapsed" desc="Fields">
+    private final DataInputStream in;
+    private final int version;
+    private final ArrayList<String> strings = new ArrayList<>();
+    private final ArrayList<Zone> zones = new ArrayList<>();
+    private final ArrayList<SpiderDiagram> diagrams = new ArrayList<>();
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Constructors">
+    /**
+     * Creates a reader and reads the header of the binary format from the
+     * given stream.
+     *
+     * @param in the stream to read from.
+     * @throws IOException thrown if the stream does not start with a header
+     *                     of a supported version of the binary format.
+     */
+    public BinaryProofReader(InputStream in) throws IOException {
+        if (in == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "in"));
+        }
+        this.in = new DataInputStream(in instanceof BufferedInputStream ? in : new BufferedInputStream(in));
+        byte[] magic = new byte[MAGIC.length];
+        try {
+            this.in.readFully(magic);
+        } catch (EOFException ex) {
+            throw new BinaryFormatException(i18n("BIN_NOT_A_PROOF_FILE"), ex);
+        }
+        if (!Arrays.equals(MAGIC, magic)) {
+            throw new BinaryFormatException(i18n("BIN_NOT_A_PROOF_FILE"));
+        }
+        version = readVarInt(this.in);
+        if (version > VERSION) {
+            throw new BinaryFormatException(i18n("BIN_UNSUPPORTED_VERSION", version, VERSION));
+        }
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Indicates whether there are more records in the stream.
+     *
+     * @return {@code true} iff there is at least one more record to read.
+     * @throws IOException thrown if the stream could not be read.
+     */
+    public boolean hasNext() throws IOException {
+        in.mark(1);
+        int next = in.read();
+        in.reset();
+        return next >= 0;
+    }
+
+    /**
+     * Reads the next record, which must be a spider diagram.
+     *
+     * @return the spider diagram.
+     * @throws IOException thrown if the stream could not be read or the next
+     *                     record is not a spider diagram.
+     */
+    public SpiderDiagram readDiagram() throws IOException {
+        beginRecord(RECORD_DIAGRAM);
+        return readDiagramBody();
+    }
+
+    /**
+     * Reads the next record, which must be goals.
+     *
+     * @return the goals (may be {@code null}).
+     * @throws IOException thrown if the stream could not be read or the next
+     *                     record is not a goals record.
+     */
+    public Goals readGoals() throws IOException {
+        beginRecord(RECORD_GOALS);
+        return readGoalsBody();
+    }
+
+    /**
+     * Reads the next proof (its header and all its goals and inference
+     * applications).
+     *
+     * @return the proof.
+     * @throws IOException thrown if the stream could not be read or does not
+     *                     contain a proof at the current position.
+     */
+    public Proof readProof() throws IOException {
+        beginRecord(RECORD_PROOF);
+        int goalsCount = readVarInt(in);
+        int applicationsCount = readVarInt(in);
+        ArrayList<Goals> goals = new ArrayList<>(goalsCount);
+        ArrayList<InferenceApplication> applications = new ArrayList<>(applicationsCount);
+        for (int i = 0; i < Math.max(goalsCount, applicationsCount); i++) {
+            if (i < goalsCount) {
+                goals.add(readGoals());
+            }
+            if (i < applicationsCount) {
+                beginRecord(RECORD_APPLICATION);
+                applications.add(readApplicationBody());
+            }
+        }
+        return new ProofTrace(goals, applications);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Records">
+    /**
+     * Reads the record type and the dictionary header of the next record.
+     */
+    private void beginRecord(int expectedType) throws IOException {
+        int recordType = readVarInt(in);
+        if (recordType != expectedType) {
+            throw new BinaryFormatException(i18n("BIN_UNEXPECTED_RECORD", recordType, expectedType));
+        }
+        int stringsCount = readVarInt(in);
+        for (int i = 0; i < stringsCount; i++) {
+            byte[] utf8 = new byte[readVarInt(in)];
+            in.readFully(utf8);
+            strings.add(new String(utf8, StandardCharsets.UTF_8));
+        }
+        int zonesCount = readVarInt(in);
+        for (int i = 0; i < zonesCount; i++) {
+            zones.add(new Zone(readContours(), readContours()));
+        }
+        // The length of the body is only needed by readers that skip records.
+        readVarInt(in);
+    }
+
+    private ArrayList<String> readContours() throws IOException {
+        int count = readVarInt(in);
+        ArrayList<String> contours = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            contours.add(lookUp(strings, readVarInt(in)));
+        }
+        return contours;
+    }
+
+    private Goals readGoalsBody() throws IOException {
+        int count = readVarInt(in) - 1;
+        if (count < 0) {
+            return null;
+        }
+        ArrayList<SpiderDiagram> goals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            goals.add(readDiagramBody());
+        }
+        return new Goals(goals);
+    }
+
+    private InferenceApplication readApplicationBody() throws IOException {
+        String inferenceName = readString();
+        String type = readString();
+        String typeSpecifier = readString();
+        RuleArg args = readRuleArg();
+        ArrayList<InferenceApplication> subApplications = null;
+        // Sub-applications were added in version 2.
+        int subApplicationsCount = version < 2 ? -1 : readVarInt(in) - 1;
+        if (subApplicationsCount >= 0) {
+            subApplications = new ArrayList<>(subApplicationsCount);
+            for (int i = 0; i < subApplicationsCount; i++) {
+                subApplications.add(readApplicationBody());
+            }
+        }
+        try {
+            return new InferenceApplication(findInference(inferenceName), args, type == null ? null : RuleApplicationType.valueOf(type), typeSpecifier, subApplications);
+        } catch (IllegalArgumentException ex) {
+            throw new BinaryFormatException(i18n("BIN_CORRUPT_DATA", type), ex);
+        }
+    }
+
+    private static Inference<?, ?> findInference(String name) throws BinaryFormatException {
+        if (name != null) {
+            InferenceRuleProvider<? extends RuleArg> rule = InferenceRules.getProvider(name);
+            if (rule != null) {
+                return rule.getInferenceRule();
+            }
+            TacticProvider tactic = Tactics.getProvider(name);
+            if (tactic != null) {
+                return tactic.getTactic();
+            }
+        }
+        throw new BinaryFormatException(i18n("BIN_UNKNOWN_INFERENCE", name));
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Diagrams">
+    private SpiderDiagram readDiagramBody() throws IOException {
+        int tag = readVarInt(in);
+        SpiderDiagram sd;
+        switch (tag) {
+            case DIAGRAM_NULL:
+                sd = SpiderDiagrams.createNullSD();
+                break;
+            case DIAGRAM_PRIMARY:
+                sd = readPrimary();
+                break;
+            case DIAGRAM_COMPOUND:
+                String operator = readString();
+                int operandsCount = readVarInt(in);
+                ArrayList<SpiderDiagram> operands = new ArrayList<>(operandsCount);
+                for (int i = 0; i < operandsCount; i++) {
+                    operands.add(readDiagramBody());
+                }
+                sd = SpiderDiagrams.createCompoundSD(operator, operands, false);
+                break;
+            default:
+                return lookUp(diagrams, tag - DIAGRAM_REFERENCE);
+        }
+        diagrams.add(sd);
+        return sd;
+    }
+
+    private PrimarySpiderDiagram readPrimary() throws IOException {
+        int spidersCount = readVarInt(in);
+        ArrayList<String> spiders = new ArrayList<>(spidersCount);
+        for (int i = 0; i < spidersCount; i++) {
+            spiders.add(readString());
+        }
+        int habitatsCount = readVarInt(in);
+        HashMap<String, Region> habitats = new HashMap<>(habitatsCount * 2);
+        for (int i = 0; i < habitatsCount; i++) {
+            String spider = readString();
+            habitats.put(spider, new Region(readZones()));
+        }
+        ArrayList<Zone> shadedZones = readZones();
+        ArrayList<Zone> presentZones = readZones();
+        return SpiderDiagrams.createPrimarySD(spiders, habitats, shadedZones, presentZones);
+    }
+
+    private ArrayList<Zone> readZones() throws IOException {
+        int count = readVarInt(in);
+        ArrayList<Zone> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(lookUp(zones, readVarInt(in)));
+        }
+        return result;
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Rule Arguments">
+    private RuleArg readRuleArg() throws IOException {
+        int tag = readVarInt(in);
+        switch (tag) {
+            case ARG_NULL:
+                return null;
+            case ARG_SUBGOAL:
+                return new SubgoalIndexArg(readSignedVarInt(in));
+            case ARG_SUB_DIAGRAM:
+                return new SubDiagramIndexArg(readSignedVarInt(in), readSignedVarInt(in));
+            case ARG_CONTOUR:
+                return new ContourArg(readSignedVarInt(in), readSignedVarInt(in), readString());
+            case ARG_SPIDER:
+                return new SpiderArg(readSignedVarInt(in), readSignedVarInt(in), readString());
+            case ARG_SPIDER_ZONE:
+                return new SpiderZoneArg(readSignedVarInt(in), readSignedVarInt(in), readString(), readNullableZone());
+            case ARG_SPIDER_REGION:
+                return new SpiderRegionArg(readSignedVarInt(in), readSignedVarInt(in), readString(), new Region(readZones()));
+            case ARG_ZONE:
+                return new ZoneArg(readSignedVarInt(in), readSignedVarInt(in), readNullableZone());
+            case ARG_MULTIPLE:
+                int count = readVarInt(in);
+                ArrayList<RuleArg> args = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    args.add(readRuleArg());
+                }
+                return new MultipleRuleArgs(args);
+            case ARG_SERIALISED:
+                byte[] serialised = new byte[readVarInt(in)];
+                in.readFully(serialised);
+                try (ObjectInputStream objectStream = new ObjectInputStream(new ByteArrayInputStream(serialised))) {
+                    return (RuleArg) objectStream.readObject();
+                } catch (ClassNotFoundException | ClassCastException ex) {
+                    throw new BinaryFormatException(i18n("BIN_CORRUPT_DATA", ex.getMessage()), ex);
+                }
+            default:
+                throw new BinaryFormatException(i18n("BIN_CORRUPT_DATA", tag));
+        }
+    }
+
+    private Zone readNullableZone() throws IOException {
+        return readVarInt(in) == 0 ? null : lookUp(zones, readVarInt(in));
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Dictionaries">
+    private String readString() throws IOException {
+        int reference = readVarInt(in);
+        return reference == 0 ? null : lookUp(strings, reference - 1);
+    }
+
+    private static <T> T lookUp(ArrayList<T> dictionary, int index) throws BinaryFormatException {
+        if (index < 0 || index >= dictionary.size()) {
+            throw new BinaryFormatException(i18n("BIN_CORRUPT_DATA", index));
+        }
+        return dictionary.get(index);
+    }
+    // </editor-fold>
+}
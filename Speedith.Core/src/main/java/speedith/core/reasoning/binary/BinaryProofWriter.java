@@ -0,0 +1,350 @@
+package speedith.core.reasoning.binary;
+
+import speedith.core.lang.*;
+import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.InferenceApplication;
+import speedith.core.reasoning.Proof;
+import speedith.core.reasoning.args.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static speedith.core.i18n.Translations.i18n;
+import static speedith.core.reasoning.binary.BinaryFormat.*;
+
+/**
+ * Writes spider diagrams, goals and proofs to a stream in the binary proof
+ * format (see {@link BinaryFormat}). <p>Every call to one of the write methods
+ * appends complete records to the stream, so a reader can consume them while
+ * the writer is still producing more. The dictionaries of strings, zones and
+ * diagrams are shared by all records written through the same writer: a zone
+ * or a diagram that was written once is afterwards written as a short
+ * reference.</p> <p>Instances of this class are not thread-safe.</p>
+ */
+public final class BinaryProofWriter implements Closeable, Flushable {
+
+    // <editor-fold defaultstate="collapsed" desc="Fields">
+    private final DataOutputStream out;
+    private final HashMap<String, Integer> strings = new HashMap<>();
+    private final HashMap<Zone, Integer> zones = new HashMap<>();
+    private final HashMap<SpiderDiagram, Integer> diagrams = new HashMap<>();
+    /**
+     * The strings and zones that the current record mentions for the first
+     * time. They are written in the record's dictionary header.
+     */
+    private final ArrayList<String> newStrings = new ArrayList<>();
+    private final ArrayList<Zone> newZones = new ArrayList<>();
+    /**
+     * The body of the current record. It is buffered so that the dictionary
+     * header can be written in front of it.
+     */
+    private final ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream();
+    private final DataOutputStream body = new DataOutputStream(bodyBytes);
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Constructors">
+    /**
+     * Creates a writer and writes the header of the binary format to the
+     * given stream.
+     *
+     * @param out the stream to write to.
+     * @throws IOException thrown if the header could not be written.
+     */
+    public BinaryProofWriter(OutputStream out) throws IOException {
+        if (out == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "out"));
+        }
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.out.write(MAGIC);
+        writeVarInt(this.out, VERSION);
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Writes a single spider diagram as a record.
+     *
+     * @param sd the diagram to write.
+     * @throws IOException thrown if the diagram could not be written.
+     */
+    public void writeDiagram(SpiderDiagram sd) throws IOException {
+        if (sd == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "sd"));
+        }
+        writeDiagramBody(sd);
+        endRecord(RECORD_DIAGRAM);
+    }
+
+    /**
+     * Writes goals (which may be {@code null}) as a record.
+     *
+     * @param goals the goals to write.
+     * @throws IOException thrown if the goals could not be written.
+     */
+    public void writeGoals(Goals goals) throws IOException {
+        writeGoalsBody(goals);
+        endRecord(RECORD_GOALS);
+    }
+
+    /**
+     * Writes the given proof as a proof header followed by one record per
+     * goals and one record per inference application.
+     *
+     * @param proof the proof to write.
+     * @throws IOException thrown if the proof could not be written.
+     */
+    public void writeProof(Proof proof) throws IOException {
+        if (proof == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "proof"));
+        }
+        List<Goals> goals = proof.getGoals();
+        List<InferenceApplication> applications = proof.getInferenceApplications();
+        writeVarInt(body, goals.size());
+        writeVarInt(body, applications.size());
+        endRecord(RECORD_PROOF);
+        for (int i = 0; i < Math.max(goals.size(), applications.size()); i++) {
+            if (i < goals.size()) {
+                writeGoals(goals.get(i));
+            }
+            if (i < applications.size()) {
+                writeApplicationBody(applications.get(i));
+                endRecord(RECORD_APPLICATION);
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Records">
+    /**
+     * Writes the dictionary header and the buffered body of the current record
+     * and starts a new one.
+     */
+    private void endRecord(int recordType) throws IOException {
+        writeVarInt(out, recordType);
+        writeVarInt(out, newStrings.size());
+        for (String string : newStrings) {
+            byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, utf8.length);
+            out.write(utf8);
+        }
+        writeVarInt(out, newZones.size());
+        for (Zone zone : newZones) {
+            writeContours(zone.getInContours());
+            writeContours(zone.getOutContours());
+        }
+        body.flush();
+        writeVarInt(out, bodyBytes.size());
+        bodyBytes.writeTo(out);
+        bodyBytes.reset();
+        newStrings.clear();
+        newZones.clear();
+    }
+
+    private void writeContours(Collection<String> contours) throws IOException {
+        writeVarInt(out, contours.size());
+        for (String contour : contours) {
+            writeVarInt(out, strings.get(contour));
+        }
+    }
+
+    private void writeGoalsBody(Goals goals) throws IOException {
+        List<SpiderDiagram> diagrams = goals == null ? null : goals.getGoals();
+        if (goals == null) {
+            writeVarInt(body, 0);
+        } else if (diagrams == null) {
+            writeVarInt(body, 1);
+        } else {
+            writeVarInt(body, diagrams.size() + 1);
+            for (SpiderDiagram sd : diagrams) {
+                writeDiagramBody(sd);
+            }
+        }
+    }
+
+    private void writeApplicationBody(InferenceApplication application) throws IOException {
+        writeString(application.getInference().getProvider().getInferenceName());
+        writeString(application.getType() == null ? null : application.getType().name());
+        writeString(application.getTypeSpecifier());
+        writeRuleArg(application.getRuleArguments());
+        List<InferenceApplication> subApplications = application.getSubApplications();
+        if (subApplications == null) {
+            writeVarInt(body, 0);
+        } else {
+            writeVarInt(body, subApplications.size() + 1);
+            for (InferenceApplication subApplication : subApplications) {
+                writeApplicationBody(subApplication);
+            }
+        }
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Diagrams">
+    private void writeDiagramBody(SpiderDiagram sd) throws IOException {
+        Integer id = diagrams.get(sd);
+        if (id != null) {
+            writeVarInt(body, DIAGRAM_REFERENCE + id);
+            return;
+        }
+        if (sd instanceof PrimarySpiderDiagram) {
+            writeVarInt(body, DIAGRAM_PRIMARY);
+            writePrimary((PrimarySpiderDiagram) sd);
+        } else if (sd instanceof CompoundSpiderDiagram) {
+            CompoundSpiderDiagram csd = (CompoundSpiderDiagram) sd;
+            writeVarInt(body, DIAGRAM_COMPOUND);
+            writeString(csd.getOperator().getName());
+            writeVarInt(body, csd.getOperandCount());
+            for (SpiderDiagram operand : csd.getOperands()) {
+                writeDiagramBody(operand);
+            }
+        } else {
+            writeVarInt(body, DIAGRAM_NULL);
+        }
+        // The reader numbers diagrams in the same (post-)order.
+        diagrams.put(sd, diagrams.size());
+    }
+
+    private void writePrimary(PrimarySpiderDiagram psd) throws IOException {
+        writeVarInt(body, psd.getSpidersCount());
+        for (String spider : psd.getSpiders()) {
+            writeString(spider);
+        }
+        Map<String, Region> habitats = psd.getHabitats();
+        writeVarInt(body, habitats.size());
+        for (Map.Entry<String, Region> habitat : habitats.entrySet()) {
+            writeString(habitat.getKey());
+            writeZones(habitat.getValue().sortedZones());
+        }
+        writeZones(psd.getShadedZones());
+        writeZones(psd.getPresentZones());
+    }
+
+    private void writeZones(Collection<Zone> zones) throws IOException {
+        writeVarInt(body, zones.size());
+        for (Zone zone : zones) {
+            writeZone(zone);
+        }
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Rule Arguments">
+    private void writeRuleArg(RuleArg arg) throws IOException {
+        if (arg == null) {
+            writeVarInt(body, ARG_NULL);
+        } else if (arg.getClass() == SubgoalIndexArg.class) {
+            writeVarInt(body, ARG_SUBGOAL);
+            writeSignedVarInt(body, ((SubgoalIndexArg) arg).getSubgoalIndex());
+        } else if (arg.getClass() == SubDiagramIndexArg.class) {
+            writeVarInt(body, ARG_SUB_DIAGRAM);
+            writeSubDiagramIndex((SubDiagramIndexArg) arg);
+        } else if (arg.getClass() == ContourArg.class) {
+            writeVarInt(body, ARG_CONTOUR);
+            writeSubDiagramIndex((SubDiagramIndexArg) arg);
+            writeString(((ContourArg) arg).getContour());
+        } else if (arg.getClass() == SpiderArg.class) {
+            writeVarInt(body, ARG_SPIDER);
+            writeSubDiagramIndex((SubDiagramIndexArg) arg);
+            writeString(((SpiderArg) arg).getSpider());
+        } else if (arg.getClass() == SpiderZoneArg.class) {
+            writeVarInt(body, ARG_SPIDER_ZONE);
+            writeSubDiagramIndex((SubDiagramIndexArg) arg);
+            writeString(((SpiderArg) arg).getSpider());
+            writeNullableZone(((SpiderZoneArg) arg).getZone());
+        } else if (arg.getClass() == SpiderRegionArg.class) {
+            writeVarInt(body, ARG_SPIDER_REGION);
+            writeSubDiagramIndex((SubDiagramIndexArg) arg);
+            writeString(((SpiderArg) arg).getSpider());
+            Region region = ((SpiderRegionArg) arg).getRegion();
+            writeZones(region == null ? new ArrayList<Zone>() : region.sortedZones());
+        } else if (arg.getClass() == ZoneArg.class) {
+            writeVarInt(body, ARG_ZONE);
+            writeSubDiagramIndex((SubDiagramIndexArg) arg);
+            writeNullableZone(((ZoneArg) arg).getZone());
+        } else if (arg.getClass() == MultipleRuleArgs.class) {
+            List<RuleArg> args = ((MultipleRuleArgs) arg).getRuleArgs();
+            writeVarInt(body, ARG_MULTIPLE);
+            writeVarInt(body, args.size());
+            for (RuleArg ruleArg : args) {
+                writeRuleArg(ruleArg);
+            }
+        } else {
+            ByteArrayOutputStream serialised = new ByteArrayOutputStream();
+            try (ObjectOutputStream objectStream = new ObjectOutputStream(serialised)) {
+                objectStream.writeObject(arg);
+            }
+            writeVarInt(body, ARG_SERIALISED);
+            writeVarInt(body, serialised.size());
+            serialised.writeTo(body);
+        }
+    }
+
+    private void writeSubDiagramIndex(SubDiagramIndexArg arg) throws IOException {
+        writeSignedVarInt(body, arg.getSubgoalIndex());
+        writeSignedVarInt(body, arg.getSubDiagramIndex());
+    }
+
+    private void writeNullableZone(Zone zone) throws IOException {
+        if (zone == null) {
+            writeVarInt(body, 0);
+        } else {
+            writeVarInt(body, 1);
+            writeZone(zone);
+        }
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Dictionaries">
+    /**
+     * Writes a reference to the given string ({@code 0} for {@code null}).
+     */
+    private void writeString(String string) throws IOException {
+        writeVarInt(body, string == null ? 0 : internString(string) + 1);
+    }
+
+    private void writeZone(Zone zone) throws IOException {
+        writeVarInt(body, internZone(zone));
+    }
+
+    private int internString(String string) {
+        Integer id = strings.get(string);
+        if (id == null) {
+            id = strings.size();
+            strings.put(string, id);
+            newStrings.add(string);
+        }
+        return id;
+    }
+
+    private int internZone(Zone zone) {
+        Integer id = zones.get(zone);
+        if (id == null) {
+            // The contours go into the dictionary before the zone, so that the
+            // reader knows them when it reads the zone.
+            for (String contour : zone.getInContours()) {
+                internString(contour);
+            }
+            for (String contour : zone.getOutContours()) {
+                internString(contour);
+            }
+            id = zones.size();
+            zones.put(zone, id);
+            newZones.add(zone);
+        }
+        return id;
+    }
+    // </editor-fold>
+}
@@ -0,0 +1,153 @@
+package speedith.core.reasoning.binary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Constants and the index lookup of the corpus file format. <p>A corpus file
+ * starts with the {@link CorpusFormat#MAGIC magic bytes} and the {@link
+ * CorpusFormat#VERSION format version} (a single byte), followed by a sequence
+ * of entries. Every entry consists of:</p> <ol> <li>the entry type (a single
+ * byte, either {@link BinaryFormat#RECORD_DIAGRAM} or {@link
+ * BinaryFormat#RECORD_PROOF}),</li> <li>the length of the entry payload (a
+ * four-byte integer), and</li> <li>the payload: the name of the entry (in
+ * modified UTF-8, see {@link java.io.DataOutput#writeUTF(java.lang.String)})
+ * followed by a complete binary proof stream that contains the diagram or the
+ * proof.</li> </ol> <p>Every entry has its own binary proof stream (with its
+ * own dictionaries), so any entry can be decoded without reading the entries
+ * before it.</p> <p>The entries are followed by the index: the number of
+ * entries (a four-byte integer), the offset of every entry (eight-byte
+ * integers), the offset of the index itself and the {@link
+ * CorpusFormat#INDEX_MAGIC index magic bytes}. The index is rewritten
+ * whenever entries are appended. If a corpus file has no valid index (for
+ * example, because the writer was never closed), the index is rebuilt by
+ * walking the entry headers.</p>
+ */
+final class CorpusFormat {
+
+    /**
+     * The first four bytes of every corpus file.
+     */
+    static final byte[] MAGIC = {'S', 'D', 'C', 'S'};
+    /**
+     * The last four bytes of every corpus file with a valid index.
+     */
+    static final byte[] INDEX_MAGIC = {'S', 'D', 'C', 'X'};
+    /**
+     * The version of the format written by {@link CorpusWriter}.
+     */
+    static final int VERSION = 1;
+    static final int HEADER_LENGTH = MAGIC.length + 1;
+    static final int ENTRY_HEADER_LENGTH = 1 + 4;
+    static final int TRAILER_LENGTH = 8 + INDEX_MAGIC.length;
+
+    private CorpusFormat() {
+    }
+
+    /**
+     * Reads the entry offsets of the given corpus file. <p>The index at the
+     * end of the file is used if it is valid, otherwise the entry headers are
+     * walked until the first incomplete entry.</p>
+     *
+     * @param channel the corpus file, which must start with a valid header.
+     * @return the offsets of all entries, followed by the offset where the
+     *         entries end (i.e.: the returned array has one element more than
+     *         there are entries).
+     * @throws IOException thrown if the file could not be read.
+     */
+    static long[] readOffsets(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long[] offsets = readIndex(channel, size);
+        return offsets == null ? scanEntries(channel, size) : offsets;
+    }
+
+    /**
+     * Checks that the given file starts with a header of a supported version.
+     */
+    static void readHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = read(channel, 0, HEADER_LENGTH);
+        byte[] magic = new byte[MAGIC.length];
+        if (header == null || !Arrays.equals(MAGIC, readBytes(header, magic))) {
+            throw new BinaryFormatException(i18n("BIN_NOT_A_CORPUS_FILE"));
+        }
+        int version = header.get() & 0xff;
+        if (version > VERSION) {
+            throw new BinaryFormatException(i18n("BIN_UNSUPPORTED_VERSION", version, VERSION));
+        }
+    }
+
+    static boolean isEntryType(int type) {
+        return type == BinaryFormat.RECORD_DIAGRAM || type == BinaryFormat.RECORD_PROOF;
+    }
+
+    private static long[] readIndex(FileChannel channel, long size) throws IOException {
+        ByteBuffer trailer = read(channel, size - TRAILER_LENGTH, TRAILER_LENGTH);
+        if (trailer == null) {
+            return null;
+        }
+        long indexOffset = trailer.getLong();
+        if (!Arrays.equals(INDEX_MAGIC, readBytes(trailer, new byte[INDEX_MAGIC.length])) || indexOffset < HEADER_LENGTH) {
+            return null;
+        }
+        ByteBuffer countBuffer = read(channel, indexOffset, 4);
+        int count = countBuffer == null ? -1 : countBuffer.getInt();
+        if (count < 0 || indexOffset + 4 + 8L * count + TRAILER_LENGTH != size) {
+            return null;
+        }
+        ByteBuffer index = read(channel, indexOffset + 4, 8 * count);
+        long[] offsets = new long[count + 1];
+        for (int i = 0; i < count; i++) {
+            offsets[i] = index.getLong();
+        }
+        offsets[count] = indexOffset;
+        return offsets;
+    }
+
+    private static long[] scanEntries(FileChannel channel, long size) throws IOException {
+        long[] offsets = new long[16];
+        int count = 0;
+        long position = HEADER_LENGTH;
+        ByteBuffer entryHeader;
+        while ((entryHeader = read(channel, position, ENTRY_HEADER_LENGTH)) != null) {
+            int type = entryHeader.get();
+            int length = entryHeader.getInt();
+            if (!isEntryType(type) || length < 0 || position + ENTRY_HEADER_LENGTH + length > size) {
+                break;
+            }
+            if (count + 1 == offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[count++] = position;
+            position += ENTRY_HEADER_LENGTH + length;
+        }
+        offsets[count] = position;
+        return Arrays.copyOf(offsets, count + 1);
+    }
+
+    /**
+     * Reads exactly {@code length} bytes at the given position or returns
+     * {@code null} if the file ends before that.
+     */
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        if (position < 0 || position + length > channel.size()) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return null;
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer, byte[] bytes) {
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,195 @@
+package speedith.core.reasoning.binary;
+
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.reasoning.Proof;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static speedith.core.i18n.Translations.i18n;
+import static speedith.core.reasoning.binary.CorpusFormat.*;
+
+/**
+ * A read-only view of a corpus file (written by a {@link CorpusWriter}). <p>The
+ * file is memory-mapped and only its index is read when the store is opened.
+ * Diagrams and proofs are decoded lazily, one entry at a time, when they are
+ * requested by their id (the ids are the indices of the entries in the order
+ * in which they were appended).</p> <p>Entries may be read concurrently from
+ * multiple threads.</p> <p>Corpus files larger than 2GB are not supported.</p>
+ */
+public final class CorpusStore implements Closeable {
+
+    // <editor-fold defaultstate="collapsed" desc="Fields">
+    private final RandomAccessFile file;
+    private final MappedByteBuffer mapped;
+    /**
+     * The offsets of all entries followed by the offset where the entries end.
+     */
+    private final long[] offsets;
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Constructors">
+    /**
+     * Opens and memory-maps the given corpus file.
+     *
+     * @param corpusFile the corpus file.
+     * @throws IOException thrown if the file could not be opened or is not a
+     *                     corpus file.
+     */
+    public CorpusStore(File corpusFile) throws IOException {
+        if (corpusFile == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "corpusFile"));
+        }
+        file = new RandomAccessFile(corpusFile, "r");
+        try {
+            FileChannel channel = file.getChannel();
+            readHeader(channel);
+            offsets = readOffsets(channel);
+            long end = offsets[offsets.length - 1];
+            if (end > Integer.MAX_VALUE) {
+                throw new BinaryFormatException(i18n("BIN_CORPUS_TOO_LARGE", corpusFile));
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, end);
+        } catch (IOException ex) {
+            file.close();
+            throw ex;
+        }
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Returns the number of entries in this corpus.
+     *
+     * @return the number of entries in this corpus.
+     */
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Indicates whether the entry with the given id is a proof (otherwise it is
+     * a spider diagram).
+     *
+     * @param id the id of the entry.
+     * @return {@code true} iff the entry is a proof.
+     */
+    public boolean isProof(int id) {
+        return mapped.get(entryOffset(id)) == BinaryFormat.RECORD_PROOF;
+    }
+
+    /**
+     * Returns the name with which the entry was appended.
+     *
+     * @param id the id of the entry.
+     * @return the name of the entry.
+     * @throws IOException thrown if the entry is corrupt.
+     */
+    public String getName(int id) throws IOException {
+        return new DataInputStream(openPayload(id)).readUTF();
+    }
+
+    /**
+     * Decodes the spider diagram with the given id.
+     *
+     * @param id the id of the entry.
+     * @return the spider diagram.
+     * @throws IOException thrown if the entry is not a spider diagram or is
+     *                     corrupt.
+     */
+    public SpiderDiagram readDiagram(int id) throws IOException {
+        return openEntry(id).readDiagram();
+    }
+
+    /**
+     * Decodes the proof with the given id.
+     *
+     * @param id the id of the entry.
+     * @return the proof.
+     * @throws IOException thrown if the entry is not a proof or is corrupt.
+     */
+    public Proof readProof(int id) throws IOException {
+        return openEntry(id).readProof();
+    }
+
+    /**
+     * Closes the corpus file. <p>The mapping is released once this store is
+     * garbage collected.</p>
+     *
+     * @throws IOException thrown if the file could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Private Helper Methods">
+    private int entryOffset(int id) {
+        if (id < 0 || id >= size()) {
+            throw new IndexOutOfBoundsException(i18n("GERR_INDEX_OUT_OF_RANGE", id, 0, size() - 1));
+        }
+        return (int) offsets[id];
+    }
+
+    /**
+     * Returns a stream over the payload of the given entry (the name followed
+     * by the binary proof stream).
+     */
+    private InputStream openPayload(int id) throws BinaryFormatException {
+        int offset = entryOffset(id);
+        // Every read works on its own view of the mapping, which makes
+        // concurrent reads safe.
+        ByteBuffer entry = mapped.duplicate();
+        entry.position(offset + 1);
+        int length = entry.getInt();
+        if (length < 0 || entry.position() + length > entry.limit()) {
+            throw new BinaryFormatException(i18n("BIN_CORRUPT_DATA", id));
+        }
+        entry.limit(entry.position() + length);
+        return new ByteBufferInputStream(entry.slice());
+    }
+
+    private BinaryProofReader openEntry(int id) throws IOException {
+        InputStream payload = openPayload(id);
+        new DataInputStream(payload).readUTF();
+        return new BinaryProofReader(payload);
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Helper Classes">
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+    // </editor-fold>
+}
@@ -0,0 +1,166 @@
+package speedith.core.reasoning.binary;
+
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.reasoning.Proof;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+import static speedith.core.i18n.Translations.i18n;
+import static speedith.core.reasoning.binary.CorpusFormat.*;
+
+/**
+ * Appends spider diagrams and proofs to a corpus file, which can then be read
+ * with a {@link CorpusStore}. <p>If the file already exists, new entries are
+ * appended after the existing ones (the existing entries keep their ids). The
+ * index of the corpus is written when the writer is closed.</p> <p>Instances
+ * of this class are not thread-safe.</p>
+ */
+public final class CorpusWriter implements Closeable {
+
+    // <editor-fold defaultstate="collapsed" desc="Fields">
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private long[] offsets;
+    private int count;
+    private long end;
+    private final ByteArrayOutputStream payload = new ByteArrayOutputStream();
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Constructors">
+    /**
+     * Opens the given corpus file for appending. The file is created if it
+     * does not exist.
+     *
+     * @param corpusFile the corpus file.
+     * @throws IOException thrown if the file could not be opened or is not a
+     *                     corpus file.
+     */
+    public CorpusWriter(File corpusFile) throws IOException {
+        if (corpusFile == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "corpusFile"));
+        }
+        file = new RandomAccessFile(corpusFile, "rw");
+        channel = file.getChannel();
+        try {
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+                header.put(MAGIC).put((byte) VERSION).flip();
+                writeFully(header, 0);
+                offsets = new long[16];
+                end = HEADER_LENGTH;
+            } else {
+                readHeader(channel);
+                long[] existing = readOffsets(channel);
+                count = existing.length - 1;
+                end = existing[count];
+                offsets = Arrays.copyOf(existing, Math.max(16, existing.length * 2));
+                // Drop the old index (and any incomplete entry) so that new
+                // entries follow the last complete one.
+                channel.truncate(end);
+            }
+        } catch (IOException ex) {
+            file.close();
+            throw ex;
+        }
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Public Methods">
+    /**
+     * Appends the given spider diagram to the corpus.
+     *
+     * @param name the name of the entry (e.g.: the name of the file the
+     *             diagram was read from).
+     * @param sd   the spider diagram to append.
+     * @return the id of the new entry.
+     * @throws IOException thrown if the entry could not be written.
+     */
+    public int appendDiagram(String name, SpiderDiagram sd) throws IOException {
+        BinaryProofWriter writer = startEntry(name);
+        writer.writeDiagram(sd);
+        return finishEntry(BinaryFormat.RECORD_DIAGRAM, writer);
+    }
+
+    /**
+     * Appends the given proof to the corpus.
+     *
+     * @param name  the name of the entry (e.g.: the name of the file the proof
+     *              was read from).
+     * @param proof the proof to append.
+     * @return the id of the new entry.
+     * @throws IOException thrown if the entry could not be written.
+     */
+    public int appendProof(String name, Proof proof) throws IOException {
+        if (proof == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "proof"));
+        }
+        BinaryProofWriter writer = startEntry(name);
+        writer.writeProof(proof);
+        return finishEntry(BinaryFormat.RECORD_PROOF, writer);
+    }
+
+    /**
+     * Returns the number of entries in the corpus (including the ones that
+     * were in the file before it was opened).
+     *
+     * @return the number of entries in the corpus.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Writes the index of the corpus and closes the file.
+     *
+     * @throws IOException thrown if the index could not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            ByteBuffer index = ByteBuffer.allocate(4 + 8 * count + TRAILER_LENGTH);
+            index.putInt(count);
+            for (int i = 0; i < count; i++) {
+                index.putLong(offsets[i]);
+            }
+            index.putLong(end).put(INDEX_MAGIC).flip();
+            writeFully(index, end);
+            channel.force(false);
+        } finally {
+            file.close();
+        }
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Private Helper Methods">
+    private BinaryProofWriter startEntry(String name) throws IOException {
+        if (name == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "name"));
+        }
+        payload.reset();
+        new DataOutputStream(payload).writeUTF(name);
+        return new BinaryProofWriter(payload);
+    }
+
+    private int finishEntry(int type, BinaryProofWriter writer) throws IOException {
+        writer.flush();
+        ByteBuffer entry = ByteBuffer.allocate(ENTRY_HEADER_LENGTH + payload.size());
+        entry.put((byte) type).putInt(payload.size()).put(payload.toByteArray()).flip();
+        writeFully(entry, end);
+        if (count + 1 >= offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        offsets[count] = end;
+        end += entry.limit();
+        return count++;
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+    // </editor-fold>
+}
@@ -0,0 +1,130 @@
+package speedith.core.reasoning.binary;
+
+import speedith.core.reasoning.Proof;
+
+import java.io.*;
+import java.util.Arrays;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Reads and writes proof files. <p>Proofs are written in the {@link
+ * BinaryProofWriter binary proof format}. Proofs can be read from binary proof
+ * files as well as from older proof files, which contain a Java-serialised
+ * {@link Proof proof} object.</p>
+ */
+public final class ProofFiles {
+
+    /**
+     * The first two bytes of a Java serialisation stream.
+     */
+    private static final byte[] SERIALISATION_MAGIC = {(byte) 0xAC, (byte) 0xED};
+
+    private ProofFiles() {
+    }
+
+    /**
+     * Writes the given proof to the given stream in the binary proof format.
+     *
+     * @param proof the proof to write.
+     * @param out   the stream to write to. This method flushes but does not
+     *              close it.
+     * @throws IOException thrown if the proof could not be written.
+     */
+    public static void writeProof(Proof proof, OutputStream out) throws IOException {
+        BinaryProofWriter writer = new BinaryProofWriter(out);
+        writer.writeProof(proof);
+        writer.flush();
+    }
+
+    /**
+     * Reads a proof from the given stream, which may contain either a binary
+     * proof or a Java-serialised proof.
+     *
+     * @param in the stream to read from.
+     * @return the proof.
+     * @throws IOException thrown if the stream could not be read or does not
+     *                     contain a proof.
+     */
+    public static Proof readProof(InputStream in) throws IOException {
+        if (in == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "in"));
+        }
+        BufferedInputStream buffered = in instanceof BufferedInputStream ? (BufferedInputStream) in : new BufferedInputStream(in);
+        byte[] head = peek(buffered, BinaryFormat.MAGIC.length);
+        if (Arrays.equals(head, BinaryFormat.MAGIC)) {
+            return new BinaryProofReader(buffered).readProof();
+        } else if (startsWith(head, SERIALISATION_MAGIC)) {
+            return readSerialisedProof(buffered);
+        } else {
+            throw new BinaryFormatException(i18n("BIN_NOT_A_PROOF_FILE"));
+        }
+    }
+
+    /**
+     * Reads a proof from the given stream (in either format) and writes it to
+     * the other stream in the binary proof format.
+     *
+     * @param in  the stream that contains the proof.
+     * @param out the stream to write the binary proof to.
+     * @throws IOException thrown if the proof could not be read or written.
+     */
+    public static void convert(InputStream in, OutputStream out) throws IOException {
+        writeProof(readProof(in), out);
+    }
+
+    /**
+     * Reads a proof from the given file (in either format).
+     *
+     * @param file the file to read.
+     * @return the proof.
+     * @throws IOException thrown if the file could not be read or does not
+     *                     contain a proof.
+     */
+    public static Proof readProof(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return readProof(in);
+        }
+    }
+
+    /**
+     * Writes the given proof to the given file in the binary proof format.
+     *
+     * @param proof the proof to write.
+     * @param file  the file to write to.
+     * @throws IOException thrown if the file could not be written.
+     */
+    public static void writeProof(Proof proof, File file) throws IOException {
+        try (OutputStream out = new FileOutputStream(file)) {
+            writeProof(proof, out);
+        }
+    }
+
+    private static Proof readSerialisedProof(InputStream in) throws IOException {
+        ObjectInputStream objectStream = new ObjectInputStream(in);
+        try {
+            return (Proof) objectStream.readObject();
+        } catch (ClassNotFoundException | ClassCastException ex) {
+            throw new BinaryFormatException(i18n("BIN_NOT_A_PROOF_FILE"), ex);
+        }
+    }
+
+    private static byte[] peek(BufferedInputStream in, int length) throws IOException {
+        byte[] head = new byte[length];
+        in.mark(length);
+        int read = 0;
+        while (read < length) {
+            int count = in.read(head, read, length - read);
+            if (count < 0) {
+                break;
+            }
+            read += count;
+        }
+        in.reset();
+        return read == length ? head : Arrays.copyOf(head, read);
+    }
+
+    private static boolean startsWith(byte[] head, byte[] prefix) {
+        return head.length >= prefix.length && Arrays.equals(Arrays.copyOf(head, prefix.length), prefix);
+    }
+}
@@ -0,0 +1,14 @@
+/**
+ * Provides a compact, versioned binary format for spider diagrams, goals and
+ * proofs.
+ * <p>The class {@link speedith.core.reasoning.binary.ProofFiles} is the main
+ * entry point for reading and writing proof files. Streams of diagrams, goals
+ * and proofs are written with {@link speedith.core.reasoning.binary.BinaryProofWriter}
+ * and read back with {@link speedith.core.reasoning.binary.BinaryProofReader}.</p>
+ * <p>Large collections of diagrams and proofs (e.g.: regression and benchmark
+ * corpora) can be stored in a single corpus file with {@link
+ * speedith.core.reasoning.binary.CorpusWriter}. A {@link
+ * speedith.core.reasoning.binary.CorpusStore} memory-maps the file and decodes
+ * individual entries by their id.</p>
+ */
+package speedith.core.reasoning.binary;
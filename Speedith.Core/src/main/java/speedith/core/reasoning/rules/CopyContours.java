@@ -200,7 +200,7 @@ public class CopyContours extends SimpleInferenceRule<MultipleRuleArgs> implemen
         ContourArg inferenceTarget = targetContours.get(0);
         SpiderDiagram targetSubgoal = getSubgoal(inferenceTarget, goals);
         int indexOfParent = targetSubgoal.getParentIndexOf(inferenceTarget.getSubDiagramIndex());
-        newSubgoals[inferenceTarget.getSubgoalIndex()] = targetSubgoal.transform(new CopyContoursTransformer(indexOfParent, targetContours));
+        newSubgoals[inferenceTarget.getSubgoalIndex()] = targetSubgoal.transformAt(indexOfParent, new CopyContoursTransformer(indexOfParent, targetContours));
         return createRuleApplicationResult(newSubgoals);
     }
 }
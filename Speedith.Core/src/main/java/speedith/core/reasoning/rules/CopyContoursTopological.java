@@ -88,7 +88,7 @@ public class CopyContoursTopological extends SimpleInferenceRule<MultipleRuleArg
         ContourArg inferenceTarget = targetContours.get(0);
         SpiderDiagram targetSubgoal = getSubgoal(inferenceTarget, goals);
         int indexOfParent = targetSubgoal.getParentIndexOf(inferenceTarget.getSubDiagramIndex());
-        newSubgoals[inferenceTarget.getSubgoalIndex()] = targetSubgoal.transform(new CopyContoursTopologicalTransformer(indexOfParent, targetContours));
+        newSubgoals[inferenceTarget.getSubgoalIndex()] = targetSubgoal.transformAt(indexOfParent, new CopyContoursTopologicalTransformer(indexOfParent, targetContours));
         return createRuleApplicationResult(newSubgoals);
     }
 
@@ -28,6 +28,7 @@ package speedith.core.reasoning.rules;
 
 import speedith.core.lang.CompoundSpiderDiagram;
 import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.TransformationException;
 import speedith.core.reasoning.*;
 import speedith.core.reasoning.args.RuleArg;
 import speedith.core.reasoning.args.SubgoalIndexArg;
@@ -94,6 +95,26 @@ public abstract class SimpleInferenceRule<TArgs extends RuleArg> implements Infe
         return this;
     }
 
+    /**
+     * This is the default implementation of {@link
+     * InferenceRule#tryApply(RuleArg, Goals)}. It applies the rule and turns
+     * the exceptions into failed attempts. Rules that can detect failures
+     * without exceptions should override it.
+     */
+    @Override
+    public RuleApplicationAttempt tryApply(RuleArg args, Goals goals) {
+        try {
+            return RuleApplicationAttempt.succeeded(apply(args, goals));
+        } catch (RuleApplicationException | TransformationException e) {
+            return RuleApplicationAttempt.failed(String.valueOf(e.getMessage()));
+        }
+    }
+
+    @Override
+    public boolean isApplicable(RuleArg args, Goals goals) {
+        return tryApply(args, goals).isSuccessful();
+    }
+
     public static RuleApplicationResult createRuleApplicationResult(SpiderDiagram[] newSubgoals) {
         return new RuleApplicationResult(Goals.createGoalsFrom(newSubgoals));
     }
@@ -161,15 +161,20 @@ public class SplitSpiders extends SimpleInferenceRule<SpiderRegionArg> implement
                 if (!psd.containsSpider(arg.getSpider())) {
                     throw new IllegalArgumentException(i18n("ERR_SPIDER_NOT_IN_DIAGRAM", arg.getSpider()));
                 }
-                Region habitat = psd.getSpiderHabitat(arg.getSpider());
+                // Do the region algebra on bit masks over the zones of the
+                // diagram. The habitat is cached by the diagram. A split
+                // region with zones that are not in the diagram cannot be a
+                // subregion of the habitat.
+                BitRegion habitat = psd.getSpiderHabitatRegion(arg.getSpider());
+                BitRegion split = psd.getZoneUniverse().lookupRegion(splitRegion.sortedZones());
                 // Check that the splitRegion is a proper subregion of the
                 // spider's habitat.
-                if (splitRegion.isSubregionOf(habitat) && splitRegion.getZonesCount() < habitat.getZonesCount() && splitRegion.getZonesCount() > 0) {
+                if (habitat != null && split != null && split.isSubregionOf(habitat) && split.getZonesCount() < habitat.getZonesCount() && !split.isEmpty()) {
                     // The checking of arguments is done. We may apply the rule.
                     done = true;
                     ArrayList<SpiderDiagram> sds = new ArrayList<>();
                     sds.add(psd.addSpider(arg.getSpider(), splitRegion));
-                    sds.add(psd.addSpider(arg.getSpider(), habitat.subtract(splitRegion)));
+                    sds.add(psd.addSpider(arg.getSpider(), habitat.subtract(split).toRegion()));
                     return SpiderDiagrams.createCompoundSD(Operator.Disjunction, sds, false);
                 } else {
                     throw new IllegalArgumentException(i18n("ERR_SPLIT_SPIDERS_INVALID_REGION"));
@@ -45,6 +45,24 @@ public class TrivialImplicationTautology extends SimpleInferenceRule<SubDiagramI
         return createRuleApplicationResult(newSubgoals);
     }
 
+    /**
+     * Checks the target of the rule directly, so that proof searches can try
+     * this rule at every step without the cost of exceptions.
+     */
+    @Override
+    public RuleApplicationAttempt tryApply(RuleArg args, Goals goals) {
+        String failureMessage = findFailure(args, goals);
+        if (failureMessage != null) {
+            return RuleApplicationAttempt.failed(failureMessage);
+        }
+        return super.tryApply(args, goals);
+    }
+
+    @Override
+    public boolean isApplicable(RuleArg args, Goals goals) {
+        return findFailure(args, goals) == null;
+    }
+
     @Override
     public RuleApplicationResult applyForwards(RuleArg args, Goals goals) throws RuleApplicationException {
         return apply(args, goals);
@@ -90,6 +108,41 @@ public class TrivialImplicationTautology extends SimpleInferenceRule<SubDiagramI
         return SingletonContainer.Instruction;
     }
 
+    /**
+     * Returns the reason why {@link TrivialImplicationTautology#apply(RuleArg,
+     * Goals)} would fail, or {@code null} if it would succeed.
+     */
+    private static String findFailure(RuleArg args, Goals goals) {
+        if (args == null || goals == null) {
+            return i18n("RULE_NO_SUBGOALS");
+        } else if (!(args instanceof SubDiagramIndexArg)) {
+            return i18n("RULE_INVALID_ARGS");
+        }
+        SubDiagramIndexArg arg = (SubDiagramIndexArg) args;
+        if (arg.getSubgoalIndex() >= goals.getGoalsCount() || arg.getSubgoalIndex() < 0) {
+            return i18n("RULE_SUBGOAL_INDEX_OUT_OF_RANGE", arg.getSubgoalIndex());
+        }
+        SpiderDiagram subgoal = goals.getGoalAt(arg.getSubgoalIndex());
+        if (subgoal == null) {
+            return i18n("RULE_NO_SUBGOAL_AT_INDEX");
+        }
+        if (arg.getSubDiagramIndex() < 0 || arg.getSubDiagramIndex() >= subgoal.getSubDiagramCount()) {
+            // The transformation does not visit the target at all.
+            return null;
+        }
+        SpiderDiagram target = subgoal.getSubDiagramAt(arg.getSubDiagramIndex());
+        if (!(target instanceof CompoundSpiderDiagram)) {
+            return null;
+        }
+        CompoundSpiderDiagram csd = (CompoundSpiderDiagram) target;
+        if (!Operator.Implication.equals(csd.getOperator())) {
+            return i18n("RULE_IMPLICATION_TAUTOLOGY_NOT_APPLICABLE");
+        } else if (!csd.getOperand(0).equals(csd.getOperand(1))) {
+            return i18n("RULE_IMPLICATION_TAUTOLOGY_NOT_APPLICABLE_SEM");
+        }
+        return null;
+    }
+
     private static final class SingletonContainer {
         private static final SelectSingleOperatorInstruction Instruction = new SelectSingleOperatorInstruction(Operator.Implication, Operator.Equivalence);
     }
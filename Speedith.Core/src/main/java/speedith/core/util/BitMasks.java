@@ -0,0 +1,251 @@
+package speedith.core.util;
+
+import java.util.Arrays;
+
+/**
+ * Operations on immutable bit masks stored in {@code long} arrays. <p>Bit
+ * {@code i} of a mask is bit {@code i % 64} of the word {@code i / 64}.</p>
+ * <p>All masks produced by these methods are <span
+ * style="font-style:italic;">trimmed</span>: they never end with a zero word.
+ * This way two masks contain the same bits if and only if they are
+ * {@link Arrays#equals(long[], long[]) equal arrays}. None of the methods
+ * modify their arguments.</p>
+ */
+public final class BitMasks {
+
+    /**
+     * The mask with no bits set.
+     */
+    public static final long[] EMPTY = new long[0];
+
+    private BitMasks() {
+    }
+
+    /**
+     * Returns {@code true} iff the given bit is set in the mask.
+     *
+     * @param mask the mask to check.
+     * @param bit  the index of the bit.
+     * @return {@code true} iff the given bit is set in the mask.
+     */
+    public static boolean get(long[] mask, int bit) {
+        int word = bit >>> 6;
+        return word < mask.length && (mask[word] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Returns a copy of the mask with the given bit set.
+     *
+     * @param mask the original mask.
+     * @param bit  the index of the bit to set.
+     * @return a copy of the mask with the given bit set (or the mask itself if
+     *         the bit is already set).
+     */
+    public static long[] with(long[] mask, int bit) {
+        if (get(mask, bit)) {
+            return mask;
+        }
+        int word = bit >>> 6;
+        long[] result = Arrays.copyOf(mask, Math.max(mask.length, word + 1));
+        result[word] |= 1L << bit;
+        return result;
+    }
+
+    /**
+     * Returns a copy of the mask with the given bit cleared.
+     *
+     * @param mask the original mask.
+     * @param bit  the index of the bit to clear.
+     * @return a copy of the mask with the given bit cleared (or the mask itself
+     *         if the bit is not set).
+     */
+    public static long[] without(long[] mask, int bit) {
+        if (!get(mask, bit)) {
+            return mask;
+        }
+        long[] result = mask.clone();
+        result[bit >>> 6] &= ~(1L << bit);
+        return trim(result);
+    }
+
+    /**
+     * Sets the given bit in a mutable mask, growing it if necessary. <p>This
+     * method is meant for building masks; the result should be {@link
+     * BitMasks#trim(long[]) trimmed} before it is shared.</p>
+     *
+     * @param mask the mask to change.
+     * @param bit  the bit to set.
+     * @return the given mask, or a larger copy of it, with the bit set.
+     */
+    public static long[] set(long[] mask, int bit) {
+        int word = bit >>> 6;
+        if (word >= mask.length) {
+            mask = Arrays.copyOf(mask, Math.max(word + 1, mask.length * 2));
+        }
+        mask[word] |= 1L << bit;
+        return mask;
+    }
+
+    /**
+     * Returns the union of the two masks.
+     *
+     * @param a the first mask.
+     * @param b the second mask.
+     * @return the union of the two masks.
+     */
+    public static long[] or(long[] a, long[] b) {
+        if (a.length < b.length) {
+            long[] tmp = a;
+            a = b;
+            b = tmp;
+        }
+        if (b.length == 0) {
+            return a;
+        }
+        long[] result = a.clone();
+        for (int i = 0; i < b.length; i++) {
+            result[i] |= b[i];
+        }
+        return result;
+    }
+
+    /**
+     * Returns the intersection of the two masks.
+     *
+     * @param a the first mask.
+     * @param b the second mask.
+     * @return the intersection of the two masks.
+     */
+    public static long[] and(long[] a, long[] b) {
+        int length = Math.min(a.length, b.length);
+        long[] result = new long[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = a[i] & b[i];
+        }
+        return trim(result);
+    }
+
+    /**
+     * Returns the bits of {@code a} that are not in {@code b}.
+     *
+     * @param a the mask from which to remove bits.
+     * @param b the bits to remove.
+     * @return the bits of {@code a} that are not in {@code b}.
+     */
+    public static long[] andNot(long[] a, long[] b) {
+        long[] result = a.clone();
+        int length = Math.min(a.length, b.length);
+        for (int i = 0; i < length; i++) {
+            result[i] &= ~b[i];
+        }
+        return trim(result);
+    }
+
+    /**
+     * Returns {@code true} iff the two masks have at least one bit in common.
+     *
+     * @param a the first mask.
+     * @param b the second mask.
+     * @return {@code true} iff the two masks have at least one bit in common.
+     */
+    public static boolean intersects(long[] a, long[] b) {
+        int length = Math.min(a.length, b.length);
+        for (int i = 0; i < length; i++) {
+            if ((a[i] & b[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns {@code true} iff every bit of {@code a} is also set in
+     * {@code b}.
+     *
+     * @param a the (potential) subset.
+     * @param b the (potential) superset.
+     * @return {@code true} iff every bit of {@code a} is also set in
+     *         {@code b}.
+     */
+    public static boolean isSubset(long[] a, long[] b) {
+        if (a.length > b.length) {
+            return false;
+        }
+        for (int i = 0; i < a.length; i++) {
+            if ((a[i] & ~b[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of set bits in the mask.
+     *
+     * @param mask the mask.
+     * @return the number of set bits in the mask.
+     */
+    public static int cardinality(long[] mask) {
+        int count = 0;
+        for (long word : mask) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the index of the first set bit at or after the given index, or
+     * {@code -1} if there is no such bit.
+     *
+     * @param mask the mask.
+     * @param from the index from which to start looking.
+     * @return the index of the first set bit at or after {@code from}, or
+     *         {@code -1}.
+     */
+    public static int nextSetBit(long[] mask, int from) {
+        int word = from >>> 6;
+        if (word >= mask.length) {
+            return -1;
+        }
+        long bits = mask[word] & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word >= mask.length) {
+                return -1;
+            }
+            bits = mask[word];
+        }
+    }
+
+    /**
+     * Returns the given mask without trailing zero words.
+     *
+     * @param mask the mask to trim.
+     * @return the given mask (if it does not end with a zero word) or a
+     *         trimmed copy of it.
+     */
+    public static long[] trim(long[] mask) {
+        int length = mask.length;
+        while (length > 0 && mask[length - 1] == 0) {
+            --length;
+        }
+        return length == mask.length ? mask : (length == 0 ? EMPTY : Arrays.copyOf(mask, length));
+    }
+
+    /**
+     * Returns a hash code of the mask that is consistent with
+     * {@link Arrays#equals(long[], long[])} on trimmed masks.
+     *
+     * @param mask the mask.
+     * @return the hash code of the mask.
+     */
+    public static int hash(long[] mask) {
+        long h = 1234;
+        for (int i = mask.length; --i >= 0; ) {
+            h ^= mask[i] * (i + 1);
+        }
+        return (int) ((h >> 32) ^ h);
+    }
+}
@@ -0,0 +1,305 @@
+package speedith.core.util;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * An immutable {@link SortedMap sorted map} backed by a {@link SortedArraySet
+ * sorted array of keys} and a parallel array of values. <p>Keys are ordered by
+ * their natural ordering (the {@link SortedMap#comparator() comparator} of
+ * this map is always {@code null}). Look-ups are binary searches and
+ * iteration walks the arrays in order. The map takes two arrays no matter how
+ * many entries it holds, whereas a {@link TreeMap} allocates one node per
+ * entry.</p> <p>{@link SortedArrayMap#with(java.lang.Comparable,
+ * java.lang.Object) Adding} or {@link SortedArrayMap#without(java.lang.Object)
+ * removing} an entry creates a new map by copying the arrays once.</p>
+ *
+ * @param <K> the type of keys in this map.
+ * @param <V> the type of values in this map.
+ */
+public final class SortedArrayMap<K extends Comparable<? super K>, V> extends AbstractMap<K, V> implements SortedMap<K, V>, Serializable {
+
+    private static final long serialVersionUID = 2217460327541003163L;
+    @SuppressWarnings("rawtypes")
+    private static final SortedArrayMap EMPTY = new SortedArrayMap<>(SortedArraySet.empty(), new Object[0]);
+
+    private final SortedArraySet<K> keys;
+    /**
+     * The value at index {@code i} belongs to the key {@code keys.get(i)}.
+     */
+    private final Object[] values;
+
+    private SortedArrayMap(SortedArraySet<K> keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * Returns the empty sorted array map.
+     *
+     * @param <K> the type of keys in the map.
+     * @param <V> the type of values in the map.
+     * @return the empty sorted array map.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K extends Comparable<? super K>, V> SortedArrayMap<K, V> empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a sorted array map with the entries of the given map.
+     *
+     * @param <K> the type of keys in the map.
+     * @param <V> the type of values in the map.
+     * @param map the entries to put into the new map (may be {@code null}, in
+     *            which case the empty map is returned).
+     * @return a sorted array map with the entries of the given map.
+     */
+    public static <K extends Comparable<? super K>, V> SortedArrayMap<K, V> copyOf(Map<? extends K, ? extends V> map) {
+        if (map instanceof SortedArrayMap) {
+            @SuppressWarnings("unchecked")
+            SortedArrayMap<K, V> other = (SortedArrayMap<K, V>) map;
+            return other;
+        }
+        if (map == null || map.isEmpty()) {
+            return empty();
+        }
+        if (!(map instanceof SortedMap) || ((SortedMap<?, ?>) map).comparator() != null) {
+            map = new TreeMap<>(map);
+        }
+        Object[] sortedKeys = new Object[map.size()];
+        Object[] sortedValues = new Object[map.size()];
+        int i = 0;
+        for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            sortedKeys[i] = entry.getKey();
+            sortedValues[i++] = entry.getValue();
+        }
+        return new SortedArrayMap<>(SortedArraySet.<K>fromSortedArray(sortedKeys), sortedValues);
+    }
+
+    @Override
+    public int size() {
+        return keys.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return keys.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return keys.contains(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int index = keys.indexOf(key);
+        return index < 0 ? null : (V) values[index];
+    }
+
+    /**
+     * Returns the key at the given position (in ascending order).
+     *
+     * @param index the position of the key.
+     * @return the key at the given position.
+     */
+    public K keyAt(int index) {
+        return keys.get(index);
+    }
+
+    /**
+     * Returns the value of the key at the given position (in ascending order
+     * of keys).
+     *
+     * @param index the position of the key.
+     * @return the value of the key at the given position.
+     */
+    @SuppressWarnings("unchecked")
+    public V valueAt(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        return (V) values[index];
+    }
+
+    /**
+     * Returns a map with the entries of this map and the given entry. The
+     * given entry replaces the entry of this map with the same key.
+     *
+     * @param key   the key of the entry (must not be {@code null}).
+     * @param value the value of the entry.
+     * @return this map if it already contains the given entry, otherwise a new
+     *         map with the given entry.
+     */
+    public SortedArrayMap<K, V> with(K key, V value) {
+        int index = keys.indexOf(key);
+        if (index >= 0) {
+            if (Objects.equals(values[index], value)) {
+                return this;
+            }
+            Object[] newValues = Arrays.copyOf(values, size());
+            newValues[index] = value;
+            return new SortedArrayMap<>(keys, newValues);
+        }
+        SortedArraySet<K> newKeys = keys.with(key);
+        int insertion = newKeys.indexOf(key);
+        Object[] newValues = new Object[newKeys.size()];
+        System.arraycopy(values, 0, newValues, 0, insertion);
+        newValues[insertion] = value;
+        System.arraycopy(values, insertion, newValues, insertion + 1, size() - insertion);
+        return new SortedArrayMap<>(newKeys, newValues);
+    }
+
+    /**
+     * Returns a map with the entries of this map except the entry with the
+     * given key.
+     *
+     * @param key the key of the entry to remove.
+     * @return this map if it does not contain the key, otherwise a new map
+     *         without the key.
+     */
+    public SortedArrayMap<K, V> without(Object key) {
+        int index = keys.indexOf(key);
+        if (index < 0) {
+            return this;
+        }
+        if (size() == 1) {
+            return empty();
+        }
+        Object[] newValues = new Object[size() - 1];
+        System.arraycopy(values, 0, newValues, 0, index);
+        System.arraycopy(values, index + 1, newValues, index, newValues.length - index);
+        return new SortedArrayMap<>(keys.without(key), newValues);
+    }
+
+    @Override
+    public SortedArraySet<K> keySet() {
+        return keys;
+    }
+
+    @Override
+    public List<V> values() {
+        return new AbstractList<V>() {
+            @Override
+            public V get(int index) {
+                return valueAt(index);
+            }
+
+            @Override
+            public int size() {
+                return SortedArrayMap.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new Iterator<Entry<K, V>>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size();
+                    }
+
+                    @Override
+                    public Entry<K, V> next() {
+                        if (next >= size()) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<K, V> entry = new SimpleImmutableEntry<>(keyAt(next), valueAt(next));
+                        ++next;
+                        return entry;
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return SortedArrayMap.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Comparator<? super K> comparator() {
+        return null;
+    }
+
+    @Override
+    public SortedMap<K, V> subMap(K fromKey, K toKey) {
+        return restrictTo(keys.subSet(fromKey, toKey));
+    }
+
+    @Override
+    public SortedMap<K, V> headMap(K toKey) {
+        return restrictTo(keys.headSet(toKey));
+    }
+
+    @Override
+    public SortedMap<K, V> tailMap(K fromKey) {
+        return restrictTo(keys.tailSet(fromKey));
+    }
+
+    @Override
+    public K firstKey() {
+        return keys.first();
+    }
+
+    @Override
+    public K lastKey() {
+        return keys.last();
+    }
+
+    /**
+     * Compares the entries of two sorted array maps pairwise, without looking
+     * them up.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof SortedArrayMap)) {
+            return super.equals(o);
+        }
+        SortedArrayMap<?, ?> other = (SortedArrayMap<?, ?>) o;
+        if (!keys.equals(other.keys)) {
+            return false;
+        }
+        for (int i = 0; i < size(); i++) {
+            if (!Objects.equals(values[i], other.values[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    /**
+     * Returns the map of the given keys, which must be a contiguous range of
+     * the keys of this map.
+     */
+    private SortedArrayMap<K, V> restrictTo(SortedSet<K> subKeys) {
+        if (subKeys.isEmpty()) {
+            return empty();
+        }
+        int start = keys.indexOf(subKeys.first());
+        Object[] subValues = Arrays.copyOfRange(values, start, start + subKeys.size());
+        return new SortedArrayMap<>(SortedArraySet.copyOf(subKeys), subValues);
+    }
+}
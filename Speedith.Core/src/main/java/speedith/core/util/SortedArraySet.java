@@ -0,0 +1,361 @@
+package speedith.core.util;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * An immutable {@link SortedSet sorted set} backed by a sorted array without
+ * duplicates. <p>Elements are ordered by their natural ordering (the
+ * {@link SortedSet#comparator() comparator} of this set is always
+ * {@code null}), which makes instances of this class compatible with the
+ * {@code propity.util.Sets} natural set operations.</p> <p>Membership tests
+ * are binary searches. Sub-set views share the backing array with the set
+ * they were taken from.</p>
+ *
+ * @param <E> the type of elements in this set.
+ */
+public final class SortedArraySet<E extends Comparable<? super E>> extends AbstractSet<E> implements SortedSet<E>, Serializable {
+
+    private static final long serialVersionUID = -4430622096924183593L;
+    private static final Object[] NO_ELEMENTS = new Object[0];
+    @SuppressWarnings("rawtypes")
+    private static final SortedArraySet EMPTY = new SortedArraySet<>(NO_ELEMENTS, 0, 0);
+
+    private final Object[] elements;
+    private final int from;
+    private final int to;
+
+    private SortedArraySet(Object[] elements, int from, int to) {
+        this.elements = elements;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Returns the empty sorted array set.
+     *
+     * @param <E> the type of elements in the set.
+     * @return the empty sorted array set.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E extends Comparable<? super E>> SortedArraySet<E> empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a sorted set that contains the elements of the given collection.
+     * <p>Duplicated elements are ignored.</p>
+     *
+     * @param <E>      the type of elements in the set.
+     * @param elements the elements to put into the new set (may be
+     *                 {@code null}, in which case the empty set is returned).
+     * @return a sorted set that contains the elements of the given collection.
+     */
+    public static <E extends Comparable<? super E>> SortedArraySet<E> copyOf(Collection<? extends E> elements) {
+        if (elements instanceof SortedArraySet) {
+            @SuppressWarnings("unchecked")
+            SortedArraySet<E> other = (SortedArraySet<E>) elements;
+            return other;
+        }
+        if (elements == null || elements.isEmpty()) {
+            return empty();
+        }
+        Object[] array = elements.toArray();
+        if (!(elements instanceof SortedSet) || ((SortedSet<?>) elements).comparator() != null) {
+            Arrays.sort(array);
+        }
+        return new SortedArraySet<>(array, 0, removeDuplicates(array));
+    }
+
+    /**
+     * Creates a sorted set directly on top of the given array. <p><span
+     * style="font-weight:bold">Important</span>: the array must already be
+     * sorted in the natural order of its elements and must not contain
+     * duplicates or {@code null} elements. The array is not copied, so it must
+     * not be changed afterwards.</p>
+     *
+     * @param <E>            the type of elements in the set.
+     * @param sortedElements the sorted array of distinct elements.
+     * @return a sorted set backed by the given array.
+     */
+    public static <E extends Comparable<? super E>> SortedArraySet<E> fromSortedArray(Object[] sortedElements) {
+        if (sortedElements == null || sortedElements.length == 0) {
+            return empty();
+        }
+        return new SortedArraySet<>(sortedElements, 0, sortedElements.length);
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return to == from;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    /**
+     * Returns the position of the given element in this set (in ascending
+     * order), or a negative number if this set does not contain the element.
+     *
+     * @param o the element to look up.
+     * @return the position of the given element in this set, or a negative
+     *         number if this set does not contain it.
+     */
+    public int indexOf(Object o) {
+        if (o == null || isEmpty()) {
+            return -1;
+        }
+        try {
+            int index = Arrays.binarySearch(elements, from, to, o);
+            return index < 0 ? -1 : index - from;
+        } catch (ClassCastException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the element at the given position (in ascending order).
+     *
+     * @param index the position of the element to return.
+     * @return the element at the given position.
+     */
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        return (E) elements[from + index];
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private int next = from;
+
+            @Override
+            public boolean hasNext() {
+                return next < to;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (next >= to) {
+                    throw new NoSuchElementException();
+                }
+                return (E) elements[next++];
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * Returns a set with the elements of this set and the given element.
+     *
+     * @param element the element to add (must not be {@code null}).
+     * @return this set if it already contains the element, otherwise a new set
+     *         with one more element.
+     */
+    public SortedArraySet<E> with(E element) {
+        int index = Arrays.binarySearch(elements, from, to, element);
+        if (index >= 0) {
+            return this;
+        }
+        int insertion = -index - 1;
+        Object[] result = new Object[size() + 1];
+        System.arraycopy(elements, from, result, 0, insertion - from);
+        result[insertion - from] = element;
+        System.arraycopy(elements, insertion, result, insertion - from + 1, to - insertion);
+        return new SortedArraySet<>(result, 0, result.length);
+    }
+
+    /**
+     * Returns a set with the elements of this set without the given element.
+     *
+     * @param element the element to remove.
+     * @return this set if it does not contain the element, otherwise a new set
+     *         with one element less.
+     */
+    public SortedArraySet<E> without(Object element) {
+        int index = indexOf(element);
+        if (index < 0) {
+            return this;
+        }
+        Object[] result = new Object[size() - 1];
+        System.arraycopy(elements, from, result, 0, index);
+        System.arraycopy(elements, from + index + 1, result, index, result.length - index);
+        return fromSortedArray(result);
+    }
+
+    /**
+     * Returns a set with the elements of this set and of the given collection.
+     * <p>The two sorted sequences are merged in linear time.</p>
+     *
+     * @param other the elements to add (may be {@code null}).
+     * @return the union of this set and the given elements.
+     */
+    @SuppressWarnings("unchecked")
+    public SortedArraySet<E> union(Collection<? extends E> other) {
+        SortedArraySet<E> that = copyOf(other);
+        if (that.isEmpty() || that == this) {
+            return this;
+        }
+        if (isEmpty()) {
+            return that;
+        }
+        Object[] result = new Object[size() + that.size()];
+        int i = from, j = that.from, k = 0;
+        while (i < to && j < that.to) {
+            int cmp = ((E) elements[i]).compareTo((E) that.elements[j]);
+            if (cmp <= 0) {
+                result[k++] = elements[i++];
+                if (cmp == 0) {
+                    ++j;
+                }
+            } else {
+                result[k++] = that.elements[j++];
+            }
+        }
+        while (i < to) {
+            result[k++] = elements[i++];
+        }
+        while (j < that.to) {
+            result[k++] = that.elements[j++];
+        }
+        return k == size() ? this : new SortedArraySet<E>(result, 0, k);
+    }
+
+    /**
+     * Returns a set with the elements of this set that are not in the given
+     * collection.
+     *
+     * @param other the elements to remove (may be {@code null}).
+     * @return this set without the given elements.
+     */
+    public SortedArraySet<E> minus(Collection<?> other) {
+        if (other == null || other.isEmpty() || isEmpty()) {
+            return this;
+        }
+        Object[] result = new Object[size()];
+        int k = 0;
+        for (int i = from; i < to; i++) {
+            if (!other.contains(elements[i])) {
+                result[k++] = elements[i];
+            }
+        }
+        if (k == size()) {
+            return this;
+        }
+        return k == 0 ? SortedArraySet.<E>empty() : new SortedArraySet<E>(result, 0, k);
+    }
+
+    @Override
+    public Object[] toArray() {
+        return Arrays.copyOfRange(elements, from, to);
+    }
+
+    /**
+     * Compares the elements of two sorted array sets pairwise, without
+     * looking them up.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof SortedArraySet)) {
+            return super.equals(o);
+        }
+        SortedArraySet<?> other = (SortedArraySet<?>) o;
+        if (other.size() != size()) {
+            return false;
+        }
+        for (int i = 0; i < size(); i++) {
+            if (!elements[from + i].equals(other.elements[other.from + i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    @Override
+    public Comparator<? super E> comparator() {
+        return null;
+    }
+
+    @Override
+    public SortedSet<E> subSet(E fromElement, E toElement) {
+        if (fromElement.compareTo(toElement) > 0) {
+            throw new IllegalArgumentException();
+        }
+        return new SortedArraySet<>(elements, lowerBound(fromElement), Math.max(lowerBound(fromElement), lowerBound(toElement)));
+    }
+
+    @Override
+    public SortedSet<E> headSet(E toElement) {
+        return new SortedArraySet<>(elements, from, lowerBound(toElement));
+    }
+
+    @Override
+    public SortedSet<E> tailSet(E fromElement) {
+        return new SortedArraySet<>(elements, lowerBound(fromElement), to);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E first() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return (E) elements[from];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E last() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return (E) elements[to - 1];
+    }
+
+    /**
+     * Returns the index of the first element (in the backing array) that is
+     * greater or equal to the given one.
+     */
+    private int lowerBound(E element) {
+        int index = Arrays.binarySearch(elements, from, to, element);
+        return index < 0 ? -index - 1 : index;
+    }
+
+    /**
+     * Removes consecutive duplicates from the given sorted array and returns
+     * the number of distinct elements (which are moved to the front).
+     */
+    @SuppressWarnings("unchecked")
+    private static int removeDuplicates(Object[] sortedArray) {
+        int distinct = 1;
+        for (int i = 1; i < sortedArray.length; i++) {
+            if (((Comparable<Object>) sortedArray[distinct - 1]).compareTo(sortedArray[i]) != 0) {
+                sortedArray[distinct++] = sortedArray[i];
+            }
+        }
+        return distinct;
+    }
+}
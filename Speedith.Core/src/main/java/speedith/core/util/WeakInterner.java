@@ -0,0 +1,124 @@
+package speedith.core.util;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+
+/**
+ * A thread-safe table of canonical instances that does not prevent its
+ * elements from being garbage collected. <p>The table is split into a number
+ * of independently locked stripes. An element is assigned to a stripe by its
+ * hash code, so threads that intern different elements rarely wait for each
+ * other.</p> <p>Elements must be immutable (at least in the parts that
+ * contribute to {@link Object#equals(java.lang.Object)} and
+ * {@link Object#hashCode()}), and their hash codes should be cheap to
+ * compute repeatedly.</p>
+ *
+ * @param <T> the type of the interned elements.
+ */
+public final class WeakInterner<T> {
+
+    /**
+     * The number of stripes used by the {@link WeakInterner#WeakInterner()
+     * default constructor}.
+     */
+    public static final int DEFAULT_STRIPES = 64;
+
+    private final Stripe<T>[] stripes;
+    private final int stripeShift;
+
+    /**
+     * Creates a new interning table with {@link WeakInterner#DEFAULT_STRIPES}
+     * stripes.
+     */
+    public WeakInterner() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Creates a new interning table with at least the given number of
+     * stripes.
+     *
+     * @param concurrencyLevel the minimum number of stripes (it will be
+     *                         rounded up to the next power of two).
+     */
+    @SuppressWarnings("unchecked")
+    public WeakInterner(int concurrencyLevel) {
+        if (concurrencyLevel < 1) {
+            throw new IllegalArgumentException("The concurrency level must be positive.");
+        }
+        int stripeBits = 32 - Integer.numberOfLeadingZeros(concurrencyLevel - 1);
+        stripes = new Stripe[1 << stripeBits];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe<>();
+        }
+        stripeShift = 32 - stripeBits;
+    }
+
+    /**
+     * Returns the canonical instance that equals the given element. If there
+     * is no such instance in the table yet, the given element becomes the
+     * canonical instance.
+     *
+     * @param element the element to intern (must not be {@code null}).
+     * @return the canonical instance that equals the given element.
+     */
+    public T intern(T element) {
+        Stripe<T> stripe = stripeFor(element);
+        synchronized (stripe) {
+            T existing = stripe.get(element);
+            if (existing == null) {
+                stripe.elements.put(element, new WeakReference<>(element));
+                return element;
+            }
+            return existing;
+        }
+    }
+
+    /**
+     * Returns the canonical instance that equals the given element, or
+     * {@code null} if there is no such instance in the table.
+     *
+     * @param element the element to look up (must not be {@code null}).
+     * @return the canonical instance that equals the given element, or
+     *         {@code null}.
+     */
+    public T get(T element) {
+        Stripe<T> stripe = stripeFor(element);
+        synchronized (stripe) {
+            return stripe.get(element);
+        }
+    }
+
+    /**
+     * Returns the number of elements in this table. <p>The returned number is
+     * only an estimate as some of the counted elements may already be
+     * unreachable.</p>
+     *
+     * @return the number of elements in this table.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe<T> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.elements.size();
+            }
+        }
+        return size;
+    }
+
+    private Stripe<T> stripeFor(T element) {
+        // Use the upper bits of the scrambled hash: the lower bits select
+        // buckets within the stripe.
+        return stripes.length == 1 ? stripes[0] : stripes[(element.hashCode() * 0x9E3779B9) >>> stripeShift];
+    }
+
+    private static final class Stripe<T> {
+
+        final WeakHashMap<T, WeakReference<T>> elements = new WeakHashMap<>();
+
+        T get(T element) {
+            WeakReference<T> reference = elements.get(element);
+            return reference == null ? null : reference.get();
+        }
+    }
+}
@@ -1,19 +1,19 @@
 package speedith.core.lang
 
 import java.lang.StringBuilder
-import java.util.Collections
 
 import propity.util.Sets
+import speedith.core.util.SortedArraySet
 
 import scala.collection.JavaConversions.{asJavaCollection, asScalaSet, iterableAsScalaIterable, setAsJavaSet}
 
+// The sorted view is transient now; keep the serial version of proofs saved
+// with the old eagerly sorted regions.
+@SerialVersionUID(-1690424265344946969L)
 case class Region(zones: Set[Zone]) extends Comparable[Region] {
 
-  val sortedZones: java.util.SortedSet[Zone] = {
-    Collections.unmodifiableSortedSet(
-      new java.util.TreeSet[Zone](setAsJavaSet(zones))
-    )
-  }
+  // Built only when needed: most regions are just compared or combined.
+  @transient lazy val sortedZones: java.util.SortedSet[Zone] = SortedArraySet.copyOf[Zone](setAsJavaSet(zones))
 
   def this(zones: java.util.Set[Zone]) = {
     this(if (zones == null) Set.empty[Zone] else asScalaSet(zones).toSet)
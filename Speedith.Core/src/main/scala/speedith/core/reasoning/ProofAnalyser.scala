@@ -1,6 +1,6 @@
 package speedith.core.reasoning
 
-import speedith.core.lang.{PrimarySpiderDiagram, CompoundSpiderDiagram, SpiderDiagram}
+import speedith.core.lang.SpiderDiagram
 import speedith.core.reasoning.rules.{CopySpider, CopyShading, CopyContoursTopological, CopyContours}
 import scala.collection.JavaConversions._
 
@@ -24,17 +24,13 @@ object ProofAnalyser  {
     * Computes the clutter score for the given spider diagram. For a primary spider
     * diagram, the clutter score is sum of its contour score (see TODO reference!)
     * and the number of shaded zones. The clutter score of a compound diagram is the sum
-    * of the clutter score of its subdiagrams.
- *
+    * of the clutter score of its subdiagrams. The score is read from the diagram's cached
+    * [[speedith.core.lang.DiagramSummary]].
+    *
     * @param diagram The spider diagram to compute the clutter score for
     * @return the clutter score of the given spider diagram
     */
-  def clutterScore(diagram : SpiderDiagram): Int = diagram match {
-    case sd : PrimarySpiderDiagram =>
-      sd.getPresentZones.toList.map(_.getInContoursCount).sum + (sd.getShadedZones & sd.getPresentZones).size
-    case sd:CompoundSpiderDiagram =>
-      sd.getOperands.map(clutterScore).sum
-  }
+  def clutterScore(diagram : SpiderDiagram): Int = diagram.getSummary.getClutterScore
 
   /**
     * The clutter score of a single goal is the sum of the clutter score of all its subgoals.
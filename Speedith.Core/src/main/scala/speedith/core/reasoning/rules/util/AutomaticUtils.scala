@@ -22,17 +22,9 @@ object AutomaticUtils {
 
   // <editor-fold defaultstate="collapsed" desc="Various helper methods">
 
-  def collectContours  (spiderDiagram: SpiderDiagram) : java.util.Collection[String] = spiderDiagram  match {
-    case spiderDiagram : PrimarySpiderDiagram => spiderDiagram.getAllContours
-    case spiderDiagram: CompoundSpiderDiagram => spiderDiagram.getOperands.flatMap (collectContours)
-  }
+  def collectContours  (spiderDiagram: SpiderDiagram) : java.util.Collection[String] = spiderDiagram.getSummary.getContours
 
-  def containsEmptyZone (sd : SpiderDiagram): Boolean = sd match {
-    case sd:PrimarySpiderDiagram =>
-      sd.getAllContours.exists(c => sd.getPresentZones.forall(!_.getInContours.contains(c)))
-    case sd: CompoundSpiderDiagram =>
-      sd.getOperands.exists(containsEmptyZone)
-  }
+  def containsEmptyZone (sd : SpiderDiagram): Boolean = sd.getSummary.containsEmptyZone
   // </editor-fold>
   def createAllPossibleTacticApplications(subGoalIndex:Int) : java.util.Set[PossibleTacticApplication] = {
     Set(new PossibleTacticApplication(subGoalIndex, new CopyTopologicalInformation), new PossibleTacticApplication(subGoalIndex, new CopyShadingInformation),
@@ -84,16 +84,7 @@ object ReasoningUtils {
     * @param goal The SpiderDiagram that will be analysed
    * @return true if goal is of the described form, false otherwise
    */
-  def isImplicationOfConjunctions(goal: SpiderDiagram): Boolean = goal match {
-    case goal : CompoundSpiderDiagram => goal.getOperator match {
-      case  Operator.Implication  =>
-        val premise: SpiderDiagram = goal.getOperand(0)
-        val conclusion: SpiderDiagram = goal.getOperand(1)
-        isConjunctive(premise) && isConjunctive(conclusion)
-      case _ => false
-    }
-    case _ => false
-  }
+  def isImplicationOfConjunctions(goal: SpiderDiagram): Boolean = goal.getSummary.isImplicationOfConjunctions
 
   def isImplicationOfConjunctions(goal: SpiderDiagramOccurrence): Boolean = goal match {
     case goal : CompoundSpiderDiagramOccurrence => goal.getOperator match {
@@ -106,10 +97,7 @@ object ReasoningUtils {
     case _ => false
   }
 
-  def isConjunctive(sd : SpiderDiagram) : Boolean =  sd match {
-    case sd : PrimarySpiderDiagram => true
-    case sd : CompoundSpiderDiagram => sd.getOperator.equals(Operator.getConjunction) && sd.getOperands.forall(isConjunctive)
-  }
+  def isConjunctive(sd : SpiderDiagram) : Boolean = sd.getSummary.isConjunctive
 
   def isConjunctive(sd : SpiderDiagramOccurrence) : Boolean =  sd match {
     case sd : PrimarySpiderDiagramOccurrence => true
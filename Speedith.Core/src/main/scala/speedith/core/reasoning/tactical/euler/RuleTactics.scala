@@ -22,7 +22,7 @@ import scala.collection.JavaConversions._
 object RuleTactics {
 
   private def createResults(goals: Goals, rule: InferenceRule[RuleArg], args: RuleArg, name : String, oldResult : TacticApplicationResult): Option[TacticApplicationResult] =  {
-      val result = rule.apply(args, goals)
+      val result = RuleApplicationCache.applyInference(rule, args, goals)
       val app = new InferenceApplication(rule, args, RuleApplicationType.TACTIC, name)
       val newGoals = result.getGoals.getGoals.filterNot(d => NullSpiderDiagram.getInstance().isSEquivalentTo(d))
       val newGoal = Goals.createGoalsFrom(newGoals)
@@ -1,7 +1,7 @@
 package speedith.core.reasoning.util.unitary
 
 import speedith.core.lang.Zones.allZonesForContours
-import speedith.core.lang.{PrimarySpiderDiagram, Region, Zone}
+import speedith.core.lang.{BitRegion, PrimarySpiderDiagram, Region, Zone, ZoneUniverse}
 import speedith.core.reasoning.rules.util.ReasoningUtils
 
 import scala.collection.JavaConversions._
@@ -11,6 +11,19 @@ case class CorrespondingRegions(sourceDiagram: PrimarySpiderDiagram, destination
 
   val allPossibleZonesInDestination = allZonesForContours(destinationDiagram.getAllContours.toIterable.toSeq: _*)
 
+  private lazy val destinationUniverse = ZoneUniverse.of(allPossibleZonesInDestination)
+
+  /**
+   * The zones of the destination diagram that are shaded, missing and contain no spiders. These are computed as bit
+   * masks over all possible zones of the destination diagram.
+   */
+  private lazy val emptyZonesInDestination: BitRegion = {
+    val shadedMissingZones = destinationUniverse.project(destinationDiagram.getShadedZones).subtract(destinationUniverse.project(destinationDiagram.getPresentZones))
+    destinationDiagram.getHabitats.values.foldLeft(shadedMissingZones) {
+      (emptyZones, habitat) => emptyZones.subtract(destinationUniverse.project(habitat.sortedZones))
+    }
+  }
+
   def areRegionsCorresponding(regionInSourceDiagram: Region, regionInDestinationDiagram: Region): Boolean = {
     assertContoursOfRegionMatchContoursInDiagram(regionInSourceDiagram, sourceDiagram)
     assertContoursOfRegionMatchContoursInDiagram(regionInDestinationDiagram, destinationDiagram)
@@ -34,10 +47,11 @@ case class CorrespondingRegions(sourceDiagram: PrimarySpiderDiagram, destination
 
   private def getRegionWhenSourceContoursAreSubset(regionInSourceDiagram: Region): mutable.Buffer[Zone] = {
     val contoursOnlyInDestination = destinationDiagram.getAllContours -- sourceDiagram.getAllContours
+    val candidateZones = regionInSourceDiagram.zones ++ (destinationDiagram.getShadedZones diff destinationDiagram.getPresentZones)
     allPossibleZonesInDestination.filter {
       destinationZone =>
         ReasoningUtils.expand(destinationZone, contoursOnlyInDestination).forall(ex =>
-          (regionInSourceDiagram.zones ++ (destinationDiagram.getShadedZones diff destinationDiagram.getPresentZones)).exists {
+          candidateZones.exists {
           sourceZone =>
             sourceZone.getInContours.subsetOf(ex.getInContours) &&
               sourceZone.getOutContours.subsetOf(ex.getOutContours)
@@ -48,21 +62,16 @@ case class CorrespondingRegions(sourceDiagram: PrimarySpiderDiagram, destination
 
 
   private def withoutEmptyZones(rawCorrespondingRegion: mutable.Buffer[Zone]): mutable.Buffer[Zone] = {
-    rawCorrespondingRegion.filterNot {
-      destinationZone =>
-        (destinationDiagram.getShadedZones -- destinationDiagram.getPresentZones ).contains(destinationZone) &&
-          !destinationDiagram.getHabitats.exists {
-            case (spider, habitat) => habitat.zones.contains(destinationZone)
-          }
-    }
+    rawCorrespondingRegion.filterNot(emptyZonesInDestination.contains)
   }
 
   private def getRegionWhenDestinationContoursAreSubset(regionInSourceDiagram: Region): mutable.Buffer[Zone] = {
     val contoursOnlyInSource = sourceDiagram.getAllContours -- destinationDiagram.getAllContours
+    val candidateZones = regionInSourceDiagram.zones ++ (sourceDiagram.getShadedZones diff sourceDiagram.getPresentZones)
     allPossibleZonesInDestination.filter {
       destinationZone =>
         ReasoningUtils.expand(destinationZone, contoursOnlyInSource).forall( ex=>
-          (regionInSourceDiagram.zones ++ (sourceDiagram.getShadedZones diff sourceDiagram.getPresentZones)).exists {
+          candidateZones.exists {
             sourceZone =>
               ex.getInContours.subsetOf(sourceZone.getInContours) &&
                 ex.getOutContours.subsetOf(sourceZone.getOutContours)
@@ -0,0 +1,93 @@
+package speedith.core.lang;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+public class BitRegionTest {
+
+    private static final List<Zone> VENN_ABC = Zones.allZonesForContours("A", "B", "C");
+    private static final ZoneUniverse UNIVERSE = ZoneUniverse.of(VENN_ABC);
+
+    @Test
+    public void sortedZones_should_list_the_zones_in_their_natural_order() {
+        BitRegion region = UNIVERSE.regionOf(Arrays.asList(VENN_ABC.get(5), VENN_ABC.get(0), VENN_ABC.get(3)));
+
+        assertEquals(new ArrayList<>(new TreeSet<>(region.sortedZones())), new ArrayList<>(region.sortedZones()));
+        assertEquals(3, region.getZonesCount());
+    }
+
+    @Test
+    public void set_operations_should_agree_with_region() {
+        for (int a = 0; a < 1 << VENN_ABC.size(); a += 7) {
+            for (int b = 0; b < 1 << VENN_ABC.size(); b += 5) {
+                Region regionA = new Region(zones(a));
+                Region regionB = new Region(zones(b));
+                BitRegion bitsA = UNIVERSE.regionOf(zones(a));
+                BitRegion bitsB = UNIVERSE.regionOf(zones(b));
+
+                assertEquals(regionA.union(regionB), bitsA.union(bitsB).toRegion());
+                assertEquals(regionA.subtract(regionB), bitsA.subtract(bitsB).toRegion());
+                assertEquals(regionA.isSubregionOf(regionB), bitsA.isSubregionOf(bitsB));
+                assertEquals(Integer.signum(regionA.compareTo(regionB)), Integer.signum(bitsA.compareTo(bitsB)));
+            }
+        }
+    }
+
+    @Test
+    public void regions_with_the_same_zones_should_be_equal_across_universes() {
+        ZoneUniverse otherUniverse = ZoneUniverse.of(VENN_ABC.subList(2, 6));
+        List<Zone> zones = Arrays.asList(VENN_ABC.get(2), VENN_ABC.get(4));
+
+        BitRegion region = UNIVERSE.regionOf(zones);
+        BitRegion otherRegion = otherUniverse.regionOf(zones);
+
+        assertEquals(region, otherRegion);
+        assertEquals(region.hashCode(), otherRegion.hashCode());
+        assertEquals(0, region.compareTo(otherRegion));
+    }
+
+    @Test
+    public void lookupRegion_should_return_null_for_zones_outside_of_the_universe() {
+        ZoneUniverse universe = ZoneUniverse.of(VENN_ABC.subList(0, 4));
+
+        assertNull(universe.lookupRegion(VENN_ABC.subList(3, 5)));
+        assertEquals(1, universe.project(VENN_ABC.subList(3, 5)).getZonesCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void union_should_throw_an_exception_for_regions_of_different_universes() {
+        UNIVERSE.all().union(ZoneUniverse.of(VENN_ABC).all());
+    }
+
+    @Test
+    public void getSpiderHabitatRegion_should_cache_the_habitats_of_the_diagram() {
+        TreeMap<String, Region> habitats = new TreeMap<>();
+        habitats.put("s1", new Region(zones(0x0f)));
+        habitats.put("s2", new Region(zones(0x30)));
+        PrimarySpiderDiagram psd = SpiderDiagrams.createPrimarySD(habitats, null, VENN_ABC);
+
+        BitRegion habitat = psd.getSpiderHabitatRegion("s1");
+
+        assertSame(habitat, psd.getSpiderHabitatRegion("s1"));
+        assertEquals(psd.getZoneUniverse().regionOf(zones(0x0f)), habitat);
+        assertEquals(habitats.get("s2"), psd.getSpiderHabitatRegion("s2").toRegion());
+        assertNull(psd.getSpiderHabitatRegion("s3"));
+    }
+
+    private static List<Zone> zones(int bits) {
+        ArrayList<Zone> zones = new ArrayList<>();
+        for (int i = 0; i < VENN_ABC.size(); i++) {
+            if ((bits & (1 << i)) != 0) {
+                zones.add(VENN_ABC.get(i));
+            }
+        }
+        return zones;
+    }
+}
@@ -516,7 +516,114 @@ public class CompoundSpiderDiagramTest {
         checkSDIterator(SpiderDiagramsReader.readSpiderDiagram(SpiderDiagramsReaderTest.SD_EXAMPLE_17));
     }
 
+    @Test
+    public void transformAt_should_produce_the_same_diagram_as_a_full_transform() throws ReadingException {
+        SpiderDiagram sd = SpiderDiagramsReader.readSpiderDiagram(SpiderDiagramsReaderTest.SD_EXAMPLE_2);
+        for (int index = 0; index < sd.getSubDiagramCount(); index++) {
+            NullifyingTransformer targetedTransformer = new NullifyingTransformer(index);
+
+            assertSame(sd.transform(new NullifyingTransformer(index)), sd.transformAt(index, targetedTransformer));
+            assertEquals(1, targetedTransformer.calls);
+        }
+    }
+
+    @Test
+    public void transformAt_should_share_the_sub_diagrams_off_the_path_to_the_target() throws ReadingException {
+        CompoundSpiderDiagram sd = (CompoundSpiderDiagram) SpiderDiagramsReader.readSpiderDiagram(SpiderDiagramsReaderTest.SD_EXAMPLE_2);
+        CompoundSpiderDiagram implication = (CompoundSpiderDiagram) sd.getOperand(0);
+
+        CompoundSpiderDiagram transformedSD = (CompoundSpiderDiagram) sd.transformAt(3, new NullifyingTransformer(3));
+
+        CompoundSpiderDiagram transformedImplication = (CompoundSpiderDiagram) transformedSD.getOperand(0);
+        assertSame(implication.getOperand(0), transformedImplication.getOperand(0));
+        assertSame(SpiderDiagrams.createNullSD(), transformedImplication.getOperand(1));
+        assertSame(sd, sd.transformAt(3, new IdTransformer()));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void transformAt_should_throw_an_exception_for_an_index_out_of_range() throws ReadingException {
+        SpiderDiagram sd = SpiderDiagramsReader.readSpiderDiagram(SpiderDiagramsReaderTest.SD_EXAMPLE_2);
+        sd.transformAt(sd.getSubDiagramCount(), new IdTransformer());
+    }
+
+    @Test
+    public void visit_with_a_path_visitor_should_report_the_same_positions_as_the_sub_diagram_table() throws ReadingException {
+        for (String sdText : Arrays.asList(SpiderDiagramsReaderTest.SD_EXAMPLE_2, SpiderDiagramsReaderTest.SD_EXAMPLE_6, SpiderDiagramsReaderTest.SD_EXAMPLE_8)) {
+            final SpiderDiagram sd = SpiderDiagramsReader.readSpiderDiagram(sdText);
+            int visited = sd.visit(new PathVisitor<Integer>() {
+                private int count;
+
+                @Override
+                public void init(SpiderDiagram root) {
+                }
+
+                @Override
+                public void end() {
+                }
+
+                @Override
+                public void visit(SpiderDiagram subDiagram, int subDiagramIndex, DiagramPath path) {
+                    assertEquals(count++, subDiagramIndex);
+                    assertSame(sd.getSubDiagramAt(subDiagramIndex), subDiagram);
+                    assertEquals(sd.getDepthOf(subDiagramIndex), path.getLength());
+                    if (path.getLength() > 0) {
+                        int last = path.getLength() - 1;
+                        assertEquals(sd.getParentIndexOf(subDiagramIndex), path.getParentIndex(last));
+                        assertSame(path.getLastParent().getOperand(path.getChildIndex(last)), subDiagram);
+                    } else {
+                        assertNull(path.getLastParent());
+                    }
+                }
+
+                @Override
+                public boolean isDone() {
+                    return false;
+                }
+
+                @Override
+                public Integer getResult() {
+                    return count;
+                }
+            });
+            assertEquals(sd.getSubDiagramCount(), visited);
+        }
+    }
+
     //<editor-fold defaultstate="collapsed" desc="Private Helper Methods">
+    /**
+     * Replaces the sub-diagram at the given index with the null spider diagram
+     * and counts how many times it was called.
+     */
+    private static class NullifyingTransformer extends IdTransformer {
+
+        private final int targetIndex;
+        private int calls;
+
+        NullifyingTransformer(int targetIndex) {
+            this.targetIndex = targetIndex;
+        }
+
+        @Override
+        public SpiderDiagram transform(PrimarySpiderDiagram psd, int diagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices) {
+            return nullifyTarget(psd, diagramIndex, parents, childIndices);
+        }
+
+        @Override
+        public SpiderDiagram transform(CompoundSpiderDiagram csd, int diagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices) {
+            return nullifyTarget(csd, diagramIndex, parents, childIndices);
+        }
+
+        private SpiderDiagram nullifyTarget(SpiderDiagram sd, int diagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices) {
+            ++calls;
+            checkChildIndices(parents, childIndices, sd);
+            if (diagramIndex == targetIndex) {
+                done = true;
+                return SpiderDiagrams.createNullSD();
+            }
+            return null;
+        }
+    }
+
     private void checkVisitSD(CompoundSpiderDiagram sd) {
         for (int i = 0; i < sd.getSubDiagramCount(); i++) {
             final int targetSD = i;
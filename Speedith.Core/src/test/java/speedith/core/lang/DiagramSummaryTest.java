@@ -0,0 +1,74 @@
+package speedith.core.lang;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class DiagramSummaryTest {
+
+    private final Zone aOnly = Zone.fromInContours("A").withOutContours("B");
+    private final Zone bOnly = Zone.fromInContours("B").withOutContours("A");
+    private final Zone outside = Zone.fromOutContours("A", "B");
+
+    @Test
+    public void getSummary_of_a_primary_diagram_should_count_its_elements() {
+        PrimarySpiderDiagram diagram = disjointAB();
+
+        DiagramSummary summary = diagram.getSummary();
+
+        assertEquals(new TreeSet<>(Arrays.asList("A", "B")), summary.getContours());
+        assertEquals(3, summary.getClutterScore());
+        assertEquals(0, summary.getDepth());
+        assertEquals(1, summary.getNodeCount());
+        assertEquals(1, summary.getSpiderCount());
+        assertEquals(3, summary.getVisibleZoneCount());
+        assertEquals(2, summary.getShadedZoneCount());
+        assertTrue(summary.isConjunctive());
+        assertFalse(summary.isImplicationOfConjunctions());
+        assertFalse(summary.containsEmptyZone());
+    }
+
+    @Test
+    public void getSummary_of_a_compound_diagram_should_combine_the_summaries_of_its_operands() {
+        PrimarySpiderDiagram emptyB = SpiderDiagrams.createPrimarySD(new HashMap<String, Region>(), null, Arrays.asList(aOnly, outside));
+        CompoundSpiderDiagram conjunction = SpiderDiagrams.createCompoundSD(Operator.Conjunction, disjointAB(), emptyB);
+        CompoundSpiderDiagram implication = SpiderDiagrams.createCompoundSD(Operator.Implication, conjunction, disjointAB());
+
+        DiagramSummary summary = implication.getSummary();
+
+        assertEquals(new TreeSet<>(Arrays.asList("A", "B")), summary.getContours());
+        assertEquals(3 + 1 + 3, summary.getClutterScore());
+        assertEquals(2, summary.getDepth());
+        assertEquals(implication.getSubDiagramCount(), summary.getNodeCount());
+        assertEquals(2, summary.getSpiderCount());
+        assertEquals(8, summary.getVisibleZoneCount());
+        assertFalse(summary.isConjunctive());
+        assertTrue(summary.isImplicationOfConjunctions());
+        assertTrue(summary.containsEmptyZone());
+        assertTrue(conjunction.getSummary().isConjunctive());
+    }
+
+    @Test
+    public void getSummary_should_not_treat_implications_with_disjunctive_operands_as_implications_of_conjunctions() {
+        CompoundSpiderDiagram disjunction = SpiderDiagrams.createCompoundSD(Operator.Disjunction, disjointAB(), disjointAB());
+        CompoundSpiderDiagram implication = SpiderDiagrams.createCompoundSD(Operator.Implication, disjunction, disjointAB());
+
+        assertFalse(implication.getSummary().isImplicationOfConjunctions());
+        assertFalse(SpiderDiagrams.createNullSD().getSummary().isConjunctive());
+    }
+
+    @Test
+    public void getSummary_should_be_computed_only_once() {
+        PrimarySpiderDiagram diagram = disjointAB();
+
+        assertSame(diagram.getSummary(), diagram.getSummary());
+    }
+
+    private PrimarySpiderDiagram disjointAB() {
+        Map<String, Region> habitats = new HashMap<>();
+        habitats.put("s", new Region(outside));
+        return SpiderDiagrams.createPrimarySD(habitats, Arrays.asList(aOnly, Zone.fromInContours("A", "B")), Arrays.asList(aOnly, bOnly, outside));
+    }
+}
@@ -30,14 +30,11 @@ import org.junit.Test;
 import speedith.core.lang.reader.ReadingException;
 import speedith.core.reasoning.util.unitary.TestSpiderDiagrams;
 
-import java.io.IOException;
-import java.util.Arrays;
-import java.util.SortedSet;
-import java.util.TreeSet;
+import java.io.*;
+import java.util.*;
 
 import static org.hamcrest.Matchers.equalTo;
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertThat;
+import static org.junit.Assert.*;
 import static speedith.core.reasoning.util.unitary.TestSpiderDiagrams.DIAGRAM_SPEEDITH_PAPER_FIG2_D1;
 import static speedith.core.reasoning.util.unitary.TestSpiderDiagrams.DIAGRAM_SPEEDITH_PAPER_FIG2_D2;
 
@@ -138,4 +135,114 @@ public class PrimarySpiderDiagramTest {
         psd = (PrimarySpiderDiagram) csd.getOperand(1);
         assertEquals(new TreeSet<>(Arrays.asList("t1", "t2", "t3")), psd.getSpidersInZone(Zone.fromInContours("B")));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getCanonicalFingerprint_should_not_change_when_spiders_are_renamed() {
+        PrimarySpiderDiagram diagram = twoSpiderDiagram("s1", "s2");
+        PrimarySpiderDiagram renamed = twoSpiderDiagram("t2", "t1");
+
+        assertNotEquals(diagram, renamed);
+        assertTrue(diagram.isSEquivalentTo(renamed));
+        assertEquals(diagram.getCanonicalFingerprint(), renamed.getCanonicalFingerprint());
+    }
+
+    @Test
+    public void getCanonicalFingerprint_should_differ_for_different_shading() {
+        PrimarySpiderDiagram diagram = twoSpiderDiagram("s1", "s2");
+        PrimarySpiderDiagram shaded = diagram.addShading(Zone.fromInContours("A", "B"));
+
+        assertNotEquals(diagram.getCanonicalFingerprint(), shaded.getCanonicalFingerprint());
+        assertFalse(diagram.isSEquivalentTo(shaded));
+    }
+
+    @Test
+    public void getCanonicalFingerprint_should_differ_for_swapped_habitats() {
+        List<Zone> zones = Zones.allZonesForContours("A", "B");
+        Map<String, Region> habitats = new HashMap<>();
+        habitats.put("s1", new Region(Zone.fromInContours("A").withOutContours("B")));
+        habitats.put("s2", new Region(Zone.fromInContours("A").withOutContours("B")));
+        PrimarySpiderDiagram bothInA = SpiderDiagrams.createPrimarySD(habitats, null, zones);
+
+        assertNotEquals(twoSpiderDiagram("s1", "s2").getCanonicalFingerprint(), bothInA.getCanonicalFingerprint());
+    }
+
+    @Test
+    public void canonicalForm_should_be_the_same_for_renamed_diagrams() {
+        PrimarySpiderDiagram canonical = twoSpiderDiagram("t2", "t1").canonicalForm();
+
+        assertSame(canonical, twoSpiderDiagram("x", "y").canonicalForm());
+        assertSame(canonical, canonical.canonicalForm());
+        assertEquals(new TreeSet<>(Arrays.asList("s1", "s2")), canonical.getSpiders());
+    }
+
+    @Test
+    public void canonicalForm_of_a_compound_diagram_should_rename_spiders_in_all_operands() {
+        CompoundSpiderDiagram diagram = SpiderDiagrams.createCompoundSD(Operator.Implication, twoSpiderDiagram("a", "b"), twoSpiderDiagram("c", "d"));
+        CompoundSpiderDiagram renamed = SpiderDiagrams.createCompoundSD(Operator.Implication, twoSpiderDiagram("d", "c"), twoSpiderDiagram("b", "a"));
+
+        assertEquals(diagram.getCanonicalFingerprint(), renamed.getCanonicalFingerprint());
+        assertSame(SpiderDiagrams.canonicalForm(diagram), SpiderDiagrams.canonicalForm(renamed));
+    }
+
+    @Test
+    public void builder_should_produce_the_same_diagram_as_separate_changes() {
+        PrimarySpiderDiagram diagram = twoSpiderDiagram("s1", "s2");
+        Region habitat = new Region(Zone.fromOutContours("A", "B"));
+        Zone shadedZone = Zone.fromInContours("A", "B");
+
+        PrimarySpiderDiagram built = diagram.toBuilder()
+                .addSpider("s3", habitat)
+                .addShadedZones(Arrays.asList(shadedZone))
+                .removeSpider("s1")
+                .build();
+
+        Map<String, Region> expectedHabitats = new HashMap<>(diagram.getHabitats());
+        expectedHabitats.remove("s1");
+        expectedHabitats.put("s3", habitat);
+        assertSame(SpiderDiagrams.createPrimarySD(expectedHabitats, Arrays.asList(shadedZone), diagram.getPresentZones()), built);
+        assertSame(diagram.addSpider("s3", habitat).addShading(shadedZone).toBuilder().removeSpider("s1").build(), built);
+        assertSame(diagram.getPresentZones(), built.getPresentZones());
+    }
+
+    @Test
+    public void addSpider_should_replace_the_habitat_of_an_existing_spider() {
+        PrimarySpiderDiagram diagram = twoSpiderDiagram("s1", "s2");
+        Region habitat = new Region(Zone.fromOutContours("A", "B"));
+
+        PrimarySpiderDiagram changed = diagram.addSpider("s1", habitat);
+
+        assertEquals(2, changed.getSpidersCount());
+        assertEquals(habitat, changed.getSpiderHabitat("s1"));
+        assertSame(diagram.getShadedZones(), changed.getShadedZones());
+    }
+
+    @Test
+    public void serialization_should_preserve_the_diagram() throws Exception {
+        PrimarySpiderDiagram diagram = twoSpiderDiagram("s1", "s2").addShading(Zone.fromInContours("A", "B"));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(diagram);
+        }
+        Object copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = in.readObject();
+        }
+
+        assertEquals(diagram, copy);
+        assertEquals(diagram.hashCode(), copy.hashCode());
+        assertEquals(diagram.toString(), copy.toString());
+    }
+
+    /**
+     * Creates a Venn diagram of contours A and B with the first spider in
+     * zone A and the second spider in zones B and AB.
+     */
+    private static PrimarySpiderDiagram twoSpiderDiagram(String spiderInA, String spiderInB) {
+        List<Zone> zones = Zones.allZonesForContours("A", "B");
+        Map<String, Region> habitats = new HashMap<>();
+        habitats.put(spiderInA, new Region(Zone.fromInContours("A").withOutContours("B")));
+        habitats.put(spiderInB, new Region(Zone.fromInContours("B").withOutContours("A"), Zone.fromInContours("A", "B")));
+        return SpiderDiagrams.createPrimarySD(habitats, null, zones);
+    }
+}
@@ -3,6 +3,7 @@ package speedith.core.lang;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class SpiderDiagramTest {
 
@@ -35,4 +36,31 @@ public class SpiderDiagramTest {
         int indexOfParent = bigCompoundSpiderDiagram.getParentIndexOf(6);
         assertEquals(4, indexOfParent);
     }
+
+    @Test
+    public void getParentIndexOf_should_return_minus_two_for_an_index_out_of_range() throws Exception {
+        assertEquals(-2, compoundSpiderDiagram.getParentIndexOf(3));
+        assertEquals(-2, compoundSpiderDiagram.getParentIndexOf(-1));
+    }
+
+    @Test
+    public void getDepthOf_should_return_the_number_of_parents_of_the_subdiagram() throws Exception {
+        CompoundSpiderDiagram bigCompoundSpiderDiagram = SpiderDiagrams.createCompoundSD(Operator.Conjunction, compoundSpiderDiagram, SpiderDiagrams.createNullSD());
+
+        assertEquals(0, bigCompoundSpiderDiagram.getDepthOf(0));
+        assertEquals(1, bigCompoundSpiderDiagram.getDepthOf(1));
+        assertEquals(2, bigCompoundSpiderDiagram.getDepthOf(3));
+        assertEquals(1, bigCompoundSpiderDiagram.getDepthOf(4));
+        assertEquals(-1, bigCompoundSpiderDiagram.getDepthOf(5));
+    }
+
+    @Test
+    public void getSubDiagramIndex_should_return_the_first_index_of_an_equal_subdiagram() throws Exception {
+        CompoundSpiderDiagram bigCompoundSpiderDiagram = SpiderDiagrams.createCompoundSD(Operator.Conjunction, compoundSpiderDiagram, compoundSpiderDiagram);
+
+        assertEquals(1, bigCompoundSpiderDiagram.getSubDiagramIndex(compoundSpiderDiagram));
+        assertEquals(2, bigCompoundSpiderDiagram.getSubDiagramIndex(SpiderDiagrams.createNullSD()));
+        assertEquals(-1, compoundSpiderDiagram.getSubDiagramIndex(bigCompoundSpiderDiagram));
+        assertNull(bigCompoundSpiderDiagram.getSubDiagramAt(7));
+    }
 }
@@ -0,0 +1,64 @@
+package speedith.core.lang;
+
+import java.util.ArrayList;
+import java.util.concurrent.*;
+
+/**
+ * Measures how well the spider diagram pool in {@link SpiderDiagrams} scales
+ * when many threads create diagrams at the same time. <p>Every thread
+ * repeatedly creates all 256 shaded Venn diagrams of three contours together
+ * with an implication for each of them. After the first round most of the
+ * created diagrams are already in the pool, which mimics a proof search that
+ * keeps revisiting the same goals.</p> <p>Usage: {@code SpiderDiagramsContentionBenchmark
+ * [maxThreads] [rounds]}.</p>
+ */
+public class SpiderDiagramsContentionBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        final int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        // Warm up the JIT before measuring.
+        run(maxThreads, rounds / 4 + 1);
+
+        System.out.println("threads\tdiagrams/s");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            System.out.println(threads + "\t" + run(threads, rounds));
+        }
+    }
+
+    /**
+     * Creates diagrams on the given number of threads and returns the number
+     * of created diagrams per second.
+     */
+    private static long run(int threads, final int rounds) throws Exception {
+        final CyclicBarrier start = new CyclicBarrier(threads + 1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            ArrayList<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        start.await();
+                        int created = 0;
+                        for (int round = 0; round < rounds; round++) {
+                            created += SpiderDiagramsTest.createAllShadedVennDiagrams().size();
+                        }
+                        return created;
+                    }
+                }));
+            }
+            start.await();
+            long startTime = System.nanoTime();
+            long created = 0;
+            for (Future<Integer> result : results) {
+                created += result.get();
+            }
+            long elapsed = Math.max(1, System.nanoTime() - startTime);
+            return created * TimeUnit.SECONDS.toNanos(1) / elapsed;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package speedith.core.lang;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class SpiderDiagramsTest {
+
+    private static final int THREADS = 8;
+    private static final List<Zone> VENN_ABC = Zones.allZonesForContours("A", "B", "C");
+
+    @Test
+    public void createPrimarySD_should_return_the_pooled_instance_for_an_equal_diagram() {
+        PrimarySpiderDiagram diagram = shadedVennDiagram(5);
+
+        assertSame(diagram, shadedVennDiagram(5));
+    }
+
+    @Test
+    public void createCompoundSD_should_return_the_pooled_instance_for_an_equal_diagram() {
+        CompoundSpiderDiagram diagram = SpiderDiagrams.createCompoundSD(Operator.Conjunction, shadedVennDiagram(3), shadedVennDiagram(4));
+
+        assertSame(diagram, SpiderDiagrams.createCompoundSD(Operator.Conjunction, shadedVennDiagram(3), shadedVennDiagram(4)));
+    }
+
+    @Test
+    public void createPrimarySD_should_use_the_canonical_names_of_spiders_and_contours() {
+        String spider = Names.intern("names-test-s");
+        String contour = Names.intern("names-test-A");
+
+        PrimarySpiderDiagram diagram = SpiderDiagrams.createPrimarySD(Arrays.asList(new String(spider)), null, Arrays.asList(new Zone(new String(contour))), null);
+
+        assertSame(spider, diagram.getSpiders().first());
+        assertSame(contour, diagram.getShadedZones().first().getInContours().first());
+    }
+
+    @Test
+    public void diagrams_created_concurrently_should_be_the_same_instance() throws Exception {
+        final CyclicBarrier start = new CyclicBarrier(THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            ArrayList<Future<List<SpiderDiagram>>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(new Callable<List<SpiderDiagram>>() {
+                    @Override
+                    public List<SpiderDiagram> call() throws Exception {
+                        start.await();
+                        return createAllShadedVennDiagrams();
+                    }
+                }));
+            }
+            List<SpiderDiagram> expected = results.get(0).get();
+            for (Future<List<SpiderDiagram>> result : results) {
+                List<SpiderDiagram> diagrams = result.get();
+                assertEquals(expected.size(), diagrams.size());
+                for (int i = 0; i < diagrams.size(); i++) {
+                    assertSame(expected.get(i), diagrams.get(i));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void diagrams_created_in_an_arena_should_be_interned_in_the_arena() {
+        DiagramArena arena = SpiderDiagrams.openArena();
+        try {
+            PrimarySpiderDiagram diagram = shadedDiagramOf("ArenaA", "ArenaB");
+
+            assertSame(diagram, shadedDiagramOf("ArenaA", "ArenaB"));
+            assertEquals(1, arena.size());
+        } finally {
+            arena.close();
+        }
+        assertNull(SpiderDiagrams.getCurrentArena());
+        assertTrue(arena.isClosed());
+    }
+
+    @Test
+    public void diagrams_created_in_an_arena_should_reuse_pooled_diagrams() {
+        PrimarySpiderDiagram pooled = shadedVennDiagram(6);
+        DiagramArena arena = SpiderDiagrams.openArena();
+        try {
+            assertSame(pooled, shadedVennDiagram(6));
+        } finally {
+            arena.close();
+        }
+    }
+
+    @Test
+    public void diagrams_created_in_an_arena_should_not_be_pooled_until_promoted() {
+        PrimarySpiderDiagram inArena;
+        CompoundSpiderDiagram compoundInArena;
+        DiagramArena arena = SpiderDiagrams.openArena();
+        try {
+            inArena = shadedDiagramOf("PromoteA", "PromoteB");
+            compoundInArena = SpiderDiagrams.createCompoundSD(Operator.Negation, inArena);
+        } finally {
+            arena.close();
+        }
+        PrimarySpiderDiagram pooled = shadedDiagramOf("PromoteA", "PromoteB");
+        assertNotSame(inArena, pooled);
+        assertEquals(inArena, pooled);
+
+        CompoundSpiderDiagram promoted = SpiderDiagrams.promote(compoundInArena);
+        assertEquals(compoundInArena, promoted);
+        assertSame(pooled, promoted.getOperand(0));
+        assertSame(promoted, SpiderDiagrams.createCompoundSD(Operator.Negation, pooled));
+    }
+
+    @Test
+    public void nested_arenas_should_see_diagrams_of_enclosing_arenas() {
+        DiagramArena outer = SpiderDiagrams.openArena();
+        try {
+            PrimarySpiderDiagram diagram = shadedDiagramOf("NestedA", "NestedB");
+            DiagramArena inner = SpiderDiagrams.openArena();
+            try {
+                assertSame(diagram, shadedDiagramOf("NestedA", "NestedB"));
+                assertEquals(0, inner.size());
+            } finally {
+                inner.close();
+            }
+            assertSame(outer, SpiderDiagrams.getCurrentArena());
+        } finally {
+            outer.close();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void closing_an_arena_before_its_nested_arena_should_throw() {
+        DiagramArena outer = SpiderDiagrams.openArena();
+        DiagramArena inner = SpiderDiagrams.openArena();
+        try {
+            outer.close();
+        } finally {
+            inner.close();
+            outer.close();
+        }
+    }
+
+    /**
+     * Creates a diagram with the given two contours in which all zones are
+     * shaded.
+     */
+    private static PrimarySpiderDiagram shadedDiagramOf(String contourA, String contourB) {
+        List<Zone> zones = Zones.allZonesForContours(contourA, contourB);
+        return SpiderDiagrams.createPrimarySD(null, null, zones, zones);
+    }
+
+    /**
+     * Creates a Venn diagram of contours A, B and C, which has the zones in
+     * the given bit set shaded.
+     */
+    static PrimarySpiderDiagram shadedVennDiagram(int shadedZonesBits) {
+        ArrayList<Zone> shadedZones = new ArrayList<>();
+        for (int i = 0; i < VENN_ABC.size(); i++) {
+            if ((shadedZonesBits & (1 << i)) != 0) {
+                shadedZones.add(VENN_ABC.get(i));
+            }
+        }
+        return SpiderDiagrams.createPrimarySD(null, null, shadedZones, VENN_ABC);
+    }
+
+    static List<SpiderDiagram> createAllShadedVennDiagrams() {
+        ArrayList<SpiderDiagram> diagrams = new ArrayList<>();
+        int diagramsCount = 1 << VENN_ABC.size();
+        for (int i = 0; i < diagramsCount; i++) {
+            PrimarySpiderDiagram diagram = shadedVennDiagram(i);
+            diagrams.add(diagram);
+            diagrams.add(SpiderDiagrams.createCompoundSD(Operator.Implication, diagram, shadedVennDiagram(diagramsCount - 1 - i)));
+        }
+        return diagrams;
+    }
+}
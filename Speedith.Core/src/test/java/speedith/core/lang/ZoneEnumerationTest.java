@@ -0,0 +1,101 @@
+package speedith.core.lang;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class ZoneEnumerationTest {
+
+    private static final String[] CONTOURS = {"A", "B", "C", "D", "E"};
+
+    @Test
+    public void ofContours_should_enumerate_every_zone_of_the_Venn_diagram_once() {
+        ZoneEnumeration zones = ZoneEnumeration.ofContours(CONTOURS);
+        HashSet<Zone> distinctZones = new HashSet<>(zones.toList());
+
+        assertEquals(32, zones.size());
+        assertEquals(32, distinctZones.size());
+        for (Zone zone : distinctZones) {
+            assertEquals(new TreeSet<>(Arrays.asList(CONTOURS)), zone.getAllContours());
+        }
+    }
+
+    @Test
+    public void consecutive_zones_should_differ_in_a_single_contour() {
+        Zone previous = null;
+        for (Zone zone : ZoneEnumeration.ofContours(CONTOURS)) {
+            if (previous != null) {
+                TreeSet<String> movedContours = new TreeSet<>(zone.getInContours());
+                movedContours.removeAll(previous.getInContours());
+                TreeSet<String> leftContours = new TreeSet<>(previous.getInContours());
+                leftContours.removeAll(zone.getInContours());
+                assertEquals(1, movedContours.size() + leftContours.size());
+            }
+            previous = zone;
+        }
+    }
+
+    @Test
+    public void get_should_return_the_zone_at_the_same_position_as_the_iterator() {
+        ZoneEnumeration zones = ZoneEnumeration.extending(Arrays.asList(Zone.fromInContours("X"), Zone.fromOutContours("X")), Arrays.asList(CONTOURS));
+        long index = 0;
+        for (Zone zone : zones) {
+            assertEquals(zone, zones.get(index++));
+        }
+        assertEquals(zones.size(), index);
+    }
+
+    @Test
+    public void split_parts_should_list_the_same_zones_in_the_same_order() {
+        ZoneEnumeration zones = ZoneEnumeration.ofContours(CONTOURS);
+        ArrayList<Zone> zonesFromParts = new ArrayList<>();
+        for (ZoneEnumeration part : zones.split(7)) {
+            zonesFromParts.addAll(part.toList());
+        }
+
+        assertEquals(zones.toList(), zonesFromParts);
+    }
+
+    @Test
+    public void count_should_count_only_the_accepted_zones() {
+        ZoneEnumeration zones = ZoneEnumeration.ofContours(CONTOURS);
+        ZoneEnumeration.Filter insideA = new ZoneEnumeration.Filter() {
+            @Override
+            public boolean accept(Zone zone) {
+                return zone.getInContours().contains("A");
+            }
+        };
+
+        assertEquals(16, zones.count(insideA));
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            assertEquals(16, zones.parallelCount(insideA, pool));
+        } finally {
+            pool.shutdown();
+        }
+        for (Zone zone : zones.filter(insideA)) {
+            assertTrue(zone.getInContours().contains("A"));
+        }
+    }
+
+    @Test
+    public void parallelCount_should_split_large_enumerations() {
+        ZoneEnumeration zones = ZoneEnumeration.ofContours("A", "B", "C", "D", "E", "F", "G", "H", "I", "J", "K", "L", "M", "N");
+        ZoneEnumeration.Filter insideAllOfAB = new ZoneEnumeration.Filter() {
+            @Override
+            public boolean accept(Zone zone) {
+                return Zones.isZonePartOfAllContours(zone, "A", "B");
+            }
+        };
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(zones.size() / 4, zones.parallelCount(insideAllOfAB, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -28,6 +28,10 @@ package speedith.core.lang;
 
 import org.junit.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.*;
 
 import static org.hamcrest.Matchers.hasSize;
@@ -501,4 +505,40 @@ public class ZoneTest {
         TreeSet<String> expectedContours = new TreeSet<>(Arrays.asList("Foo", "Bar", "Zar"));
         assertEquals(expectedContours, zone.getAllContours());
     }
+
+    @Test
+    public void serialization_should_preserve_contours_and_equality() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(m_zone5);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Zone zone = (Zone) in.readObject();
+            assertEquals(m_zone5, zone);
+            assertEquals(m_zone5.hashCode(), zone.hashCode());
+            assertEquals(m_inContours5, zone.getInContours());
+            assertEquals(m_outContours5, zone.getOutContours());
+        }
+    }
+
+    @Test
+    public void zones_with_more_than_64_contours_should_compare_by_contour_names() {
+        ArrayList<String> contours = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            contours.add("contour" + i);
+        }
+        Zone zone = new Zone(contours.subList(0, 140), contours.subList(140, 150));
+        Zone sameZone = new Zone(contours.subList(0, 140), contours.subList(140, 150));
+        Zone otherZone = new Zone(contours.subList(0, 139), contours.subList(139, 150));
+        assertEquals(zone, sameZone);
+        assertEquals(zone.hashCode(), sameZone.hashCode());
+        assertEquals(0, zone.compareTo(sameZone));
+        assertEquals(140, zone.getInContoursCount());
+        assertEquals(new TreeSet<>(contours), zone.getAllContours());
+        assertFalse(zone.equals(otherZone));
+        // "contour139" comes before "contour14" alphabetically.
+        assertEquals(-1, zone.compareTo(otherZone));
+        assertEquals(1, otherZone.compareTo(zone));
+        assertTrue(zone.isValid(new TreeSet<>(contours)));
+    }
 }
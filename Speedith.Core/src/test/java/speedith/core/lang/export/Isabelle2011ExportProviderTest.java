@@ -9,7 +9,11 @@ import speedith.core.reasoning.args.*;
 import speedith.core.reasoning.rules.*;
 import speedith.core.reasoning.util.unitary.TestSpiderDiagrams;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.hamcrest.Matchers.equalTo;
@@ -38,6 +42,24 @@ public class Isabelle2011ExportProviderTest {
         assertFormulaEquals("True --> True", isabelleFormula);
     }
 
+    @Test
+    public void exporting_with_shared_subdiagrams_must_bind_repeated_operands_once() throws ExportException {
+        SDExporter sharingExporter = SDExporting.getExporter(Isabelle2011ExportProvider.FormatName, Collections.singletonMap(Isabelle2011ExportProvider.Parameter_ShareSubdiagrams, "true"));
+        PrimarySpiderDiagram primary = TestSpiderDiagrams.DIAGRAM_SPEEDITH_PAPER_FIG7_2;
+        CompoundSpiderDiagram conjunction = createCompoundSD(Operator.Conjunction, primary, createNullSD());
+        String isabelleFormula = sharingExporter.export(createCompoundSD(Operator.Implication, conjunction, conjunction));
+        assertFormulaEquals("(let sd1 = " + isabelleExporter.export(primary) + " & True in sd1 --> sd1)", isabelleFormula);
+    }
+
+    @Test
+    public void exporting_all_diagrams_must_write_one_formula_per_line() throws ExportException, IOException {
+        PrimarySpiderDiagram primary = TestSpiderDiagrams.DIAGRAM_SPEEDITH_PAPER_FIG7_2;
+        CompoundSpiderDiagram implication = createCompoundSD(Operator.Implication, primary, createNullSD());
+        StringWriter output = new StringWriter();
+        isabelleExporter.exportAllTo(Arrays.asList(primary, implication, createNullSD()), output);
+        assertFormulaEquals(isabelleExporter.export(primary) + "\n" + isabelleExporter.export(implication) + "\nTrue\n", output.toString());
+    }
+
     @Test
     public void bug_exporting_speedith_paper_fig7_2_diagram() throws ExportException {
         PrimarySpiderDiagram spiderDiagram = TestSpiderDiagrams.DIAGRAM_SPEEDITH_PAPER_FIG7_2;
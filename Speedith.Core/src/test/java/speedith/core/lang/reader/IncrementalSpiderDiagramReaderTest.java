@@ -0,0 +1,89 @@
+package speedith.core.lang.reader;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class IncrementalSpiderDiagramReaderTest {
+
+    private static final String ARG1 = "PrimarySD {spiders = [\"s\"], habitats = [(\"s\", [([\"A\"], [])])], sh_zones = []}";
+    private static final String ARG2 = "PrimarySD {spiders = [], habitats = [], sh_zones = [([\"A\"], [\"B\"])]}";
+    private static final String CHANGED_ARG2 = "PrimarySD {spiders = [], habitats = [], sh_zones = [([\"B\"], [\"A\"])]}";
+
+    @Test
+    public void read_should_report_only_the_changed_operand() throws Exception {
+        IncrementalSpiderDiagramReader reader = new IncrementalSpiderDiagramReader();
+        reader.read(conjunction(ARG1, ARG2));
+
+        String text = conjunction(ARG1, CHANGED_ARG2);
+        IncrementalSpiderDiagramReader.Result result = reader.read(text);
+
+        assertTrue(result.isSuccessful());
+        assertEquals(SpiderDiagramsReader.readSpiderDiagram(text), result.getSpiderDiagram());
+        List<IncrementalSpiderDiagramReader.Span> changedSpans = result.getChangedSpans();
+        assertEquals(1, changedSpans.size());
+        assertEquals(CHANGED_ARG2, text.substring(changedSpans.get(0).getStart(), changedSpans.get(0).getEnd()));
+    }
+
+    @Test
+    public void read_should_not_parse_unchanged_text_again() {
+        IncrementalSpiderDiagramReader reader = new IncrementalSpiderDiagramReader();
+        String text = conjunction(ARG1, ARG2);
+        IncrementalSpiderDiagramReader.Result first = reader.read(text);
+
+        IncrementalSpiderDiagramReader.Result second = reader.read(text);
+
+        assertEquals(2, first.getChangedSpans().size());
+        assertTrue(second.getChangedSpans().isEmpty());
+        assertSame(first.getSpiderDiagram(), second.getSpiderDiagram());
+    }
+
+    @Test
+    public void read_should_report_habitats_of_unknown_spiders_as_errors() {
+        IncrementalSpiderDiagramReader reader = new IncrementalSpiderDiagramReader();
+
+        IncrementalSpiderDiagramReader.Result result = reader.read("PrimarySD {spiders = [\"s\"], habitats = [(\"t\", [([\"A\"], [])])], sh_zones = []}");
+
+        assertFalse(result.isSuccessful());
+        assertNotNull(result.getError());
+    }
+
+    @Test
+    public void read_should_report_errors_after_reused_operands_at_their_positions() {
+        IncrementalSpiderDiagramReader reader = new IncrementalSpiderDiagramReader();
+        reader.read(conjunction(ARG1, ARG2));
+
+        String text = "BinarySD {\n  operator = \"op &\",\n  arg1 = " + ARG1 + ",\n  arg2 = " + ARG2 + ",\n  arg3 = (\n}";
+        IncrementalSpiderDiagramReader.Result result = reader.read(text);
+
+        assertFalse(result.isSuccessful());
+        try {
+            SDTextParser.parseSpiderDiagram(text);
+            fail();
+        } catch (ReadingException expected) {
+            assertEquals(expected.getMessage(), result.getError().getMessage());
+            assertEquals(expected.getLineNumber(), result.getError().getLineNumber());
+            assertEquals(expected.getCharIndex(), result.getError().getCharIndex());
+        }
+    }
+
+    @Test
+    public void read_should_accept_the_same_diagrams_as_the_reader() throws Exception {
+        IncrementalSpiderDiagramReader reader = new IncrementalSpiderDiagramReader();
+        String[] examples = {SpiderDiagramsReaderTest.SD_EXAMPLE_18, SpiderDiagramsReaderTest.SD_EXAMPLE_ERR_3, SpiderDiagramsReaderTest.SD_EXAMPLE_18};
+        for (String example : examples) {
+            IncrementalSpiderDiagramReader.Result result = reader.read(example);
+            try {
+                assertEquals(SpiderDiagramsReader.readSpiderDiagram(example), result.getSpiderDiagram());
+            } catch (ReadingException ex) {
+                assertFalse(result.isSuccessful());
+            }
+        }
+    }
+
+    private static String conjunction(String arg1, String arg2) {
+        return "BinarySD {\n  operator = \"op &\",\n  arg1 = " + arg1 + ",\n  arg2 = " + arg2 + "\n}";
+    }
+}
@@ -0,0 +1,150 @@
+package speedith.core.lang.reader;
+
+import org.junit.Test;
+import speedith.core.lang.Region;
+import speedith.core.lang.SpiderDiagram;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Checks that the hand-written parser reads the same spider diagrams (and
+ * rejects the same inputs) as the ANTLR parser.
+ */
+public class SDTextParserTest {
+
+    private static final List<String> MALFORMED_EXAMPLES = Arrays.asList(
+            "PrimarySD { spiders = [\"s\"], habitats = [(\"s\")], sh_zones = []}",
+            "PrimarySD { spiders = [\"s\"], habitats = [(\"s\", [], [])], sh_zones = []}",
+            "PrimarySD { spiders = [[\"s\"]], habitats = [], sh_zones = []}",
+            "PrimarySD { spiders = [\"s\",], habitats = [], sh_zones = []}",
+            "PrimarySD { spiders = [], habitats = [], sh_zones = [([\"A\"])]}",
+            "PrimarySD { spiders = [], habitats = [], sh_zones = [\"A\"]}",
+            "PrimarySD { spiders = [], habitats = []}",
+            "PrimarySD { spiders = [], habitats = [], sh_zones = [], colour = \"red\"}",
+            "PrimarySD { spiders = [\"s\\x\"], habitats = [], sh_zones = []}",
+            "PrimarySD { spiders = [], habitats = [], sh_zones = [] /* unfinished",
+            "BinarySD {operator = \"op &\", arg1 = NullSD, arg3 = NullSD}",
+            "BinarySD {operator = \"op &\", arg1 = NullSD, arg2 = \"NullSD\"}",
+            "BinarySD {operator = [\"op &\"], arg1 = NullSD, arg2 = NullSD}",
+            "BinarySD {arg1 = NullSD, arg2 = NullSD}",
+            "NullSD {a = \"b\"}",
+            "NullSD } ",
+            "# PrimarySD {}");
+
+    @Test
+    public void parseSpiderDiagram_should_read_the_same_diagrams_as_antlr() throws Exception {
+        for (String example : examples("SD_EXAMPLE_")) {
+            assertSameResult(example);
+        }
+    }
+
+    @Test
+    public void parseSpiderDiagram_should_read_the_same_diagram_files_as_antlr() throws Exception {
+        File[] files = new File(SDTextParserTest.class.getResource("/speedith/core/lang/reader/").toURI()).listFiles();
+        assertNotNull(files);
+        for (File file : files) {
+            if (file.getName().endsWith(".sd")) {
+                assertSameResult(readFile(file));
+            }
+        }
+    }
+
+    @Test
+    public void parseSpiderDiagram_should_reject_the_same_inputs_as_antlr() throws Exception {
+        for (String example : MALFORMED_EXAMPLES) {
+            assertSameResult(example);
+        }
+    }
+
+    @Test
+    public void parseRegion_should_read_the_same_regions_as_antlr() throws Exception {
+        for (String example : examples("REGION_EXAMPLE_")) {
+            assertEquals(SpiderDiagramsReader.readRegionWithAntlr(example), SDTextParser.parseRegion(example));
+        }
+    }
+
+    @Test
+    public void parseSpiderDiagram_should_report_the_position_of_errors() {
+        try {
+            SDTextParser.parseSpiderDiagram("PrimarySD {\n  spiders = [],\n  habitats = [],\n  sh_zones = [(]\n}");
+            fail();
+        } catch (ReadingException ex) {
+            assertEquals(4, ex.getLineNumber());
+            assertEquals(15, ex.getCharIndex());
+        }
+    }
+
+    @Test
+    public void parseSpiderDiagram_should_report_habitats_of_unknown_spiders_at_the_diagram() {
+        try {
+            SDTextParser.parseSpiderDiagram("BinarySD {\n  operator = \"op &\",\n  arg1 = NullSD,\n  arg2 = PrimarySD {spiders = [\"s\"], habitats = [(\"t\", [([\"A\"], [])])], sh_zones = []}\n}");
+            fail();
+        } catch (ReadingException ex) {
+            assertEquals(4, ex.getLineNumber());
+            assertEquals(9, ex.getCharIndex());
+        }
+    }
+
+    private static void assertSameResult(String input) {
+        SpiderDiagram expected;
+        try {
+            expected = SpiderDiagramsReader.readSpiderDiagramWithAntlr(input);
+        } catch (ReadingException expectedException) {
+            try {
+                SDTextParser.parseSpiderDiagram(input);
+                fail("The hand-written parser accepted: " + input);
+            } catch (ReadingException ex) {
+                if (!expectedException.getMessage().startsWith(i18n("ERR_PARSE_INVALID_SYNTAX"))) {
+                    assertEquals(input, expectedException.getMessage(), ex.getMessage());
+                }
+                // Some translation errors of the ANTLR reader have no position.
+                if (expectedException.getLineNumber() >= 0) {
+                    assertEquals(input, expectedException.getLineNumber(), ex.getLineNumber());
+                    assertEquals(input, expectedException.getCharIndex(), ex.getCharIndex());
+                }
+            }
+            return;
+        }
+        try {
+            SpiderDiagram actual = SDTextParser.parseSpiderDiagram(input);
+            assertEquals(input, expected, actual);
+            assertEquals(input, expected.toString(), actual.toString());
+        } catch (ReadingException ex) {
+            throw new AssertionError("The hand-written parser rejected: " + input + " (" + ex.getMessage() + ")");
+        }
+    }
+
+    private static List<String> examples(String prefix) throws IllegalAccessException {
+        ArrayList<String> examples = new ArrayList<>();
+        for (Field field : SpiderDiagramsReaderTest.class.getFields()) {
+            if (field.getName().startsWith(prefix) && field.getType() == String.class) {
+                examples.add((String) field.get(null));
+            }
+        }
+        assertFalse(examples.isEmpty());
+        return examples;
+    }
+
+    private static String readFile(File file) throws Exception {
+        StringBuilder text = new StringBuilder();
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            char[] buffer = new char[4096];
+            int count;
+            while ((count = reader.read(buffer)) >= 0) {
+                text.append(buffer, 0, count);
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,94 @@
+package speedith.core.lang.reader;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import speedith.core.lang.PrimarySpiderDiagram;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class SpiderDiagramsBulkReaderTest {
+
+    private static final String SD_WITH_SPIDER_S = "PrimarySD { spiders = [\"s\"], habitats = [(\"s\", [([\"A\"], [])])], sh_zones = []}";
+    private File directory;
+    private ForkJoinPool pool;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("speedith").toFile();
+        write("b.sdt", SD_WITH_SPIDER_S);
+        write("a.sd", SpiderDiagramsReaderTest.SD_EXAMPLE_18);
+        write("c.sdt", SpiderDiagramsReaderTest.SD_EXAMPLE_ERR_3);
+        write("notes.txt", "Not a spider diagram.");
+        assertTrue(new File(directory, "more").mkdir());
+        write("more/d.sdt", SD_WITH_SPIDER_S);
+        pool = new ForkJoinPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+        deleteRecursively(directory);
+    }
+
+    @Test
+    public void readDirectory_should_return_results_in_the_order_of_paths() throws Exception {
+        List<SpiderDiagramsBulkReader.Result> results = SpiderDiagramsBulkReader.readDirectory(directory, false, pool);
+
+        assertEquals(3, results.size());
+        assertEquals("a.sd", results.get(0).getFile().getName());
+        assertEquals(SpiderDiagramsReader.readSpiderDiagram(SpiderDiagramsReaderTest.SD_EXAMPLE_18), results.get(0).getSpiderDiagram());
+        assertEquals("b.sdt", results.get(1).getFile().getName());
+        assertTrue(results.get(1).isSuccessful());
+        assertEquals("c.sdt", results.get(2).getFile().getName());
+        assertFalse(results.get(2).isSuccessful());
+        assertTrue(results.get(2).getError() instanceof ReadingException);
+        assertNull(results.get(2).getSpiderDiagram());
+    }
+
+    @Test
+    public void readDirectory_should_share_names_across_files() throws Exception {
+        List<SpiderDiagramsBulkReader.Result> results = SpiderDiagramsBulkReader.readDirectory(directory, true, pool);
+
+        assertEquals(4, results.size());
+        assertEquals("b.sdt", results.get(1).getFile().getName());
+        assertEquals("d.sdt", results.get(3).getFile().getName());
+        String spider1 = ((PrimarySpiderDiagram) results.get(1).getSpiderDiagram()).getSpiders().first();
+        String spider2 = ((PrimarySpiderDiagram) results.get(3).getSpiderDiagram()).getSpiders().first();
+        assertEquals("s", spider1);
+        assertSame(spider1, spider2);
+    }
+
+    @Test
+    public void readDirectory_should_report_invalid_diagrams_per_file() throws Exception {
+        write("b.sdt", "PrimarySD { spiders = [\"s\"], habitats = [(\"t\", [([\"A\"], [])])], sh_zones = []}");
+
+        List<SpiderDiagramsBulkReader.Result> results = SpiderDiagramsBulkReader.readDirectory(directory, true, pool);
+
+        assertEquals(4, results.size());
+        assertFalse(results.get(1).isSuccessful());
+        assertNotNull(results.get(1).getError());
+        assertTrue(results.get(0).isSuccessful());
+        assertTrue(results.get(3).isSuccessful());
+    }
+
+    private void write(String name, String contents) throws IOException {
+        Files.write(new File(directory, name).toPath(), contents.getBytes());
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -345,6 +345,28 @@ public class SpiderDiagramsReaderTest {
         }
     }
 
+    @Test
+    public void stream_should_read_all_diagrams_in_order() throws ReadingException, IOException {
+        String input = "// The first goal\n" + SD_EXAMPLE_1 + "\n/* a {comment} */ NullSD\n"
+                + SD_EXAMPLE_3 + SD_EXAMPLE_18 + "\n NullSD {}";
+        SpiderDiagramStream stream = SpiderDiagramsReader.stream(new StringReader(input));
+        assertEquals(SpiderDiagramsReader.readSpiderDiagram(SD_EXAMPLE_1), stream.read());
+        assertEquals(SpiderDiagrams.createNullSD(), stream.read());
+        assertEquals(SpiderDiagramsReader.readSpiderDiagram(SD_EXAMPLE_3), stream.next());
+        assertEquals(SpiderDiagramsReader.readSpiderDiagram(SD_EXAMPLE_18), stream.next());
+        assertTrue(stream.hasNext());
+        assertEquals(SpiderDiagrams.createNullSD(), stream.next());
+        assertFalse(stream.hasNext());
+        assertNull(stream.read());
+    }
+
+    @Test(expected = ReadingException.class)
+    public void stream_should_reject_an_unfinished_diagram() throws ReadingException, IOException {
+        SpiderDiagramStream stream = SpiderDiagramsReader.stream(new StringReader(SD_EXAMPLE_1 + " PrimarySD {spiders = [\"s\"]"));
+        assertNotNull(stream.read());
+        stream.read();
+    }
+
     private SpiderDiagram checkSDExample(String example, boolean isValid) throws ReadingException {
         SpiderDiagram sd = SpiderDiagramsReader.readSpiderDiagram(example);
         String str1 = sd.toString();
@@ -148,6 +148,16 @@ public class GoalsTest {
         return spiderDiagramFileStream;
     }
 
+    /**
+     * Returns the goals of the first two example spider diagrams. The second
+     * goal is an implication with equal operands, the first one is not.
+     */
+    public static Goals getExampleGoals() throws ReadingException, IOException {
+        SpiderDiagram sd1 = SpiderDiagramsReader.readSpiderDiagram(getSpiderDiagramTestFile("/speedith/core/lang/reader/SpiderDiagramExample_1.sd"));
+        SpiderDiagram sd2 = SpiderDiagramsReader.readSpiderDiagram(getSpiderDiagramTestFile("/speedith/core/lang/reader/SpiderDiagramExample_2.sd"));
+        return Goals.createGoalsFrom(sd1, sd2);
+    }
+
     /**
      * Test of createGoalsFrom method, of class Goals.
      */
@@ -0,0 +1,131 @@
+package speedith.core.reasoning;
+
+import org.junit.Before;
+import org.junit.Test;
+import speedith.core.lang.DiagramType;
+import speedith.core.reasoning.args.RuleArg;
+import speedith.core.reasoning.args.SubDiagramIndexArg;
+import speedith.core.reasoning.args.SubgoalIndexArg;
+import speedith.core.reasoning.rules.ImplicationTautology;
+import speedith.core.reasoning.tactical.SimpleInferenceTactic;
+import speedith.core.reasoning.tactical.TacticApplicationResult;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class PersistentProofTest {
+
+    private Goals initialGoals;
+    private ImplicationTautology implicationTautology;
+
+    @Before
+    public void setUp() throws Exception {
+        initialGoals = GoalsTest.getExampleGoals();
+        implicationTautology = new ImplicationTautology();
+    }
+
+    @Test
+    public void copy_should_not_change_when_the_original_is_extended() throws Exception {
+        PersistentProof original = new PersistentProof(initialGoals);
+        PersistentProof copy = new PersistentProof(original);
+
+        original.applyRule(implicationTautology, new SubDiagramIndexArg(1, 0), RuleApplicationType.INTERACTIVE, null);
+
+        assertEquals(2, original.getGoalsCount());
+        assertEquals(1, original.getLastGoals().getGoalsCount());
+        assertEquals(1, copy.getGoalsCount());
+        assertEquals(0, copy.getInferenceApplicationCount());
+        assertSame(initialGoals, copy.getLastGoals());
+        assertFalse(copy.equals(original));
+    }
+
+    @Test
+    public void undoStep_should_restore_the_parent_proof() throws Exception {
+        PersistentProof parent = new PersistentProof(initialGoals);
+        PersistentProof child = new PersistentProof(parent);
+        child.applyRule(implicationTautology, new SubDiagramIndexArg(1, 0), RuleApplicationType.INTERACTIVE, null);
+
+        assertTrue(child.undoStep());
+
+        assertEquals(parent, child);
+        assertEquals(parent.hashCode(), child.hashCode());
+        assertFalse(child.undoStep());
+    }
+
+    @Test
+    public void proof_should_agree_with_the_equivalent_proof_trace() throws Exception {
+        PersistentProof proof = new PersistentProof(initialGoals);
+        proof.applyRule(implicationTautology, new SubDiagramIndexArg(1, 0), RuleApplicationType.INTERACTIVE, null);
+
+        ProofTrace trace = new ProofTrace(proof);
+
+        assertEquals(trace.getGoals(), proof.getGoals());
+        assertEquals(trace.getInferenceApplications(), proof.getInferenceApplications());
+        assertEquals(Arrays.asList(initialGoals, proof.getLastGoals()), proof.getGoals());
+        assertSame(trace.getInferenceApplicationAt(0), proof.getInferenceApplicationAt(0));
+        assertEquals(trace.hashCode(), proof.hashCode());
+        assertEquals(proof, new PersistentProof(trace));
+        assertEquals(new ProofTrace().hashCode(), new PersistentProof(new ProofTrace()).hashCode());
+    }
+
+    @Test
+    public void createFlattenedProof_should_use_the_recorded_applications_of_tactics() throws Exception {
+        ImplicationTautologyTactic tactic = new ImplicationTautologyTactic();
+        PersistentProof proof = new PersistentProof(initialGoals);
+        proof.applyRule(tactic, new SubgoalIndexArg(0), RuleApplicationType.TACTIC, null);
+
+        Proof flattened = proof.createFlattenedProof();
+
+        assertEquals(1, tactic.applications);
+        assertEquals(1, proof.getInferenceApplicationAt(0).getSubApplications().size());
+        assertEquals(1, flattened.getInferenceApplicationCount());
+        assertSame(implicationTautology, flattened.getInferenceApplicationAt(0).getInference());
+        assertEquals(proof.getLastGoals(), flattened.getLastGoals());
+    }
+
+    /**
+     * A tactic that applies implication tautology to the second goal and
+     * counts how often it was applied.
+     */
+    private class ImplicationTautologyTactic extends SimpleInferenceTactic {
+
+        int applications;
+
+        @Override
+        public TacticApplicationResult apply(RuleArg args, Goals goals) throws RuleApplicationException {
+            applications++;
+            ProofTrace proof = new ProofTrace(goals);
+            proof.applyRule(implicationTautology, new SubDiagramIndexArg(1, 0), RuleApplicationType.TACTIC, null);
+            return new TacticApplicationResult(proof.getInferenceApplications(), proof.getLastGoals());
+        }
+
+        @Override
+        public String getDescription(Locale locale) {
+            return getInferenceName();
+        }
+
+        @Override
+        public String getPrettyName(Locale locale) {
+            return getInferenceName();
+        }
+
+        @Override
+        public Set<DiagramType> getApplicableTypes() {
+            return EnumSet.allOf(DiagramType.class);
+        }
+
+        @Override
+        public String getInferenceName() {
+            return "implication_tautology_tactic";
+        }
+
+        @Override
+        public boolean isHighLevel() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package speedith.core.reasoning;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import speedith.core.reasoning.args.SubDiagramIndexArg;
+import speedith.core.reasoning.rules.ImplicationTautology;
+
+import static org.junit.Assert.*;
+
+public class RuleApplicationCacheTest {
+
+    private Goals goals;
+    private ImplicationTautology implicationTautology;
+
+    @Before
+    public void setUp() throws Exception {
+        goals = GoalsTest.getExampleGoals();
+        implicationTautology = new ImplicationTautology();
+    }
+
+    @After
+    public void tearDown() {
+        RuleApplicationCache.install(null);
+    }
+
+    @Test
+    public void apply_should_return_the_cached_result_for_equal_applications() throws Exception {
+        RuleApplicationCache cache = new RuleApplicationCache();
+
+        RuleApplicationResult first = cache.apply(implicationTautology, new SubDiagramIndexArg(1, 0), goals);
+        RuleApplicationResult second = cache.apply(new ImplicationTautology(), new SubDiagramIndexArg(1, 0), Goals.createGoalsFrom(goals.getGoals()));
+
+        assertSame(first, second);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void apply_should_evict_the_least_recently_used_result() throws Exception {
+        RuleApplicationCache cache = new RuleApplicationCache(1);
+        Goals otherGoals = Goals.createGoalsFrom(goals.getGoalAt(1));
+
+        RuleApplicationResult first = cache.apply(implicationTautology, new SubDiagramIndexArg(1, 0), goals);
+        cache.apply(implicationTautology, new SubDiagramIndexArg(0, 0), otherGoals);
+        RuleApplicationResult again = cache.apply(implicationTautology, new SubDiagramIndexArg(1, 0), goals);
+
+        assertNotSame(first, again);
+        assertEquals(first.getGoals(), again.getGoals());
+        assertEquals(0, cache.getHits());
+        assertEquals(3, cache.getMisses());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void proofs_should_apply_rules_through_the_installed_cache() throws Exception {
+        RuleApplicationCache cache = new RuleApplicationCache();
+        assertNull(RuleApplicationCache.install(cache));
+
+        new ProofTrace(goals).applyRule(implicationTautology, new SubDiagramIndexArg(1, 0), RuleApplicationType.AUTOMATIC, null);
+        new PersistentProof(goals).applyRule(implicationTautology, new SubDiagramIndexArg(1, 0), RuleApplicationType.AUTOMATIC, null);
+        RuleApplicationCache.install(null);
+        new ProofTrace(goals).applyRule(implicationTautology, new SubDiagramIndexArg(1, 0), RuleApplicationType.AUTOMATIC, null);
+
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+}
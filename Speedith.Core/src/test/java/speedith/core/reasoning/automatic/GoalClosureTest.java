@@ -0,0 +1,52 @@
+package speedith.core.reasoning.automatic;
+
+import org.junit.Before;
+import org.junit.Test;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.SpiderDiagrams;
+import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.GoalsTest;
+import speedith.core.reasoning.ProofTrace;
+import speedith.core.reasoning.rules.DischargeNullGoal;
+import speedith.core.reasoning.rules.TrivialImplicationTautology;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+public class GoalClosureTest {
+
+    private Goals goals;
+
+    @Before
+    public void setUp() throws Exception {
+        ArrayList<SpiderDiagram> diagrams = new ArrayList<>(GoalsTest.getExampleGoals().getGoals());
+        diagrams.add(SpiderDiagrams.createNullSD());
+        goals = Goals.createGoalsFrom(diagrams);
+    }
+
+    @Test
+    public void isClosable_should_recognise_trivially_closed_goals() {
+        assertFalse(GoalClosure.isClosable(goals, 0));
+        assertTrue(GoalClosure.isClosable(goals, 1));
+        assertTrue(GoalClosure.isClosable(goals, 2));
+        assertFalse(GoalClosure.isClosable(goals, 3));
+        assertFalse(GoalClosure.isClosable(null, 0));
+    }
+
+    @Test
+    public void close_should_apply_the_closing_inference_only() throws Exception {
+        ProofTrace proof = new ProofTrace(goals);
+
+        assertFalse(GoalClosure.close(proof, 0, null));
+        assertEquals(0, proof.getInferenceApplicationCount());
+
+        assertTrue(GoalClosure.close(proof, 2, null));
+        assertTrue(proof.getInferenceApplicationAt(0).getInference() instanceof DischargeNullGoal);
+        assertEquals(2, proof.getLastGoals().getGoalsCount());
+
+        assertTrue(GoalClosure.close(proof, 1, null));
+        assertTrue(proof.getInferenceApplicationAt(1).getInference() instanceof TrivialImplicationTautology);
+        assertEquals(1, proof.getLastGoals().getGoalsCount());
+    }
+}
@@ -0,0 +1,146 @@
+package speedith.core.reasoning.binary;
+
+import org.junit.Test;
+import speedith.core.lang.*;
+import speedith.core.lang.reader.SpiderDiagramsReader;
+import speedith.core.lang.reader.SpiderDiagramsReaderTest;
+import speedith.core.reasoning.*;
+import speedith.core.reasoning.args.*;
+import speedith.core.reasoning.rules.SplitSpiders;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BinaryProofFormatTest {
+
+    private static final List<String> EXAMPLES = Arrays.asList(
+            SpiderDiagramsReaderTest.SD_EXAMPLE_1,
+            SpiderDiagramsReaderTest.SD_EXAMPLE_3,
+            SpiderDiagramsReaderTest.SD_EXAMPLE_4,
+            SpiderDiagramsReaderTest.SD_EXAMPLE_5,
+            SpiderDiagramsReaderTest.SD_EXAMPLE_9,
+            SpiderDiagramsReaderTest.SD_EXAMPLE_18);
+
+    @Test
+    public void readDiagram_should_return_the_diagrams_that_were_written() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BinaryProofWriter writer = new BinaryProofWriter(bytes)) {
+            for (String example : EXAMPLES) {
+                writer.writeDiagram(SpiderDiagramsReader.readSpiderDiagram(example));
+            }
+        }
+
+        BinaryProofReader reader = new BinaryProofReader(new ByteArrayInputStream(bytes.toByteArray()));
+        for (String example : EXAMPLES) {
+            assertEquals(SpiderDiagramsReader.readSpiderDiagram(example), reader.readDiagram());
+        }
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    public void writeDiagram_should_write_shared_sub_diagrams_once() throws Exception {
+        SpiderDiagram operand = SpiderDiagramsReader.readSpiderDiagram(SpiderDiagramsReaderTest.SD_EXAMPLE_18);
+        CompoundSpiderDiagram conjunction = SpiderDiagrams.createCompoundSD(Operator.Conjunction, operand, operand);
+
+        int singleSize = writtenSize(operand);
+        int sharedSize = writtenSize(conjunction);
+
+        assertTrue(sharedSize < 2 * singleSize);
+        assertEquals(conjunction, readSingleDiagram(conjunction));
+    }
+
+    @Test
+    public void readProof_should_return_a_proof_with_the_same_goals_and_inference_applications() throws Exception {
+        SpiderDiagram goal = SpiderDiagramsReader.readSpiderDiagram(SpiderDiagramsReaderTest.SD_EXAMPLE_1);
+        Goals initialGoals = Goals.createGoalsFrom(goal);
+        Goals nextGoals = Goals.createGoalsFrom(SpiderDiagramsReader.readSpiderDiagram(SpiderDiagramsReaderTest.SD_EXAMPLE_3));
+        RuleArg args = new MultipleRuleArgs(
+                new SpiderRegionArg(0, 1, "s", new Region(Zone.fromInContours("A", "B").withOutContours("C", "D"))),
+                new ContourArg(0, 2, "A"),
+                new SubgoalIndexArg(0));
+        InferenceApplication application = new InferenceApplication(new SplitSpiders(), args, RuleApplicationType.INTERACTIVE, "manual");
+        Proof proof = new ProofTrace(Arrays.asList(initialGoals, nextGoals), Arrays.asList(application));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ProofFiles.writeProof(proof, bytes);
+        Proof readProof = ProofFiles.readProof(new ByteArrayInputStream(bytes.toByteArray()));
+
+        assertEquals(proof.getGoals(), readProof.getGoals());
+        assertEquals(1, readProof.getInferenceApplicationCount());
+        InferenceApplication readApplication = readProof.getInferenceApplicationAt(0);
+        assertEquals(SplitSpiders.InferenceRuleName, readApplication.getInference().getProvider().getInferenceName());
+        assertEquals(RuleApplicationType.INTERACTIVE, readApplication.getType());
+        assertEquals("manual", readApplication.getTypeSpecifier());
+        List<RuleArg> readArgs = ((MultipleRuleArgs) readApplication.getRuleArguments()).getRuleArgs();
+        assertEquals("s", ((SpiderRegionArg) readArgs.get(0)).getSpider());
+        assertEquals(((SpiderRegionArg) ((MultipleRuleArgs) args).getRuleArgs().get(0)).getRegion(), ((SpiderRegionArg) readArgs.get(0)).getRegion());
+        assertEquals("A", ((ContourArg) readArgs.get(1)).getContour());
+        assertEquals(2, ((ContourArg) readArgs.get(1)).getSubDiagramIndex());
+        assertEquals(0, ((SubgoalIndexArg) readArgs.get(2)).getSubgoalIndex());
+    }
+
+    @Test
+    public void readProof_should_return_the_recorded_sub_applications() throws Exception {
+        Goals initialGoals = Goals.createGoalsFrom(SpiderDiagramsReader.readSpiderDiagram(SpiderDiagramsReaderTest.SD_EXAMPLE_1));
+        InferenceApplication subApplication = new InferenceApplication(new SplitSpiders(), new SubgoalIndexArg(0), RuleApplicationType.TACTIC, null);
+        InferenceApplication application = new InferenceApplication(new SplitSpiders(), new SubgoalIndexArg(0), RuleApplicationType.TACTIC, "tactic", Arrays.asList(subApplication, subApplication));
+        Proof proof = new ProofTrace(Arrays.asList(initialGoals, initialGoals), Arrays.asList(application));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ProofFiles.writeProof(proof, bytes);
+        Proof readProof = ProofFiles.readProof(new ByteArrayInputStream(bytes.toByteArray()));
+
+        List<InferenceApplication> readSubApplications = readProof.getInferenceApplicationAt(0).getSubApplications();
+        assertEquals(2, readSubApplications.size());
+        assertEquals(SplitSpiders.InferenceRuleName, readSubApplications.get(1).getInference().getProvider().getInferenceName());
+        assertEquals(RuleApplicationType.TACTIC, readSubApplications.get(1).getType());
+        assertNull(readSubApplications.get(1).getSubApplications());
+    }
+
+    @Test
+    public void readProof_should_read_java_serialised_proofs() throws Exception {
+        Proof proof = new ProofTrace(SpiderDiagramsReader.readSpiderDiagram(SpiderDiagramsReaderTest.SD_EXAMPLE_1));
+        ByteArrayOutputStream serialised = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectStream = new ObjectOutputStream(serialised)) {
+            objectStream.writeObject(proof);
+        }
+
+        ByteArrayOutputStream converted = new ByteArrayOutputStream();
+        ProofFiles.convert(new ByteArrayInputStream(serialised.toByteArray()), converted);
+
+        assertEquals(proof.getGoals(), ProofFiles.readProof(new ByteArrayInputStream(serialised.toByteArray())).getGoals());
+        assertEquals(proof.getGoals(), ProofFiles.readProof(new ByteArrayInputStream(converted.toByteArray())).getGoals());
+    }
+
+    @Test(expected = BinaryFormatException.class)
+    public void readProof_should_reject_streams_in_an_unknown_format() throws Exception {
+        ProofFiles.readProof(new ByteArrayInputStream("PrimarySD {}".getBytes("UTF-8")));
+    }
+
+    @Test(expected = BinaryFormatException.class)
+    public void reader_should_reject_newer_format_versions() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(BinaryFormat.MAGIC);
+        bytes.write(BinaryFormat.VERSION + 1);
+        new BinaryProofReader(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    private static int writtenSize(SpiderDiagram sd) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BinaryProofWriter writer = new BinaryProofWriter(bytes)) {
+            writer.writeDiagram(sd);
+        }
+        return bytes.size();
+    }
+
+    private static SpiderDiagram readSingleDiagram(SpiderDiagram sd) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BinaryProofWriter writer = new BinaryProofWriter(bytes)) {
+            writer.writeDiagram(sd);
+        }
+        return new BinaryProofReader(new ByteArrayInputStream(bytes.toByteArray())).readDiagram();
+    }
+}
@@ -0,0 +1,99 @@
+package speedith.core.reasoning.binary;
+
+import org.junit.Test;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.reader.ReadingException;
+import speedith.core.lang.reader.SpiderDiagramsReader;
+import speedith.core.lang.reader.SpiderDiagramsReaderTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CorpusStoreTest {
+
+    private static final List<String> EXAMPLES = Arrays.asList(
+            SpiderDiagramsReaderTest.SD_EXAMPLE_1,
+            SpiderDiagramsReaderTest.SD_EXAMPLE_3,
+            SpiderDiagramsReaderTest.SD_EXAMPLE_9,
+            SpiderDiagramsReaderTest.SD_EXAMPLE_18);
+
+    @Test
+    public void readDiagram_should_decode_entries_in_any_order() throws Exception {
+        File corpus = writeCorpus(EXAMPLES);
+        try (CorpusStore store = new CorpusStore(corpus)) {
+            assertEquals(EXAMPLES.size(), store.size());
+            for (int id = EXAMPLES.size() - 1; id >= 0; id--) {
+                assertEquals(SpiderDiagramsReader.readSpiderDiagram(EXAMPLES.get(id)), store.readDiagram(id));
+                assertEquals("example" + id, store.getName(id));
+                assertFalse(store.isProof(id));
+            }
+        } finally {
+            corpus.delete();
+        }
+    }
+
+    @Test
+    public void appendDiagram_should_keep_the_ids_of_existing_entries() throws Exception {
+        File corpus = writeCorpus(EXAMPLES.subList(0, 2));
+        try {
+            try (CorpusWriter writer = new CorpusWriter(corpus)) {
+                assertEquals(2, writer.size());
+                assertEquals(2, writer.appendDiagram("example2", read(EXAMPLES.get(2))));
+            }
+            try (CorpusStore store = new CorpusStore(corpus)) {
+                assertEquals(3, store.size());
+                assertEquals(read(EXAMPLES.get(0)), store.readDiagram(0));
+                assertEquals(read(EXAMPLES.get(2)), store.readDiagram(2));
+            }
+        } finally {
+            corpus.delete();
+        }
+    }
+
+    @Test
+    public void store_should_rebuild_a_missing_index() throws Exception {
+        File corpus = writeCorpus(EXAMPLES);
+        try {
+            try (RandomAccessFile file = new RandomAccessFile(corpus, "rw")) {
+                // Cut off the index and a part of the last entry.
+                file.setLength(file.length() - CorpusFormat.TRAILER_LENGTH - 4 - 8 * EXAMPLES.size() - 1);
+            }
+            try (CorpusStore store = new CorpusStore(corpus)) {
+                assertEquals(EXAMPLES.size() - 1, store.size());
+                assertEquals(read(EXAMPLES.get(1)), store.readDiagram(1));
+            }
+        } finally {
+            corpus.delete();
+        }
+    }
+
+    @Test(expected = BinaryFormatException.class)
+    public void readProof_should_reject_diagram_entries() throws Exception {
+        File corpus = writeCorpus(EXAMPLES);
+        try (CorpusStore store = new CorpusStore(corpus)) {
+            store.readProof(0);
+        } finally {
+            corpus.delete();
+        }
+    }
+
+    private static File writeCorpus(List<String> examples) throws IOException, ReadingException {
+        File corpus = File.createTempFile("speedith", ".sdc");
+        corpus.delete();
+        try (CorpusWriter writer = new CorpusWriter(corpus)) {
+            for (int i = 0; i < examples.size(); i++) {
+                writer.appendDiagram("example" + i, read(examples.get(i)));
+            }
+        }
+        return corpus;
+    }
+
+    private static SpiderDiagram read(String example) throws ReadingException {
+        return SpiderDiagramsReader.readSpiderDiagram(example);
+    }
+}
@@ -0,0 +1,61 @@
+package speedith.core.reasoning.rules;
+
+import org.junit.Before;
+import org.junit.Test;
+import speedith.core.lang.TransformationException;
+import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.GoalsTest;
+import speedith.core.reasoning.RuleApplicationAttempt;
+import speedith.core.reasoning.args.SubDiagramIndexArg;
+import speedith.core.reasoning.args.SubgoalIndexArg;
+
+import static org.junit.Assert.*;
+
+public class TrivialImplicationTautologyTest {
+
+    private Goals goals;
+    private TrivialImplicationTautology rule;
+
+    @Before
+    public void setUp() throws Exception {
+        goals = GoalsTest.getExampleGoals();
+        rule = new TrivialImplicationTautology();
+    }
+
+    @Test
+    public void tryApply_should_return_the_result_of_apply() throws Exception {
+        SubDiagramIndexArg args = new SubDiagramIndexArg(1, 0);
+
+        RuleApplicationAttempt attempt = rule.tryApply(args, goals);
+
+        assertTrue(rule.isApplicable(args, goals));
+        assertTrue(attempt.isSuccessful());
+        assertNull(attempt.getFailureMessage());
+        assertEquals(rule.apply(args, goals).getGoals(), attempt.getResult().getGoals());
+    }
+
+    @Test
+    public void tryApply_should_report_the_failure_of_apply() throws Exception {
+        SubDiagramIndexArg args = new SubDiagramIndexArg(0, 0);
+
+        RuleApplicationAttempt attempt = rule.tryApply(args, goals);
+
+        assertFalse(rule.isApplicable(args, goals));
+        assertFalse(attempt.isSuccessful());
+        assertNull(attempt.getResult());
+        try {
+            rule.apply(args, goals);
+            fail();
+        } catch (TransformationException expected) {
+            assertEquals(expected.getMessage(), attempt.getFailureMessage());
+        }
+    }
+
+    @Test
+    public void isApplicable_should_reject_invalid_arguments() {
+        assertFalse(rule.isApplicable(new SubDiagramIndexArg(2, 0), goals));
+        assertFalse(rule.isApplicable(new SubgoalIndexArg(1), goals));
+        assertFalse(rule.isApplicable(null, goals));
+        assertFalse(rule.tryApply(new SubDiagramIndexArg(1, 0), null).isSuccessful());
+    }
+}
@@ -26,6 +26,7 @@
  */
 package speedith;
 
+import java.io.File;
 import java.util.SortedSet;
 import java.util.Arrays;
 import java.util.Set;
@@ -49,6 +50,7 @@ import speedith.core.reasoning.args.RuleArg;
 import speedith.core.reasoning.args.SpiderArg;
 import speedith.core.reasoning.args.SpiderRegionArg;
 import speedith.core.reasoning.args.SubDiagramIndexArg;
+import speedith.core.reasoning.binary.CorpusStore;
 import propity.util.Strings;
 import speedith.ui.SpeedithMainForm;
 import static speedith.i18n.Translations.*;
@@ -95,6 +97,13 @@ public class Main {
                 // Did the user provide a spider diagram to Speedith?
                 String formula = clargs.getSpiderDiagram();
                 SpiderDiagram readSpiderDiagram = (formula == null) ? null : SpiderDiagramsReader.readSpiderDiagram(formula);
+                // Or should the spider diagram be taken from a corpus?
+                String corpus = clargs.getCorpus();
+                if (readSpiderDiagram == null && corpus != null) {
+                    try (CorpusStore store = new CorpusStore(new File(corpus))) {
+                        readSpiderDiagram = store.readDiagram(clargs.getCorpusEntry());
+                    }
+                }
                 // Did the user specify an output format?
                 String outputFormat = clargs.getOutputFormat();
                 // Now print out the formula in the specified format
@@ -170,6 +170,20 @@ public class CliOptions extends Options {
      * inference rules.
      */
     public static final String OPTION_LIR = "lir";
+    /**
+     * <p>Reads the spider diagram from a corpus file instead of the {@link
+     * CliOptions#OPTION_SD spider-diagram} option.</p>
+     * <p>The entry of the corpus is chosen with the {@link
+     * CliOptions#OPTION_CE corpus entry} option. Corpus files are written
+     * with {@link speedith.core.reasoning.binary.CorpusWriter}.</p>
+     */
+    public static final String OPTION_CORPUS = "corpus";
+    /**
+     * <p>The id of the corpus entry that contains the spider diagram.</p>
+     * <p>This option is ignored if no {@link CliOptions#OPTION_CORPUS corpus}
+     * is provided.</p>
+     */
+    public static final String OPTION_CE = "ce";
     private static final long serialVersionUID = 0xda37a6808b7a1245L;
     // </editor-fold>
     //<editor-fold defaultstate="collapsed" desc="Private Fields">
@@ -264,6 +278,38 @@ public class CliOptions extends Options {
         return getParsedOptions().getOptionValue(OPTION_SD);
     }
 
+    /**
+     * Returns the path of the corpus file provided through the {@link
+     * CliOptions#OPTION_CORPUS corpus option}.
+     * @return the path of the corpus file (or {@code null} if none was given).
+     */
+    public String getCorpus() {
+        return getParsedOptions().getOptionValue(OPTION_CORPUS);
+    }
+
+    /**
+     * Returns the id of the corpus entry (or 0 if none was given).
+     * <p>This is the value of the arguments to the {@link CliOptions#OPTION_CE
+     * corpus entry} option.</p>
+     * @return the id of the corpus entry (or 0 if none was given).
+     * @throws RuntimeException if the given id is not formatted correctly.
+     */
+    public int getCorpusEntry() {
+        String ce = getParsedOptions().getOptionValue(OPTION_CE);
+        if (ce != null) {
+            try {
+                int retVal = Integer.parseInt(ce);
+                if (retVal < 0) {
+                    throw new NumberFormatException(i18n("GERR_NEGATIVE_INTEGER"));
+                }
+                return retVal;
+            } catch (NumberFormatException nfe) {
+                throw new RuntimeException(i18n("ERR_CLI_CE_INVALID", ce), nfe);
+            }
+        }
+        return 0;
+    }
+
     /**
      * Returns the name of the inference rule to use on the given spider
      * diagram.
@@ -451,6 +497,16 @@ public class CliOptions extends Options {
         opt.setArgName(i18n("CLI_ARG_SD_VALUE_NAME"));
         addOption(opt);
 
+        // ---- Corpus file
+        opt = new Option(OPTION_CORPUS, true, i18n("CLI_ARG_DESCRIPTION_CORPUS"));
+        opt.setArgName(i18n("CLI_ARG_CORPUS_VALUE_NAME"));
+        addOption(opt);
+
+        // ---- Corpus entry
+        opt = new Option(OPTION_CE, true, i18n("CLI_ARG_DESCRIPTION_CE"));
+        opt.setArgName(i18n("CLI_ARG_CE_VALUE_NAME"));
+        addOption(opt);
+
         // ---- Inference Rule Name
         opt = new Option(OPTION_IR, true, i18n("CLI_ARG_DESCRIPTION_IR"));
         opt.setArgName(i18n("CLI_ARG_IR_VALUE_NAME"));
@@ -43,13 +43,13 @@ import speedith.core.reasoning.args.SpiderRegionArg;
 import speedith.core.reasoning.automatic.*;
 import speedith.core.reasoning.rules.*;
 import speedith.core.reasoning.args.*;
+import speedith.core.reasoning.binary.ProofFiles;
 import speedith.core.reasoning.rules.util.AutomaticUtils;
 import speedith.core.reasoning.rules.util.HeuristicUtils;
 import speedith.core.reasoning.rules.util.ReasoningUtils;
 import speedith.core.reasoning.tactical.TacticApplicationException;
 import speedith.core.reasoning.tactical.TacticProvider;
 import speedith.core.reasoning.tactical.Tactics;
-import speedith.core.reasoning.tactical.TacticApplicationResult;
 import speedith.ui.automatic.*;
 import speedith.ui.input.TextSDInputDialog;
 import speedith.ui.rules.InteractiveRuleApplication;
@@ -869,11 +869,8 @@ public class SpeedithMainForm extends javax.swing.JFrame {
           return;
         }
       }
-      try (
-              FileOutputStream fileStream = new FileOutputStream(file);
-              ObjectOutputStream objectStream = new ObjectOutputStream(fileStream)) {
-        objectStream.writeObject(proofPanel1.getProof());
-        objectStream.flush();
+      try {
+        ProofFiles.writeProof(proofPanel1.getProof(), file);
       } catch (IOException ioe) {
         JOptionPane.showMessageDialog(this, "An error occurred while accessing the file:\n" + ioe.getLocalizedMessage());
       }
@@ -885,15 +882,10 @@ public class SpeedithMainForm extends javax.swing.JFrame {
     if (returnVal == JFileChooser.APPROVE_OPTION) {
       File file = proofFileChooser.getSelectedFile();
       Proof inputProof = null;
-      try (
-        FileInputStream inputStream = new FileInputStream(file);
-        ObjectInputStream objectInputStream = new ObjectInputStream(inputStream)) {
-        inputProof = (Proof) objectInputStream.readObject();
-
+      try {
+        inputProof = ProofFiles.readProof(file);
       } catch (IOException ioe) {
         JOptionPane.showMessageDialog(this, "An error occurred while accessing the file:\n" + ioe.getLocalizedMessage());
-      }  catch (ClassNotFoundException e) {
-        e.printStackTrace();
       }
       proofPanel1.replaceCurrentProof(inputProof);
       
@@ -1235,11 +1227,9 @@ public class SpeedithMainForm extends javax.swing.JFrame {
 	  nlproof.setText("");
 	  
 	  if (proofPanel1.getInferenceApplicationAt(ruleCount).getType().getName().equals("InferenceTactic")){
-		  TacticApplicationResult t;
 			try {
-				t = (TacticApplicationResult)proofPanel1.
-						getInferenceApplicationAt(ruleCount).applyTo(g1);
-				app = t.getApplicationList();
+				// the rule applications were recorded with the tactic
+				app = proofPanel1.getInferenceApplicationAt(ruleCount).getPrimitiveApplications(g1);
 		        Iterator<InferenceApplication> it = app.iterator();
 		        while (it.hasNext()){
 		        	String appRule = it.next().getInference().toString();
@@ -1403,11 +1393,9 @@ public class SpeedithMainForm extends javax.swing.JFrame {
 		  if (i != ruleList.size() - 1)
 			  sbg2 = g2.getGoals().toArray(new SpiderDiagram[g2.getGoalsCount()]);
 		  RuleArg arg = allApps.get(i).getRuleArguments();
-		  TacticApplicationResult t;
 		  if (allApps.get(i).getType().getName().equals("InferenceTactic")){
 			  try {
-				  t = (TacticApplicationResult)allApps.get(i).applyTo(g1);
-				  app = t.getApplicationList();
+				  app = allApps.get(i).getPrimitiveApplications(g1);
 			  } catch (RuleApplicationException e) {
 				  // TODO Auto-generated catch block
 				  e.printStackTrace();
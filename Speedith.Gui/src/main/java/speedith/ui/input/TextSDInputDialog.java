@@ -26,13 +26,26 @@
  */
 package speedith.ui.input;
 
+import java.awt.Color;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.prefs.Preferences;
 import javax.swing.DefaultListModel;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.DefaultHighlighter;
+import javax.swing.text.Highlighter;
 import speedith.core.lang.SpiderDiagram;
-import speedith.core.lang.reader.SpiderDiagramsReader;
+import speedith.core.lang.reader.IncrementalSpiderDiagramReader;
 import speedith.i18n.Translations;
 import static speedith.i18n.Translations.*;
 
@@ -46,6 +59,28 @@ public class TextSDInputDialog extends javax.swing.JDialog {
     private boolean cancelled = true;
     private SpiderDiagram spiderDiagram = null;
     private DefaultListModel<String> storedSDs;
+    /**
+     * The delay (in milliseconds) after the last edit before the text is
+     * validated.
+     */
+    private static final int VALIDATION_DELAY = 300;
+    private static final Highlighter.HighlightPainter CHANGED_OPERAND_PAINTER = new DefaultHighlighter.DefaultHighlightPainter(new Color(255, 255, 204));
+    private final IncrementalSpiderDiagramReader reader = new IncrementalSpiderDiagramReader();
+    private final ExecutorService validator = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "sd-text-validator");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    private Timer validationTimer;
+    /**
+     * Incremented on every edit. Validation results of older versions of the
+     * text are discarded.
+     */
+    private int textVersion;
+    private final ArrayList<Object> changeHighlights = new ArrayList<>();
     // </editor-fold>
 
     /**
@@ -54,6 +89,7 @@ public class TextSDInputDialog extends javax.swing.JDialog {
     public TextSDInputDialog(java.awt.Frame parent, boolean modal) {
         super(parent, modal);
         initComponents();
+        initValidation();
     }
 
     /**
@@ -187,12 +223,13 @@ public class TextSDInputDialog extends javax.swing.JDialog {
 
     private void btnOkActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_btnOkActionPerformed
         String sdText = taInputText.getText();
-        try {
-            spiderDiagram = SpiderDiagramsReader.readSpiderDiagram(sdText);
+        IncrementalSpiderDiagramReader.Result result = reader.read(sdText);
+        if (result.isSuccessful()) {
+            spiderDiagram = result.getSpiderDiagram();
             cancelled = false;
             dispose();
-        } catch (Exception ex) {
-            lblErrorMessage.setText(Translations.i18n("TEXT_INPUT_DIALOG_INVALID_SD_TEXT", ex.getLocalizedMessage()));
+        } else {
+            lblErrorMessage.setText(Translations.i18n("TEXT_INPUT_DIALOG_INVALID_SD_TEXT", result.getError().getLocalizedMessage()));
         }
     }//GEN-LAST:event_btnOkActionPerformed
 
@@ -323,6 +360,96 @@ public class TextSDInputDialog extends javax.swing.JDialog {
     public SpiderDiagram getSpiderDiagram() {
         return spiderDiagram;
     }
+
+    @Override
+    public void dispose() {
+        validationTimer.stop();
+        validator.shutdownNow();
+        super.dispose();
+    }
+
+    // <editor-fold defaultstate="collapsed" desc="Validation">
+    /**
+     * Validates the text in the background while the user is typing. The
+     * text is validated once the user stops typing for {@link
+     * TextSDInputDialog#VALIDATION_DELAY} milliseconds. Only the operands that
+     * changed since the previous validation are parsed again (and
+     * highlighted).
+     */
+    private void initValidation() {
+        validationTimer = new Timer(VALIDATION_DELAY, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                validateText();
+            }
+        });
+        validationTimer.setRepeats(false);
+        taInputText.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                onTextChanged();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                onTextChanged();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+            }
+        });
+    }
+
+    private void onTextChanged() {
+        textVersion++;
+        validationTimer.restart();
+    }
+
+    private void validateText() {
+        if (validator.isShutdown()) {
+            return;
+        }
+        final String text = taInputText.getText();
+        final int version = textVersion;
+        validator.execute(new Runnable() {
+            @Override
+            public void run() {
+                final IncrementalSpiderDiagramReader.Result result = reader.read(text);
+                SwingUtilities.invokeLater(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (version == textVersion) {
+                            showValidationResult(result);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private void showValidationResult(IncrementalSpiderDiagramReader.Result result) {
+        Highlighter highlighter = taInputText.getHighlighter();
+        for (Object highlight : changeHighlights) {
+            highlighter.removeHighlight(highlight);
+        }
+        changeHighlights.clear();
+        if (result.isSuccessful()) {
+            lblErrorMessage.setText(null);
+        } else {
+            lblErrorMessage.setText(Translations.i18n("TEXT_INPUT_DIALOG_INVALID_SD_TEXT", result.getError().getLocalizedMessage()));
+        }
+        for (IncrementalSpiderDiagramReader.Span span : result.getChangedSpans()) {
+            try {
+                changeHighlights.add(highlighter.addHighlight(span.getStart(), span.getEnd(), CHANGED_OPERAND_PAINTER));
+            } catch (BadLocationException ex) {
+                // The text is the one that was validated, so this cannot happen.
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+    // </editor-fold>
+
     private static final String StoredSDsPrefKey = "stored-input-sds";
 
     public static void storeSpiderDiagrams(List<String> sds) {